@@ -0,0 +1,130 @@
+package nl.tudelft.sem.yumyumnow.benchmarks;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import nl.tudelft.sem.yumyumnow.model.Vendor;
+import nl.tudelft.sem.yumyumnow.services.VendorNameIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares searching vendors by a part of their name with the LIKE query of the vendor repository,
+ * run against an in-memory H2 table, and with the trigram index of the vendor names.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class VendorNameSearchBenchmark {
+
+    private static final String[] WORDS = {
+        "Pizza", "Bistro", "Sushi", "Burger", "Grill", "Kitchen", "Noodle", "Taco", "Curry", "Bakery",
+        "Delft", "Golden", "Little", "House", "Garden", "Corner", "Express", "Royal", "Dragon", "Bella"
+    };
+
+    @Param({"1000", "10000", "100000"})
+    private int vendorCount;
+
+    @Param({"Pizza", "en Dra", "Xyz"})
+    private String filter;
+
+    private Connection connection;
+    private PreparedStatement likeQuery;
+    private VendorNameIndex index;
+
+    /**
+     * Fills the vendor table and the index with the same random vendor names.
+     *
+     * @throws SQLException if the table could not be filled
+     */
+    @Setup(Level.Trial)
+    public void setup() throws SQLException {
+        Random random = new Random(42);
+        List<Vendor> vendors = new ArrayList<>();
+        for (long id = 0; id < this.vendorCount; id++) {
+            Vendor vendor = new Vendor().id(id);
+            vendor.setName(WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)]
+                + " " + id);
+            vendors.add(vendor);
+        }
+
+        this.connection = DriverManager.getConnection("jdbc:h2:mem:vendors" + this.vendorCount, "sa", "");
+        try (Statement statement = this.connection.createStatement()) {
+            statement.execute("CREATE TABLE vendor (id BIGINT PRIMARY KEY, name VARCHAR(255))");
+        }
+        try (PreparedStatement insert = this.connection.prepareStatement("INSERT INTO vendor VALUES (?, ?)")) {
+            for (Vendor vendor : vendors) {
+                insert.setLong(1, vendor.getId());
+                insert.setString(2, vendor.getName());
+                insert.addBatch();
+            }
+            insert.executeBatch();
+        }
+        this.likeQuery = this.connection.prepareStatement("SELECT id FROM vendor WHERE name LIKE ?");
+
+        this.index = new VendorNameIndex();
+        this.index.rebuild(vendors);
+    }
+
+    /**
+     * Drops the vendor table.
+     *
+     * @throws SQLException if the connection could not be closed
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        try (Statement statement = this.connection.createStatement()) {
+            statement.execute("DROP TABLE vendor");
+        }
+        this.connection.close();
+    }
+
+    /**
+     * Searches with the LIKE query, which scans the whole table.
+     *
+     * @return the IDs of the matching vendors
+     * @throws SQLException if the query failed
+     */
+    @Benchmark
+    public List<Long> likeQuery() throws SQLException {
+        this.likeQuery.setString(1, "%" + this.filter + "%");
+        List<Long> found = new ArrayList<>();
+        try (ResultSet results = this.likeQuery.executeQuery()) {
+            while (results.next()) {
+                found.add(results.getLong(1));
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Searches with the trigram index, including the ranking of the matches.
+     *
+     * @return the IDs of the matching vendors
+     */
+    @Benchmark
+    public List<Long> trigramIndex() {
+        return this.index.search(this.filter);
+    }
+}
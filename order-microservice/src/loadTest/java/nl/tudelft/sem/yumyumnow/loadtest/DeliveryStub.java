@@ -0,0 +1,27 @@
+package nl.tudelft.sem.yumyumnow.loadtest;
+
+import java.io.IOException;
+
+/**
+ * Stands in for the Delivery microservice. It accepts every delivery and reports the same status for every order.
+ */
+public final class DeliveryStub {
+
+    private DeliveryStub() {
+    }
+
+    /**
+     * Creates the stand-in Delivery microservice, without starting it.
+     *
+     * @param port the port to listen on, or 0 for any free port
+     * @param faults the latency and faults of the requests
+     * @param status the status reported for every order, for instance On_Transit
+     * @return the stand-in microservice
+     * @throws IOException if the port could not be bound
+     */
+    public static StubServer create(int port, FaultProfile faults, String status) throws IOException {
+        return new StubServer("delivery", port, faults)
+            .route("POST", "/delivery", (variables, body) -> StubServer.Response.text("Delivery created"))
+            .route("GET", "/delivery/order/{id}/status", (variables, body) -> StubServer.Response.text(status));
+    }
+}
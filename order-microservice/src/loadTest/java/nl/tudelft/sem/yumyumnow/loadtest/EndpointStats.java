@@ -0,0 +1,97 @@
+package nl.tudelft.sem.yumyumnow.loadtest;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The latencies and outcomes of the requests to one endpoint of the application during a load test.
+ */
+public class EndpointStats {
+
+    private static final long HIGHEST_LATENCY_MICROS = Duration.ofMinutes(10).toNanos() / 1000;
+    private static final double[] PERCENTILES = {50, 90, 95, 99, 99.9, 99.99};
+
+    private final String name;
+    private final LatencyHistogram latencies;
+    private final LongAdder successes;
+    private final LongAdder clientErrors;
+    private final LongAdder serverErrors;
+    private final LongAdder failures;
+
+    /**
+     * Creates the statistics of an endpoint without any requests.
+     *
+     * @param name the name of the endpoint in the report
+     */
+    public EndpointStats(String name) {
+        this.name = name;
+        this.latencies = new LatencyHistogram(HIGHEST_LATENCY_MICROS, 3);
+        this.successes = new LongAdder();
+        this.clientErrors = new LongAdder();
+        this.serverErrors = new LongAdder();
+        this.failures = new LongAdder();
+    }
+
+    /**
+     * Counts an answered request.
+     *
+     * @param status the HTTP status of the response
+     * @param latencyNanos how long the request took
+     */
+    public void record(int status, long latencyNanos) {
+        this.latencies.record(latencyNanos / 1000);
+        if (status >= 500) {
+            this.serverErrors.increment();
+        } else if (status >= 400) {
+            this.clientErrors.increment();
+        } else {
+            this.successes.increment();
+        }
+    }
+
+    /**
+     * Counts a request that got no response, for instance because the connection was refused or timed out.
+     *
+     * @param latencyNanos how long it took for the request to fail
+     */
+    public void recordFailure(long latencyNanos) {
+        this.latencies.record(latencyNanos / 1000);
+        this.failures.increment();
+    }
+
+    public String getName() {
+        return this.name;
+    }
+
+    public long getRequests() {
+        return this.latencies.getTotalCount();
+    }
+
+    /**
+     * Returns the statistics as the entry of the endpoint in the report, with the latencies in milliseconds.
+     *
+     * @param elapsed how long the measurement ran
+     * @return the report entry by field
+     */
+    public Map<String, Object> toReport(Duration elapsed) {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("requests", getRequests());
+        report.put("throughput", getRequests() / (elapsed.toNanos() / 1e9));
+        report.put("successes", this.successes.sum());
+        report.put("clientErrors", this.clientErrors.sum());
+        report.put("serverErrors", this.serverErrors.sum());
+        report.put("failures", this.failures.sum());
+        Map<String, Object> latency = new LinkedHashMap<>();
+        latency.put("min", this.latencies.getMin() / 1000.0);
+        latency.put("mean", this.latencies.getMean() / 1000.0);
+        for (double percentile : PERCENTILES) {
+            latency.put("p" + (percentile == Math.rint(percentile) ? String.valueOf((int) percentile)
+                : String.valueOf(percentile)), this.latencies.getValueAtPercentile(percentile) / 1000.0);
+        }
+        latency.put("max", this.latencies.getMax() / 1000.0);
+        report.put("latencyMs", latency);
+        return report;
+    }
+}
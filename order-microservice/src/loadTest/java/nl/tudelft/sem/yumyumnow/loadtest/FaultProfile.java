@@ -0,0 +1,110 @@
+package nl.tudelft.sem.yumyumnow.loadtest;
+
+import java.time.Duration;
+import java.util.Properties;
+import java.util.Random;
+
+/**
+ * How a stand-in microservice misbehaves. Every request first waits for a latency drawn from a log-normal
+ * distribution with the given median and 99th percentile. It then fails with a 503 at the error rate, or hangs for
+ * the timeout before answering 504 at the timeout rate, so that callers run into their own read timeouts.
+ */
+public class FaultProfile {
+
+    /**
+     * What happens to a request after its latency.
+     */
+    public enum Outcome {
+        OK, ERROR, TIMEOUT
+    }
+
+    private static final double Z_99 = 2.3263478740408408;
+
+    private final Duration medianLatency;
+    private final Duration p99Latency;
+    private final double errorRate;
+    private final double timeoutRate;
+    private final Duration timeout;
+    private final double sigma;
+
+    /**
+     * Creates a fault profile.
+     *
+     * @param medianLatency the median latency of a request
+     * @param p99Latency the 99th percentile of the latency, at least the median
+     * @param errorRate the fraction of requests answered with a 503
+     * @param timeoutRate the fraction of requests that hang for the timeout
+     * @param timeout how long a hanging request hangs
+     */
+    public FaultProfile(Duration medianLatency, Duration p99Latency, double errorRate, double timeoutRate,
+                        Duration timeout) {
+        if (p99Latency.compareTo(medianLatency) < 0) {
+            throw new IllegalArgumentException("The 99th percentile latency must be at least the median latency");
+        }
+        if (errorRate < 0 || timeoutRate < 0 || errorRate + timeoutRate > 1) {
+            throw new IllegalArgumentException("The error and timeout rates must be between 0 and 1 together");
+        }
+        this.medianLatency = medianLatency;
+        this.p99Latency = p99Latency;
+        this.errorRate = errorRate;
+        this.timeoutRate = timeoutRate;
+        this.timeout = timeout;
+        this.sigma = medianLatency.isZero() ? 0
+            : Math.log((double) p99Latency.toNanos() / medianLatency.toNanos()) / Z_99;
+    }
+
+    /**
+     * Reads the fault profile of a stand-in microservice from the stub.[peer].* properties.
+     *
+     * @param properties the properties, for instance the system properties
+     * @param peer the name of the microservice in the properties
+     * @return the fault profile, by default a few milliseconds of latency and no faults
+     */
+    public static FaultProfile fromProperties(Properties properties, String peer) {
+        String prefix = "stub." + peer + ".";
+        return new FaultProfile(
+            Duration.ofMillis(Long.parseLong(properties.getProperty(prefix + "latency.median-ms", "5"))),
+            Duration.ofMillis(Long.parseLong(properties.getProperty(prefix + "latency.p99-ms", "25"))),
+            Double.parseDouble(properties.getProperty(prefix + "error-rate", "0")),
+            Double.parseDouble(properties.getProperty(prefix + "timeout-rate", "0")),
+            Duration.ofMillis(Long.parseLong(properties.getProperty(prefix + "timeout-ms", "10000"))));
+    }
+
+    /**
+     * Draws the latency of a request.
+     *
+     * @param random the source of randomness
+     * @return how long the request waits before it is answered
+     */
+    public Duration sampleLatency(Random random) {
+        if (this.medianLatency.isZero()) {
+            return Duration.ZERO;
+        }
+        return Duration.ofNanos((long) (this.medianLatency.toNanos() * Math.exp(this.sigma * random.nextGaussian())));
+    }
+
+    /**
+     * Draws what happens to a request after its latency.
+     *
+     * @param random the source of randomness
+     * @return the outcome of the request
+     */
+    public Outcome sampleOutcome(Random random) {
+        double draw = random.nextDouble();
+        if (draw < this.errorRate) {
+            return Outcome.ERROR;
+        }
+        return draw < this.errorRate + this.timeoutRate ? Outcome.TIMEOUT : Outcome.OK;
+    }
+
+    public Duration getTimeout() {
+        return this.timeout;
+    }
+
+    @Override
+    public String toString() {
+        return "latency p50 " + this.medianLatency.toMillis() + " ms, p99 " + this.p99Latency.toMillis()
+            + " ms, error rate " + this.errorRate + ", timeout rate " + this.timeoutRate + " ("
+            + this.timeout.toMillis() + " ms)";
+    }
+}
@@ -0,0 +1,138 @@
+package nl.tudelft.sem.yumyumnow.loadtest;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A histogram of latencies in microseconds with the layout of an HDR histogram. The values are counted in buckets
+ * whose width doubles with every power of two, each split in the same number of sub-buckets, so that every
+ * recorded value is kept to the given number of significant decimal digits from one microsecond up to the highest
+ * trackable value, in a fixed amount of memory. Higher values are counted as the highest trackable value.
+ * Recording does not lock, so the workers of a load test can share a histogram.
+ */
+public class LatencyHistogram {
+
+    private final long highestTrackableValue;
+    private final int subBucketHalfCountMagnitude;
+    private final int subBucketHalfCount;
+    private final long subBucketMask;
+    private final int leadingZeroCountBase;
+    private final AtomicLongArray counts;
+    private final LongAdder totalCount;
+    private final LongAdder totalValue;
+    private final LongAccumulator minValue;
+    private final LongAccumulator maxValue;
+
+    /**
+     * Creates an empty histogram.
+     *
+     * @param highestTrackableValue the highest value that is told apart, in microseconds
+     * @param significantDigits the number of significant decimal digits kept of every value, from 1 to 5
+     */
+    public LatencyHistogram(long highestTrackableValue, int significantDigits) {
+        if (significantDigits < 1 || significantDigits > 5) {
+            throw new IllegalArgumentException("The number of significant digits must be between 1 and 5");
+        }
+        if (highestTrackableValue < 2) {
+            throw new IllegalArgumentException("The highest trackable value must be at least 2");
+        }
+        long largestValueWithSingleUnitResolution = 2 * (long) Math.pow(10, significantDigits);
+        int subBucketCountMagnitude = 64 - Long.numberOfLeadingZeros(largestValueWithSingleUnitResolution - 1);
+        int subBucketCount = 1 << subBucketCountMagnitude;
+
+        this.highestTrackableValue = highestTrackableValue;
+        this.subBucketHalfCountMagnitude = subBucketCountMagnitude - 1;
+        this.subBucketHalfCount = subBucketCount / 2;
+        this.subBucketMask = subBucketCount - 1;
+        this.leadingZeroCountBase = 64 - this.subBucketHalfCountMagnitude - 1;
+
+        int bucketCount = 1;
+        long smallestUntrackableValue = subBucketCount;
+        while (smallestUntrackableValue <= highestTrackableValue) {
+            smallestUntrackableValue <<= 1;
+            bucketCount++;
+        }
+        this.counts = new AtomicLongArray((bucketCount + 1) * this.subBucketHalfCount);
+        this.totalCount = new LongAdder();
+        this.totalValue = new LongAdder();
+        this.minValue = new LongAccumulator(Math::min, Long.MAX_VALUE);
+        this.maxValue = new LongAccumulator(Math::max, 0);
+    }
+
+    /**
+     * Counts a value.
+     *
+     * @param value the value in microseconds, negative values are counted as 0
+     */
+    public void record(long value) {
+        long clamped = Math.min(Math.max(value, 0), this.highestTrackableValue);
+        this.counts.incrementAndGet(countsIndex(clamped));
+        this.totalCount.increment();
+        this.totalValue.add(clamped);
+        this.minValue.accumulate(clamped);
+        this.maxValue.accumulate(clamped);
+    }
+
+    public long getTotalCount() {
+        return this.totalCount.sum();
+    }
+
+    public long getMin() {
+        return getTotalCount() == 0 ? 0 : this.minValue.get();
+    }
+
+    public long getMax() {
+        return this.maxValue.get();
+    }
+
+    /**
+     * Returns the mean of the counted values.
+     *
+     * @return the mean in microseconds, or 0 if nothing was counted
+     */
+    public double getMean() {
+        long count = getTotalCount();
+        return count == 0 ? 0 : (double) this.totalValue.sum() / count;
+    }
+
+    /**
+     * Returns the value that the given percentage of the counted values are at or below, to the precision of the
+     * histogram.
+     *
+     * @param percentile the percentage, from 0 to 100
+     * @return the highest value equivalent to the percentile in microseconds, or 0 if nothing was counted
+     */
+    public long getValueAtPercentile(double percentile) {
+        long count = getTotalCount();
+        if (count == 0) {
+            return 0;
+        }
+        long target = Math.max(1, (long) Math.ceil(Math.min(percentile, 100) / 100 * count));
+        long seen = 0;
+        for (int index = 0; index < this.counts.length(); index++) {
+            seen += this.counts.get(index);
+            if (seen >= target) {
+                return Math.min(highestEquivalentValue(index), getMax());
+            }
+        }
+        return getMax();
+    }
+
+    private int countsIndex(long value) {
+        int bucketIndex = this.leadingZeroCountBase - Long.numberOfLeadingZeros(value | this.subBucketMask);
+        int subBucketIndex = (int) (value >>> bucketIndex);
+        return ((bucketIndex + 1) << this.subBucketHalfCountMagnitude) + (subBucketIndex - this.subBucketHalfCount);
+    }
+
+    private long highestEquivalentValue(int index) {
+        int bucketIndex = (index >> this.subBucketHalfCountMagnitude) - 1;
+        int subBucketIndex = (index & (this.subBucketHalfCount - 1)) + this.subBucketHalfCount;
+        if (bucketIndex < 0) {
+            subBucketIndex -= this.subBucketHalfCount;
+            bucketIndex = 0;
+        }
+        long lowestEquivalentValue = (long) subBucketIndex << bucketIndex;
+        return lowestEquivalentValue + (1L << bucketIndex) - 1;
+    }
+}
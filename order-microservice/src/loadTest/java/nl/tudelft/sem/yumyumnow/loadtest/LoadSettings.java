@@ -0,0 +1,152 @@
+package nl.tudelft.sem.yumyumnow.loadtest;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * The settings of a load test, read from load.* properties:
+ * <ul>
+ *     <li>load.target, the address of a running order microservice; by default the application and the stand-in
+ *     microservices are started in this process</li>
+ *     <li>load.users, the number of flows running at the same time</li>
+ *     <li>load.rate, the number of flows started per second; by default 0, which runs the flows back to back</li>
+ *     <li>load.warmup-seconds and load.duration-seconds, how long to warm up and to measure</li>
+ *     <li>load.customers and load.vendors, how many customers and vendors the flows are spread over</li>
+ *     <li>load.dishes-per-vendor and load.dishes-per-order, the size of the catalogs and the orders</li>
+ *     <li>load.status-polls and load.poll-interval-ms, how often the status of a completed order is read</li>
+ *     <li>load.async-completion, whether orders are completed in the background</li>
+ *     <li>load.request-timeout-ms, how long to wait for a response</li>
+ *     <li>load.output, the file the JSON report is written to</li>
+ * </ul>
+ */
+public class LoadSettings {
+
+    private final String target;
+    private final int users;
+    private final double rate;
+    private final Duration warmup;
+    private final Duration duration;
+    private final int customers;
+    private final int vendors;
+    private final int dishesPerVendor;
+    private final int dishesPerOrder;
+    private final int statusPolls;
+    private final Duration pollInterval;
+    private final boolean asyncCompletion;
+    private final Duration requestTimeout;
+    private final String output;
+
+    private LoadSettings(Properties properties) {
+        this.target = properties.getProperty("load.target", "").trim();
+        this.users = Integer.parseInt(properties.getProperty("load.users", "16"));
+        this.rate = Double.parseDouble(properties.getProperty("load.rate", "0"));
+        this.warmup = Duration.ofSeconds(Long.parseLong(properties.getProperty("load.warmup-seconds", "10")));
+        this.duration = Duration.ofSeconds(Long.parseLong(properties.getProperty("load.duration-seconds", "60")));
+        this.customers = Integer.parseInt(properties.getProperty("load.customers", "1000"));
+        this.vendors = Integer.parseInt(properties.getProperty("load.vendors", "20"));
+        this.dishesPerVendor = Integer.parseInt(properties.getProperty("load.dishes-per-vendor", "5"));
+        this.dishesPerOrder = Integer.parseInt(properties.getProperty("load.dishes-per-order", "3"));
+        this.statusPolls = Integer.parseInt(properties.getProperty("load.status-polls", "3"));
+        this.pollInterval = Duration.ofMillis(Long.parseLong(properties.getProperty("load.poll-interval-ms", "50")));
+        this.asyncCompletion = Boolean.parseBoolean(properties.getProperty("load.async-completion", "false"));
+        this.requestTimeout = Duration.ofMillis(
+            Long.parseLong(properties.getProperty("load.request-timeout-ms", "30000")));
+        this.output = properties.getProperty("load.output", "build/reports/load/results.json");
+
+        if (this.users < 1 || this.customers < 1 || this.dishesPerVendor < 1) {
+            throw new IllegalArgumentException("load.users, load.customers and load.dishes-per-vendor must be positive");
+        }
+        if (this.vendors < 1 || this.vendors > UsersStub.LAST_VENDOR_ID - UsersStub.FIRST_VENDOR_ID + 1) {
+            throw new IllegalArgumentException("load.vendors must be between 1 and the number of stub vendors");
+        }
+    }
+
+    /**
+     * Reads the settings from the load.* properties.
+     *
+     * @param properties the properties, for instance the system properties
+     * @return the settings, with defaults for the missing properties
+     */
+    public static LoadSettings fromProperties(Properties properties) {
+        return new LoadSettings(properties);
+    }
+
+    public String getTarget() {
+        return this.target;
+    }
+
+    public int getUsers() {
+        return this.users;
+    }
+
+    public double getRate() {
+        return this.rate;
+    }
+
+    public Duration getWarmup() {
+        return this.warmup;
+    }
+
+    public Duration getDuration() {
+        return this.duration;
+    }
+
+    public int getCustomers() {
+        return this.customers;
+    }
+
+    public int getVendors() {
+        return this.vendors;
+    }
+
+    public int getDishesPerVendor() {
+        return this.dishesPerVendor;
+    }
+
+    public int getDishesPerOrder() {
+        return this.dishesPerOrder;
+    }
+
+    public int getStatusPolls() {
+        return this.statusPolls;
+    }
+
+    public Duration getPollInterval() {
+        return this.pollInterval;
+    }
+
+    public boolean isAsyncCompletion() {
+        return this.asyncCompletion;
+    }
+
+    public Duration getRequestTimeout() {
+        return this.requestTimeout;
+    }
+
+    public String getOutput() {
+        return this.output;
+    }
+
+    /**
+     * Returns the settings as the entry in the report, so that reports of different runs can be compared.
+     *
+     * @return the settings by name
+     */
+    public Map<String, Object> toReport() {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("users", this.users);
+        report.put("rate", this.rate);
+        report.put("warmupSeconds", this.warmup.toSeconds());
+        report.put("durationSeconds", this.duration.toSeconds());
+        report.put("customers", this.customers);
+        report.put("vendors", this.vendors);
+        report.put("dishesPerVendor", this.dishesPerVendor);
+        report.put("dishesPerOrder", this.dishesPerOrder);
+        report.put("statusPolls", this.statusPolls);
+        report.put("pollIntervalMs", this.pollInterval.toMillis());
+        report.put("asyncCompletion", this.asyncCompletion);
+        return report;
+    }
+}
@@ -0,0 +1,216 @@
+package nl.tudelft.sem.yumyumnow.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.File;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import nl.tudelft.sem.yumyumnow.Application;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Drives {@link OrderFlow}s against the order microservice and writes the throughput and the latency percentiles of
+ * every endpoint to a JSON report, so that the runs before and after a change can be compared. Unless load.target
+ * is set, the application is started in this process on a free port, pointed at {@link StubPeers} configured with
+ * the stub.* properties. The flows first run for the warm-up, whose requests are not reported, and then for the
+ * measurement. See {@link LoadSettings} for the settings.
+ *
+ * <p>By default every worker runs flows back to back, so a slower application is also offered less load. With
+ * load.rate set the flows are started on a fixed schedule instead, and the latency of a flow is counted from when
+ * it should have started, so that the time it waited for a free worker is not left out of the percentiles.
+ */
+public class LoadTest {
+
+    private final LoadSettings settings;
+    private final OrderFlow flow;
+
+    /**
+     * Creates a load test.
+     *
+     * @param settings the settings of the load test
+     * @param address the address of the order microservice
+     */
+    public LoadTest(LoadSettings settings, String address) {
+        this.settings = settings;
+        this.flow = new OrderFlow(HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5)).build(), address, settings);
+    }
+
+    /**
+     * Runs the flows for the duration of a phase and waits for the flows in flight to finish.
+     *
+     * @param duration how long to start flows for
+     * @return the statistics of the endpoints during the phase, by name
+     * @throws InterruptedException if the thread was interrupted
+     */
+    public ConcurrentMap<String, EndpointStats> runPhase(Duration duration) throws InterruptedException {
+        ConcurrentMap<String, EndpointStats> stats = new ConcurrentHashMap<>();
+        AtomicInteger count = new AtomicInteger();
+        ExecutorService workers = Executors.newFixedThreadPool(this.settings.getUsers(), runnable -> {
+            Thread thread = new Thread(runnable, "load-user-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        long end = System.nanoTime() + duration.toNanos();
+        try {
+            if (this.settings.getRate() > 0) {
+                startOnSchedule(workers, stats, end);
+            } else {
+                for (int user = 0; user < this.settings.getUsers(); user++) {
+                    workers.execute(() -> runUntil(stats, end));
+                }
+            }
+        } finally {
+            workers.shutdown();
+        }
+        // Every request of a flow times out, so the flows in flight finish
+        workers.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        return stats;
+    }
+
+    /**
+     * Adds the dishes of the flows to the catalogs of the vendors.
+     *
+     * @return the statistics of the setup requests
+     * @throws InterruptedException if the thread was interrupted
+     */
+    public ConcurrentMap<String, EndpointStats> setUp() throws InterruptedException {
+        ConcurrentMap<String, EndpointStats> stats = new ConcurrentHashMap<>();
+        this.flow.addDishesToVendors(stats);
+        return stats;
+    }
+
+    private void runUntil(ConcurrentMap<String, EndpointStats> stats, long end) {
+        try {
+            while (System.nanoTime() < end) {
+                this.flow.run(stats, System.nanoTime());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void startOnSchedule(ExecutorService workers, ConcurrentMap<String, EndpointStats> stats, long end)
+        throws InterruptedException {
+        long interval = (long) (1e9 / this.settings.getRate());
+        long start = System.nanoTime();
+        for (long flows = 0; ; flows++) {
+            long scheduled = start + flows * interval;
+            if (scheduled >= end) {
+                return;
+            }
+            long wait = scheduled - System.nanoTime();
+            if (wait > 0) {
+                TimeUnit.NANOSECONDS.sleep(wait);
+            }
+            workers.execute(() -> {
+                try {
+                    this.flow.run(stats, scheduled);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+    }
+
+    private static Map<String, Object> endpointsReport(Map<String, EndpointStats> stats, Duration elapsed) {
+        Map<String, Object> report = new LinkedHashMap<>();
+        new TreeMap<>(stats).forEach((name, endpoint) -> report.put(name, endpoint.toReport(elapsed)));
+        return report;
+    }
+
+    private static long[] stubCounts(StubServer stub) {
+        return new long[] {stub.getRequests(), stub.getErrors(), stub.getTimeouts()};
+    }
+
+    private static Map<String, Object> stubReport(StubServer stub, long[] before, Properties properties) {
+        long[] after = stubCounts(stub);
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("faults", FaultProfile.fromProperties(properties, stub.getName()).toString());
+        report.put("requests", after[0] - before[0]);
+        report.put("errors", after[1] - before[1]);
+        report.put("timeouts", after[2] - before[2]);
+        return report;
+    }
+
+    /**
+     * Runs the load test and writes its report.
+     *
+     * @param args unused, the load test is configured with system properties
+     * @throws Exception if the application could not be started or the report could not be written
+     */
+    public static void main(String[] args) throws Exception {
+        Properties properties = new Properties(System.getProperties());
+        LoadSettings settings = LoadSettings.fromProperties(properties);
+        StubPeers peers = null;
+        ConfigurableApplicationContext application = null;
+        String address = settings.getTarget();
+        try {
+            if (address.isEmpty()) {
+                Properties stubProperties = new Properties(properties);
+                stubProperties.setProperty("stub.users.port", properties.getProperty("stub.users.port", "0"));
+                stubProperties.setProperty("stub.delivery.port", properties.getProperty("stub.delivery.port", "0"));
+                peers = StubPeers.start(stubProperties);
+                List<String> arguments = peers.integrationProperties().entrySet().stream()
+                    .map(property -> "--" + property.getKey() + "=" + property.getValue())
+                    .collect(Collectors.toList());
+                arguments.add("--server.port=0");
+                application = new SpringApplicationBuilder(Application.class).run(arguments.toArray(new String[0]));
+                address = "http://localhost:" + application.getEnvironment().getProperty("local.server.port");
+            }
+            LoadTest loadTest = new LoadTest(settings, address);
+            Map<String, EndpointStats> setup = loadTest.setUp();
+            System.out.println("Load test against " + address + ", setup: "
+                + endpointsReport(setup, Duration.ofSeconds(1)));
+
+            loadTest.runPhase(settings.getWarmup());
+            long[] usersBefore = peers == null ? null : stubCounts(peers.getUsers());
+            long[] deliveryBefore = peers == null ? null : stubCounts(peers.getDelivery());
+            long start = System.nanoTime();
+            Map<String, EndpointStats> stats = loadTest.runPhase(settings.getDuration());
+            Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+            Map<String, Object> report = new LinkedHashMap<>();
+            report.put("timestamp", Instant.now().toString());
+            report.put("target", settings.getTarget().isEmpty() ? "in-process" : settings.getTarget());
+            report.put("settings", settings.toReport());
+            report.put("elapsedSeconds", elapsed.toNanos() / 1e9);
+            report.put("endpoints", endpointsReport(stats, elapsed));
+            if (peers != null) {
+                Map<String, Object> stubs = new LinkedHashMap<>();
+                stubs.put("users", stubReport(peers.getUsers(), usersBefore, properties));
+                stubs.put("delivery", stubReport(peers.getDelivery(), deliveryBefore, properties));
+                report.put("stubs", stubs);
+            }
+
+            File output = new File(settings.getOutput());
+            if (output.getAbsoluteFile().getParentFile() != null) {
+                output.getAbsoluteFile().getParentFile().mkdirs();
+            }
+            ObjectMapper mapper = new ObjectMapper();
+            mapper.writerWithDefaultPrettyPrinter().writeValue(output, report);
+            System.out.println(mapper.writerWithDefaultPrettyPrinter().writeValueAsString(report.get("endpoints")));
+            System.out.println("Report written to " + output.getAbsolutePath());
+        } finally {
+            if (application != null) {
+                application.close();
+            }
+            if (peers != null) {
+                peers.close();
+            }
+        }
+    }
+}
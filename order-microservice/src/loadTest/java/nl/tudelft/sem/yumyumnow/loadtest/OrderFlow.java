@@ -0,0 +1,158 @@
+package nl.tudelft.sem.yumyumnow.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The requests of a customer ordering at a vendor: create the order, add dishes, set the special requirements,
+ * complete it, poll its status and read the analytics of the vendor. Every request is recorded under the name of its
+ * endpoint, and the whole flow under "flow", as a failure if any of its requests was not answered with a 2xx.
+ * The customer and the vendor are drawn at random from the ids known to the {@link UsersStub}.
+ */
+public class OrderFlow {
+
+    private static final long DISH_ID_BASE = 900_000_000L;
+    private static final List<String> ANALYTICS = List.of("average-price", "popular-dishes", "price-percentiles",
+        "unique-customers");
+
+    private final HttpClient client;
+    private final String address;
+    private final ObjectMapper mapper;
+    private final LoadSettings settings;
+
+    /**
+     * Creates the flow against a running order microservice.
+     *
+     * @param client the client sending the requests
+     * @param address the address of the order microservice, for instance http://localhost:8082
+     * @param settings the customers, vendors and shape of the flow
+     */
+    public OrderFlow(HttpClient client, String address, LoadSettings settings) {
+        this.client = client;
+        this.address = address;
+        this.mapper = new ObjectMapper();
+        this.settings = settings;
+    }
+
+    /**
+     * Adds the dishes that the flows order to the catalog of every vendor, recorded as the "setup-dish" endpoint.
+     *
+     * @param stats the statistics of the endpoints
+     * @throws InterruptedException if the thread was interrupted
+     */
+    public void addDishesToVendors(ConcurrentMap<String, EndpointStats> stats) throws InterruptedException {
+        for (int vendor = 0; vendor < this.settings.getVendors(); vendor++) {
+            long vendorId = UsersStub.FIRST_VENDOR_ID + vendor;
+            for (int dish = 0; dish < this.settings.getDishesPerVendor(); dish++) {
+                send(stats, "setup-dish", post("/vendor/" + vendorId + "/dish/new", dishJson(vendorId, dish)));
+            }
+        }
+    }
+
+    /**
+     * Runs the flow once for a random customer and vendor.
+     *
+     * @param stats the statistics of the endpoints
+     * @param startNanos when the flow should have started, by {@link System#nanoTime()}, which is earlier than now
+     *                   when the flow had to wait for a free worker
+     * @throws InterruptedException if the thread was interrupted
+     */
+    public void run(ConcurrentMap<String, EndpointStats> stats, long startNanos) throws InterruptedException {
+        boolean succeeded = runSteps(stats);
+        EndpointStats flow = stats.computeIfAbsent("flow", EndpointStats::new);
+        if (succeeded) {
+            flow.record(200, System.nanoTime() - startNanos);
+        } else {
+            flow.recordFailure(System.nanoTime() - startNanos);
+        }
+    }
+
+    private boolean runSteps(ConcurrentMap<String, EndpointStats> stats) throws InterruptedException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long customerId = UsersStub.FIRST_CUSTOMER_ID + random.nextInt(this.settings.getCustomers());
+        long vendorId = UsersStub.FIRST_VENDOR_ID + random.nextInt(this.settings.getVendors());
+
+        HttpResponse<String> created = send(stats, "create-order",
+            post("/order/new/" + customerId + "/" + vendorId, ""));
+        if (!isSuccess(created)) {
+            return false;
+        }
+        long orderId = orderId(created.body());
+        if (orderId < 0) {
+            return false;
+        }
+        boolean succeeded = true;
+        for (int i = 0; i < this.settings.getDishesPerOrder(); i++) {
+            String dish = dishJson(vendorId, random.nextInt(this.settings.getDishesPerVendor()));
+            succeeded &= isSuccess(send(stats, "add-dish", post("/order/" + orderId + "/dish/" + customerId, dish)));
+        }
+        succeeded &= isSuccess(send(stats, "set-requirements", request("/order/" + orderId + "/requirements/"
+            + customerId).PUT(HttpRequest.BodyPublishers.ofString("No onions, please")).build()));
+        succeeded &= isSuccess(send(stats, "complete-order", post("/order/" + orderId + "/" + customerId
+            + "?async=" + this.settings.isAsyncCompletion(), "")));
+        for (int i = 0; i < this.settings.getStatusPolls(); i++) {
+            if (i > 0) {
+                Thread.sleep(this.settings.getPollInterval().toMillis());
+            }
+            succeeded &= isSuccess(send(stats, "order-status",
+                request("/order/" + orderId + "/status/" + customerId).GET().build()));
+        }
+        for (String analytics : ANALYTICS) {
+            succeeded &= isSuccess(send(stats, "analytics-" + analytics,
+                request("/analytics/vendor/" + vendorId + "/" + analytics).GET().build()));
+        }
+        return succeeded;
+    }
+
+    private HttpResponse<String> send(ConcurrentMap<String, EndpointStats> stats, String endpoint,
+                                      HttpRequest request) throws InterruptedException {
+        EndpointStats endpointStats = stats.computeIfAbsent(endpoint, EndpointStats::new);
+        long start = System.nanoTime();
+        try {
+            HttpResponse<String> response = this.client.send(request, HttpResponse.BodyHandlers.ofString());
+            endpointStats.record(response.statusCode(), System.nanoTime() - start);
+            return response;
+        } catch (IOException e) {
+            endpointStats.recordFailure(System.nanoTime() - start);
+            return null;
+        }
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create(this.address + path))
+            .timeout(this.settings.getRequestTimeout())
+            .header("Content-Type", "application/json")
+            .header("Accept", "application/json");
+    }
+
+    private HttpRequest post(String path, String body) {
+        return request(path).POST(HttpRequest.BodyPublishers.ofString(body)).build();
+    }
+
+    private long orderId(String body) {
+        try {
+            JsonNode id = this.mapper.readTree(body).path("order_id");
+            return id.canConvertToLong() ? id.asLong() : -1;
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    private static boolean isSuccess(HttpResponse<String> response) {
+        return response != null && response.statusCode() / 100 == 2;
+    }
+
+    private static String dishJson(long vendorId, int dish) {
+        return String.format(Locale.ROOT, "{\"id\":%d,\"name\":\"Dish %d of vendor %d\",\"price\":%.2f,"
+            + "\"allergens\":[]}", DISH_ID_BASE + vendorId * 100 + dish, dish, vendorId, 5 + dish * 2.5);
+    }
+}
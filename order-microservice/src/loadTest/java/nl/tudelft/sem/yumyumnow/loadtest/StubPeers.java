@@ -0,0 +1,104 @@
+package nl.tudelft.sem.yumyumnow.loadtest;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Runs the stand-in Users and Delivery microservices in this process, so that the order microservice can be load
+ * tested on its own. They are configured with stub.* properties:
+ * <ul>
+ *     <li>stub.users.port and stub.delivery.port, by default 8081 and 8080 like the real microservices, or 0 for
+ *     any free port</li>
+ *     <li>stub.[peer].latency.median-ms and stub.[peer].latency.p99-ms, the log-normal latency of a request</li>
+ *     <li>stub.[peer].error-rate, the fraction of requests answered with a 503</li>
+ *     <li>stub.[peer].timeout-rate and stub.[peer].timeout-ms, the fraction of requests that hang and for how
+ *     long</li>
+ *     <li>stub.delivery.status, the status of every order, by default On_Transit</li>
+ * </ul>
+ * The application is pointed at them with the integration.users.address and integration.delivery.address
+ * properties, see {@link #integrationProperties()}.
+ */
+public class StubPeers implements AutoCloseable {
+
+    private final StubServer users;
+    private final StubServer delivery;
+
+    private StubPeers(StubServer users, StubServer delivery) {
+        this.users = users;
+        this.delivery = delivery;
+    }
+
+    /**
+     * Starts the stand-in microservices.
+     *
+     * @param properties the stub.* properties configuring them
+     * @return the running stand-in microservices
+     * @throws IOException if a port could not be bound
+     */
+    public static StubPeers start(Properties properties) throws IOException {
+        StubServer users = UsersStub.create(Integer.parseInt(properties.getProperty("stub.users.port", "8081")),
+            FaultProfile.fromProperties(properties, "users"));
+        StubServer delivery;
+        try {
+            delivery = DeliveryStub.create(Integer.parseInt(properties.getProperty("stub.delivery.port", "8080")),
+                FaultProfile.fromProperties(properties, "delivery"),
+                properties.getProperty("stub.delivery.status", "On_Transit"));
+        } catch (IOException | RuntimeException e) {
+            users.close();
+            throw e;
+        }
+        return new StubPeers(users.start(), delivery.start());
+    }
+
+    public StubServer getUsers() {
+        return this.users;
+    }
+
+    public StubServer getDelivery() {
+        return this.delivery;
+    }
+
+    /**
+     * Returns the properties that point the integration of the application at the stand-in microservices, to pass
+     * to the application for instance as --integration.users.address=... arguments.
+     *
+     * @return the integration properties by name
+     */
+    public Map<String, String> integrationProperties() {
+        Map<String, String> properties = new LinkedHashMap<>();
+        properties.put("integration.users.address", this.users.getAddress());
+        properties.put("integration.delivery.address", this.delivery.getAddress());
+        return properties;
+    }
+
+    @Override
+    public void close() {
+        this.users.close();
+        this.delivery.close();
+    }
+
+    /**
+     * Runs the stand-in microservices until the process is stopped.
+     *
+     * @param args unused, the stand-in microservices are configured with system properties
+     * @throws Exception if they could not be started
+     */
+    public static void main(String[] args) throws Exception {
+        Properties properties = System.getProperties();
+        StubPeers peers = start(properties);
+        CountDownLatch stopped = new CountDownLatch(1);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            peers.close();
+            stopped.countDown();
+        }));
+        System.out.println("Users stub at " + peers.users.getAddress() + ", "
+            + FaultProfile.fromProperties(properties, "users"));
+        System.out.println("Delivery stub at " + peers.delivery.getAddress() + ", "
+            + FaultProfile.fromProperties(properties, "delivery"));
+        peers.integrationProperties().forEach((name, value) -> System.out.println("--" + name + "=" + value));
+        stopped.await();
+    }
+}
@@ -0,0 +1,228 @@
+package nl.tudelft.sem.yumyumnow.loadtest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * An in-process HTTP server standing in for one of the other microservices. A request is answered by the first
+ * route matching its method and path, after the latency and the fault drawn from the {@link FaultProfile}.
+ * Every request runs on its own thread, so slow and hanging requests do not hold up the others.
+ */
+public class StubServer implements AutoCloseable {
+
+    /**
+     * Answers the requests to a route.
+     */
+    @FunctionalInterface
+    public interface Handler {
+
+        /**
+         * Answers a request.
+         *
+         * @param pathVariables the values of the {name} segments of the route, in order
+         * @param body the body of the request
+         * @return the response
+         */
+        Response handle(List<String> pathVariables, byte[] body);
+    }
+
+    /**
+     * A response of a stand-in microservice.
+     */
+    public static final class Response {
+        private final int status;
+        private final String contentType;
+        private final byte[] body;
+
+        private Response(int status, String contentType, String body) {
+            this.status = status;
+            this.contentType = contentType;
+            this.body = body.getBytes(StandardCharsets.UTF_8);
+        }
+
+        public static Response json(String json) {
+            return new Response(200, "application/json", json);
+        }
+
+        public static Response text(String text) {
+            return new Response(200, "text/plain", text);
+        }
+
+        public static Response status(int status) {
+            return new Response(status, "text/plain", "");
+        }
+    }
+
+    private static final class Route {
+        private final String method;
+        private final Pattern pattern;
+        private final Handler handler;
+
+        private Route(String method, String path, Handler handler) {
+            this.method = method;
+            this.pattern = Pattern.compile("^" + path.replaceAll("\\{[^/]+}", "([^/]+)") + "$");
+            this.handler = handler;
+        }
+    }
+
+    static {
+        // The JDK server leaves Nagle's algorithm on unless told otherwise, which holds back small responses until
+        // the delayed acknowledgement of the client, adding about 40 ms to every request
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    private final String name;
+    private final FaultProfile faults;
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final List<Route> routes;
+    private final LongAdder requests;
+    private final LongAdder errors;
+    private final LongAdder timeouts;
+
+    /**
+     * Creates a stand-in microservice that is not started yet.
+     *
+     * @param name the name of the microservice
+     * @param port the port to listen on, or 0 for any free port
+     * @param faults the latency and faults of the requests
+     * @throws IOException if the port could not be bound
+     */
+    public StubServer(String name, int port, FaultProfile faults) throws IOException {
+        this.name = name;
+        this.faults = faults;
+        this.server = HttpServer.create(new InetSocketAddress("localhost", port), 512);
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "stub-" + name);
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.server.setExecutor(this.executor);
+        this.server.createContext("/", this::handle);
+        this.routes = new ArrayList<>();
+        this.requests = new LongAdder();
+        this.errors = new LongAdder();
+        this.timeouts = new LongAdder();
+    }
+
+    /**
+     * Adds a route.
+     *
+     * @param method the HTTP method of the route
+     * @param path the path of the route, in which a {name} segment matches any segment
+     * @param handler answers the requests to the route
+     * @return this server
+     */
+    public StubServer route(String method, String path, Handler handler) {
+        this.routes.add(new Route(method, path, handler));
+        return this;
+    }
+
+    /**
+     * Starts answering requests.
+     *
+     * @return this server
+     */
+    public StubServer start() {
+        this.server.start();
+        return this;
+    }
+
+    public String getName() {
+        return this.name;
+    }
+
+    public String getAddress() {
+        return "http://localhost:" + this.server.getAddress().getPort();
+    }
+
+    public long getRequests() {
+        return this.requests.sum();
+    }
+
+    public long getErrors() {
+        return this.errors.sum();
+    }
+
+    public long getTimeouts() {
+        return this.timeouts.sum();
+    }
+
+    @Override
+    public void close() {
+        this.server.stop(0);
+        this.executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            this.requests.increment();
+            byte[] body = exchange.getRequestBody().readAllBytes();
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            sleep(this.faults.sampleLatency(random));
+            switch (this.faults.sampleOutcome(random)) {
+                case ERROR:
+                    this.errors.increment();
+                    send(exchange, Response.status(503));
+                    return;
+                case TIMEOUT:
+                    this.timeouts.increment();
+                    sleep(this.faults.getTimeout());
+                    send(exchange, Response.status(504));
+                    return;
+                default:
+                    send(exchange, answer(exchange.getRequestMethod(), exchange.getRequestURI().getPath(), body));
+            }
+        }
+    }
+
+    private Response answer(String method, String path, byte[] body) {
+        for (Route route : this.routes) {
+            Matcher matcher = route.pattern.matcher(path);
+            if (route.method.equalsIgnoreCase(method) && matcher.matches()) {
+                List<String> pathVariables = new ArrayList<>();
+                for (int group = 1; group <= matcher.groupCount(); group++) {
+                    pathVariables.add(matcher.group(group));
+                }
+                return route.handler.handle(pathVariables, body);
+            }
+        }
+        return Response.status(404);
+    }
+
+    private static void send(HttpExchange exchange, Response response) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", response.contentType);
+        // An empty body is sent chunked, as the JDK server now and then drops the kept-alive connection after a
+        // response declared without a body, failing the next request on it
+        exchange.sendResponseHeaders(response.status, response.body.length);
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(response.body);
+        }
+    }
+
+    private static void sleep(Duration duration) {
+        if (duration.isZero()) {
+            return;
+        }
+        try {
+            Thread.sleep(duration.toMillis(), duration.toNanosPart() % 1_000_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package nl.tudelft.sem.yumyumnow.loadtest;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+/**
+ * Stands in for the Users microservice. The role of a user follows from its id: vendors have the ids
+ * {@value #FIRST_VENDOR_ID} to {@value #LAST_VENDOR_ID}, admins {@value #FIRST_ADMIN_ID} to {@value #LAST_ADMIN_ID}
+ * and customers {@value #FIRST_CUSTOMER_ID} and up. Other ids are unknown and answered with a 404.
+ */
+public final class UsersStub {
+
+    public static final long FIRST_VENDOR_ID = 1;
+    public static final long LAST_VENDOR_ID = 999;
+    public static final long FIRST_ADMIN_ID = 1000;
+    public static final long LAST_ADMIN_ID = 1099;
+    public static final long FIRST_CUSTOMER_ID = 10_000;
+
+    private UsersStub() {
+    }
+
+    /**
+     * Creates the stand-in Users microservice, without starting it.
+     *
+     * @param port the port to listen on, or 0 for any free port
+     * @param faults the latency and faults of the requests
+     * @return the stand-in microservice
+     * @throws IOException if the port could not be bound
+     */
+    public static StubServer create(int port, FaultProfile faults) throws IOException {
+        return new StubServer("users", port, faults)
+            .route("GET", "/user/{id}", (variables, body) -> {
+                String role = roleOf(variables.get(0));
+                return role == null ? StubServer.Response.status(404) : StubServer.Response.text(role);
+            })
+            .route("GET", "/vendor/{id}", (variables, body) -> "vendor".equals(roleOf(variables.get(0)))
+                ? StubServer.Response.json(vendor(Long.parseLong(variables.get(0))))
+                : StubServer.Response.status(404))
+            .route("GET", "/customer/location/{id}", (variables, body) -> "customer".equals(roleOf(variables.get(0)))
+                ? StubServer.Response.json(location(Long.parseLong(variables.get(0))))
+                : StubServer.Response.status(404))
+            .route("GET", "/customer/{id}", (variables, body) -> "customer".equals(roleOf(variables.get(0)))
+                ? StubServer.Response.json(customer(Long.parseLong(variables.get(0))))
+                : StubServer.Response.status(404))
+            .route("PUT", "/customer/homeAddress/{id}", (variables, body) -> "customer".equals(roleOf(variables.get(0)))
+                ? StubServer.Response.json(new String(body, StandardCharsets.UTF_8))
+                : StubServer.Response.status(404));
+    }
+
+    /**
+     * Finds the role of a user.
+     *
+     * @param id the id of the user
+     * @return "vendor", "admin" or "customer", or null if there is no user with the id
+     */
+    public static String roleOf(String id) {
+        long userId;
+        try {
+            userId = Long.parseLong(id);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        if (userId >= FIRST_VENDOR_ID && userId <= LAST_VENDOR_ID) {
+            return "vendor";
+        }
+        if (userId >= FIRST_ADMIN_ID && userId <= LAST_ADMIN_ID) {
+            return "admin";
+        }
+        return userId >= FIRST_CUSTOMER_ID ? "customer" : null;
+    }
+
+    private static String location(long id) {
+        // Spread the users over a few kilometres around Delft
+        return String.format(Locale.ROOT, "{\"id\":%d,\"latitude\":%.6f,\"longitude\":%.6f}",
+            id, 52.0 + (id % 100) / 1000.0, 4.35 + (id % 37) / 1000.0);
+    }
+
+    private static String vendor(long id) {
+        return String.format(Locale.ROOT, "{\"id\":%d,\"name\":\"Vendor\",\"surname\":\"%d\","
+            + "\"email\":\"vendor%d@example.com\","
+            + "\"restaurantName\":\"Restaurant %d\",\"location\":%s,\"deliveryRadius\":5,\"dishes\":[]}",
+            id, id, id, id, location(id));
+    }
+
+    private static String customer(long id) {
+        return String.format(Locale.ROOT, "{\"id\":%d,\"name\":\"Customer\",\"surname\":\"%d\","
+            + "\"email\":\"customer%d@example.com\",\"home_address\":%s,\"paymentMethod\":\"Visa\","
+            + "\"favouriteFoods\":[],\"favouriteRestaurants\":[],\"savedOrders\":[],\"pastOrders\":[],"
+            + "\"allergens\":[]}", id, id, id, location(id));
+    }
+}
@@ -1,5 +1,9 @@
 package nl.tudelft.sem.yumyumnow.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.NoSuchElementException;
@@ -8,23 +12,37 @@ import java.util.Optional;
 import nl.tudelft.sem.yumyumnow.api.AdminApi;
 import nl.tudelft.sem.yumyumnow.model.Customer;
 import nl.tudelft.sem.yumyumnow.model.Order;
+import nl.tudelft.sem.yumyumnow.services.AnalyticsVendorService;
 import nl.tudelft.sem.yumyumnow.services.AuthenticationService;
 import nl.tudelft.sem.yumyumnow.services.CustomerService;
 import nl.tudelft.sem.yumyumnow.services.OrderService;
 import nl.tudelft.sem.yumyumnow.services.UpdatesOrderService;
+import nl.tudelft.sem.yumyumnow.services.analytics.AggregateMismatch;
+import nl.tudelft.sem.yumyumnow.services.analytics.PriceDistribution;
 import nl.tudelft.sem.yumyumnow.services.completion.CompletionFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 public class AdminController implements AdminApi {
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int MAX_PAGE_SIZE = 1000;
+
     private final OrderService orderService;
     private final UpdatesOrderService updatesOrderService;
     private final AuthenticationService authenticationService;
     private final CompletionFactory orderCompletionService;
     private final CustomerService customerService;
+    private final ObjectMapper objectMapper;
+    private final AnalyticsVendorService analyticsVendorService;
 
     /**
      * Creates an instance of the controller with its required services.
@@ -32,16 +50,21 @@ public class AdminController implements AdminApi {
      * @param orderService           a service managing Order objects
      * @param authenticationService  a service managing authentication
      * @param orderCompletionService a service creating the handlers for an order completion
+     * @param objectMapper           the mapper used to stream orders as JSON
+     * @param analyticsVendorService a service computing the analytics of the vendors
      */
     @Autowired
     public AdminController(OrderService orderService, UpdatesOrderService updatesOrderService,
                            AuthenticationService authenticationService, CompletionFactory orderCompletionService,
-                           CustomerService customerService) {
+                           CustomerService customerService, ObjectMapper objectMapper,
+                           AnalyticsVendorService analyticsVendorService) {
         this.orderService = orderService;
         this.updatesOrderService = updatesOrderService;
         this.authenticationService = authenticationService;
         this.orderCompletionService = orderCompletionService;
         this.customerService = customerService;
+        this.objectMapper = objectMapper;
+        this.analyticsVendorService = analyticsVendorService;
     }
 
 
@@ -82,6 +105,107 @@ public class AdminController implements AdminApi {
         }
     }
 
+    /**
+     * An admin can view all orders in the system one page at a time, in ascending order of ID.
+     * The page is written as its orders are read from the database in batches, so only one batch of orders is
+     * kept in memory, and ends with the cursor to pass as {@code after} to retrieve the next page, which is null
+     * on the last page.
+     *
+     * @param adminId ID of admin viewing the orders (required)
+     * @param after   ID of the last order of the previous page (optional)
+     * @param limit   maximum number of orders in the page, by default 100 and at most 1000 (optional)
+     * @return a Response Entity streaming the page of orders, or an error code
+     */
+    @GetMapping(value = "/admin/order/page/{adminId}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> getOrderPage(
+        @PathVariable("adminId") Long adminId,
+        @RequestParam(value = "after", required = false) Long after,
+        @RequestParam(value = "limit", required = false) Integer limit) {
+        if (!this.authenticationService.isAdmin(adminId)) {
+            return new ResponseEntity<>(HttpStatus.UNAUTHORIZED);
+        }
+        if (limit != null && limit < 1) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.min(limit, MAX_PAGE_SIZE);
+        StreamingResponseBody body = outputStream -> writeOrderPage(outputStream, after, pageSize);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    /**
+     * Writes a page of orders as a JSON object containing the orders and the cursor of the next page.
+     *
+     * @param outputStream the stream of the response body
+     * @param after        ID of the last order of the previous page, or null for the first page
+     * @param pageSize     maximum number of orders in the page
+     * @throws IOException if the response could not be written
+     */
+    private void writeOrderPage(OutputStream outputStream, Long after, int pageSize) throws IOException {
+        try (JsonGenerator generator = this.objectMapper.getFactory().createGenerator(outputStream)) {
+            generator.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+            generator.writeStartObject();
+            generator.writeArrayFieldStart("orders");
+            OrderPageWriter pageWriter = new OrderPageWriter(generator, pageSize);
+            this.orderService.forEachOrderAfter(after, pageSize + 1, pageWriter);
+            generator.writeEndArray();
+            Long next = pageWriter.getNextCursor();
+            if (next == null) {
+                generator.writeNullField("next");
+            } else {
+                generator.writeNumberField("next", next);
+            }
+            generator.writeEndObject();
+        }
+    }
+
+    /**
+     * An admin can rebuild the vendor analytics from the database, after the database has been changed
+     * without going through this service.
+     *
+     * @param adminId ID of admin rebuilding the analytics (required)
+     * @return a Response Entity containing the number of vendors in the rebuilt analytics, or an error code
+     */
+    @PostMapping(value = "/admin/analytics/rebuild/{adminId}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Integer> rebuildAnalytics(@PathVariable("adminId") Long adminId) {
+        if (!this.authenticationService.isAdmin(adminId)) {
+            return new ResponseEntity<>(HttpStatus.UNAUTHORIZED);
+        }
+        return ResponseEntity.ok(this.analyticsVendorService.rebuildAggregates());
+    }
+
+    /**
+     * An admin can compare the incrementally maintained vendor analytics with the ones computed from
+     * the database.
+     *
+     * @param adminId ID of admin checking the analytics (required)
+     * @return a Response Entity containing the analytics that differ, or an error code
+     */
+    @GetMapping(value = "/admin/analytics/check/{adminId}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<AggregateMismatch>> checkAnalytics(@PathVariable("adminId") Long adminId) {
+        if (!this.authenticationService.isAdmin(adminId)) {
+            return new ResponseEntity<>(HttpStatus.UNAUTHORIZED);
+        }
+        return ResponseEntity.ok(this.analyticsVendorService.checkAggregates());
+    }
+
+    /**
+     * An admin can view the percentiles of the prices of the completed orders and of the dishes of all vendors.
+     *
+     * @param adminId ID of admin viewing the analytics (required)
+     * @return a Response Entity containing the percentiles of the order values and dish prices, or an error code
+     */
+    @GetMapping(value = "/admin/analytics/price-percentiles/{adminId}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<PriceDistribution> getPricePercentiles(@PathVariable("adminId") Long adminId) {
+        try {
+            if (!this.authenticationService.isAdmin(adminId)) {
+                return new ResponseEntity<>(HttpStatus.UNAUTHORIZED);
+            }
+            return ResponseEntity.ok(this.analyticsVendorService.getPlatformPriceDistribution());
+        } catch (Exception e) {
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
     /**
      * An admin can view any order in the system.
      *
@@ -1,8 +1,11 @@
 package nl.tudelft.sem.yumyumnow.controller;
 
+import java.time.LocalDate;
+import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Optional;
 import nl.tudelft.sem.yumyumnow.api.AnalyticsApi;
+import nl.tudelft.sem.yumyumnow.database.RatingSummary;
 import nl.tudelft.sem.yumyumnow.model.Dish;
 import nl.tudelft.sem.yumyumnow.model.Order;
 import nl.tudelft.sem.yumyumnow.model.Rating;
@@ -10,13 +13,25 @@ import nl.tudelft.sem.yumyumnow.services.AnalyticsService;
 import nl.tudelft.sem.yumyumnow.services.AnalyticsVendorService;
 import nl.tudelft.sem.yumyumnow.services.AuthenticationService;
 import nl.tudelft.sem.yumyumnow.services.OrderService;
+import nl.tudelft.sem.yumyumnow.services.analytics.DailyHistogram;
+import nl.tudelft.sem.yumyumnow.services.analytics.DishCount;
+import nl.tudelft.sem.yumyumnow.services.analytics.PriceDistribution;
+import nl.tudelft.sem.yumyumnow.services.analytics.UniqueCustomers;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 @RestController
 public class AnalyticsController implements AnalyticsApi {
+    private static final int DEFAULT_POPULAR_DISHES = 5;
+    private static final int DEFAULT_HISTOGRAM_DAYS = 30;
+    private static final int MAX_HISTOGRAM_DAYS = 366;
 
     private final OrderService orderService;
     private final AnalyticsService analyticsService;
@@ -106,6 +121,28 @@ public class AnalyticsController implements AnalyticsApi {
         }
     }
 
+    /**
+     * Gets the number of rated orders of a vendor and their average grade, computed with a single query.
+     * Optionally also gets the number of orders for every grade.
+     *
+     * @param vendorId ID of the vendor (required)
+     * @param histogram whether to include the number of orders per grade (optional, false by default)
+     * @return a Response Entity containing the rating summary, or an error code
+     */
+    @GetMapping(value = "/analytics/rating/vendor/{vendorId}/summary", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<RatingSummary> getRatingSummary(
+        @PathVariable("vendorId") Long vendorId,
+        @RequestParam(value = "histogram", required = false, defaultValue = "false") boolean histogram) {
+        if (!this.authenticationService.isVendor(vendorId)) {
+            return new ResponseEntity<>(HttpStatus.UNAUTHORIZED);
+        }
+        try {
+            return ResponseEntity.ok(analyticsVendorService.getVendorRatingSummary(vendorId, histogram));
+        } catch (Exception e) {
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
     /**
      * Gets a vendor's most popular dish.
      *
@@ -131,6 +168,32 @@ public class AnalyticsController implements AnalyticsApi {
         }
     }
 
+    /**
+     * Gets the most ordered dishes of a vendor with their estimated number of orders. The counts come from
+     * a sketch of bounded size per vendor, so at most as many dishes as the capacity of the sketch are returned.
+     *
+     * @param vendorId ID of the vendor (required)
+     * @param k maximum number of dishes, 5 by default (optional)
+     * @return a Response Entity containing the most ordered dishes, the most ordered first, or an error code
+     */
+    @GetMapping(value = "/analytics/vendor/{vendorId}/popular-dishes", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<DishCount>> getPopularDishes(
+        @PathVariable("vendorId") Long vendorId,
+        @RequestParam(value = "k", required = false) Integer k) {
+        if (!this.authenticationService.isVendor(vendorId)) {
+            return new ResponseEntity<>(HttpStatus.UNAUTHORIZED);
+        }
+        if (k != null && k < 1) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        try {
+            return ResponseEntity.ok(analyticsVendorService.getPopularDishes(vendorId,
+                k == null ? DEFAULT_POPULAR_DISHES : k));
+        } catch (Exception e) {
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
     /**
      * Gets an average of orders per day for a vendor.
      *
@@ -156,6 +219,90 @@ public class AnalyticsController implements AnalyticsApi {
         }
     }
 
+    /**
+     * Gets the estimated number of distinct customers of a vendor this week, this month and over all time.
+     * Weeks start on Monday. The estimates have a standard error of about 3%.
+     *
+     * @param vendorId ID of vendor (required)
+     * @return a Response Entity containing the numbers of distinct customers, or an error code
+     */
+    @GetMapping(value = "/analytics/vendor/{vendorId}/unique-customers", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<UniqueCustomers> getUniqueCustomers(@PathVariable("vendorId") Long vendorId) {
+        if (!authenticationService.isVendor(vendorId)) {
+            return new ResponseEntity<>(HttpStatus.UNAUTHORIZED);
+        }
+        try {
+            return ResponseEntity.ok(analyticsVendorService.getUniqueCustomers(vendorId, LocalDate.now()));
+        } catch (RuntimeException e) {
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * Gets the median and the 90th and 99th percentiles of the prices of the completed orders and of the dishes
+     * of a vendor. The percentiles are estimated within 1% and are left out when there is nothing to estimate.
+     *
+     * @param vendorId ID of vendor (required)
+     * @return a Response Entity containing the percentiles of the order values and dish prices, or an error code
+     */
+    @GetMapping(value = "/analytics/vendor/{vendorId}/price-percentiles", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<PriceDistribution> getPricePercentiles(@PathVariable("vendorId") Long vendorId) {
+        if (!authenticationService.isVendor(vendorId)) {
+            return new ResponseEntity<>(HttpStatus.UNAUTHORIZED);
+        }
+        try {
+            return ResponseEntity.ok(analyticsVendorService.getPriceDistribution(vendorId));
+        } catch (RuntimeException e) {
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * Gets the number of orders of a vendor placed in every hour of the day.
+     *
+     * @param vendorId ID of vendor (required)
+     * @return a Response Entity containing 24 counts, starting with the hour after midnight, or an error code
+     */
+    @GetMapping(value = "/analytics/vendor/{vendorId}/orders-per-hour", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<long[]> getOrdersPerHour(@PathVariable("vendorId") Long vendorId) {
+        if (!authenticationService.isVendor(vendorId)) {
+            return new ResponseEntity<>(HttpStatus.UNAUTHORIZED);
+        }
+        try {
+            return ResponseEntity.ok(analyticsVendorService.getHourlyHistogram(vendorId));
+        } catch (RuntimeException e) {
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * Gets the number of orders of a vendor on every day of a range of days.
+     *
+     * @param vendorId ID of vendor (required)
+     * @param days number of days in the range, 30 by default and at most 366 (optional)
+     * @param to last day of the range, today by default (optional)
+     * @return a Response Entity containing the first day of the range and the count of every day, or an error code
+     */
+    @GetMapping(value = "/analytics/vendor/{vendorId}/orders-per-day/histogram",
+        produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<DailyHistogram> getOrdersPerDayHistogram(
+        @PathVariable("vendorId") Long vendorId,
+        @RequestParam(value = "days", required = false) Integer days,
+        @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        if (!authenticationService.isVendor(vendorId)) {
+            return new ResponseEntity<>(HttpStatus.UNAUTHORIZED);
+        }
+        if (days != null && (days < 1 || days > MAX_HISTOGRAM_DAYS)) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        try {
+            return ResponseEntity.ok(analyticsVendorService.getDailyHistogram(vendorId,
+                to == null ? LocalDate.now() : to, days == null ? DEFAULT_HISTOGRAM_DAYS : days));
+        } catch (RuntimeException e) {
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
     @Override
     public ResponseEntity<Double> getCustomerAveragePrice(Long customerId) {
         if (this.authenticationService.isCustomer(customerId)) {
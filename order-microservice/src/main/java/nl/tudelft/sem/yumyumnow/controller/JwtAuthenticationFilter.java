@@ -0,0 +1,55 @@
+package nl.tudelft.sem.yumyumnow.controller;
+
+import java.io.IOException;
+import java.util.Optional;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import nl.tudelft.sem.yumyumnow.services.JwtService;
+import nl.tudelft.sem.yumyumnow.services.VerifiedUser;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Verifies the bearer token of a request, if it has one, and stores the verified user as a request attribute
+ * for the AuthenticationService. Requests without a token are passed on unchanged, and requests with an
+ * invalid or expired token are rejected.
+ */
+@Component
+public class JwtAuthenticationFilter extends OncePerRequestFilter {
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final JwtService jwtService;
+
+    /**
+     * Creates the filter.
+     *
+     * @param jwtService the service verifying the tokens
+     */
+    @Autowired
+    public JwtAuthenticationFilter(JwtService jwtService) {
+        this.jwtService = jwtService;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+        throws ServletException, IOException {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header == null || !header.startsWith(BEARER_PREFIX)) {
+            chain.doFilter(request, response);
+            return;
+        }
+        Optional<VerifiedUser> user = this.jwtService.verify(header.substring(BEARER_PREFIX.length()).trim());
+        if (user.isEmpty()) {
+            response.sendError(HttpStatus.UNAUTHORIZED.value());
+            return;
+        }
+        request.setAttribute(VerifiedUser.REQUEST_ATTRIBUTE, user.get());
+        chain.doFilter(request, response);
+    }
+}
@@ -6,6 +6,7 @@ import java.util.NoSuchElementException;
 import java.util.Optional;
 import javax.validation.Valid;
 import nl.tudelft.sem.yumyumnow.api.OrderApi;
+import nl.tudelft.sem.yumyumnow.database.OrderStatusView;
 import nl.tudelft.sem.yumyumnow.model.Dish;
 import nl.tudelft.sem.yumyumnow.model.Location;
 import nl.tudelft.sem.yumyumnow.model.Order;
@@ -14,8 +15,13 @@ import nl.tudelft.sem.yumyumnow.services.IntegrationService;
 import nl.tudelft.sem.yumyumnow.services.OrderService;
 import nl.tudelft.sem.yumyumnow.services.UpdatesOrderService;
 import nl.tudelft.sem.yumyumnow.services.completion.CompletionFactory;
+import nl.tudelft.sem.yumyumnow.services.completion.OrderCompletionExecutor;
 import nl.tudelft.sem.yumyumnow.services.completion.OrderCompletionHandler;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RestController;
@@ -23,27 +29,33 @@ import org.springframework.web.bind.annotation.RestController;
 @RestController
 public class OrderController implements OrderApi {
 
+    private static final int DEFAULT_PAGE_SIZE = 20;
+
     private final OrderService orderService;
     private final UpdatesOrderService updatesOrderService;
     private final AuthenticationService authenticationService;
     private final CompletionFactory orderCompletionService;
+    private final OrderCompletionExecutor orderCompletionExecutor;
 
     /**
      * Creates an instance of the controller with its required services.
      *
-     * @param orderService           a service managing Order objects
-     * @param authenticationService  a service managing authentication
-     * @param orderCompletionService a service creating the handlers for an order completion
+     * @param orderService            a service managing Order objects
+     * @param authenticationService   a service managing authentication
+     * @param orderCompletionService  a service creating the handlers for an order completion
+     * @param orderCompletionExecutor a service completing orders in the background
      */
     @Autowired
     public OrderController(OrderService orderService,
                            UpdatesOrderService updatesOrderService,
                            AuthenticationService authenticationService,
-                           CompletionFactory orderCompletionService) {
+                           CompletionFactory orderCompletionService,
+                           OrderCompletionExecutor orderCompletionExecutor) {
         this.orderService = orderService;
         this.updatesOrderService = updatesOrderService;
         this.authenticationService = authenticationService;
         this.orderCompletionService = orderCompletionService;
+        this.orderCompletionExecutor = orderCompletionExecutor;
     }
 
     /**
@@ -55,8 +67,7 @@ public class OrderController implements OrderApi {
      */
     @Override
     public ResponseEntity<Order> createOrder(Long customerId, Long vendorId) {
-        if (!this.authenticationService.isCustomer(customerId)
-                || !this.authenticationService.isVendor(vendorId)) {
+        if (!this.authenticationService.isCustomerAndVendor(customerId, vendorId)) {
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         } else {
             Order createdOrder = this.orderService.createNewOrder(customerId, vendorId);
@@ -68,15 +79,22 @@ public class OrderController implements OrderApi {
      * Get a list of all orders for a customer.
      *
      * @param customerId ID of customer viewing all the orders (required)
+     * @param page       index of the page of orders to retrieve (optional)
+     * @param size       number of orders per page (optional)
      * @return a Response Entity containing the list of orders, or error code
      */
     @Override
-    public ResponseEntity<List<Order>> getListOfOrdersForCustomers(Long customerId) {
+    public ResponseEntity<List<Order>> getListOfOrdersForCustomers(Long customerId, Integer page, Integer size) {
         if (!this.authenticationService.isCustomer(customerId)) {
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         }
+        if (!isValidPage(page, size)) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
         try {
-            List<Order> allOrders = this.orderService.getAllOrdersForCustomer(customerId);
+            List<Order> allOrders = (page == null && size == null)
+                ? this.orderService.getAllOrdersForCustomer(customerId)
+                : this.orderService.getAllOrdersForCustomer(customerId, toPageRequest(page, size));
             return ResponseEntity.ok(allOrders);
         } catch (Exception e) {
             return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
@@ -87,31 +105,66 @@ public class OrderController implements OrderApi {
      * A vendor can view all orders in the system.
      *
      * @param vendorId ID of vendor viewing all the orders (required)
+     * @param page     index of the page of orders to retrieve (optional)
+     * @param size     number of orders per page (optional)
      * @return a Response Entity containing the order created, or an error code
      */
     @Override
-    public ResponseEntity<List<Order>> getListOfOrdersForVendor(Long vendorId) {
+    public ResponseEntity<List<Order>> getListOfOrdersForVendor(Long vendorId, Integer page, Integer size) {
         if (!this.authenticationService.isVendor(vendorId)) {
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         }
+        if (!isValidPage(page, size)) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
         try {
-            List<Order> allOrders = this.orderService.getAllOrdersForVendor(vendorId);
+            List<Order> allOrders = (page == null && size == null)
+                ? this.orderService.getAllOrdersForVendor(vendorId)
+                : this.orderService.getAllOrdersForVendor(vendorId, toPageRequest(page, size));
             return ResponseEntity.ok(allOrders);
         } catch (Exception e) {
             return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
 
+    /**
+     * Checks whether the optional paging parameters of a request are valid.
+     *
+     * @param page the index of the requested page, or null
+     * @param size the size of the requested page, or null
+     * @return true if the parameters can be converted to a page request
+     */
+    private boolean isValidPage(Integer page, Integer size) {
+        return (page == null || page >= 0) && (size == null || size > 0);
+    }
+
+    /**
+     * Creates a page request sorted by order id from the optional paging parameters of a request.
+     *
+     * @param page the index of the requested page, or null for the first page
+     * @param size the size of the requested page, or null for the default page size
+     * @return the page request
+     */
+    private Pageable toPageRequest(Integer page, Integer size) {
+        return PageRequest.of(page == null ? 0 : page, size == null ? DEFAULT_PAGE_SIZE : size,
+            Sort.by("orderId"));
+    }
+
     /**
      * A customer can complete an order, that is triggering the payment process, and the order is then sent for
      * preparation and delivery.
      *
+     * If async is true, the completion runs in the background and 202 Accepted is returned with the status
+     * pending, as the outcome is not known yet; the status the completion leads to can be polled with
+     * getOrderStatus. When too many completions are waiting, the request is refused with 503 Service Unavailable.
+     *
      * @param orderId ID of the order that is completed (required)
      * @param userId  ID of user who made the order (required)
+     * @param async   whether to complete the order in the background (optional, default false)
      * @return the order status.
      */
     @Override
-    public ResponseEntity<String> completeOrder(Long orderId, Long userId) {
+    public ResponseEntity<String> completeOrder(Long orderId, Long userId, Boolean async) {
         if (!this.authenticationService.isCustomer(userId)) {
             return new ResponseEntity<>(HttpStatus.UNAUTHORIZED);
         }
@@ -120,6 +173,13 @@ public class OrderController implements OrderApi {
                 return new ResponseEntity<>(HttpStatus.NOT_FOUND);
             }
             Order order = this.orderService.getOrderById(orderId);
+            if (Boolean.TRUE.equals(async)) {
+                if (!this.orderCompletionExecutor.submit(order)) {
+                    return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                        .header(HttpHeaders.RETRY_AFTER, "1").build();
+                }
+                return ResponseEntity.status(HttpStatus.ACCEPTED).body(Order.StatusEnum.PENDING.getValue());
+            }
             IntegrationService integration = this.authenticationService.getIntegrationService();
             OrderCompletionHandler firstHandler = this.orderCompletionService
                 .createCompletionResponsibilityChain(integration);
@@ -334,20 +394,20 @@ public class OrderController implements OrderApi {
     @Override
     public ResponseEntity<String> getOrderStatus(Long orderId, Long userId) {
         try {
-            if (authenticationService.isCustomer(userId) && orderService.isUserAssociatedWithOrder(orderId, userId)) {
-                Order order = orderService.getOrderById(orderId);
-
-                if (order.getStatus() != null) {
-                    String status = order.getStatus().getValue();
-                    return ResponseEntity.ok(status);
-                }
-
-                return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
-            } else {
+            if (!authenticationService.isCustomer(userId)) {
                 return new ResponseEntity<>(HttpStatus.UNAUTHORIZED);
             }
-        } catch (NoSuchElementException e) {
-            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+            Optional<OrderStatusView> view = orderService.getOrderStatusView(orderId);
+            if (view.isEmpty()) {
+                return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+            }
+            if (!view.get().isAssociatedWith(userId)) {
+                return new ResponseEntity<>(HttpStatus.UNAUTHORIZED);
+            }
+            if (view.get().getStatus() == null) {
+                return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+            }
+            return ResponseEntity.ok(view.get().getStatus().getValue());
         } catch (Exception e) {
             return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
         }
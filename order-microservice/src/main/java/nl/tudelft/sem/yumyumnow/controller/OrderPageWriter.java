@@ -0,0 +1,63 @@
+package nl.tudelft.sem.yumyumnow.controller;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+import nl.tudelft.sem.yumyumnow.model.Order;
+
+/**
+ * Writes a page of orders as the elements of a JSON array, as they are read from the database.
+ * It expects to receive one order more than the page size, so it can tell whether a next page exists.
+ */
+class OrderPageWriter implements Consumer<Order> {
+
+    private final JsonGenerator generator;
+    private final int pageSize;
+    private int written;
+    private Long lastOrderId;
+    private boolean hasNext;
+
+    /**
+     * Creates a writer for a single page of orders.
+     *
+     * @param generator the JSON generator, positioned inside the array of orders
+     * @param pageSize  the maximum number of orders to write
+     */
+    OrderPageWriter(JsonGenerator generator, int pageSize) {
+        this.generator = generator;
+        this.pageSize = pageSize;
+        this.written = 0;
+        this.lastOrderId = null;
+        this.hasNext = false;
+    }
+
+    /**
+     * Writes an order to the page, or marks that a next page exists if the page is already full.
+     *
+     * @param order the next order in ascending order of id
+     */
+    @Override
+    public void accept(Order order) {
+        if (this.written >= this.pageSize) {
+            this.hasNext = true;
+            return;
+        }
+        try {
+            this.generator.writeObject(order);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        this.written++;
+        this.lastOrderId = order.getOrderId();
+    }
+
+    /**
+     * Returns the cursor that retrieves the page after this one.
+     *
+     * @return the id of the last order written, or null if this is the last page
+     */
+    Long getNextCursor() {
+        return this.hasNext ? this.lastOrderId : null;
+    }
+}
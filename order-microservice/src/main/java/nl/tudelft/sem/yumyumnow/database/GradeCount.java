@@ -0,0 +1,15 @@
+package nl.tudelft.sem.yumyumnow.database;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * The number of rated orders of a vendor that received a grade.
+ */
+@Getter
+@AllArgsConstructor
+public class GradeCount {
+
+    private final Long grade;
+    private final Long count;
+}
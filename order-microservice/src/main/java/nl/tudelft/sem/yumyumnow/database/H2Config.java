@@ -1,5 +1,8 @@
 package nl.tudelft.sem.yumyumnow.database;
 
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
 import javax.sql.DataSource;
 import lombok.Getter;
 import org.springframework.context.annotation.Bean;
@@ -7,7 +10,6 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.PropertySource;
 import org.springframework.core.env.Environment;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
-import org.springframework.jdbc.datasource.DriverManagerDataSource;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
 
 
@@ -30,18 +32,29 @@ public class H2Config {
     }
 
     /**
-     * Configures the DB connection.
+     * Configures the DB connection pool. The pool size and timeouts are read from the jdbc.pool.* properties,
+     * and the pool publishes its active, idle and pending connections, the time spent waiting for a
+     * connection and the number of timeouts as hikaricp.* metrics.
      *
+     * @param meterRegistry the registry to which the pool metrics are published
      * @return The data source.
      */
-    @Bean
-    public DataSource dataSource() {
-        DriverManagerDataSource dataSource = new DriverManagerDataSource();
-        dataSource.setDriverClassName(environment.getProperty("jdbc.driverClassName"));
-        dataSource.setUrl(environment.getProperty("jdbc.url"));
-        dataSource.setUsername(environment.getProperty("jdbc.user"));
-        dataSource.setPassword(environment.getProperty("jdbc.pass"));
-
-        return dataSource;
+    @Bean(destroyMethod = "close")
+    public DataSource dataSource(MeterRegistry meterRegistry) {
+        HikariConfig config = new HikariConfig();
+        config.setDriverClassName(environment.getProperty("jdbc.driverClassName"));
+        config.setJdbcUrl(environment.getProperty("jdbc.url"));
+        config.setUsername(environment.getProperty("jdbc.user"));
+        config.setPassword(environment.getProperty("jdbc.pass"));
+
+        config.setPoolName(environment.getProperty("jdbc.pool.name", "order-pool"));
+        config.setMaximumPoolSize(environment.getProperty("jdbc.pool.maximumPoolSize", Integer.class, 10));
+        config.setMinimumIdle(environment.getProperty("jdbc.pool.minimumIdle", Integer.class, 2));
+        config.setConnectionTimeout(environment.getProperty("jdbc.pool.connectionTimeout", Long.class, 3000L));
+        config.setIdleTimeout(environment.getProperty("jdbc.pool.idleTimeout", Long.class, 600000L));
+        config.setMaxLifetime(environment.getProperty("jdbc.pool.maxLifetime", Long.class, 1800000L));
+        config.setMetricRegistry(meterRegistry);
+
+        return new HikariDataSource(config);
     }
-}
\ No newline at end of file
+}
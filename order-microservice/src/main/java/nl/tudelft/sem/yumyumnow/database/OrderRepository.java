@@ -1,9 +1,160 @@
 package nl.tudelft.sem.yumyumnow.database;
 
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import javax.persistence.QueryHint;
 import nl.tudelft.sem.yumyumnow.model.Order;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
+
+    /**
+     * Retrieves all orders made by a customer, using the index on the customer_id column.
+     *
+     * @param customerId the id of the customer
+     * @return the orders of the customer
+     */
+    List<Order> findAllByCustomerId(Long customerId);
+
+    /**
+     * Counts the orders of a customer and averages their prices in a single query, using the index on the
+     * customer_id column, without loading the orders.
+     *
+     * @param customerId the id of the customer
+     * @return the number of orders, the number of orders with a price and the average of those prices
+     */
+    @Query("SELECT new nl.tudelft.sem.yumyumnow.database.PriceSummary(COUNT(o), COUNT(o.price), AVG(o.price)) "
+        + "FROM Order o WHERE o.customerId = :customerId")
+    PriceSummary summarizePricesByCustomerId(@Param("customerId") Long customerId);
+
+    /**
+     * Retrieves one page of the orders made by a customer, using the index on the customer_id column.
+     *
+     * @param customerId the id of the customer
+     * @param pageable the page to retrieve
+     * @return the requested slice of the orders of the customer
+     */
+    Slice<Order> findAllByCustomerId(Long customerId, Pageable pageable);
+
+    /**
+     * Retrieves all orders placed at a vendor, using the index on the vendor_id column.
+     *
+     * @param vendorId the id of the vendor
+     * @return the orders of the vendor
+     */
+    List<Order> findAllByVendorId(Long vendorId);
+
+    /**
+     * Retrieves one page of the orders placed at a vendor, using the index on the vendor_id column.
+     *
+     * @param vendorId the id of the vendor
+     * @param pageable the page to retrieve
+     * @return the requested slice of the orders of the vendor
+     */
+    Slice<Order> findAllByVendorId(Long vendorId, Pageable pageable);
+
+    /**
+     * Retrieves an order only if it was placed at the given vendor.
+     *
+     * @param orderId the id of the order
+     * @param vendorId the id of the vendor
+     * @return the order, or an empty optional if it does not exist or belongs to another vendor
+     */
+    Optional<Order> findByOrderIdAndVendorId(Long orderId, Long vendorId);
+
+    /**
+     * Retrieves the rating ids of all orders of a vendor, without loading the orders themselves.
+     *
+     * @param vendorId the id of the vendor
+     * @return the rating ids of the vendor's orders
+     */
+    @Query("SELECT o.ratingId FROM Order o WHERE o.vendorId = :vendorId")
+    List<Long> findRatingIdsByVendorId(@Param("vendorId") Long vendorId);
+
+    /**
+     * Counts the rated orders of a vendor and averages their grades in a single query, joining the orders
+     * with their ratings. Orders that are not rated have the rating id -1 and are skipped.
+     *
+     * @param vendorId the id of the vendor
+     * @return the number of rated orders and their average grade, which is null if there are none
+     */
+    @Query("SELECT new nl.tudelft.sem.yumyumnow.database.RatingSummary(COUNT(r.grade), AVG(r.grade)) "
+        + "FROM Order o, Rating r WHERE o.vendorId = :vendorId AND o.ratingId >= 0 AND o.ratingId = r.id")
+    RatingSummary summarizeRatingsByVendorId(@Param("vendorId") Long vendorId);
+
+    /**
+     * Counts the rated orders of a vendor per grade in a single query, in ascending order of grade.
+     * Orders that are not rated have the rating id -1 and are skipped.
+     *
+     * @param vendorId the id of the vendor
+     * @return the number of orders for every grade given at least once
+     */
+    @Query("SELECT new nl.tudelft.sem.yumyumnow.database.GradeCount(r.grade, COUNT(r.grade)) "
+        + "FROM Order o, Rating r WHERE o.vendorId = :vendorId AND o.ratingId >= 0 AND o.ratingId = r.id "
+        + "AND r.grade IS NOT NULL GROUP BY r.grade ORDER BY r.grade")
+    List<GradeCount> countGradesByVendorId(@Param("vendorId") Long vendorId);
+
+    /**
+     * Retrieves the ids of the orders that come after the given order id, in ascending order, without loading
+     * the orders themselves.
+     *
+     * @param orderId the order id after which to start, exclusive
+     * @param pageable the number of ids to retrieve
+     * @return the ids of the orders, sorted
+     */
+    @Query("SELECT o.orderId FROM Order o WHERE o.orderId > :orderId ORDER BY o.orderId")
+    List<Long> findOrderIdsAfter(@Param("orderId") Long orderId, Pageable pageable);
+
+    /**
+     * Retrieves the orders with the given ids together with their dishes in a single query, in ascending order of id.
+     * The orders are read-only.
+     *
+     * @param orderIds the ids of the orders
+     * @return the orders sorted by id
+     */
+    @QueryHints(@QueryHint(name = "org.hibernate.readOnly", value = "true"))
+    @Query("SELECT DISTINCT o FROM Order o LEFT JOIN FETCH o.dishes WHERE o.orderId IN :orderIds ORDER BY o.orderId")
+    List<Order> findWithDishesByOrderIdIn(@Param("orderIds") Collection<Long> orderIds);
+
+    /**
+     * Retrieves the times of all orders of a vendor that have one, without loading the orders themselves.
+     *
+     * @param vendorId the id of the vendor
+     * @return the times of the vendor's orders
+     */
+    @Query("SELECT o.time FROM Order o WHERE o.vendorId = :vendorId AND o.time IS NOT NULL")
+    List<OffsetDateTime> findTimesByVendorId(@Param("vendorId") Long vendorId);
+
+    /**
+     * Retrieves only the status and the owners of an order, without loading its dishes and location.
+     *
+     * @param orderId the id of the order
+     * @return the status view of the order, or an empty optional if it does not exist
+     */
+    @Query("SELECT new nl.tudelft.sem.yumyumnow.database.OrderStatusView(o.status, o.customerId, o.vendorId) "
+        + "FROM Order o WHERE o.orderId = :orderId")
+    Optional<OrderStatusView> findStatusViewByOrderId(@Param("orderId") Long orderId);
+
+    /**
+     * Changes the status of an order with a single update statement, without loading the order.
+     *
+     * @param orderId the id of the order
+     * @param status the new status of the order
+     * @return the number of orders updated, 0 if the order does not exist
+     */
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Order o SET o.status = :status WHERE o.orderId = :orderId")
+    int updateStatusByOrderId(@Param("orderId") Long orderId, @Param("status") Order.StatusEnum status);
 }
@@ -0,0 +1,28 @@
+package nl.tudelft.sem.yumyumnow.database;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import nl.tudelft.sem.yumyumnow.model.Order;
+
+/**
+ * The status of an order together with the ids of its customer and vendor, read without loading the rest
+ * of the order.
+ */
+@Getter
+@AllArgsConstructor
+public class OrderStatusView {
+
+    private final Order.StatusEnum status;
+    private final Long customerId;
+    private final Long vendorId;
+
+    /**
+     * Checks whether a user is the customer or the vendor of the order.
+     *
+     * @param userId the id of the user
+     * @return true if the user is the customer or the vendor of the order
+     */
+    public boolean isAssociatedWith(Long userId) {
+        return userId != null && (userId.equals(this.customerId) || userId.equals(this.vendorId));
+    }
+}
@@ -0,0 +1,17 @@
+package nl.tudelft.sem.yumyumnow.database;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * The number of orders of a customer, how many of them have a price, and their average price, computed by the
+ * database in a single query.
+ */
+@Getter
+@AllArgsConstructor
+public class PriceSummary {
+
+    private final Long orders;
+    private final Long pricedOrders;
+    private final Double average;
+}
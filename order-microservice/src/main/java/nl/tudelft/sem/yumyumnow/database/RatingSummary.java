@@ -0,0 +1,31 @@
+package nl.tudelft.sem.yumyumnow.database;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.util.Map;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * The number of rated orders of a vendor and their average grade, computed by the database in a single query.
+ * The histogram of the grades is only filled in when it has been asked for.
+ */
+@Getter
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class RatingSummary {
+
+    private final Long count;
+    private final Double average;
+    @Setter
+    private Map<Long, Long> histogram;
+
+    /**
+     * Creates a summary without histogram.
+     *
+     * @param count the number of rated orders
+     * @param average the average grade, or null if no order is rated
+     */
+    public RatingSummary(Long count, Double average) {
+        this.count = count;
+        this.average = average;
+    }
+}
@@ -0,0 +1,169 @@
+package nl.tudelft.sem.yumyumnow.services;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import nl.tudelft.sem.yumyumnow.model.Dish;
+import org.springframework.stereotype.Service;
+
+/**
+ * Encodes allergens as small integer IDs, so that the allergens of a dish or a customer become a bitmask.
+ * Only the allergens of dishes are assigned IDs; the allergens of a customer are looked up.
+ * The mask of every dish is computed once, when the dish is saved or first filtered, and checking whether a dish
+ * contains any of the allergens of a customer is a single AND of the two masks.
+ */
+@Service
+public class AllergenDictionary {
+
+    private final Map<String, Integer> ids;
+    private final AtomicInteger nextId;
+    private final Map<Long, BitSet> dishMasks;
+
+    /**
+     * Creates an empty dictionary.
+     */
+    public AllergenDictionary() {
+        this.ids = new ConcurrentHashMap<>();
+        this.nextId = new AtomicInteger();
+        this.dishMasks = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Returns the ID of an allergen, assigning a new one if the allergen has not been seen yet.
+     *
+     * @param allergen the name of the allergen
+     * @return the ID of the allergen
+     */
+    public int idOf(String allergen) {
+        return this.ids.computeIfAbsent(allergen, key -> this.nextId.getAndIncrement());
+    }
+
+    /**
+     * Returns the number of distinct allergens seen so far.
+     *
+     * @return the number of allergens in the dictionary
+     */
+    public int size() {
+        return this.ids.size();
+    }
+
+    /**
+     * Computes and stores the allergen mask of a dish. Called whenever a dish is saved, so that the mask
+     * always matches the saved allergens.
+     *
+     * @param dish the saved dish
+     */
+    public void updateDish(Dish dish) {
+        if (dish.getId() != null) {
+            this.dishMasks.put(dish.getId(), encode(dish.getAllergens()));
+        }
+    }
+
+    /**
+     * Removes the stored allergen mask of a dish. Called whenever a dish is removed from a catalog, so that masks
+     * of dishes no longer on offer are not kept.
+     *
+     * @param dishId the ID of the dish
+     */
+    public void removeDish(Long dishId) {
+        if (dishId != null) {
+            this.dishMasks.remove(dishId);
+        }
+    }
+
+    /**
+     * Compiles the allergens of a customer into a mask. Only allergens that are already in the dictionary are looked
+     * up, so the free text of customers does not grow it: an allergen no dish has been seen with cannot match any
+     * dish whose mask is already known. Compile the mask after the masks of the dishes to filter are known, or use
+     * {@link #withoutAllergens(List, List)}.
+     *
+     * @param allergens the allergens of the customer
+     * @return the mask of the customer
+     */
+    public BitSet customerMask(List<String> allergens) {
+        BitSet mask = new BitSet();
+        if (allergens != null) {
+            for (String allergen : allergens) {
+                Integer id = allergen == null ? null : this.ids.get(allergen);
+                if (id != null) {
+                    mask.set(id);
+                }
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Keeps the dishes that contain none of the allergens in a customer mask.
+     *
+     * @param dishes the dishes to filter
+     * @param customerMask the mask of the allergens of the customer
+     * @return the dishes without any of the allergens, in the same order
+     */
+    public List<Dish> withoutAllergens(List<Dish> dishes, BitSet customerMask) {
+        List<Dish> safe = new ArrayList<>();
+        for (Dish dish : dishes) {
+            if (!maskOf(dish).intersects(customerMask)) {
+                safe.add(dish);
+            }
+        }
+        return safe;
+    }
+
+    /**
+     * Keeps the dishes that contain none of the allergens of a customer. The masks of the dishes are computed before
+     * the mask of the customer, so that allergens first seen on one of these dishes are matched as well.
+     *
+     * @param dishes the dishes to filter
+     * @param allergens the allergens of the customer
+     * @return the dishes without any of the allergens, in the same order
+     */
+    public List<Dish> withoutAllergens(List<Dish> dishes, List<String> allergens) {
+        List<BitSet> masks = new ArrayList<>(dishes.size());
+        for (Dish dish : dishes) {
+            masks.add(maskOf(dish));
+        }
+        BitSet customerMask = customerMask(allergens);
+        List<Dish> safe = new ArrayList<>();
+        for (int i = 0; i < dishes.size(); i++) {
+            if (!masks.get(i).intersects(customerMask)) {
+                safe.add(dishes.get(i));
+            }
+        }
+        return safe;
+    }
+
+    /**
+     * Returns the stored mask of a dish, computing it if the dish has not been saved since the application started.
+     *
+     * @param dish the dish
+     * @return the allergen mask of the dish
+     */
+    private BitSet maskOf(Dish dish) {
+        if (dish.getId() == null) {
+            return encode(dish.getAllergens());
+        }
+        return this.dishMasks.computeIfAbsent(dish.getId(), id -> encode(dish.getAllergens()));
+    }
+
+    /**
+     * Encodes the allergens of a dish into a mask, assigning IDs to new allergens.
+     *
+     * @param allergens the allergens of a dish
+     * @return the mask of the allergens
+     */
+    private BitSet encode(List<String> allergens) {
+        BitSet mask = new BitSet();
+        if (allergens != null) {
+            for (String allergen : allergens) {
+                if (allergen != null) {
+                    mask.set(idOf(allergen));
+                }
+            }
+        }
+        return mask;
+    }
+}
@@ -1,15 +1,13 @@
 package nl.tudelft.sem.yumyumnow.services;
 
-import java.util.List;
-import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Optional;
-import java.util.stream.Collectors;
 import nl.tudelft.sem.yumyumnow.database.OrderRepository;
+import nl.tudelft.sem.yumyumnow.database.PriceSummary;
 import nl.tudelft.sem.yumyumnow.database.RatingRepository;
-import nl.tudelft.sem.yumyumnow.model.Customer;
 import nl.tudelft.sem.yumyumnow.model.Order;
 import nl.tudelft.sem.yumyumnow.model.Rating;
+import nl.tudelft.sem.yumyumnow.services.analytics.VendorAnalyticsStore;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -19,24 +17,28 @@ public class AnalyticsService {
 
     private final OrderRepository orderRepository;
     private final OrderService orderService;
-    private final CustomerService customerService;
+    private final IdGenerator idGenerator;
+    private final VendorAnalyticsStore analyticsStore;
 
     /**
      * Constructor for the service.
      *
-     * @param customerService Instance of customerService.
      * @param ratingRepository Instance of ratingRepository.
      * @param orderService Instance of orderService.
+     * @param idGenerator Instance of idGenerator.
+     * @param analyticsStore Instance of the store of the vendor aggregates.
      */
 
-    public AnalyticsService(CustomerService customerService,
-                            RatingRepository ratingRepository,
+    public AnalyticsService(RatingRepository ratingRepository,
                             OrderService orderService,
-                            OrderRepository orderRepository) {
-        this.customerService = customerService;
+                            OrderRepository orderRepository,
+                            IdGenerator idGenerator,
+                            VendorAnalyticsStore analyticsStore) {
         this.ratingRepository = ratingRepository;
         this.orderService = orderService;
         this.orderRepository = orderRepository;
+        this.idGenerator = idGenerator;
+        this.analyticsStore = analyticsStore;
     }
 
     public Optional<Rating> getRatingById(Long ratingId) {
@@ -51,64 +53,37 @@ public class AnalyticsService {
      */
     public Rating createNewRating(Rating rating) {
         if (rating.getId() == null) {
-            rating.setId(System.currentTimeMillis());
+            rating.setId(this.idGenerator.nextId());
         }
-        return this.ratingRepository.save(rating);
+        Rating saved = this.ratingRepository.save(rating);
+        this.analyticsStore.ratingSaved(saved);
+        return saved;
     }
 
     /**
-     * Calculate the average price a customer paid for an order.
+     * Calculate the average price a customer paid for an order, with a single aggregate query on the orders
+     * of the customer stored by this service.
      *
      * @param customerId The customer's Id.
-     * @return Average price a customer paid.
+     * @return Average price a customer paid, or null if the customer has no orders or an order has no price.
      */
     public Double getCustomerAveragePrice(Long customerId) {
-        Customer customer = this.customerService.getCustomer(customerId);
-        if (customer != null) {
-            List<Order> orderList = customer.getPastOrders();
-            int numberOrders = 1;
-            Double totalPrice = 0.0;
-            if (orderList != null) {
-                numberOrders = orderList.size();
-                for (Order order : orderList) {
-                    if (order == null || order.getPrice() == null) {
-                        return null;
-                    }
-                    totalPrice += order.getPrice();
-                }
-                return totalPrice / numberOrders;
-            }
+        PriceSummary summary = this.orderRepository.summarizePricesByCustomerId(customerId);
+        if (summary == null || summary.getOrders() == 0 || summary.getPricedOrders() < summary.getOrders()) {
             return null;
         }
-        return null;
+        return summary.getAverage();
     }
 
     /**
-     * Calculate the average number of order's per month for the active months.
+     * Calculate the average number of order's per month for the active months, from the orders of the customer
+     * counted per month as they are saved.
      *
      * @param customerId The customer's id.
-     * @return The average number of orders per month.
+     * @return The average number of orders per month, or null if the customer has no orders.
      */
     public Double getOrdersPerMonth(Long customerId) {
-        Customer customer = this.customerService.getCustomer(customerId);
-        if (customer != null) {
-            List<Order> orderList = customer.getPastOrders();
-            if (orderList != null) {
-                Map<String, Long> orderPerMonth = orderList
-                    .stream()
-                    .collect(Collectors.groupingBy(order -> order.getTime().getMonth() + "-" + order.getTime().getYear(),
-                        Collectors.counting()));
-                Long nrOrder = 0L;
-                for (String month : orderPerMonth.keySet()) {
-                    nrOrder += orderPerMonth.get(month);
-                }
-                Integer nrMonths = orderPerMonth.keySet().size();
-                //System.out.println(nrOrder + " " + nrMonths);
-                return (double) nrOrder / nrMonths;
-            }
-            return null;
-        }
-        return null;
+        return this.analyticsStore.getCustomerOrdersPerMonth(customerId);
     }
 
     /**
@@ -121,9 +96,9 @@ public class AnalyticsService {
         try {
             Order order = this.orderService.getOrderById(orderId);
             if (order != null && (rating != null && rating.getId() != null)) {
-                ratingRepository.save(rating);
+                this.analyticsStore.ratingSaved(ratingRepository.save(rating));
                 order.setRatingId(rating.getId());
-                orderRepository.save(order);
+                this.analyticsStore.orderSaved(orderRepository.save(order));
             }
         } catch (NoSuchElementException e) {
             return;
@@ -1,14 +1,27 @@
 package nl.tudelft.sem.yumyumnow.services;
 
 import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
 import nl.tudelft.sem.yumyumnow.database.RatingRepository;
+import nl.tudelft.sem.yumyumnow.database.RatingSummary;
 import nl.tudelft.sem.yumyumnow.model.Dish;
 import nl.tudelft.sem.yumyumnow.model.Order;
 import nl.tudelft.sem.yumyumnow.model.Rating;
+import nl.tudelft.sem.yumyumnow.model.Vendor;
+import nl.tudelft.sem.yumyumnow.services.analytics.AggregateMismatch;
+import nl.tudelft.sem.yumyumnow.services.analytics.DailyHistogram;
+import nl.tudelft.sem.yumyumnow.services.analytics.DishCount;
+import nl.tudelft.sem.yumyumnow.services.analytics.PriceDistribution;
+import nl.tudelft.sem.yumyumnow.services.analytics.UniqueCustomers;
+import nl.tudelft.sem.yumyumnow.services.analytics.VendorAnalyticsStore;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -17,6 +30,7 @@ public class AnalyticsVendorService {
 
     private VendorService vendorService;
     private OrderService orderService;
+    private final VendorAnalyticsStore analyticsStore;
 
     /**
      * Constructor for the service.
@@ -24,15 +38,18 @@ public class AnalyticsVendorService {
      * @param vendorService Instance of vendorService.
      * @param ratingRepository Instance of ratingRepository.
      * @param orderService Instance of orderService.
+     * @param analyticsStore Instance of the store of the vendor aggregates.
      */
 
     public AnalyticsVendorService(
                             VendorService vendorService,
                             RatingRepository ratingRepository,
-                            OrderService orderService) {
+                            OrderService orderService,
+                            VendorAnalyticsStore analyticsStore) {
         this.vendorService = vendorService;
         this.ratingRepository = ratingRepository;
         this.orderService = orderService;
+        this.analyticsStore = analyticsStore;
     }
 
     public Optional<Rating> getRatingById(Long ratingId) {
@@ -40,44 +57,69 @@ public class AnalyticsVendorService {
     }
 
     /**
-     * Calculates the average price of a vendor's dishes.
+     * Returns the average price of a vendor's dishes from the vendor aggregates.
      *
      * @param vendorId the id of the vendor.
-     * @return the average price (double)
+     * @return the average price (double), or null if the vendor has no dishes
      */
     public Double getAverageVendorPrice(Long vendorId) {
+        return this.analyticsStore.getAveragePrice(vendorId);
+    }
+
+    /**
+     * Calculates the average price of a vendor's dishes by loading them. Dishes without a price are skipped.
+     *
+     * @param vendorId the id of the vendor.
+     * @return the average price (double)
+     */
+    public Double computeAverageVendorPrice(Long vendorId) {
         List<Dish> vendorDishes = vendorService.getVendorDishes(vendorId);
 
         if (vendorDishes != null && !vendorDishes.isEmpty()) {
             double total = 0;
+            int priced = 0;
             for (Dish dish : vendorDishes) {
-                total += dish.getPrice();
+                if (dish.getPrice() != null) {
+                    total += dish.getPrice();
+                    priced++;
+                }
             }
-            return total / vendorDishes.size();
+            return priced == 0 ? null : total / priced;
         }
 
         return null;
     }
 
     /**
-     * Calculates the average rating of a vendor's orders.
+     * Returns the average rating of a vendor's orders from the vendor aggregates.
      *
      * @param vendorId the id of the vendor
-     * @return the average rating
+     * @return the average rating, or null if no order of the vendor is rated
      */
     public Double getAverageVendorRating(Long vendorId) {
-        List<Long> ratingIds = orderService.getAllRatingsForVendor(vendorId);
-
-        if (ratingIds != null && !ratingIds.isEmpty()) {
-            double total = 0;
-            for (Long id : ratingIds) {
-                total += getRatingById(id).get().getGrade();
-            }
+        return this.analyticsStore.getAverageRating(vendorId);
+    }
 
-            return total / ratingIds.size();
-        }
+    /**
+     * Calculates the average rating of a vendor's orders with a single aggregate query on the DB.
+     * Orders that are not rated, whose rating ID is -1, are skipped.
+     *
+     * @param vendorId the id of the vendor
+     * @return the average rating, or null if no order of the vendor is rated
+     */
+    public Double computeAverageVendorRating(Long vendorId) {
+        return getVendorRatingSummary(vendorId, false).getAverage();
+    }
 
-        return null;
+    /**
+     * Counts the rated orders of a vendor and averages their grades with a single aggregate query on the DB.
+     *
+     * @param vendorId the id of the vendor
+     * @param histogram whether to also count the orders per grade
+     * @return the number of rated orders, the average rating and, if asked for, the number of orders per grade
+     */
+    public RatingSummary getVendorRatingSummary(Long vendorId, boolean histogram) {
+        return orderService.getRatingSummaryForVendor(vendorId, histogram);
     }
 
     /**
@@ -116,31 +158,158 @@ public class AnalyticsVendorService {
     }
 
     /**
-     * Calculate an average of orders per day.
+     * Gets the most ordered dishes of a vendor from the sketch kept in the vendor aggregates, without
+     * loading its orders. The dishes still on the menu of the vendor are filled in.
+     *
+     * @param vendorId the id of the vendor
+     * @param k the maximum number of dishes to return
+     * @return the estimated counts of the most ordered dishes, the highest first
+     */
+    public List<DishCount> getPopularDishes(Long vendorId, int k) {
+        List<DishCount> popular = this.analyticsStore.getPopularDishes(vendorId, k);
+        if (!popular.isEmpty()) {
+            List<Dish> menu = vendorService.getVendorDishes(vendorId);
+            if (menu != null) {
+                Map<Long, Dish> dishes = new HashMap<>();
+                for (Dish dish : menu) {
+                    dishes.put(dish.getId(), dish);
+                }
+                for (DishCount dishCount : popular) {
+                    dishCount.setDish(dishes.get(dishCount.getDishId()));
+                }
+            }
+        }
+        return popular;
+    }
+
+    /**
+     * Returns the average of orders per day of a vendor from the vendor aggregates.
      *
      * @param vendorId the id of the vendor
      * @return the average or null
      */
     public Double averageOrdersPerDay(Long vendorId) {
-        List<Order> orders = orderService.getAllOrdersForVendor(vendorId);
+        return this.analyticsStore.getAverageOrdersPerDay(vendorId);
+    }
 
-        if (orders != null && !orders.isEmpty()) {
-            Map<LocalDate, Long> ordersPerDay = new HashMap<>();
+    /**
+     * Estimates the number of distinct customers of a vendor in the week and the month of a day, and over all
+     * time, from the vendor aggregates.
+     *
+     * @param vendorId the id of the vendor
+     * @param today the day whose week and month are counted
+     * @return the estimated numbers of distinct customers
+     */
+    public UniqueCustomers getUniqueCustomers(Long vendorId, LocalDate today) {
+        return this.analyticsStore.getUniqueCustomers(vendorId, today);
+    }
 
-            for (Order order : orders) {
-                LocalDate date = order.getTime().toLocalDate();
-                ordersPerDay.put(date, ordersPerDay.getOrDefault(date, 0L) + 1);
-            }
+    /**
+     * Returns the median and the 90th and 99th percentiles of the prices of the completed orders and of the dishes
+     * of a vendor, from the vendor aggregates.
+     *
+     * @param vendorId the id of the vendor
+     * @return the percentiles of the order values and of the dish prices
+     */
+    public PriceDistribution getPriceDistribution(Long vendorId) {
+        return this.analyticsStore.getPriceDistribution(vendorId);
+    }
 
-            long totalOrders = 0;
-            for (Long order : ordersPerDay.values()) {
-                totalOrders += order;
-            }
+    /**
+     * Returns the percentiles of the prices of the completed orders and of the dishes of all vendors together,
+     * by merging the sketches of the vendor aggregates.
+     *
+     * @return the percentiles of the order values and of the dish prices
+     */
+    public PriceDistribution getPlatformPriceDistribution() {
+        return this.analyticsStore.getPlatformPriceDistribution();
+    }
+
+    /**
+     * Returns the number of orders of a vendor placed in every hour of the day, from the vendor aggregates.
+     *
+     * @param vendorId the id of the vendor
+     * @return 24 counts, the first one for orders placed between midnight and 1 o'clock
+     */
+    public long[] getHourlyHistogram(Long vendorId) {
+        return this.analyticsStore.getHourlyHistogram(vendorId);
+    }
+
+    /**
+     * Returns the number of orders of a vendor on every day of the range ending on a day, from the vendor
+     * aggregates.
+     *
+     * @param vendorId the id of the vendor
+     * @param to the last day of the range
+     * @param days the number of days in the range
+     * @return the first day of the range and the number of orders on every day of the range
+     */
+    public DailyHistogram getDailyHistogram(Long vendorId, LocalDate to, int days) {
+        LocalDate from = to.minusDays(days - 1L);
+        return new DailyHistogram(from, this.analyticsStore.getDailyHistogram(vendorId, from, days));
+    }
+
+    /**
+     * Calculate an average of orders per day from the times of the orders of the vendor, read without loading
+     * the orders themselves. Orders without a time are skipped.
+     *
+     * @param vendorId the id of the vendor
+     * @return the average or null
+     */
+    public Double computeAverageOrdersPerDay(Long vendorId) {
+        List<OffsetDateTime> times = vendorId == null ? null : orderService.getOrderTimesForVendor(vendorId);
 
-            return  totalOrders / (double) ordersPerDay.size();
+        if (times != null && !times.isEmpty()) {
+            Set<LocalDate> days = new HashSet<>();
+            for (OffsetDateTime time : times) {
+                days.add(time.toLocalDate());
+            }
+            return times.size() / (double) days.size();
         } else {
             return null;
         }
     }
 
+    /**
+     * Drops the vendor aggregates and computes them again from the DB.
+     *
+     * @return the number of vendors having an aggregate
+     */
+    public int rebuildAggregates() {
+        return this.analyticsStore.rebuild();
+    }
+
+    /**
+     * Compares the vendor aggregates with the analytics computed by loading the dishes, orders and ratings of
+     * every vendor. This loads the whole DB and is meant to check the aggregates, not to answer requests.
+     *
+     * @return the analytics whose aggregate differs from the computed value
+     */
+    public List<AggregateMismatch> checkAggregates() {
+        Set<Long> vendorIds = new TreeSet<>(this.analyticsStore.getVendorIds());
+        for (Vendor vendor : this.vendorService.getAllVendors()) {
+            vendorIds.add(vendor.getId());
+        }
+        List<AggregateMismatch> mismatches = new ArrayList<>();
+        for (Long vendorId : vendorIds) {
+            compare(mismatches, vendorId, "average-price",
+                this.analyticsStore.getAveragePrice(vendorId), computeAverageVendorPrice(vendorId));
+            compare(mismatches, vendorId, "average-rating",
+                this.analyticsStore.getAverageRating(vendorId), computeAverageVendorRating(vendorId));
+            compare(mismatches, vendorId, "orders-per-day",
+                this.analyticsStore.getAverageOrdersPerDay(vendorId), computeAverageOrdersPerDay(vendorId));
+        }
+        return mismatches;
+    }
+
+    private static void compare(List<AggregateMismatch> mismatches, Long vendorId, String metric,
+                                Double stored, Double computed) {
+        boolean same = stored == null
+            ? computed == null
+            : computed != null && Math.abs(stored - computed) <= 1e-9 * Math.max(1, Math.abs(computed));
+        if (!same) {
+            mismatches.add(new AggregateMismatch(vendorId, metric, stored, computed));
+        }
+    }
+
 }
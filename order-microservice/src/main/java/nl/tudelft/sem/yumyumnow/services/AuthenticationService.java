@@ -1,11 +1,18 @@
 package nl.tudelft.sem.yumyumnow.services;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import lombok.Getter;
 import nl.tudelft.sem.yumyumnow.model.Vendor;
 import nl.tudelft.sem.yumyumnow.services.requests.GetRequest;
+import nl.tudelft.sem.yumyumnow.services.requests.PeerUnavailableException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 
 @Getter
 @Service
@@ -14,9 +21,18 @@ public class AuthenticationService {
 
     private final IntegrationService integrationService;
 
+    private final RoleCache roleCache;
+
+    /**
+     * Creates an authentication service that caches the roles it retrieves.
+     *
+     * @param integrationService the service holding the address of the Users microservice
+     * @param roleCache the cache of the roles retrieved from the Users microservice
+     */
     @Autowired
-    public AuthenticationService(IntegrationService integrationService) {
+    public AuthenticationService(IntegrationService integrationService, RoleCache roleCache) {
         this.integrationService = integrationService;
+        this.roleCache = roleCache;
     }
 
     /**
@@ -53,18 +69,141 @@ public class AuthenticationService {
     }
 
     /**
-     * Connects to the User microservice and retrieve the role of a user from its ID.
+     * Checks with the Users microservice if the IDs correspond to a customer and a vendor. Both roles are retrieved
+     * at the same time when the non-blocking client is available, so the check takes as long as the slowest one.
+     *
+     * @param customerId the ID that should correspond to a customer
+     * @param vendorId the ID that should correspond to a vendor
+     * @return true if the first ID corresponds to a customer and the second to a vendor
+     */
+    public boolean isCustomerAndVendor(Long customerId, Long vendorId) {
+        if (this.integrationService.getAsyncClient() == null) {
+            return this.isCustomer(customerId) && this.isVendor(vendorId);
+        }
+        CompletableFuture<String> customerRole = this.getRoleAsync(customerId);
+        CompletableFuture<String> vendorRole = this.getRoleAsync(vendorId);
+        return "customer".equalsIgnoreCase(join(customerRole)) && "vendor".equalsIgnoreCase(join(vendorRole));
+    }
+
+    /**
+     * Removes the cached role of a user, for instance after the role was changed in the Users microservice.
+     *
+     * @param userId the ID of the user
+     */
+    public void invalidateRole(Long userId) {
+        this.roleCache.invalidate(userId);
+    }
+
+    /**
+     * Retrieves the role of a user from the verified token of the current request if it belongs to that user.
+     * Otherwise, the role is taken from the cache, or from the User microservice if it is not cached.
+     * If the User microservice is unavailable, the user is treated as unknown without waiting for it.
      *
      * @param userId the ID to check
      * @return the role of the user, or null if an error occurred
      */
     private String getRole(Long userId) {
+        VerifiedUser verifiedUser = getVerifiedUser();
+        if (verifiedUser != null && verifiedUser.getUserId().equals(userId)) {
+            return verifiedUser.getRole();
+        }
+        try {
+            return this.roleCache.getRole(userId, this::retrieveRole);
+        } catch (IllegalStateException | PeerUnavailableException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Retrieves the role of a user like {@link #getRole(Long)}, without waiting for the User microservice.
+     *
+     * @param userId the ID to check
+     * @return the role of the user, completing with null if an error occurred
+     */
+    private CompletableFuture<String> getRoleAsync(Long userId) {
+        VerifiedUser verifiedUser = getVerifiedUser();
+        if (verifiedUser != null && verifiedUser.getUserId().equals(userId)) {
+            return CompletableFuture.completedFuture(verifiedUser.getRole());
+        }
+        return this.roleCache.getRoleAsync(userId, this::retrieveRoleAsync).exceptionally(error -> {
+            Throwable cause = unwrap(error);
+            if (cause instanceof IllegalStateException || cause instanceof PeerUnavailableException) {
+                return null;
+            }
+            throw new CompletionException(cause);
+        });
+    }
+
+    /**
+     * Returns the user verified from the bearer token of the current request.
+     *
+     * @return the verified user, or null if there is no request or it did not carry a valid token
+     */
+    private static VerifiedUser getVerifiedUser() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return null;
+        }
+        Object user = attributes.getAttribute(VerifiedUser.REQUEST_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        return user instanceof VerifiedUser ? (VerifiedUser) user : null;
+    }
+
+    /**
+     * Connects to the User microservice and retrieve the role of a user from its ID.
+     * Only a 404 response means the user is unknown; other error responses are thrown so they are not cached.
+     *
+     * @param userId the ID to check
+     * @return the role of the user, or null if the user does not exist
+     */
+    private String retrieveRole(Long userId) {
         String url = integrationService.getUserMicroserviceAddress() + "/user/" + userId;
-        ResponseEntity<String> response = new GetRequest(integrationService.getRestTemplate(), url)
+        ResponseEntity<String> response;
+        try {
+            response = new GetRequest(integrationService.getRestTemplate(), url, integrationService.getSingleFlight())
                 .send(String.class);
-        if (response.getStatusCode().isError()) {
+        } catch (HttpClientErrorException.NotFound e) {
             return null;
         }
+        return roleOf(userId, response);
+    }
+
+    /**
+     * Connects to the User microservice and retrieves the role of a user like {@link #retrieveRole(Long)}, without
+     * waiting for the response.
+     *
+     * @param userId the ID to check
+     * @return the role of the user, completing with null if the user does not exist
+     */
+    private CompletableFuture<String> retrieveRoleAsync(Long userId) {
+        String url = integrationService.getUserMicroserviceAddress() + "/user/" + userId;
+        return new GetRequest(integrationService.getRestTemplate(), url)
+            .sendAsync(integrationService.getAsyncClient(), String.class)
+            .handle((response, error) -> {
+                if (error == null) {
+                    return roleOf(userId, response);
+                }
+                Throwable cause = unwrap(error);
+                if (cause instanceof HttpClientErrorException.NotFound) {
+                    return null;
+                }
+                throw new CompletionException(cause);
+            });
+    }
+
+    /**
+     * Reads the role of a user from the response of the User microservice.
+     *
+     * @param userId the ID of the user
+     * @param response the response of the User microservice
+     * @return the role of the user, or null if the user does not exist
+     */
+    private static String roleOf(Long userId, ResponseEntity<String> response) {
+        if (response.getStatusCode() == HttpStatus.NOT_FOUND) {
+            return null;
+        }
+        if (response.getStatusCode().isError()) {
+            throw new IllegalStateException("Could not retrieve the role of user " + userId);
+        }
         return response.getBody();
     }
 
@@ -72,15 +211,42 @@ public class AuthenticationService {
      * Retrieves a vendor from the Users microservice.
      *
      * @param vendorId the vendor ID.
-     * @return the vendor object, or null if the request was not successful.
+     * @return the vendor object, or null if the request was not successful or the Users microservice is unavailable.
      */
     public Vendor retrieveVendor(Long vendorId) {
         String url = integrationService.getUserMicroserviceAddress() + "/vendor/" + vendorId;
-        ResponseEntity<Vendor> response = new GetRequest(integrationService.getRestTemplate(), url)
-                .send(Vendor.class);
+        ResponseEntity<Vendor> response;
+        try {
+            response = new GetRequest(integrationService.getRestTemplate(), url,
+                integrationService.getSingleFlight()).send(Vendor.class);
+        } catch (PeerUnavailableException e) {
+            return null;
+        }
         if (response.getStatusCode().isError()) {
             return null;
         }
         return response.getBody();
     }
+
+    /**
+     * Waits for a role retrieved without waiting.
+     *
+     * @param role the future role
+     * @return the role, or null if the user is unknown
+     */
+    private static String join(CompletableFuture<String> role) {
+        try {
+            return role.join();
+        } catch (CompletionException e) {
+            Throwable cause = unwrap(e);
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw e;
+        }
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
 }
@@ -4,6 +4,7 @@ import java.util.ArrayList;
 import java.util.List;
 import nl.tudelft.sem.yumyumnow.model.Customer;
 import nl.tudelft.sem.yumyumnow.model.Location;
+import nl.tudelft.sem.yumyumnow.services.requests.GetRequest;
 import nl.tudelft.sem.yumyumnow.services.requests.PutRequest;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -12,8 +13,6 @@ import org.springframework.web.client.RestTemplate;
 
 @Service
 public class CustomerService {
-    private String url = "http://localhost:8081";
-
     private final IntegrationService integrationService;
 
     @Autowired
@@ -29,9 +28,9 @@ public class CustomerService {
      * @return The customer with the corresponding id.
      */
     public Customer getCustomer(Long customerId) {
-        ResponseEntity<Customer> response = integrationService.getRestTemplate()
-            .getForEntity(url + "/customer/"
-            + customerId, Customer.class);
+        String url = integrationService.getUserMicroserviceAddress() + "/customer/" + customerId;
+        ResponseEntity<Customer> response = new GetRequest(integrationService.getRestTemplate(), url,
+            integrationService.getSingleFlight()).send(Customer.class);
         return response.getBody();
     }
     /**
@@ -42,8 +41,8 @@ public class CustomerService {
      */
 
     public Location getDefaultHomeAddress(Long customerId) {
-        ResponseEntity<Location> response = integrationService.getRestTemplate().getForEntity(url + "/customer/location/"
-            + customerId, Location.class);
+        String url = integrationService.getUserMicroserviceAddress() + "/customer/location/" + customerId;
+        ResponseEntity<Location> response = integrationService.getRestTemplate().getForEntity(url, Location.class);
         return response.getBody();
     }
 
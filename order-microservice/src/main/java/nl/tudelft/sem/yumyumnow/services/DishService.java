@@ -4,6 +4,7 @@ import java.util.NoSuchElementException;
 import java.util.Optional;
 import nl.tudelft.sem.yumyumnow.database.DishRepository;
 import nl.tudelft.sem.yumyumnow.model.Dish;
+import nl.tudelft.sem.yumyumnow.services.analytics.VendorAnalyticsStore;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
@@ -11,15 +12,25 @@ import org.springframework.stereotype.Service;
 public class DishService {
 
     private final DishRepository dishRepository;
+    private final IdGenerator idGenerator;
+    private final AllergenDictionary allergenDictionary;
+    private final VendorAnalyticsStore analyticsStore;
 
     /**
      * Creates a new Dish Service.
      *
      * @param repository the DB instance where the Dishes are stored
+     * @param idGenerator the generator of the IDs of new dishes
+     * @param allergenDictionary the allergen masks of the dishes, kept in sync when dishes are saved
+     * @param analyticsStore the vendor aggregates, updated when the price of a dish changes
      */
     @Autowired
-    public DishService(DishRepository repository) {
+    public DishService(DishRepository repository, IdGenerator idGenerator, AllergenDictionary allergenDictionary,
+                       VendorAnalyticsStore analyticsStore) {
         this.dishRepository = repository;
+        this.idGenerator = idGenerator;
+        this.allergenDictionary = allergenDictionary;
+        this.analyticsStore = analyticsStore;
     }
 
     /**
@@ -41,9 +52,11 @@ public class DishService {
      */
     public Dish createNewDish(Dish dish) {
         if (dish.getId() == null) {
-            dish.setId(System.currentTimeMillis());
+            dish.setId(this.idGenerator.nextId());
         }
-        return this.dishRepository.save(dish);
+        Dish saved = this.dishRepository.save(dish);
+        this.allergenDictionary.updateDish(saved);
+        return saved;
     }
 
     /**
@@ -58,6 +71,8 @@ public class DishService {
 
         if (exists) {
             Dish saved = dishRepository.save(dish);
+            this.allergenDictionary.updateDish(saved);
+            this.analyticsStore.dishSaved(saved);
 
             return Optional.of(saved);
         } else {
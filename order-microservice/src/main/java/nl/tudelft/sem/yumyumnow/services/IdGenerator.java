@@ -0,0 +1,79 @@
+package nl.tudelft.sem.yumyumnow.services;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Generates unique, time-ordered IDs for the entities created by this microservice.
+ * An ID packs 41 bits of milliseconds since {@link #EPOCH}, 10 bits of node ID and a 12-bit sequence number,
+ * so up to 4096 IDs can be created per millisecond on each of 1024 nodes without any coordination.
+ * The last timestamp and sequence number are kept together in one atomic long that is updated with
+ * compare-and-set, so concurrent callers never block or sleep.
+ */
+@Service
+public class IdGenerator {
+
+    /**
+     * The moment from which the timestamps in the IDs are counted (2023-11-14T22:13:20Z).
+     */
+    public static final long EPOCH = 1_700_000_000_000L;
+
+    private static final int NODE_BITS = 10;
+    private static final int SEQUENCE_BITS = 12;
+    private static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    @Getter
+    private final long nodeId;
+    private final LongSupplier clock;
+    private final AtomicLong state;
+
+    /**
+     * Creates an ID generator that uses the system clock.
+     *
+     * @param nodeId the ID of this instance of the microservice, between 0 and 1023
+     */
+    @Autowired
+    public IdGenerator(@Value("${ids.node-id:0}") long nodeId) {
+        this(nodeId, System::currentTimeMillis);
+    }
+
+    /**
+     * Creates an ID generator with a custom clock.
+     *
+     * @param nodeId the ID of this instance of the microservice, between 0 and 1023
+     * @param clock  the source of the current time in milliseconds since the Unix epoch
+     */
+    public IdGenerator(long nodeId, LongSupplier clock) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("The node id must be between 0 and " + MAX_NODE_ID);
+        }
+        this.nodeId = nodeId;
+        this.clock = clock;
+        this.state = new AtomicLong(0);
+    }
+
+    /**
+     * Generates a new ID. IDs generated by the same instance are strictly increasing.
+     * When the sequence of the current millisecond is exhausted, or when the clock moves backwards, the
+     * generator keeps counting from its last timestamp instead of waiting for the clock.
+     *
+     * @return a positive ID that is unique across all nodes
+     */
+    public long nextId() {
+        while (true) {
+            long current = this.state.get();
+            long now = this.clock.getAsLong() - EPOCH;
+            long next = now > (current >>> SEQUENCE_BITS) ? now << SEQUENCE_BITS : current + 1;
+            if (this.state.compareAndSet(current, next)) {
+                long timestamp = next >>> SEQUENCE_BITS;
+                long sequence = next & SEQUENCE_MASK;
+                return (timestamp << (NODE_BITS + SEQUENCE_BITS)) | (this.nodeId << SEQUENCE_BITS) | sequence;
+            }
+        }
+    }
+}
@@ -1,12 +1,31 @@
 package nl.tudelft.sem.yumyumnow.services;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.List;
 import lombok.Getter;
+import nl.tudelft.sem.yumyumnow.services.requests.AsyncHttpClient;
+import nl.tudelft.sem.yumyumnow.services.requests.Bulkhead;
+import nl.tudelft.sem.yumyumnow.services.requests.CircuitBreaker;
+import nl.tudelft.sem.yumyumnow.services.requests.CircuitBreakerSettings;
+import nl.tudelft.sem.yumyumnow.services.requests.PeerGuard;
+import nl.tudelft.sem.yumyumnow.services.requests.PeerSettings;
+import nl.tudelft.sem.yumyumnow.services.requests.PooledRequestFactory;
+import nl.tudelft.sem.yumyumnow.services.requests.SingleFlight;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.PropertyResolver;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
 @Getter
 @Service
-public class IntegrationService {
+public class IntegrationService implements DisposableBean {
+
+    private static final String DEFAULT_DELIVERY_ADDRESS = "http://localhost:8080";
+
+    private static final String DEFAULT_USER_ADDRESS = "http://localhost:8081";
 
     private final String deliveryMicroserviceAddress;
 
@@ -14,14 +33,46 @@ public class IntegrationService {
 
     private final RestTemplate restTemplate;
 
+    private final SingleFlight singleFlight;
+
+    private final AsyncHttpClient asyncClient;
 
     /**
-     * Creates a default IntegrationService with the addresses provided by the other teams.
+     * Creates a default IntegrationService with the addresses provided by the other teams. It sends its requests
+     * over a plain RestTemplate, without the connection pool, the guards and the non-blocking client of the
+     * application, which are only set up by the injected constructor.
      */
     public IntegrationService() {
-        this.restTemplate = new RestTemplate();
-        this.deliveryMicroserviceAddress = "http://localhost:8080";
-        this.userMicroserviceAddress = "http://localhost:8081";
+        this(DEFAULT_DELIVERY_ADDRESS, DEFAULT_USER_ADDRESS, new RestTemplate());
+    }
+
+    /**
+     * Creates an IntegrationService whose requests use a pool of keep-alive connections, configured by the
+     * integration.http.* properties and the integration.delivery.* and integration.users.* properties.
+     * The addresses of the microservices are read from integration.delivery.address and integration.users.address,
+     * so that they can be pointed at stand-in services.
+     * Identical GET requests in flight at the same time share one response, waiting at most
+     * integration.single-flight.timeout-ms for it. The requests to each microservice go through a bulkhead and
+     * a circuit breaker configured by the integration.[peer].bulkhead.* and integration.[peer].breaker.* properties.
+     * Requests sent without waiting use a non-blocking client configured by the integration.async.* properties.
+     *
+     * @param environment the properties of the application
+     * @param meterRegistry the registry to which the connection pool metrics are published
+     */
+    @Autowired
+    public IntegrationService(Environment environment, MeterRegistry meterRegistry) {
+        this(environment, meterRegistry, createRequestFactory(environment, meterRegistry));
+    }
+
+    private IntegrationService(PropertyResolver properties, MeterRegistry meterRegistry,
+                               PooledRequestFactory requestFactory) {
+        this(deliveryAddress(properties), userAddress(properties), new RestTemplate(requestFactory),
+            new SingleFlight(Duration.ofMillis(properties.getProperty("integration.single-flight.timeout-ms",
+                Long.class, 3000L)), meterRegistry),
+            new AsyncHttpClient(properties.getProperty("integration.async.threads", Integer.class, 2),
+                Duration.ofMillis(properties.getProperty("integration.async.connect-timeout-ms", Long.class, 1000L)),
+                Duration.ofMillis(properties.getProperty("integration.async.request-timeout-ms", Long.class, 5000L)),
+                requestFactory::getPeerGuard));
     }
 
     /**
@@ -33,8 +84,132 @@ public class IntegrationService {
      */
     public IntegrationService(String deliveryMicroserviceAddress, String userMicroserviceAddress,
                               RestTemplate restTemplate) {
+        this(deliveryMicroserviceAddress, userMicroserviceAddress, restTemplate, null);
+    }
+
+    /**
+     * Creates a custom IntegrationService with the given microservices addresses, whose identical GET requests
+     * in flight at the same time share one response.
+     *
+     * @param deliveryMicroserviceAddress the server address of the Delivery microservice
+     * @param userMicroserviceAddress the server address of the User microservice
+     * @param restTemplate the REST template that can be used to make REST requests to the other microservices.
+     * @param singleFlight the layer sharing identical GET requests, or null to send every request
+     */
+    public IntegrationService(String deliveryMicroserviceAddress, String userMicroserviceAddress,
+                              RestTemplate restTemplate, SingleFlight singleFlight) {
+        this(deliveryMicroserviceAddress, userMicroserviceAddress, restTemplate, singleFlight, null);
+    }
+
+    /**
+     * Creates a custom IntegrationService with the given microservices addresses, which can also send requests
+     * without waiting for their response.
+     *
+     * @param deliveryMicroserviceAddress the server address of the Delivery microservice
+     * @param userMicroserviceAddress the server address of the User microservice
+     * @param restTemplate the REST template that can be used to make REST requests to the other microservices.
+     * @param singleFlight the layer sharing identical GET requests, or null to send every request
+     * @param asyncClient the client sending requests without waiting, or null to only send blocking requests
+     */
+    public IntegrationService(String deliveryMicroserviceAddress, String userMicroserviceAddress,
+                              RestTemplate restTemplate, SingleFlight singleFlight, AsyncHttpClient asyncClient) {
         this.deliveryMicroserviceAddress = deliveryMicroserviceAddress;
         this.userMicroserviceAddress = userMicroserviceAddress;
         this.restTemplate = restTemplate;
+        this.singleFlight = singleFlight;
+        this.asyncClient = asyncClient;
+    }
+
+    /**
+     * Closes the pooled connections to the other microservices and the threads of the non-blocking client when the
+     * application stops.
+     *
+     * @throws Exception if the connections could not be closed
+     */
+    @Override
+    public void destroy() throws Exception {
+        if (this.asyncClient != null) {
+            this.asyncClient.close();
+        }
+        if (this.restTemplate.getRequestFactory() instanceof DisposableBean) {
+            ((DisposableBean) this.restTemplate.getRequestFactory()).destroy();
+        }
+    }
+
+    /**
+     * Creates the pooled request factory shared by all requests to the other microservices, guarding the requests
+     * to each of them with a bulkhead and a circuit breaker.
+     *
+     * @param properties the properties configuring the pool, the timeouts, the bulkheads and the circuit breakers
+     * @param meterRegistry the registry to which the metrics are published
+     * @return the request factory
+     */
+    private static PooledRequestFactory createRequestFactory(PropertyResolver properties,
+                                                             MeterRegistry meterRegistry) {
+        List<PeerSettings> peers = List.of(
+            peerSettings(properties, "delivery", deliveryAddress(properties)),
+            peerSettings(properties, "users", userAddress(properties)));
+        PooledRequestFactory factory = new PooledRequestFactory(
+            properties.getProperty("integration.http.max-total", Integer.class, 100),
+            properties.getProperty("integration.http.default-max-per-host", Integer.class, 10),
+            Duration.ofMillis(properties.getProperty("integration.http.connection-request-timeout-ms", Long.class,
+                1000L)),
+            Duration.ofMillis(properties.getProperty("integration.http.keep-alive-ms", Long.class, 30000L)),
+            peers, meterRegistry);
+        factory.addPeerGuard(peerGuard(properties, "delivery", deliveryAddress(properties), meterRegistry));
+        factory.addPeerGuard(peerGuard(properties, "users", userAddress(properties), meterRegistry));
+        return factory;
+    }
+
+    private static String deliveryAddress(PropertyResolver properties) {
+        return properties.getProperty("integration.delivery.address", DEFAULT_DELIVERY_ADDRESS);
+    }
+
+    private static String userAddress(PropertyResolver properties) {
+        return properties.getProperty("integration.users.address", DEFAULT_USER_ADDRESS);
+    }
+
+    /**
+     * Reads the connection limit and timeouts of a microservice from the integration.[peer].* properties.
+     *
+     * @param properties the properties of the application
+     * @param peer the name of the microservice in the properties
+     * @param address the address of the microservice
+     * @return the settings of the microservice
+     */
+    private static PeerSettings peerSettings(PropertyResolver properties, String peer, String address) {
+        String prefix = "integration." + peer + ".";
+        return new PeerSettings(address,
+            properties.getProperty(prefix + "max-connections", Integer.class, 50),
+            Duration.ofMillis(properties.getProperty(prefix + "connect-timeout-ms", Long.class, 1000L)),
+            Duration.ofMillis(properties.getProperty(prefix + "read-timeout-ms", Long.class, 5000L)));
+    }
+
+    /**
+     * Creates the bulkhead and the circuit breaker of a microservice from the integration.[peer].bulkhead.* and
+     * integration.[peer].breaker.* properties.
+     *
+     * @param properties the properties of the application
+     * @param peer the name of the microservice in the properties
+     * @param address the address of the microservice
+     * @param meterRegistry the registry to which the metrics are published
+     * @return the guard of the requests to the microservice
+     */
+    private static PeerGuard peerGuard(PropertyResolver properties, String peer, String address,
+                                       MeterRegistry meterRegistry) {
+        String bulkhead = "integration." + peer + ".bulkhead.";
+        String breaker = "integration." + peer + ".breaker.";
+        CircuitBreakerSettings settings = new CircuitBreakerSettings(
+            properties.getProperty(breaker + "window-size", Integer.class, 50),
+            properties.getProperty(breaker + "minimum-calls", Integer.class, 10),
+            properties.getProperty(breaker + "failure-rate-threshold", Double.class, 50.0),
+            properties.getProperty(breaker + "slow-call-rate-threshold", Double.class, 80.0),
+            Duration.ofMillis(properties.getProperty(breaker + "slow-call-ms", Long.class, 2000L)),
+            Duration.ofMillis(properties.getProperty(breaker + "open-ms", Long.class, 10000L)),
+            properties.getProperty(breaker + "half-open-calls", Integer.class, 3));
+        return new PeerGuard(peer, address,
+            new Bulkhead(peer, properties.getProperty(bulkhead + "max-concurrent-calls", Integer.class, 50),
+                Duration.ofMillis(properties.getProperty(bulkhead + "max-wait-ms", Long.class, 100L)), meterRegistry),
+            new CircuitBreaker(peer, settings, meterRegistry));
     }
 }
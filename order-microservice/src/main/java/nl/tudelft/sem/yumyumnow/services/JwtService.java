@@ -0,0 +1,72 @@
+package nl.tudelft.sem.yumyumnow.services;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Date;
+import java.util.Optional;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Creates and verifies the signed tokens that carry the ID and role of a user, so that the role can be
+ * checked without asking the Users microservice.
+ * The subject of a token is the user ID, and the role is stored in the "role" claim.
+ */
+@Service
+public class JwtService {
+
+    private static final String ROLE_CLAIM = "role";
+
+    private final byte[] secret;
+
+    /**
+     * Creates a JWT service that signs with the given secret.
+     *
+     * @param secret the secret shared with the microservice that issues the tokens
+     */
+    public JwtService(@Value("${jwt.secret}") String secret) {
+        this.secret = secret.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Creates a token for a user.
+     *
+     * @param userId the ID of the user
+     * @param role the role of the user
+     * @param validity how long the token is valid
+     * @return the signed token
+     */
+    public String createToken(Long userId, String role, Duration validity) {
+        long now = System.currentTimeMillis();
+        return Jwts.builder()
+            .setSubject(userId.toString())
+            .claim(ROLE_CLAIM, role)
+            .setIssuedAt(new Date(now))
+            .setExpiration(new Date(now + validity.toMillis()))
+            .signWith(SignatureAlgorithm.HS256, this.secret)
+            .compact();
+    }
+
+    /**
+     * Verifies the signature and expiration of a token, and reads the user from it.
+     *
+     * @param token the token to verify
+     * @return the user in the token, or an empty optional if the token is invalid or expired
+     */
+    public Optional<VerifiedUser> verify(String token) {
+        try {
+            Claims claims = Jwts.parser().setSigningKey(this.secret).parseClaimsJws(token).getBody();
+            String role = claims.get(ROLE_CLAIM, String.class);
+            if (claims.getSubject() == null || role == null) {
+                return Optional.empty();
+            }
+            return Optional.of(new VerifiedUser(Long.parseLong(claims.getSubject()), role));
+        } catch (JwtException | IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+}
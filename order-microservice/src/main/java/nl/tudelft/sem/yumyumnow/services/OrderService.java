@@ -3,29 +3,45 @@ package nl.tudelft.sem.yumyumnow.services;
 
 import java.time.OffsetDateTime;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Consumer;
+import javax.persistence.EntityManager;
+import nl.tudelft.sem.yumyumnow.database.GradeCount;
 import nl.tudelft.sem.yumyumnow.database.OrderRepository;
+import nl.tudelft.sem.yumyumnow.database.OrderStatusView;
+import nl.tudelft.sem.yumyumnow.database.RatingSummary;
 import nl.tudelft.sem.yumyumnow.model.Customer;
 import nl.tudelft.sem.yumyumnow.model.Dish;
 import nl.tudelft.sem.yumyumnow.model.Location;
 import nl.tudelft.sem.yumyumnow.model.Order;
 import nl.tudelft.sem.yumyumnow.model.Rating;
+import nl.tudelft.sem.yumyumnow.services.analytics.VendorAnalyticsStore;
 import org.aspectj.weaver.ast.Or;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
 
 @Service
 public class OrderService {
 
+    private static final int ORDER_BATCH_SIZE = 100;
 
     private final OrderRepository orderRepository;
     private final CustomerService userService;
+    private final IdGenerator idGenerator;
+    private final VendorAnalyticsStore analyticsStore;
+    private final EntityManager entityManager;
 
 
     /**
@@ -33,11 +49,31 @@ public class OrderService {
      *
      * @param repository  the DB instance where the Orders are stored
      * @param customerService an instance of the user service
+     * @param idGenerator the generator of the IDs of new orders
+     * @param analyticsStore the vendor aggregates, updated when orders are created or deleted
+     */
+    public OrderService(OrderRepository repository, CustomerService customerService, IdGenerator idGenerator,
+                        VendorAnalyticsStore analyticsStore) {
+        this(repository, customerService, idGenerator, analyticsStore, null);
+    }
+
+    /**
+     * Creates a new Order Service that releases the orders it has read in batches from the persistence context.
+     *
+     * @param repository  the DB instance where the Orders are stored
+     * @param customerService an instance of the user service
+     * @param idGenerator the generator of the IDs of new orders
+     * @param analyticsStore the vendor aggregates, updated when orders are created or deleted
+     * @param entityManager the entity manager of the repository, or null if the orders are not managed
      */
     @Autowired
-    public OrderService(OrderRepository repository, CustomerService customerService) {
+    public OrderService(OrderRepository repository, CustomerService customerService, IdGenerator idGenerator,
+                        VendorAnalyticsStore analyticsStore, EntityManager entityManager) {
         this.orderRepository = repository;
         this.userService = customerService;
+        this.idGenerator = idGenerator;
+        this.analyticsStore = analyticsStore;
+        this.entityManager = entityManager;
     }
 
 
@@ -61,13 +97,8 @@ public class OrderService {
      * @return the new Order object, stored in the DB
      */
     public Order createNewOrder(Long customerId, Long vendorId) {
-        try {
-            Thread.sleep(1);
-        } catch (InterruptedException e) {
-            System.out.println("Error: " + e.getMessage());
-        }
         Order order = new Order()
-                .orderId(System.currentTimeMillis())
+                .orderId(this.idGenerator.nextId())
                 .customerId(customerId)
                 .vendorId(vendorId)
                 .location(userService.getDefaultHomeAddress(customerId))
@@ -77,7 +108,9 @@ public class OrderService {
                 .status(Order.StatusEnum.PENDING)
                 .specialRequirenments("")
                 .dishes(new ArrayList<>());
-        return this.orderRepository.save(order);
+        Order saved = this.orderRepository.save(order);
+        this.analyticsStore.orderSaved(saved);
+        return saved;
     }
 
     /** Get all orders in the system.
@@ -88,22 +121,50 @@ public class OrderService {
         return this.orderRepository.findAll();
     }
 
+    /**
+     * Passes the orders that come after the given order id to an action, in ascending order of id.
+     * Only the ids of the orders are read up front. The orders themselves are read in batches together with their
+     * dishes, and each batch is cleared from the persistence context once processed, so at most one batch of orders
+     * is kept in memory. The orders are read in a transaction of their own, so clearing it does not detach the
+     * entities of the caller.
+     *
+     * @param afterOrderId the id of the last order of the previous page, or null to start at the first order
+     * @param limit the maximum number of orders to process
+     * @param action the action to perform on each order
+     */
+    @Transactional(readOnly = true, propagation = Propagation.REQUIRES_NEW)
+    public void forEachOrderAfter(Long afterOrderId, int limit, Consumer<Order> action) {
+        Long after = afterOrderId == null ? Long.MIN_VALUE : afterOrderId;
+        List<Long> orderIds = this.orderRepository.findOrderIdsAfter(after, PageRequest.of(0, limit));
+        for (int from = 0; from < orderIds.size(); from += ORDER_BATCH_SIZE) {
+            List<Long> batch = orderIds.subList(from, Math.min(from + ORDER_BATCH_SIZE, orderIds.size()));
+            this.orderRepository.findWithDishesByOrderIdIn(batch).forEach(action);
+            if (this.entityManager != null) {
+                this.entityManager.clear();
+            }
+        }
+    }
+
     /** Get all orders in the system for a customer.
      *
      * @param customerId The id of the customer.
      * @return The list of all orders for the customer.
      */
     public List<Order> getAllOrdersForCustomer(Long customerId) {
-        List<Order> allOrders = this.orderRepository.findAll();
-        List<Order> allOrdersForCustomer = new ArrayList<>();
+        return this.orderRepository.findAllByCustomerId(customerId);
+    }
 
-        for (Order o : allOrders) {
-            if (Objects.equals(o.getCustomerId(), customerId)) {
-                allOrdersForCustomer.add(o);
-            }
+    /** Get one page of the orders in the system for a customer.
+     *
+     * @param customerId The id of the customer.
+     * @param pageable The page to retrieve. If it is unpaged, all orders of the customer are returned.
+     * @return The list of orders for the customer in the requested page.
+     */
+    public List<Order> getAllOrdersForCustomer(Long customerId, Pageable pageable) {
+        if (pageable == null || pageable.isUnpaged()) {
+            return getAllOrdersForCustomer(customerId);
         }
-
-        return allOrdersForCustomer;
+        return this.orderRepository.findAllByCustomerId(customerId, pageable).getContent();
     }
 
     /** Get all orders in the system for a vendor.
@@ -112,16 +173,42 @@ public class OrderService {
      * @return The list of all orders for the vendor.
      */
     public List<Order> getAllOrdersForVendor(Long vendorId) {
-        List<Order> allOrders = this.orderRepository.findAll();
-        List<Order> allOrdersForVendor = new ArrayList<>();
+        return this.orderRepository.findAllByVendorId(vendorId);
+    }
 
-        for (Order o : allOrders) {
-            if (Objects.equals(o.getVendorId(), vendorId)) {
-                allOrdersForVendor.add(o);
-            }
+    /** Get one page of the orders in the system for a vendor.
+     *
+     * @param vendorId The id of the vendor.
+     * @param pageable The page to retrieve. If it is unpaged, all orders of the vendor are returned.
+     * @return The list of orders for the vendor in the requested page.
+     */
+    public List<Order> getAllOrdersForVendor(Long vendorId, Pageable pageable) {
+        if (pageable == null || pageable.isUnpaged()) {
+            return getAllOrdersForVendor(vendorId);
         }
+        return this.orderRepository.findAllByVendorId(vendorId, pageable).getContent();
+    }
+
+    /**
+     * Get an order of a vendor by its id.
+     *
+     * @param orderId the id of the order
+     * @param vendorId the id of the vendor
+     * @return the order, or an empty optional if the vendor has no order with this id
+     */
+    public Optional<Order> getOrderForVendor(Long orderId, Long vendorId) {
+        return this.orderRepository.findByOrderIdAndVendorId(orderId, vendorId);
+    }
 
-        return allOrdersForVendor;
+    /**
+     * Get the times at which the orders of a vendor were placed, without loading the orders themselves.
+     * Orders without a time are skipped.
+     *
+     * @param vendorId the id of the vendor
+     * @return the times of the vendor's orders
+     */
+    public List<OffsetDateTime> getOrderTimesForVendor(Long vendorId) {
+        return this.orderRepository.findTimesByVendorId(vendorId);
     }
 
     /**
@@ -131,19 +218,38 @@ public class OrderService {
      * @return a list with all the ratings' ids
      */
     public List<Long> getAllRatingsForVendor(Long vendorId) {
-        List<Order> orders = getAllOrdersForVendor(vendorId);
-        List<Long> ratingsIds = new ArrayList<>();
+        List<Long> ratingsIds = this.orderRepository.findRatingIdsByVendorId(vendorId);
 
-        if (orders != null && !orders.isEmpty()) {
-            for (Order o : orders) {
-                ratingsIds.add(o.getRatingId());
-            }
+        if (ratingsIds != null && !ratingsIds.isEmpty()) {
             return ratingsIds;
         } else {
             return null;
         }
     }
 
+    /**
+     * Counts the rated orders of a vendor and averages their grades with a single query, instead of
+     * loading every rating. Orders that are not rated are skipped.
+     *
+     * @param vendorId the id of the vendor
+     * @param histogram whether to also count the orders per grade, with a second query
+     * @return the number of rated orders, their average grade and, if asked for, the number of orders per grade
+     */
+    public RatingSummary getRatingSummaryForVendor(Long vendorId, boolean histogram) {
+        RatingSummary summary = this.orderRepository.summarizeRatingsByVendorId(vendorId);
+        if (summary == null) {
+            summary = new RatingSummary(0L, null);
+        }
+        if (histogram) {
+            Map<Long, Long> grades = new LinkedHashMap<>();
+            for (GradeCount gradeCount : this.orderRepository.countGradesByVendorId(vendorId)) {
+                grades.put(gradeCount.getGrade(), gradeCount.getCount());
+            }
+            summary.setHistogram(grades);
+        }
+        return summary;
+    }
+
     /**
      * Checks if an order belongs to the specified id in the DB.
      *
@@ -178,6 +284,16 @@ public class OrderService {
     }
 
 
+    /**
+     * Retrieves the status of an order and the ids of its customer and vendor, without loading the whole order.
+     *
+     * @param orderId the id of the order.
+     * @return the status view of the order, or an empty optional if the order does not exist.
+     */
+    public Optional<OrderStatusView> getOrderStatusView(Long orderId) {
+        return this.orderRepository.findStatusViewByOrderId(orderId);
+    }
+
     /**
      * Check if a user is the vendor or the customer of a specific order.
      *
@@ -205,6 +321,7 @@ public class OrderService {
         if (optionalOrder.isPresent()) {
             Order orderToDelete = optionalOrder.get();
             this.orderRepository.delete(orderToDelete);
+            this.analyticsStore.orderDeleted(orderId);
             return true;
         } else {
             return false;
@@ -0,0 +1,185 @@
+package nl.tudelft.sem.yumyumnow.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Caches the roles retrieved from the Users microservice, so that authorization checks do not need an HTTP call.
+ * Known roles are kept for a TTL, and users the Users microservice does not know are kept for a shorter TTL.
+ * When the cache is full, the least recently used entry is evicted.
+ * Every invalidation starts a new generation of the cache, and a role loaded during an earlier generation is
+ * returned but not cached, so that a load racing with an invalidation cannot put back the role it removed.
+ */
+@Service
+public class RoleCache {
+
+    private final int maxSize;
+    private final long ttlMillis;
+    private final long negativeTtlMillis;
+    private final LongSupplier clock;
+    private final Map<Long, Entry> entries;
+    private final Counter hits;
+    private final Counter misses;
+    private volatile long generation;
+
+    /**
+     * Creates a role cache configured from the application properties.
+     *
+     * @param maxSize the maximum number of users whose role is cached
+     * @param ttlMillis how long a known role is cached, in milliseconds
+     * @param negativeTtlMillis how long an unknown user is cached, in milliseconds
+     * @param meterRegistry the registry to which the hit and miss counts are published
+     */
+    @Autowired
+    public RoleCache(@Value("${auth.role-cache.max-size:10000}") int maxSize,
+                     @Value("${auth.role-cache.ttl-ms:60000}") long ttlMillis,
+                     @Value("${auth.role-cache.negative-ttl-ms:10000}") long negativeTtlMillis,
+                     MeterRegistry meterRegistry) {
+        this(maxSize, Duration.ofMillis(ttlMillis), Duration.ofMillis(negativeTtlMillis),
+            System::currentTimeMillis, meterRegistry);
+    }
+
+    /**
+     * Creates a role cache with a custom clock.
+     *
+     * @param maxSize the maximum number of users whose role is cached
+     * @param ttl how long a known role is cached
+     * @param negativeTtl how long an unknown user is cached
+     * @param clock the source of the current time in milliseconds
+     * @param meterRegistry the registry to which the hit and miss counts are published
+     */
+    public RoleCache(int maxSize, Duration ttl, Duration negativeTtl, LongSupplier clock,
+                     MeterRegistry meterRegistry) {
+        this.maxSize = maxSize;
+        this.ttlMillis = ttl.toMillis();
+        this.negativeTtlMillis = negativeTtl.toMillis();
+        this.clock = clock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+        this.generation = 0;
+        this.hits = meterRegistry.counter("auth.role.cache", "result", "hit");
+        this.misses = meterRegistry.counter("auth.role.cache", "result", "miss");
+        meterRegistry.gauge("auth.role.cache.size", this, RoleCache::size);
+    }
+
+    /**
+     * Returns the role of a user, loading and caching it if it is not cached or has expired.
+     * The loader is called without holding the lock of the cache. If it throws, or the cache is invalidated while
+     * it runs, nothing is cached.
+     *
+     * @param userId the ID of the user
+     * @param loader retrieves the role of a user, returning null if the user is unknown
+     * @return the role of the user, or null if the user is unknown
+     */
+    public String getRole(Long userId, Function<Long, String> loader) {
+        long loadedIn = this.generation;
+        Entry entry = this.find(userId);
+        if (entry != null) {
+            return entry.role;
+        }
+        String role = loader.apply(userId);
+        this.put(userId, role, loadedIn);
+        return role;
+    }
+
+    /**
+     * Returns the role of a user without waiting for it to be loaded if it is not cached or has expired.
+     * The role is cached when the loader completes. If it completes exceptionally, or the cache is invalidated
+     * before it completes, nothing is cached.
+     *
+     * @param userId the ID of the user
+     * @param loader starts retrieving the role of a user, completing with null if the user is unknown
+     * @return the role of the user, completing with null if the user is unknown
+     */
+    public CompletableFuture<String> getRoleAsync(Long userId, Function<Long, CompletableFuture<String>> loader) {
+        long loadedIn = this.generation;
+        Entry entry = this.find(userId);
+        if (entry != null) {
+            return CompletableFuture.completedFuture(entry.role);
+        }
+        return loader.apply(userId).thenApply(role -> {
+            this.put(userId, role, loadedIn);
+            return role;
+        });
+    }
+
+    /**
+     * Looks up the cached role of a user, counting a hit or a miss.
+     *
+     * @param userId the ID of the user
+     * @return the entry of the user, or null if it is not cached or has expired
+     */
+    private synchronized Entry find(Long userId) {
+        Entry entry = this.entries.get(userId);
+        if (entry != null && entry.expiresAt > this.clock.getAsLong()) {
+            this.hits.increment();
+            return entry;
+        }
+        this.misses.increment();
+        return null;
+    }
+
+    /**
+     * Caches the role of a user, unless the cache has been invalidated since the role started loading.
+     *
+     * @param userId the ID of the user
+     * @param role the role of the user, or null if the user is unknown
+     * @param loadedIn the generation of the cache when the role started loading
+     */
+    private synchronized void put(Long userId, String role, long loadedIn) {
+        if (loadedIn != this.generation) {
+            return;
+        }
+        long ttl = role == null ? this.negativeTtlMillis : this.ttlMillis;
+        this.entries.put(userId, new Entry(role, this.clock.getAsLong() + ttl));
+        if (this.entries.size() > this.maxSize) {
+            Long eldest = this.entries.keySet().iterator().next();
+            this.entries.remove(eldest);
+        }
+    }
+
+    /**
+     * Removes the cached role of a user, so that the next check retrieves it again.
+     *
+     * @param userId the ID of the user
+     */
+    public synchronized void invalidate(Long userId) {
+        this.generation++;
+        this.entries.remove(userId);
+    }
+
+    /**
+     * Removes all cached roles.
+     */
+    public synchronized void invalidateAll() {
+        this.generation++;
+        this.entries.clear();
+    }
+
+    /**
+     * Returns the number of cached roles, including expired ones that have not been removed yet.
+     *
+     * @return the number of entries in the cache
+     */
+    public synchronized int size() {
+        return this.entries.size();
+    }
+
+    private static final class Entry {
+        private final String role;
+        private final long expiresAt;
+
+        private Entry(String role, long expiresAt) {
+            this.role = role;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -8,6 +8,7 @@ import nl.tudelft.sem.yumyumnow.database.OrderRepository;
 import nl.tudelft.sem.yumyumnow.model.Dish;
 import nl.tudelft.sem.yumyumnow.model.Location;
 import nl.tudelft.sem.yumyumnow.model.Order;
+import nl.tudelft.sem.yumyumnow.services.analytics.VendorAnalyticsStore;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
@@ -16,6 +17,7 @@ public class UpdatesOrderService {
     private final OrderRepository orderRepository;
     private final CustomerService userService;
     private final OrderService orderService;
+    private final VendorAnalyticsStore analyticsStore;
 
 
     /**
@@ -23,12 +25,15 @@ public class UpdatesOrderService {
      *
      * @param repository  the DB instance where the Orders are stored
      * @param customerService an instance of the user service
+     * @param analyticsStore the vendor aggregates, updated when orders are modified
      */
     @Autowired
-    public UpdatesOrderService(OrderRepository repository, CustomerService customerService, OrderService orderService) {
+    public UpdatesOrderService(OrderRepository repository, CustomerService customerService, OrderService orderService,
+                               VendorAnalyticsStore analyticsStore) {
         this.orderRepository = repository;
         this.userService = customerService;
         this.orderService = orderService;
+        this.analyticsStore = analyticsStore;
     }
 
     /**
@@ -44,24 +49,27 @@ public class UpdatesOrderService {
         if (modifiedOrderOptional.isPresent()) {
             Order modifiedOrder = newOrder;
             modifiedOrder.setOrderId(orderId);
-            this.orderRepository.save(modifiedOrder);
+            this.analyticsStore.orderSaved(this.orderRepository.save(modifiedOrder));
             return modifiedOrder;
         }
         return null;
     }
 
     /**
-     * Updates the status of an order, and saves the changes to the DB.
+     * Updates the status of an order in the DB with a single update statement, without loading the order.
+     * The analytics store is told about the new status, so that the price of the order counts as an order value
+     * exactly while the order is completed.
      *
      * @param orderId the order to modify.
      * @param status the new order status.
-     * @return true if the order was modified successfully.
+     * @return true if the order was modified successfully, false if it does not exist.
      */
     public boolean setOrderStatus(Long orderId, Order.StatusEnum status) {
-        Order order = this.orderService.getOrderById(orderId);
-        order.setStatus(status);
-        Order saved = this.orderRepository.save(order);
-        return saved.getStatus() == status;
+        boolean updated = this.orderRepository.updateStatusByOrderId(orderId, status) == 1;
+        if (updated) {
+            this.analyticsStore.orderStatusChanged(orderId, status);
+        }
+        return updated;
     }
 
     /**
@@ -92,6 +100,7 @@ public class UpdatesOrderService {
         }
         order.dishes(dishes).location(location).status(status).time(time);
         Order saved = this.orderRepository.save(order);
+        this.analyticsStore.orderSaved(saved);
         return Objects.equals(saved.getOrderId(), orderId)
             && (location == null || Objects.equals(saved.getLocation(), location))
             && (status == null || Objects.equals(saved.getStatus(), status))
@@ -111,6 +120,7 @@ public class UpdatesOrderService {
 
         if (exists) {
             Order saved = orderRepository.save(order);
+            this.analyticsStore.orderSaved(saved);
             return Optional.of(saved);
         } else {
             return Optional.empty();
@@ -128,6 +138,7 @@ public class UpdatesOrderService {
         Order order = this.orderService.getOrderById(orderId);
         order.getDishes().removeIf(x -> Objects.equals(x.getId(), dish.getId()));
         Order saved = this.orderRepository.save(order);
+        this.analyticsStore.orderSaved(saved);
         return saved.getDishes().stream().noneMatch(x -> Objects.equals(x.getId(), dish.getId()));
     }
 }
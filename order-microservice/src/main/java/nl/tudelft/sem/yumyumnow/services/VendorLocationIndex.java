@@ -0,0 +1,315 @@
+package nl.tudelft.sem.yumyumnow.services;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import nl.tudelft.sem.yumyumnow.model.Location;
+import nl.tudelft.sem.yumyumnow.model.Vendor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * An in-memory grid index of the vendor locations, used to find the vendors within a radius of a location
+ * without computing the distance to every vendor.
+ * The world is divided into square cells of a fixed number of degrees. A radius search only visits the cells
+ * overlapping the bounding box of the circle, and computes the exact distance only for the vendors in those cells.
+ * Longitudes are wrapped to [-180, 180) before their cell is computed, so the cells along the antimeridian are
+ * found from both sides, even when the cell size does not divide 360 and the last cell is narrower.
+ */
+@Service
+public class VendorLocationIndex {
+
+    /**
+     * The mean radius of the Earth, in meters.
+     */
+    public static final double EARTH_RADIUS = 6_371_000.0;
+
+    private final double cellSize;
+    private final int latitudeCells;
+    private final int longitudeCells;
+    private final Object rebuildLock;
+    private volatile Grid grid;
+    private Set<Long> changedDuringRebuild;
+    private volatile boolean loaded;
+
+    /**
+     * The content of the index: the vendors in each cell and the position of each vendor. A rebuild fills a new grid
+     * and swaps it in, so that searches never see a half-built one.
+     */
+    private static final class Grid {
+        private final Map<Long, Set<Long>> cells = new ConcurrentHashMap<>();
+        private final Map<Long, double[]> positions = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Creates an empty index.
+     *
+     * @param cellSize the size of a cell of the grid, in degrees
+     */
+    @Autowired
+    public VendorLocationIndex(@Value("${vendors.location-index.cell-size:0.1}") double cellSize) {
+        if (cellSize <= 0 || cellSize > 180) {
+            throw new IllegalArgumentException("The cell size must be between 0 and 180 degrees");
+        }
+        this.cellSize = cellSize;
+        this.latitudeCells = (int) Math.ceil(180 / cellSize);
+        this.longitudeCells = (int) Math.ceil(360 / cellSize);
+        this.rebuildLock = new Object();
+        this.grid = new Grid();
+        this.changedDuringRebuild = null;
+        this.loaded = false;
+    }
+
+    /**
+     * Checks whether the index has been filled with all vendors.
+     *
+     * @return true if {@link #rebuild(Supplier)} has completed
+     */
+    public boolean isLoaded() {
+        return this.loaded;
+    }
+
+    /**
+     * Replaces the content of the index with the given vendors.
+     *
+     * @param vendors all vendors
+     */
+    public void rebuild(List<Vendor> vendors) {
+        rebuild(() -> vendors);
+    }
+
+    /**
+     * Replaces the content of the index with the vendors returned by the loader. The vendors are loaded and the new
+     * grid is filled without blocking updates, and the grid is swapped in at once. Vendors updated or removed while
+     * the vendors were loaded keep their current entry, as the loaded copy of them may be older.
+     *
+     * @param loader loads all vendors
+     */
+    public void rebuild(Supplier<List<Vendor>> loader) {
+        synchronized (this.rebuildLock) {
+            synchronized (this) {
+                this.changedDuringRebuild = new HashSet<>();
+            }
+            Grid rebuilt = new Grid();
+            try {
+                for (Vendor vendor : loader.get()) {
+                    double[] position = positionOf(vendor);
+                    if (vendor.getId() != null && position != null) {
+                        put(rebuilt, vendor.getId(), position);
+                    }
+                }
+                synchronized (this) {
+                    for (Long vendorId : this.changedDuringRebuild) {
+                        remove(rebuilt, vendorId);
+                        double[] position = this.grid.positions.get(vendorId);
+                        if (position != null) {
+                            put(rebuilt, vendorId, position);
+                        }
+                    }
+                    this.grid = rebuilt;
+                    this.loaded = true;
+                }
+            } finally {
+                synchronized (this) {
+                    this.changedDuringRebuild = null;
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds a vendor to the index, or moves it if its location has changed.
+     * A vendor without a valid location is removed from the index.
+     *
+     * @param vendor the saved vendor
+     */
+    public synchronized void update(Vendor vendor) {
+        if (vendor.getId() == null) {
+            return;
+        }
+        remove(vendor.getId());
+        double[] position = positionOf(vendor);
+        if (position != null) {
+            put(this.grid, vendor.getId(), position);
+        }
+    }
+
+    /**
+     * Removes a vendor from the index.
+     *
+     * @param vendorId the ID of the vendor
+     */
+    public synchronized void remove(Long vendorId) {
+        if (this.changedDuringRebuild != null) {
+            this.changedDuringRebuild.add(vendorId);
+        }
+        remove(this.grid, vendorId);
+    }
+
+    /**
+     * Finds the vendors within a radius of a location.
+     *
+     * @param location the center of the search
+     * @param radius the radius of the search, in meters
+     * @return the IDs of the vendors whose location is at most radius meters away from the given location
+     */
+    public List<Long> findWithinRadius(Location location, double radius) {
+        List<Long> found = new ArrayList<>();
+        if (location == null || location.getLatitude() == null || location.getLongitude() == null || radius < 0) {
+            return found;
+        }
+        double latitude = location.getLatitude();
+        double longitude = location.getLongitude();
+        double latitudeDelta = Math.toDegrees(radius / EARTH_RADIUS);
+        double minLatitude = Math.max(-90, latitude - latitudeDelta);
+        double maxLatitude = Math.min(90, latitude + latitudeDelta);
+        double longitudeDelta = longitudeDelta(minLatitude, maxLatitude, latitudeDelta);
+        Grid current = this.grid;
+
+        List<int[]> longitudeRanges = new ArrayList<>();
+        if (longitudeDelta >= 180) {
+            longitudeRanges.add(new int[] {0, this.longitudeCells - 1});
+        } else {
+            double west = wrapLongitude(longitude - longitudeDelta);
+            double east = wrapLongitude(longitude + longitudeDelta);
+            if (west <= east) {
+                longitudeRanges.add(new int[] {longitudeIndex(west), longitudeIndex(east)});
+            } else {
+                longitudeRanges.add(new int[] {longitudeIndex(west), this.longitudeCells - 1});
+                longitudeRanges.add(new int[] {0, longitudeIndex(east)});
+            }
+        }
+        for (int i = latitudeIndex(minLatitude); i <= latitudeIndex(maxLatitude); i++) {
+            for (int[] range : longitudeRanges) {
+                for (int j = range[0]; j <= range[1]; j++) {
+                    Set<Long> cell = current.cells.get(cellKey(i, j));
+                    if (cell == null) {
+                        continue;
+                    }
+                    for (Long vendorId : cell) {
+                        double[] position = current.positions.get(vendorId);
+                        if (position != null && position[0] >= minLatitude && position[0] <= maxLatitude
+                            && longitudeDifference(longitude, position[1]) <= longitudeDelta
+                            && distance(latitude, longitude, position[0], position[1]) <= radius) {
+                            found.add(vendorId);
+                        }
+                    }
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Computes the great-circle distance between two points with the haversine formula.
+     *
+     * @param latitude1 the latitude of the first point, in degrees
+     * @param longitude1 the longitude of the first point, in degrees
+     * @param latitude2 the latitude of the second point, in degrees
+     * @param longitude2 the longitude of the second point, in degrees
+     * @return the distance between the points, in meters
+     */
+    public static double distance(double latitude1, double longitude1, double latitude2, double longitude2) {
+        double latitudeSin = Math.sin(Math.toRadians(latitude2 - latitude1) / 2);
+        double longitudeSin = Math.sin(Math.toRadians(longitude2 - longitude1) / 2);
+        double a = latitudeSin * latitudeSin
+            + Math.cos(Math.toRadians(latitude1)) * Math.cos(Math.toRadians(latitude2)) * longitudeSin * longitudeSin;
+        return 2 * EARTH_RADIUS * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    /**
+     * Computes how many degrees of longitude the bounding box of a search spans on each side of its center.
+     *
+     * @param minLatitude the southern edge of the bounding box
+     * @param maxLatitude the northern edge of the bounding box
+     * @param latitudeDelta the number of degrees of latitude the radius spans
+     * @return the number of degrees of longitude, 180 if the bounding box covers all longitudes
+     */
+    private static double longitudeDelta(double minLatitude, double maxLatitude, double latitudeDelta) {
+        double widestLatitude = Math.max(Math.abs(minLatitude), Math.abs(maxLatitude));
+        if (widestLatitude >= 90) {
+            return 180;
+        }
+        return Math.min(180, latitudeDelta / Math.cos(Math.toRadians(widestLatitude)));
+    }
+
+    /**
+     * Computes the difference between two longitudes, going around the antimeridian if that is shorter.
+     *
+     * @param longitude1 the first longitude, in degrees
+     * @param longitude2 the second longitude, in degrees
+     * @return the difference, between 0 and 180 degrees
+     */
+    private static double longitudeDifference(double longitude1, double longitude2) {
+        double difference = Math.abs(longitude1 - longitude2) % 360;
+        return difference > 180 ? 360 - difference : difference;
+    }
+
+    /**
+     * Reads the position of a vendor.
+     *
+     * @param vendor the vendor
+     * @return the latitude and longitude of the vendor, or null if it has no valid location
+     */
+    private static double[] positionOf(Vendor vendor) {
+        Location location = vendor.getLocation();
+        if (location == null || location.getLatitude() == null || location.getLongitude() == null) {
+            return null;
+        }
+        double latitude = location.getLatitude();
+        double longitude = location.getLongitude();
+        if (Math.abs(latitude) > 90 || Math.abs(longitude) > 180) {
+            return null;
+        }
+        return new double[] {latitude, longitude};
+    }
+
+    private void put(Grid grid, Long vendorId, double[] position) {
+        grid.positions.put(vendorId, position);
+        grid.cells.computeIfAbsent(cellKey(latitudeIndex(position[0]), longitudeIndex(position[1])),
+            key -> ConcurrentHashMap.newKeySet()).add(vendorId);
+    }
+
+    private void remove(Grid grid, Long vendorId) {
+        double[] position = grid.positions.remove(vendorId);
+        if (position == null) {
+            return;
+        }
+        long key = cellKey(latitudeIndex(position[0]), longitudeIndex(position[1]));
+        Set<Long> cell = grid.cells.get(key);
+        if (cell != null) {
+            cell.remove(vendorId);
+            if (cell.isEmpty()) {
+                grid.cells.remove(key);
+            }
+        }
+    }
+
+    private int latitudeIndex(double latitude) {
+        return Math.min(this.latitudeCells - 1, (int) Math.floor((latitude + 90) / this.cellSize));
+    }
+
+    private int longitudeIndex(double longitude) {
+        return Math.min(this.longitudeCells - 1, (int) Math.floor((wrapLongitude(longitude) + 180) / this.cellSize));
+    }
+
+    /**
+     * Wraps a longitude to [-180, 180), so that 180 and -180 fall in the same cell.
+     *
+     * @param longitude the longitude, in degrees
+     * @return the same longitude between -180 inclusive and 180 exclusive
+     */
+    private static double wrapLongitude(double longitude) {
+        double wrapped = ((longitude + 180) % 360 + 360) % 360;
+        return wrapped - 180;
+    }
+
+    private long cellKey(int latitudeIndex, int longitudeIndex) {
+        return (long) latitudeIndex * this.longitudeCells + longitudeIndex;
+    }
+}
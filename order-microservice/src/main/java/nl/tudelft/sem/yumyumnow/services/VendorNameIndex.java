@@ -0,0 +1,265 @@
+package nl.tudelft.sem.yumyumnow.services;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import nl.tudelft.sem.yumyumnow.model.Vendor;
+import org.springframework.stereotype.Service;
+
+/**
+ * An in-memory trigram index of the vendor names, used to find the vendors whose name contains a filter
+ * without scanning every vendor.
+ * Every name is split into its overlapping sequences of three characters, and each trigram points to the vendors
+ * whose name contains it. A search only checks the vendors having all trigrams of the filter, and matches are
+ * case-sensitive, like the LIKE query of the DB.
+ */
+@Service
+public class VendorNameIndex {
+
+    /**
+     * The number of characters in an indexed sequence.
+     */
+    public static final int GRAM_LENGTH = 3;
+
+    private final Object rebuildLock;
+    private volatile Postings content;
+    private Set<Long> changedDuringRebuild;
+    private volatile boolean loaded;
+
+    /**
+     * The content of the index: the vendors having each trigram and the name of each vendor. A rebuild fills new
+     * postings and swaps them in, so that searches never see half-built ones.
+     */
+    private static final class Postings {
+        private final Map<Long, Set<Long>> postings = new ConcurrentHashMap<>();
+        private final Map<Long, String> names = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Creates an empty index.
+     */
+    public VendorNameIndex() {
+        this.rebuildLock = new Object();
+        this.content = new Postings();
+        this.changedDuringRebuild = null;
+        this.loaded = false;
+    }
+
+    /**
+     * Checks whether the index has been filled with all vendors.
+     *
+     * @return true if {@link #rebuild(Supplier)} has completed
+     */
+    public boolean isLoaded() {
+        return this.loaded;
+    }
+
+    /**
+     * Replaces the content of the index with the given vendors.
+     *
+     * @param vendors all vendors
+     */
+    public void rebuild(List<Vendor> vendors) {
+        rebuild(() -> vendors);
+    }
+
+    /**
+     * Replaces the content of the index with the vendors returned by the loader. The vendors are loaded and the new
+     * postings are filled without blocking updates, and they are swapped in at once. Vendors updated or removed while
+     * the vendors were loaded keep their current entry, as the loaded copy of them may be older.
+     *
+     * @param loader loads all vendors
+     */
+    public void rebuild(Supplier<List<Vendor>> loader) {
+        synchronized (this.rebuildLock) {
+            synchronized (this) {
+                this.changedDuringRebuild = new HashSet<>();
+            }
+            Postings rebuilt = new Postings();
+            try {
+                for (Vendor vendor : loader.get()) {
+                    if (vendor.getId() != null && vendor.getName() != null) {
+                        put(rebuilt, vendor.getId(), vendor.getName());
+                    }
+                }
+                synchronized (this) {
+                    for (Long vendorId : this.changedDuringRebuild) {
+                        remove(rebuilt, vendorId);
+                        String name = this.content.names.get(vendorId);
+                        if (name != null) {
+                            put(rebuilt, vendorId, name);
+                        }
+                    }
+                    this.content = rebuilt;
+                    this.loaded = true;
+                }
+            } finally {
+                synchronized (this) {
+                    this.changedDuringRebuild = null;
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds a vendor to the index, or re-indexes it if its name has changed.
+     * A vendor without a name is removed from the index.
+     *
+     * @param vendor the saved vendor
+     */
+    public synchronized void update(Vendor vendor) {
+        if (vendor.getId() == null) {
+            return;
+        }
+        if (this.changedDuringRebuild != null) {
+            this.changedDuringRebuild.add(vendor.getId());
+        }
+        String name = vendor.getName();
+        if (name != null && name.equals(this.content.names.get(vendor.getId()))) {
+            return;
+        }
+        remove(vendor.getId());
+        if (name != null) {
+            put(this.content, vendor.getId(), name);
+        }
+    }
+
+    /**
+     * Removes a vendor from the index.
+     *
+     * @param vendorId the ID of the vendor
+     */
+    public synchronized void remove(Long vendorId) {
+        if (this.changedDuringRebuild != null) {
+            this.changedDuringRebuild.add(vendorId);
+        }
+        remove(this.content, vendorId);
+    }
+
+    /**
+     * Finds the vendors whose name contains a filter, best matches first.
+     * A name equal to the filter ranks first, then names starting with it, then names having it at the start of
+     * a word, then the other names. Within a rank, earlier and then shorter matches come first.
+     *
+     * @param filter the text the name must contain
+     * @return the IDs of the matching vendors, ranked by match quality
+     */
+    public List<Long> search(String filter) {
+        if (filter == null) {
+            return new ArrayList<>();
+        }
+        Postings current = this.content;
+        Map<Long, String> matches = new HashMap<>();
+        for (Long vendorId : candidates(current, filter)) {
+            String name = current.names.get(vendorId);
+            if (name != null && name.contains(filter)) {
+                matches.put(vendorId, name);
+            }
+        }
+        List<Long> found = new ArrayList<>(matches.keySet());
+        found.sort(Comparator.<Long>comparingInt(vendorId -> rank(matches.get(vendorId), filter))
+            .thenComparingInt(vendorId -> matches.get(vendorId).indexOf(filter))
+            .thenComparingInt(vendorId -> matches.get(vendorId).length())
+            .thenComparing(vendorId -> vendorId));
+        return found;
+    }
+
+    /**
+     * Returns the vendors that may contain a filter: the vendors having all of its trigrams,
+     * or all vendors if the filter is too short to have a trigram.
+     *
+     * @param current the content of the index
+     * @param filter the text the name must contain
+     * @return the IDs of the vendors to check
+     */
+    private static Iterable<Long> candidates(Postings current, String filter) {
+        if (filter.length() < GRAM_LENGTH) {
+            return current.names.keySet();
+        }
+        List<Set<Long>> lists = new ArrayList<>();
+        for (long gram : grams(filter)) {
+            Set<Long> posting = current.postings.get(gram);
+            if (posting == null) {
+                return List.of();
+            }
+            lists.add(posting);
+        }
+        lists.sort(Comparator.comparingInt(Set::size));
+        List<Long> candidates = new ArrayList<>();
+        for (Long vendorId : lists.get(0)) {
+            boolean inAll = true;
+            for (int i = 1; i < lists.size() && inAll; i++) {
+                inAll = lists.get(i).contains(vendorId);
+            }
+            if (inAll) {
+                candidates.add(vendorId);
+            }
+        }
+        return candidates;
+    }
+
+    /**
+     * Ranks how well a name matches a filter it contains.
+     *
+     * @param name the name of the vendor
+     * @param filter the text contained in the name
+     * @return 0 if the name is the filter, 1 if it starts with it, 2 if a word starts with it, 3 otherwise
+     */
+    static int rank(String name, String filter) {
+        if (name.equals(filter)) {
+            return 0;
+        }
+        if (name.startsWith(filter)) {
+            return 1;
+        }
+        for (int i = name.indexOf(filter); i >= 0; i = name.indexOf(filter, i + 1)) {
+            if (i > 0 && !Character.isLetterOrDigit(name.charAt(i - 1))) {
+                return 2;
+            }
+        }
+        return 3;
+    }
+
+    private static void put(Postings content, Long vendorId, String name) {
+        content.names.put(vendorId, name);
+        for (long gram : grams(name)) {
+            content.postings.computeIfAbsent(gram, key -> ConcurrentHashMap.newKeySet()).add(vendorId);
+        }
+    }
+
+    private static void remove(Postings content, Long vendorId) {
+        String name = content.names.remove(vendorId);
+        if (name == null) {
+            return;
+        }
+        for (long gram : grams(name)) {
+            Set<Long> posting = content.postings.get(gram);
+            if (posting != null) {
+                posting.remove(vendorId);
+                if (posting.isEmpty()) {
+                    content.postings.remove(gram);
+                }
+            }
+        }
+    }
+
+    /**
+     * Splits a text into its distinct trigrams, each packed into a long.
+     *
+     * @param text the text to split
+     * @return the trigrams of the text
+     */
+    private static Set<Long> grams(String text) {
+        Set<Long> grams = new HashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+            grams.add(((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2));
+        }
+        return grams;
+    }
+}
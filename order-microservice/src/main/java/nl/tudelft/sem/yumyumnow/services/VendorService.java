@@ -1,16 +1,21 @@
 package nl.tudelft.sem.yumyumnow.services;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 import nl.tudelft.sem.yumyumnow.database.VendorRepository;
 import nl.tudelft.sem.yumyumnow.model.Customer;
 import nl.tudelft.sem.yumyumnow.model.Dish;
 import nl.tudelft.sem.yumyumnow.model.Location;
 import nl.tudelft.sem.yumyumnow.model.Order;
 import nl.tudelft.sem.yumyumnow.model.Vendor;
+import nl.tudelft.sem.yumyumnow.services.analytics.VendorAnalyticsStore;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
@@ -20,7 +25,12 @@ public class VendorService {
     private final VendorRepository vendorRepository;
     private final OrderService orderService;
     private final CustomerService customerService;
-
+    private final IdGenerator idGenerator;
+    private final VendorLocationIndex locationIndex;
+    private final VendorNameIndex nameIndex;
+    private final AllergenDictionary allergenDictionary;
+    private final VendorAnalyticsStore analyticsStore;
+    private final Object indexLoadLock = new Object();
 
     /**
      * Creates a new Vendor Service.
@@ -28,12 +38,24 @@ public class VendorService {
      * @param repository the DB instance where the Vendors are stored
      * @param customerService an instance of the user service
      * @param orderService an instance of the order service
+     * @param idGenerator the generator of the IDs of new vendors
+     * @param locationIndex the index of the vendor locations, kept in sync when vendors are saved
+     * @param nameIndex the index of the vendor names, kept in sync when vendors are saved
+     * @param allergenDictionary the allergen masks of the dishes, kept in sync when dishes are saved
+     * @param analyticsStore the vendor aggregates, updated when the dishes of a vendor change
      */
     @Autowired
-    public VendorService(VendorRepository repository, CustomerService customerService, OrderService orderService) {
+    public VendorService(VendorRepository repository, CustomerService customerService, OrderService orderService,
+                         IdGenerator idGenerator, VendorLocationIndex locationIndex, VendorNameIndex nameIndex,
+                         AllergenDictionary allergenDictionary, VendorAnalyticsStore analyticsStore) {
         this.vendorRepository = repository;
         this.customerService = customerService;
         this.orderService = orderService;
+        this.idGenerator = idGenerator;
+        this.locationIndex = locationIndex;
+        this.nameIndex = nameIndex;
+        this.allergenDictionary = allergenDictionary;
+        this.analyticsStore = analyticsStore;
     }
 
     /**
@@ -63,6 +85,7 @@ public class VendorService {
 
     /**
      * Returns a restaurant's list of dishes which a customer is not allergic to.
+     * The allergens of the customer are compiled into a mask once, and each dish is checked with its stored mask.
      *
      * @param vendorId The id of the vendor.
      * @param customerId The id of the customer.
@@ -73,22 +96,7 @@ public class VendorService {
         Customer customer = this.customerService.getCustomer(customerId);
         if (vendorOptional.isPresent() && customer != null) {
             Vendor vendor = vendorOptional.get();
-            List<Dish> vendorDish = vendor.getDishes();
-            List<String> allergens = customer.getAllergens();
-            List<Dish> dishesWithoutAllergens = new ArrayList<>();
-            for (Dish dish : vendorDish) {
-                boolean hasAllergens = false;
-                for (String allergen : dish.getAllergens()) {
-                    if (allergens.contains(allergen)) {
-                        hasAllergens = true;
-                        break;
-                    }
-                }
-                if (!hasAllergens) {
-                    dishesWithoutAllergens.add(dish);
-                }
-            }
-            return dishesWithoutAllergens;
+            return this.allergenDictionary.withoutAllergens(vendor.getDishes(), customer.getAllergens());
         }
         return null;
     }
@@ -100,15 +108,10 @@ public class VendorService {
      * @return The vendor with the corresponding id.
      */
     public Vendor createNewVendor(String vendorName) {
-        try {
-            Thread.sleep(1);
-        } catch (InterruptedException e) {
-            System.out.println("Error: " + e.getMessage());
-        }
         Vendor vendor = new Vendor();
         vendor.setName(vendorName);
-        vendor.setId(System.currentTimeMillis());
-        return this.vendorRepository.save(vendor);
+        vendor.setId(this.idGenerator.nextId());
+        return save(vendor);
     }
 
     /**
@@ -118,9 +121,9 @@ public class VendorService {
      */
     public void saveVendor(Vendor vendor) {
         if (vendor.getId() == null) {
-            vendor.setId(System.currentTimeMillis());
+            vendor.setId(this.idGenerator.nextId());
         }
-        this.vendorRepository.save(vendor);
+        save(vendor);
     }
 
     /**
@@ -132,7 +135,8 @@ public class VendorService {
      */
     public boolean removeDishFromVendor(Dish dish, Vendor vendor) {
         vendor.getDishes().removeIf(x -> Objects.equals(x.getId(), dish.getId()));
-        Vendor savedVendor = vendorRepository.save(vendor);
+        Vendor savedVendor = save(vendor);
+        this.allergenDictionary.removeDish(dish.getId());
         boolean removed = !(savedVendor.getDishes().contains(dish));
         return removed;
     }
@@ -146,16 +150,9 @@ public class VendorService {
      */
 
     public List<Dish> getDishesToPrepare(Long orderId, Long vendorId) {
-        List<Order> orders = this.orderService.getAllOrdersForVendor(vendorId);
-        Order order = null;
-        for (Order o : orders) {
-            if (Objects.equals(o.getOrderId(), orderId)) {
-                order = o;
-                break;
-            }
-        }
-        if (order != null) {
-            return order.getDishes();
+        Optional<Order> order = this.orderService.getOrderForVendor(orderId, vendorId);
+        if (order.isPresent()) {
+            return order.get().getDishes();
         }
         return null;
     }
@@ -171,17 +168,21 @@ public class VendorService {
 
 
     /**
-     * Return a list of vendors filtered by name.
+     * Return a list of vendors filtered by name, best matches first.
+     * The matching vendors are found with the name index, and only those are loaded from the DB.
      *
      * @param filter The filter to apply to the vendor's name.
      * @return List of vendors filtered by name.
      */
     public List<Vendor> findByVendorNameContaining(String filter) {
-        return this.vendorRepository.findByVendorNameContaining(filter);
+        loadIndexes();
+        return findAllInOrder(this.nameIndex.search(filter));
     }
 
     /**
      * Return a list of vendors filtered by address.
+     * The candidates are found with the location index, and only those are loaded from the DB.
+     * When a name filter is given, the vendors are ranked by how well their name matches it.
      *
      * @param location The address to apply to the vendor's address.
      * @param filter The filter to apply to the vendor's name.
@@ -192,7 +193,52 @@ public class VendorService {
         if (radius == null) {
             radius = 1000;
         }
-        return this.vendorRepository.findByLocationWithinRadius(location, filter, radius);
+        loadIndexes();
+        List<Long> candidates = this.locationIndex.findWithinRadius(location, radius);
+        if (candidates.isEmpty() || filter == null || filter.isEmpty()) {
+            return findAllInOrder(candidates);
+        }
+        Set<Long> nearby = new HashSet<>(candidates);
+        return findAllInOrder(this.nameIndex.search(filter).stream()
+            .filter(nearby::contains)
+            .collect(Collectors.toList()));
+    }
+
+    /**
+     * Fills the location and name indexes from the DB if they have not been filled yet. Only one request loads them,
+     * the others wait for it. Each index loads the vendors itself, so that it can keep the vendors saved while
+     * they are loaded.
+     */
+    private void loadIndexes() {
+        if (this.locationIndex.isLoaded() && this.nameIndex.isLoaded()) {
+            return;
+        }
+        synchronized (this.indexLoadLock) {
+            if (!this.locationIndex.isLoaded()) {
+                this.locationIndex.rebuild(this.vendorRepository::findAll);
+            }
+            if (!this.nameIndex.isLoaded()) {
+                this.nameIndex.rebuild(this.vendorRepository::findAll);
+            }
+        }
+    }
+
+    /**
+     * Loads vendors from the DB, keeping the order of their IDs.
+     *
+     * @param vendorIds the IDs of the vendors
+     * @return the vendors that exist, in the order of the given IDs
+     */
+    private List<Vendor> findAllInOrder(List<Long> vendorIds) {
+        if (vendorIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Long, Vendor> vendors = this.vendorRepository.findAllById(vendorIds).stream()
+            .collect(Collectors.toMap(Vendor::getId, vendor -> vendor, (first, second) -> first));
+        return vendorIds.stream()
+            .map(vendors::get)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toList());
     }
 
     /**
@@ -206,8 +252,25 @@ public class VendorService {
         if (vendorOptional.isPresent()) {
             Vendor vendor = vendorOptional.get();
             vendor.addDishesItem(savedDish);
-            vendorRepository.save(vendor);
+            save(vendor);
+        }
+    }
+
+    /**
+     * Saves a vendor in the DB and updates its location, its name, the allergens of its dishes and its aggregate.
+     *
+     * @param vendor the vendor to save
+     * @return the saved vendor
+     */
+    private Vendor save(Vendor vendor) {
+        Vendor saved = this.vendorRepository.save(vendor);
+        this.locationIndex.update(saved);
+        this.nameIndex.update(saved);
+        if (saved.getDishes() != null) {
+            saved.getDishes().forEach(this.allergenDictionary::updateDish);
         }
+        this.analyticsStore.vendorSaved(saved);
+        return saved;
     }
 
     /**
@@ -0,0 +1,20 @@
+package nl.tudelft.sem.yumyumnow.services;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * A user whose ID and role were verified from a signed token.
+ */
+@Getter
+@AllArgsConstructor
+public class VerifiedUser {
+
+    /**
+     * The name of the request attribute holding the user verified from the token of the current request.
+     */
+    public static final String REQUEST_ATTRIBUTE = VerifiedUser.class.getName();
+
+    private final Long userId;
+    private final String role;
+}
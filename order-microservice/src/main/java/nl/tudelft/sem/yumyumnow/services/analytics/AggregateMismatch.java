@@ -0,0 +1,16 @@
+package nl.tudelft.sem.yumyumnow.services.analytics;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * A vendor analytic whose incrementally maintained value differs from the value computed from the DB.
+ */
+@Getter
+@AllArgsConstructor
+public class AggregateMismatch {
+    private final Long vendorId;
+    private final String metric;
+    private final Double stored;
+    private final Double computed;
+}
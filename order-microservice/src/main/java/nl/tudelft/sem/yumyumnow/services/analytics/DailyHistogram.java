@@ -0,0 +1,15 @@
+package nl.tudelft.sem.yumyumnow.services.analytics;
+
+import java.time.LocalDate;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * The number of orders on every day of a range of days, the first count being for the day {@code from}.
+ */
+@Getter
+@AllArgsConstructor
+public class DailyHistogram {
+    private final LocalDate from;
+    private final int[] counts;
+}
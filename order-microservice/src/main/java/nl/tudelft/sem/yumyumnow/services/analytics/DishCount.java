@@ -0,0 +1,33 @@
+package nl.tudelft.sem.yumyumnow.services.analytics;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Getter;
+import lombok.Setter;
+import nl.tudelft.sem.yumyumnow.model.Dish;
+
+/**
+ * The estimated number of times a dish has been ordered from a vendor. The estimate is never lower than the
+ * real number, and exceeds it by at most {@code error}.
+ */
+@Getter
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class DishCount {
+    private final Long dishId;
+    private final long count;
+    private final long error;
+    @Setter
+    private Dish dish;
+
+    /**
+     * Creates the count of a dish, without the dish itself.
+     *
+     * @param dishId the ID of the dish
+     * @param count the estimated number of times the dish has been ordered
+     * @param error the most by which the estimate can exceed the real number
+     */
+    public DishCount(Long dishId, long count, long error) {
+        this.dishId = dishId;
+        this.count = count;
+        this.error = error;
+    }
+}
@@ -0,0 +1,14 @@
+package nl.tudelft.sem.yumyumnow.services.analytics;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * The price of a dish on the menu of a vendor.
+ */
+@Getter
+@AllArgsConstructor
+public class DishPrice {
+    private final Long id;
+    private final Double price;
+}
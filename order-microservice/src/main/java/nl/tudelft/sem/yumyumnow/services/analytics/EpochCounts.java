@@ -0,0 +1,99 @@
+package nl.tudelft.sem.yumyumnow.services.analytics;
+
+import java.util.Arrays;
+
+/**
+ * Counts indexed by a number of days or months since the epoch, kept in a primitive array covering the range
+ * between the first and the last index counted. The array grows on either side when an index outside of it is
+ * counted, doubling its size so that growing stays cheap.
+ * Instances are not thread-safe, they are only accessed while holding the lock guarding their {@link OrderTimeline}.
+ */
+public class EpochCounts {
+
+    private static final int INITIAL_SIZE = 8;
+
+    private int base;
+    private int[] counts;
+
+    /**
+     * Creates empty counts.
+     */
+    public EpochCounts() {
+        this.counts = new int[0];
+    }
+
+    /**
+     * Returns the count at an index.
+     *
+     * @param index the number of days or months since the epoch
+     * @return the count, 0 if nothing was counted at the index
+     */
+    public int get(int index) {
+        int offset = index - this.base;
+        return offset < 0 || offset >= this.counts.length ? 0 : this.counts[offset];
+    }
+
+    /**
+     * Copies the counts of a range of indices.
+     *
+     * @param from the first index, inclusive
+     * @param length the number of indices
+     * @return the counts of the indices, in ascending order
+     */
+    public int[] range(int from, int length) {
+        int[] result = new int[length];
+        int start = Math.max(from, this.base);
+        int end = Math.min(from + length, this.base + this.counts.length);
+        if (start < end) {
+            System.arraycopy(this.counts, start - this.base, result, start - from, end - start);
+        }
+        return result;
+    }
+
+    /**
+     * Adds one to the count at an index.
+     *
+     * @param index the number of days or months since the epoch
+     * @return the count after the increment
+     */
+    int increment(int index) {
+        ensureCovers(index);
+        return ++this.counts[index - this.base];
+    }
+
+    /**
+     * Removes one from the count at an index, if it is positive.
+     *
+     * @param index the number of days or months since the epoch
+     * @return the count after the decrement, or -1 if the count was already 0
+     */
+    int decrement(int index) {
+        int offset = index - this.base;
+        if (offset < 0 || offset >= this.counts.length || this.counts[offset] == 0) {
+            return -1;
+        }
+        return --this.counts[offset];
+    }
+
+    private void ensureCovers(int index) {
+        if (this.counts.length == 0) {
+            this.base = index;
+            this.counts = new int[INITIAL_SIZE];
+            return;
+        }
+        int offset = index - this.base;
+        if (offset >= 0 && offset < this.counts.length) {
+            return;
+        }
+        int needed = offset < 0 ? this.counts.length - offset : offset + 1;
+        int size = Math.max(needed, this.counts.length * 2);
+        if (offset < 0) {
+            int[] grown = new int[size];
+            System.arraycopy(this.counts, 0, grown, size - this.counts.length, this.counts.length);
+            this.base -= size - this.counts.length;
+            this.counts = grown;
+        } else {
+            this.counts = Arrays.copyOf(this.counts, size);
+        }
+    }
+}
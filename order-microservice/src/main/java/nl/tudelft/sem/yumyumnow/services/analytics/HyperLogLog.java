@@ -0,0 +1,93 @@
+package nl.tudelft.sem.yumyumnow.services.analytics;
+
+import java.util.Arrays;
+
+/**
+ * Estimates the number of distinct IDs added to it with the HyperLogLog algorithm, in 1024 one-byte registers
+ * whatever the number of IDs. The standard error of the estimate is about 3%, and small counts are estimated
+ * by linear counting of the empty registers, which is close to exact. Adding an ID again does not change the
+ * registers, but IDs cannot be removed.
+ * Instances are not thread-safe, they are only accessed while holding the lock of their {@link VendorAggregate}.
+ */
+public class HyperLogLog {
+
+    private static final int PRECISION = 10;
+    private static final int REGISTERS = 1 << PRECISION;
+    private static final double ALPHA = 0.7213 / (1 + 1.079 / REGISTERS);
+
+    private final byte[] registers;
+
+    /**
+     * Creates an empty sketch.
+     */
+    public HyperLogLog() {
+        this.registers = new byte[REGISTERS];
+    }
+
+    /**
+     * Estimates the number of distinct IDs added.
+     *
+     * @return the estimated number of distinct IDs, 0 if none was added
+     */
+    public long estimate() {
+        double sum = 0;
+        int empty = 0;
+        for (byte register : this.registers) {
+            sum += 1.0 / (1L << register);
+            if (register == 0) {
+                empty++;
+            }
+        }
+        double estimate = ALPHA * REGISTERS * REGISTERS / sum;
+        if (estimate <= 2.5 * REGISTERS && empty > 0) {
+            estimate = REGISTERS * Math.log((double) REGISTERS / empty);
+        }
+        return Math.round(estimate);
+    }
+
+    /**
+     * Adds the IDs of another sketch to this one, keeping the highest value of every register.
+     *
+     * @param other the sketch to merge into this one, which is not changed
+     */
+    public void merge(HyperLogLog other) {
+        for (int i = 0; i < REGISTERS; i++) {
+            this.registers[i] = (byte) Math.max(this.registers[i], other.registers[i]);
+        }
+    }
+
+    /**
+     * Adds an ID to the sketch.
+     *
+     * @param id the ID
+     */
+    void add(long id) {
+        long hash = mix(id);
+        int index = (int) (hash >>> (Long.SIZE - PRECISION));
+        byte rank = (byte) (Long.numberOfLeadingZeros(hash << PRECISION | 1L << (PRECISION - 1)) + 1);
+        if (rank > this.registers[index]) {
+            this.registers[index] = rank;
+        }
+    }
+
+    /**
+     * Removes all IDs from the sketch.
+     */
+    void clear() {
+        Arrays.fill(this.registers, (byte) 0);
+    }
+
+    /**
+     * Spreads the bits of an ID over the whole hash, with the finalizer of SplitMix64, so that consecutive IDs
+     * fall in unrelated registers.
+     *
+     * @param id the ID
+     * @return the 64-bit hash of the ID
+     */
+    private static long mix(long id) {
+        long hash = id + 0x9E3779B97F4A7C15L;
+        hash = (hash ^ (hash >>> 30)) * 0xBF58476D1CE4E5B9L;
+        hash = (hash ^ (hash >>> 27)) * 0x94D049BB133111EBL;
+        return hash ^ (hash >>> 31);
+    }
+}
@@ -0,0 +1,46 @@
+package nl.tudelft.sem.yumyumnow.services.analytics;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * What one order adds to the aggregate of its vendor. It is kept so that the contribution can be removed
+ * exactly when the order is changed or deleted. The price only counts as an order value, the completed price,
+ * once the order has been completed.
+ */
+@Getter
+@AllArgsConstructor
+public class OrderEntry {
+    private final Long vendorId;
+    private final Long customerId;
+    private final LocalDateTime time;
+    private final Long ratingId;
+    private final Long grade;
+    private final List<Long> dishIds;
+    private final Double price;
+    private final Double completedPrice;
+
+    /**
+     * Returns the same contribution with another grade.
+     *
+     * @param grade the new grade, or null if the rating has no grade
+     * @return the contribution with the new grade
+     */
+    OrderEntry withGrade(Long grade) {
+        return new OrderEntry(this.vendorId, this.customerId, this.time, this.ratingId, grade, this.dishIds,
+            this.price, this.completedPrice);
+    }
+
+    /**
+     * Returns the same contribution with another completed price, after the status of the order has changed.
+     *
+     * @param completedPrice the price if the order is now completed, or null if it is not
+     * @return the contribution with the new completed price
+     */
+    OrderEntry withCompletedPrice(Double completedPrice) {
+        return new OrderEntry(this.vendorId, this.customerId, this.time, this.ratingId, this.grade, this.dishIds,
+            this.price, completedPrice);
+    }
+}
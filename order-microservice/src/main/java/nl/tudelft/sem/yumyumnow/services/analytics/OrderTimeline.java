@@ -0,0 +1,123 @@
+package nl.tudelft.sem.yumyumnow.services.analytics;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * The number of orders of a vendor or a customer on every day, every month and every hour of the day, kept in
+ * primitive arrays indexed by epoch day and epoch month. The averages are answered from running totals and
+ * the histograms by copying a slice of an array, so reading them allocates nothing per order.
+ * Instances are not thread-safe, they are only accessed while holding their own monitor or that of their
+ * {@link VendorAggregate}.
+ */
+public class OrderTimeline {
+
+    private static final int HOURS = 24;
+
+    private final EpochCounts days;
+    private final EpochCounts months;
+    private final long[] hours;
+    private long orders;
+    private int activeDays;
+    private int activeMonths;
+
+    /**
+     * Creates an empty timeline.
+     */
+    public OrderTimeline() {
+        this.days = new EpochCounts();
+        this.months = new EpochCounts();
+        this.hours = new long[HOURS];
+    }
+
+    /**
+     * Returns the number of orders with a time.
+     *
+     * @return the number of orders
+     */
+    public long getOrders() {
+        return this.orders;
+    }
+
+    /**
+     * Returns the average number of orders per day, over the days with at least one order.
+     *
+     * @return the average number of orders per day, or null if there are no orders
+     */
+    public Double getAveragePerDay() {
+        return this.activeDays == 0 ? null : (double) this.orders / this.activeDays;
+    }
+
+    /**
+     * Returns the average number of orders per month, over the months with at least one order.
+     *
+     * @return the average number of orders per month, or null if there are no orders
+     */
+    public Double getAveragePerMonth() {
+        return this.activeMonths == 0 ? null : (double) this.orders / this.activeMonths;
+    }
+
+    /**
+     * Returns the number of orders placed in every hour of the day.
+     *
+     * @return 24 counts, the first one for orders placed between midnight and 1 o'clock
+     */
+    public long[] getHourly() {
+        return this.hours.clone();
+    }
+
+    /**
+     * Returns the number of orders on every day of a range.
+     *
+     * @param from the first day of the range
+     * @param length the number of days in the range
+     * @return the number of orders on every day, in ascending order of day
+     */
+    public int[] getDaily(LocalDate from, int length) {
+        return this.days.range((int) from.toEpochDay(), length);
+    }
+
+    /**
+     * Counts an order.
+     *
+     * @param time the local time at which the order was placed
+     */
+    void add(LocalDateTime time) {
+        this.orders++;
+        if (this.days.increment(epochDay(time)) == 1) {
+            this.activeDays++;
+        }
+        if (this.months.increment(epochMonth(time)) == 1) {
+            this.activeMonths++;
+        }
+        this.hours[time.getHour()]++;
+    }
+
+    /**
+     * Stops counting an order that was counted before.
+     *
+     * @param time the local time at which the order was placed
+     */
+    void remove(LocalDateTime time) {
+        int day = this.days.decrement(epochDay(time));
+        if (day < 0) {
+            return;
+        }
+        this.orders--;
+        if (day == 0) {
+            this.activeDays--;
+        }
+        if (this.months.decrement(epochMonth(time)) == 0) {
+            this.activeMonths--;
+        }
+        this.hours[time.getHour()]--;
+    }
+
+    private static int epochDay(LocalDateTime time) {
+        return (int) time.toLocalDate().toEpochDay();
+    }
+
+    private static int epochMonth(LocalDateTime time) {
+        return (time.getYear() - 1970) * 12 + time.getMonthValue() - 1;
+    }
+}
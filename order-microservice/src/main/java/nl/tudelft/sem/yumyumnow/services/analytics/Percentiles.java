@@ -0,0 +1,19 @@
+package nl.tudelft.sem.yumyumnow.services.analytics;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * The median and the 90th and 99th percentiles of a distribution of prices, estimated by a {@link QuantileSketch}.
+ * The percentiles are null when the distribution is empty.
+ */
+@Getter
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class Percentiles {
+    private final long count;
+    private final Double p50;
+    private final Double p90;
+    private final Double p99;
+}
@@ -0,0 +1,14 @@
+package nl.tudelft.sem.yumyumnow.services.analytics;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * The percentiles of the prices of the completed orders and of the dishes on the menu, of one vendor or of all.
+ */
+@Getter
+@AllArgsConstructor
+public class PriceDistribution {
+    private final Percentiles orderValues;
+    private final Percentiles dishPrices;
+}
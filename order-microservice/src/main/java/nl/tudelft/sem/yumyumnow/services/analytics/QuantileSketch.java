@@ -0,0 +1,183 @@
+package nl.tudelft.sem.yumyumnow.services.analytics;
+
+import java.util.Arrays;
+
+/**
+ * Estimates the quantiles of a distribution of prices by counting the prices in buckets whose bounds grow
+ * geometrically, so that every quantile is returned within 1% of a price of the distribution. Prices below a cent
+ * are counted as 0 and prices above ten million are counted as ten million, so a sketch never holds more than
+ * about a thousand counts whatever the number of prices added. Two sketches are merged by adding their counts,
+ * which gives the same sketch as adding all prices to one, and a price is removed by decrementing its bucket.
+ * Instances are not thread-safe, they are only accessed while holding the lock of their {@link VendorAggregate}.
+ */
+public class QuantileSketch {
+
+    /**
+     * The maximum relative difference between a returned quantile and a price of the distribution.
+     */
+    public static final double RELATIVE_ACCURACY = 0.01;
+
+    private static final double GAMMA = (1 + RELATIVE_ACCURACY) / (1 - RELATIVE_ACCURACY);
+    private static final double LOG_GAMMA = Math.log(GAMMA);
+    private static final double MIN_PRICE = 0.01;
+    private static final double MAX_PRICE = 1e7;
+    private static final int MIN_INDEX = index(MIN_PRICE);
+    private static final int MAX_INDEX = index(MAX_PRICE);
+    private static final int INITIAL_SIZE = 16;
+
+    private int base;
+    private long[] counts;
+    private long zeroCount;
+    private long count;
+
+    /**
+     * Creates an empty sketch.
+     */
+    public QuantileSketch() {
+        this.counts = new long[0];
+    }
+
+    /**
+     * Returns the number of prices in the sketch.
+     *
+     * @return the number of prices added and not removed
+     */
+    public long getCount() {
+        return this.count;
+    }
+
+    /**
+     * Estimates a quantile of the prices in the sketch.
+     *
+     * @param quantile the quantile, between 0 and 1
+     * @return the estimated price, or null if the sketch is empty
+     */
+    public Double getQuantile(double quantile) {
+        if (quantile < 0 || quantile > 1) {
+            throw new IllegalArgumentException("The quantile must be between 0 and 1");
+        }
+        if (this.count == 0) {
+            return null;
+        }
+        long rank = (long) Math.floor(quantile * (this.count - 1));
+        long seen = this.zeroCount;
+        if (seen > rank) {
+            return 0.0;
+        }
+        for (int offset = 0; offset < this.counts.length; offset++) {
+            seen += this.counts[offset];
+            if (seen > rank) {
+                return 2 * Math.pow(GAMMA, this.base + offset) / (GAMMA + 1);
+            }
+        }
+        throw new IllegalStateException("The counts do not add up to the number of prices");
+    }
+
+    /**
+     * Returns the median and the 90th and 99th percentiles of the prices in the sketch.
+     *
+     * @return the percentiles, which are null if the sketch is empty
+     */
+    public Percentiles getPercentiles() {
+        return new Percentiles(this.count, getQuantile(0.5), getQuantile(0.9), getQuantile(0.99));
+    }
+
+    /**
+     * Adds the counts of another sketch to this one.
+     *
+     * @param other the sketch to merge into this one, which is not changed
+     */
+    public void merge(QuantileSketch other) {
+        for (int offset = 0; offset < other.counts.length; offset++) {
+            if (other.counts[offset] > 0) {
+                int index = other.base + offset;
+                ensureCovers(index);
+                this.counts[index - this.base] += other.counts[offset];
+            }
+        }
+        this.zeroCount += other.zeroCount;
+        this.count += other.count;
+    }
+
+    /**
+     * Adds a price to the sketch.
+     *
+     * @param price the price, ignored if it is NaN
+     */
+    void add(double price) {
+        if (Double.isNaN(price)) {
+            return;
+        }
+        if (price < MIN_PRICE) {
+            this.zeroCount++;
+        } else {
+            int index = Math.min(index(price), MAX_INDEX);
+            ensureCovers(index);
+            this.counts[index - this.base]++;
+        }
+        this.count++;
+    }
+
+    /**
+     * Removes a price that was added to the sketch.
+     *
+     * @param price the price
+     * @return false if the price is NaN or no price was counted in its bucket
+     */
+    boolean remove(double price) {
+        if (Double.isNaN(price)) {
+            return false;
+        }
+        if (price < MIN_PRICE) {
+            if (this.zeroCount == 0) {
+                return false;
+            }
+            this.zeroCount--;
+        } else {
+            int offset = Math.min(index(price), MAX_INDEX) - this.base;
+            if (offset < 0 || offset >= this.counts.length || this.counts[offset] == 0) {
+                return false;
+            }
+            this.counts[offset]--;
+        }
+        this.count--;
+        return true;
+    }
+
+    /**
+     * Removes all prices from the sketch.
+     */
+    void clear() {
+        Arrays.fill(this.counts, 0);
+        this.zeroCount = 0;
+        this.count = 0;
+    }
+
+    /**
+     * Returns the bucket of a price, the one whose upper bound is the lowest power of the bucket growth factor
+     * that is not below the price.
+     *
+     * @param price the price, at least a cent
+     * @return the exponent of the upper bound of the bucket
+     */
+    private static int index(double price) {
+        return (int) Math.ceil(Math.log(price) / LOG_GAMMA);
+    }
+
+    private void ensureCovers(int index) {
+        if (this.counts.length == 0) {
+            this.base = Math.max(MIN_INDEX, index - INITIAL_SIZE / 2);
+            this.counts = new long[Math.min(INITIAL_SIZE, MAX_INDEX - this.base + 1)];
+        }
+        int top = this.base + this.counts.length - 1;
+        if (index >= this.base && index <= top) {
+            return;
+        }
+        int low = index < this.base ? Math.max(MIN_INDEX, Math.min(index, this.base - this.counts.length)) : this.base;
+        int high = index > top ? Math.min(MAX_INDEX, Math.max(index, top + this.counts.length)) : top;
+        long[] grown = new long[high - low + 1];
+        System.arraycopy(this.counts, 0, grown, this.base - low, this.counts.length);
+        this.base = low;
+        this.counts = grown;
+    }
+}
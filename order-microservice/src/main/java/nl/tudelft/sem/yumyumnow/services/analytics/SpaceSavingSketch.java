@@ -0,0 +1,112 @@
+package nl.tudelft.sem.yumyumnow.services.analytics;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Finds the most ordered dishes of a vendor with the Space-Saving algorithm, keeping at most a fixed number of
+ * counters whatever the number of different dishes. When all counters are taken, an unseen dish replaces the
+ * dish with the lowest count and inherits that count as its error, so the counts of frequent dishes are never
+ * underestimated and every dish ordered more often than the total divided by the capacity is kept.
+ * Instances are not thread-safe, they are only accessed while holding the lock of their {@link VendorAggregate}.
+ */
+public class SpaceSavingSketch {
+
+    private final int capacity;
+    private final Map<Long, Counter> counters;
+
+    /**
+     * Creates an empty sketch.
+     *
+     * @param capacity the maximum number of dishes counted
+     */
+    public SpaceSavingSketch(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("The capacity must be positive");
+        }
+        this.capacity = capacity;
+        this.counters = new HashMap<>();
+    }
+
+    /**
+     * Returns the maximum number of dishes counted.
+     *
+     * @return the capacity of the sketch
+     */
+    public int getCapacity() {
+        return this.capacity;
+    }
+
+    /**
+     * Returns the dishes with the highest estimated counts, the highest first and ties by ascending ID.
+     *
+     * @param k the maximum number of dishes to return
+     * @return at most {@code k} dishes, fewer if fewer dishes are counted
+     */
+    public List<DishCount> top(int k) {
+        return this.counters.entrySet().stream()
+            .sorted(Comparator.comparingLong((Map.Entry<Long, Counter> x) -> -x.getValue().count)
+                .thenComparing(Map.Entry::getKey))
+            .limit(k)
+            .map(x -> new DishCount(x.getKey(), x.getValue().count, x.getValue().error))
+            .collect(Collectors.toCollection(ArrayList::new));
+    }
+
+    /**
+     * Counts one more order of a dish.
+     *
+     * @param dishId the ID of the dish
+     */
+    void add(Long dishId) {
+        Counter counter = this.counters.get(dishId);
+        if (counter != null) {
+            counter.count++;
+            return;
+        }
+        if (this.counters.size() < this.capacity) {
+            this.counters.put(dishId, new Counter(1, 0));
+            return;
+        }
+        Map.Entry<Long, Counter> min = null;
+        for (Map.Entry<Long, Counter> entry : this.counters.entrySet()) {
+            if (min == null || entry.getValue().count < min.getValue().count) {
+                min = entry;
+            }
+        }
+        this.counters.remove(min.getKey());
+        this.counters.put(dishId, new Counter(min.getValue().count + 1, min.getValue().count));
+    }
+
+    /**
+     * Counts one order of a dish less, after the dish has been removed from an order or the order deleted.
+     * A dish that is no longer counted is ignored, and a dish whose count drops to zero frees its counter.
+     *
+     * @param dishId the ID of the dish
+     */
+    void remove(Long dishId) {
+        Counter counter = this.counters.get(dishId);
+        if (counter == null) {
+            return;
+        }
+        counter.count--;
+        if (counter.count <= 0) {
+            this.counters.remove(dishId);
+        } else if (counter.error > counter.count) {
+            counter.error = counter.count;
+        }
+    }
+
+    private static class Counter {
+        private long count;
+        private long error;
+
+        Counter(long count, long error) {
+            this.count = count;
+            this.error = error;
+        }
+    }
+}
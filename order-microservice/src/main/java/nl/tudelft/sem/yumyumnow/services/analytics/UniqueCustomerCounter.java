@@ -0,0 +1,87 @@
+package nl.tudelft.sem.yumyumnow.services.analytics;
+
+import java.time.LocalDate;
+
+/**
+ * Estimates the number of distinct customers of a vendor in the current week, the current month and over all
+ * time, with one {@link HyperLogLog} each. Only the latest week and month in which the vendor had orders are
+ * kept: an order in a later week or month starts a new sketch, and an order in an earlier one only counts for
+ * all time. Customers are only added, so deleted orders keep counting until the store is rebuilt.
+ * Instances are not thread-safe, they are only accessed while holding the lock of their {@link VendorAggregate}.
+ */
+public class UniqueCustomerCounter {
+
+    private final HyperLogLog allTime;
+    private final HyperLogLog week;
+    private final HyperLogLog month;
+    private long weekIndex;
+    private long monthIndex;
+
+    /**
+     * Creates a counter without customers.
+     */
+    public UniqueCustomerCounter() {
+        this.allTime = new HyperLogLog();
+        this.week = new HyperLogLog();
+        this.month = new HyperLogLog();
+        this.weekIndex = Long.MIN_VALUE;
+        this.monthIndex = Long.MIN_VALUE;
+    }
+
+    /**
+     * Estimates the number of distinct customers in the week and the month of a day, and over all time.
+     *
+     * @param today the day whose week and month are counted
+     * @return the estimated numbers of distinct customers
+     */
+    public UniqueCustomers estimate(LocalDate today) {
+        return new UniqueCustomers(
+            epochWeek(today) == this.weekIndex ? this.week.estimate() : 0,
+            epochMonth(today) == this.monthIndex ? this.month.estimate() : 0,
+            this.allTime.estimate());
+    }
+
+    /**
+     * Counts the customer of an order.
+     *
+     * @param customerId the ID of the customer
+     * @param day the day on which the order was placed, or null if it has no time
+     */
+    void add(long customerId, LocalDate day) {
+        this.allTime.add(customerId);
+        if (day == null) {
+            return;
+        }
+        long orderWeek = epochWeek(day);
+        if (orderWeek > this.weekIndex) {
+            this.week.clear();
+            this.weekIndex = orderWeek;
+        }
+        if (orderWeek == this.weekIndex) {
+            this.week.add(customerId);
+        }
+        long orderMonth = epochMonth(day);
+        if (orderMonth > this.monthIndex) {
+            this.month.clear();
+            this.monthIndex = orderMonth;
+        }
+        if (orderMonth == this.monthIndex) {
+            this.month.add(customerId);
+        }
+    }
+
+    /**
+     * Returns the number of weeks since the week of the epoch, weeks starting on Monday.
+     * The epoch was a Thursday, so the Monday of its week is 3 days before it.
+     *
+     * @param day the day
+     * @return the index of the week of the day
+     */
+    private static long epochWeek(LocalDate day) {
+        return Math.floorDiv(day.toEpochDay() + 3, 7);
+    }
+
+    private static long epochMonth(LocalDate day) {
+        return (day.getYear() - 1970L) * 12 + day.getMonthValue() - 1;
+    }
+}
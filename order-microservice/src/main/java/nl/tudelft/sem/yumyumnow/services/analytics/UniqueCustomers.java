@@ -0,0 +1,16 @@
+package nl.tudelft.sem.yumyumnow.services.analytics;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * The estimated numbers of distinct customers of a vendor in the current week, in the current month and over
+ * all time. The estimates have a standard error of about 3%.
+ */
+@Getter
+@AllArgsConstructor
+public class UniqueCustomers {
+    private final long week;
+    private final long month;
+    private final long allTime;
+}
@@ -0,0 +1,247 @@
+package nl.tudelft.sem.yumyumnow.services.analytics;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import lombok.Getter;
+
+/**
+ * The running sums and counts of one vendor, from which its analytics are answered without loading its orders.
+ * Instances are not thread-safe, the {@link VendorAnalyticsStore} only accesses them while holding their monitor.
+ */
+public class VendorAggregate {
+
+    @Getter
+    private final Long vendorId;
+    private List<DishPrice> dishes;
+    private double priceSum;
+    private int pricedDishes;
+    private long ratingSum;
+    private int ratingCount;
+    private final OrderTimeline timeline;
+    private final SpaceSavingSketch popularDishes;
+    private final QuantileSketch orderValues;
+    private final QuantileSketch dishPrices;
+    private final UniqueCustomerCounter uniqueCustomers;
+
+    /**
+     * Creates an empty aggregate.
+     *
+     * @param vendorId the ID of the vendor
+     * @param popularDishCapacity the maximum number of dishes counted to find the most popular ones
+     */
+    public VendorAggregate(Long vendorId, int popularDishCapacity) {
+        this.vendorId = vendorId;
+        this.dishes = new ArrayList<>();
+        this.timeline = new OrderTimeline();
+        this.popularDishes = new SpaceSavingSketch(popularDishCapacity);
+        this.orderValues = new QuantileSketch();
+        this.dishPrices = new QuantileSketch();
+        this.uniqueCustomers = new UniqueCustomerCounter();
+    }
+
+    /**
+     * Returns the average price of the dishes of the vendor.
+     *
+     * @return the average price, or null if the vendor has no dish with a price
+     */
+    public Double getAveragePrice() {
+        return this.pricedDishes == 0 ? null : this.priceSum / this.pricedDishes;
+    }
+
+    /**
+     * Returns the average grade of the rated orders of the vendor.
+     *
+     * @return the average grade, or null if no order of the vendor is rated
+     */
+    public Double getAverageRating() {
+        return this.ratingCount == 0 ? null : (double) this.ratingSum / this.ratingCount;
+    }
+
+    /**
+     * Returns the average number of orders per day, over the days on which the vendor had orders.
+     *
+     * @return the average number of orders per day, or null if the vendor has no order with a time
+     */
+    public Double getAverageOrdersPerDay() {
+        return this.timeline.getAveragePerDay();
+    }
+
+    /**
+     * Returns the number of orders of the vendor per day, month and hour of the day.
+     *
+     * @return the timeline of the orders of the vendor
+     */
+    public OrderTimeline getTimeline() {
+        return this.timeline;
+    }
+
+    /**
+     * Returns the most ordered dishes of the vendor, as estimated by its sketch.
+     *
+     * @param k the maximum number of dishes to return
+     * @return the estimated counts of the most ordered dishes, the highest first
+     */
+    public List<DishCount> getPopularDishes(int k) {
+        return this.popularDishes.top(k);
+    }
+
+    /**
+     * Estimates the number of distinct customers of the vendor in the week and the month of a day, and over
+     * all time.
+     *
+     * @param today the day whose week and month are counted
+     * @return the estimated numbers of distinct customers
+     */
+    public UniqueCustomers getUniqueCustomers(LocalDate today) {
+        return this.uniqueCustomers.estimate(today);
+    }
+
+    /**
+     * Returns the sketch of the prices of the completed orders of the vendor.
+     *
+     * @return the sketch of the order values
+     */
+    QuantileSketch getOrderValues() {
+        return this.orderValues;
+    }
+
+    /**
+     * Returns the sketch of the prices of the dishes on the menu of the vendor.
+     *
+     * @return the sketch of the dish prices
+     */
+    QuantileSketch getDishPrices() {
+        return this.dishPrices;
+    }
+
+    /**
+     * Returns the IDs of the dishes of the vendor.
+     *
+     * @return a new set of the IDs of the dishes
+     */
+    Set<Long> getDishIds() {
+        Set<Long> dishIds = new HashSet<>();
+        for (DishPrice dish : this.dishes) {
+            if (dish.getId() != null) {
+                dishIds.add(dish.getId());
+            }
+        }
+        return dishIds;
+    }
+
+    /**
+     * Replaces the dishes of the vendor.
+     *
+     * @param dishes the IDs and prices of the dishes of the vendor
+     */
+    void setDishes(List<DishPrice> dishes) {
+        this.dishes = new ArrayList<>(dishes);
+        sumPrices();
+    }
+
+    /**
+     * Changes the price of a dish of the vendor.
+     *
+     * @param dishId the ID of the dish
+     * @param price the new price of the dish
+     */
+    void updateDishPrice(Long dishId, Double price) {
+        this.dishes.replaceAll(dish -> dishId.equals(dish.getId()) ? new DishPrice(dishId, price) : dish);
+        sumPrices();
+    }
+
+    /**
+     * Adds an order of the vendor to the sums.
+     *
+     * @param entry the contribution of the order
+     */
+    void addOrder(OrderEntry entry) {
+        if (entry.getTime() != null) {
+            this.timeline.add(entry.getTime());
+        }
+        entry.getDishIds().forEach(this.popularDishes::add);
+        if (entry.getCompletedPrice() != null) {
+            this.orderValues.add(entry.getCompletedPrice());
+        }
+        if (entry.getCustomerId() != null) {
+            this.uniqueCustomers.add(entry.getCustomerId(),
+                entry.getTime() == null ? null : entry.getTime().toLocalDate());
+        }
+        addGrade(entry.getGrade());
+    }
+
+    /**
+     * Removes an order of the vendor from the sums. Its customer keeps counting as a distinct customer.
+     *
+     * @param entry the contribution of the order
+     */
+    void removeOrder(OrderEntry entry) {
+        if (entry.getTime() != null) {
+            this.timeline.remove(entry.getTime());
+        }
+        entry.getDishIds().forEach(this.popularDishes::remove);
+        if (entry.getCompletedPrice() != null) {
+            this.orderValues.remove(entry.getCompletedPrice());
+        }
+        removeGrade(entry.getGrade());
+    }
+
+    /**
+     * Replaces the price of an order in the sketch of the order values, after its status has changed.
+     *
+     * @param previous the price counted so far, or null if the order was not completed
+     * @param price the price to count, or null if the order is no longer completed
+     */
+    void replaceOrderValue(Double previous, Double price) {
+        if (previous != null) {
+            this.orderValues.remove(previous);
+        }
+        if (price != null) {
+            this.orderValues.add(price);
+        }
+    }
+
+    /**
+     * Adds the grade of a rated order to the sums.
+     *
+     * @param grade the grade, or null if the order is not rated
+     */
+    void addGrade(Long grade) {
+        if (grade != null) {
+            this.ratingSum += grade;
+            this.ratingCount++;
+        }
+    }
+
+    /**
+     * Removes the grade of a rated order from the sums.
+     *
+     * @param grade the grade, or null if the order is not rated
+     */
+    void removeGrade(Long grade) {
+        if (grade != null) {
+            this.ratingSum -= grade;
+            this.ratingCount--;
+        }
+    }
+
+    /**
+     * Sums the prices of the dishes again, so that rounding errors do not build up over price changes,
+     * and counts them again in the sketch of the dish prices.
+     */
+    private void sumPrices() {
+        this.priceSum = 0;
+        this.pricedDishes = 0;
+        this.dishPrices.clear();
+        for (DishPrice dish : this.dishes) {
+            if (dish.getPrice() != null) {
+                this.priceSum += dish.getPrice();
+                this.pricedDishes++;
+                this.dishPrices.add(dish.getPrice());
+            }
+        }
+    }
+}
@@ -0,0 +1,625 @@
+package nl.tudelft.sem.yumyumnow.services.analytics;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import nl.tudelft.sem.yumyumnow.database.OrderRepository;
+import nl.tudelft.sem.yumyumnow.database.RatingRepository;
+import nl.tudelft.sem.yumyumnow.database.VendorRepository;
+import nl.tudelft.sem.yumyumnow.model.Dish;
+import nl.tudelft.sem.yumyumnow.model.Order;
+import nl.tudelft.sem.yumyumnow.model.Rating;
+import nl.tudelft.sem.yumyumnow.model.Vendor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Keeps the analytics of every vendor as running sums and counts, updated by the services when they save orders,
+ * ratings, vendors and dishes, so that the analytics are answered without loading the orders of the vendor.
+ * The contribution of every order is remembered, so saving an order again replaces its contribution instead of
+ * adding it twice, and an order moved to another vendor is removed from the first one.
+ * The store is filled from the DB on first use; changes made before that are read from the DB at that point.
+ * There is no lock around the whole store: every vendor aggregate and customer timeline is guarded by its own
+ * monitor, and every order is replaced atomically in a concurrent map. A rebuild reads the DB without holding any
+ * lock and swaps the filled store in at once; changes made while it reads are applied to the new store as well.
+ * The most ordered dishes of every vendor are estimated with a sketch of bounded size, and the number of orders
+ * of every vendor and customer per day, month and hour is kept in primitive arrays indexed by epoch day.
+ * The prices of the completed orders and of the dishes of every vendor are counted in mergeable quantile sketches.
+ * The distinct customers of every vendor per week, per month and over all time are estimated with HyperLogLog.
+ */
+@Service
+public class VendorAnalyticsStore {
+
+    private final VendorRepository vendorRepository;
+    private final OrderRepository orderRepository;
+    private final RatingRepository ratingRepository;
+    private final int popularDishCapacity;
+
+    private final Object rebuildLock;
+    private volatile Aggregates aggregates;
+    private List<Consumer<Aggregates>> changedDuringRebuild;
+
+    /**
+     * The content of the store. A rebuild fills new aggregates and swaps them in, so that readers never see
+     * half-filled ones. The maps are concurrent; a {@link VendorAggregate} or a customer {@link OrderTimeline} is
+     * only accessed while holding its monitor, and never while holding the monitor of another one.
+     */
+    private static final class Aggregates {
+        private final int popularDishCapacity;
+        private final Map<Long, VendorAggregate> vendors = new ConcurrentHashMap<>();
+        private final Map<Long, OrderTimeline> customers = new ConcurrentHashMap<>();
+        private final Map<Long, OrderEntry> orders = new ConcurrentHashMap<>();
+        private final Map<Long, Set<Long>> ordersByRating = new ConcurrentHashMap<>();
+        private final Map<Long, Set<Long>> vendorsByDish = new ConcurrentHashMap<>();
+        private final Map<Long, Long> grades = new ConcurrentHashMap<>();
+
+        private Aggregates(int popularDishCapacity) {
+            this.popularDishCapacity = popularDishCapacity;
+        }
+
+        private VendorAggregate aggregate(Long vendorId) {
+            return this.vendors.computeIfAbsent(vendorId, id -> new VendorAggregate(id, this.popularDishCapacity));
+        }
+
+        /**
+         * Replaces the contribution of an order. The order is locked in the map of orders while its old
+         * contribution is removed and the new one is added.
+         *
+         * @param orderId the ID of the order
+         * @param saved the new contribution of the order, or null to only remove the old one
+         */
+        private void putOrder(Long orderId, OrderEntry saved) {
+            this.orders.compute(orderId, (id, previous) -> {
+                if (previous != null) {
+                    unlink(id, previous);
+                }
+                return saved == null ? null : link(id, saved);
+            });
+        }
+
+        private OrderEntry link(Long orderId, OrderEntry saved) {
+            OrderEntry entry = saved;
+            if (isRated(entry)) {
+                Long grade = this.grades.get(entry.getRatingId());
+                if (grade != null) {
+                    entry = entry.withGrade(grade);
+                } else if (entry.getGrade() != null) {
+                    this.grades.put(entry.getRatingId(), entry.getGrade());
+                }
+                this.ordersByRating.compute(entry.getRatingId(), (id, rated) -> {
+                    Set<Long> orderIds = rated == null ? ConcurrentHashMap.newKeySet() : rated;
+                    orderIds.add(orderId);
+                    return orderIds;
+                });
+            }
+            VendorAggregate aggregate = aggregate(entry.getVendorId());
+            synchronized (aggregate) {
+                aggregate.addOrder(entry);
+            }
+            if (entry.getCustomerId() != null && entry.getTime() != null) {
+                OrderTimeline timeline = this.customers.computeIfAbsent(entry.getCustomerId(),
+                    id -> new OrderTimeline());
+                synchronized (timeline) {
+                    timeline.add(entry.getTime());
+                }
+            }
+            return entry;
+        }
+
+        private void unlink(Long orderId, OrderEntry entry) {
+            if (isRated(entry)) {
+                this.ordersByRating.computeIfPresent(entry.getRatingId(), (id, rated) -> {
+                    rated.remove(orderId);
+                    return rated.isEmpty() ? null : rated;
+                });
+            }
+            VendorAggregate aggregate = aggregate(entry.getVendorId());
+            synchronized (aggregate) {
+                aggregate.removeOrder(entry);
+            }
+            if (entry.getCustomerId() != null && entry.getTime() != null) {
+                OrderTimeline timeline = this.customers.get(entry.getCustomerId());
+                synchronized (timeline) {
+                    timeline.remove(entry.getTime());
+                }
+            }
+        }
+
+        private void putRating(Long ratingId, Long grade) {
+            if (grade == null) {
+                this.grades.remove(ratingId);
+            } else {
+                this.grades.put(ratingId, grade);
+            }
+            for (Long orderId : new ArrayList<>(this.ordersByRating.getOrDefault(ratingId, Set.of()))) {
+                this.orders.computeIfPresent(orderId, (id, entry) -> {
+                    if (!ratingId.equals(entry.getRatingId())) {
+                        return entry;
+                    }
+                    VendorAggregate aggregate = aggregate(entry.getVendorId());
+                    synchronized (aggregate) {
+                        aggregate.removeGrade(entry.getGrade());
+                        aggregate.addGrade(grade);
+                    }
+                    return entry.withGrade(grade);
+                });
+            }
+        }
+
+        private void putStatus(Long orderId, boolean completed) {
+            this.orders.computeIfPresent(orderId, (id, entry) -> {
+                Double completedPrice = completed ? entry.getPrice() : null;
+                if (Objects.equals(completedPrice, entry.getCompletedPrice())) {
+                    return entry;
+                }
+                VendorAggregate aggregate = aggregate(entry.getVendorId());
+                synchronized (aggregate) {
+                    aggregate.replaceOrderValue(entry.getCompletedPrice(), completedPrice);
+                }
+                return entry.withCompletedPrice(completedPrice);
+            });
+        }
+
+        /**
+         * Replaces the dishes of a vendor, and moves the vendor out of the menus of the dishes it no longer has.
+         *
+         * @param vendorId the ID of the vendor
+         * @param dishes the IDs and prices of the dishes of the vendor
+         */
+        private void putVendor(Long vendorId, List<DishPrice> dishes) {
+            VendorAggregate aggregate = aggregate(vendorId);
+            synchronized (aggregate) {
+                Set<Long> removed = aggregate.getDishIds();
+                aggregate.setDishes(dishes);
+                for (DishPrice dish : dishes) {
+                    if (dish.getId() != null && !removed.remove(dish.getId())) {
+                        this.vendorsByDish.compute(dish.getId(), (id, vendorIds) -> {
+                            Set<Long> onMenu = vendorIds == null ? ConcurrentHashMap.newKeySet() : vendorIds;
+                            onMenu.add(vendorId);
+                            return onMenu;
+                        });
+                    }
+                }
+                for (Long dishId : removed) {
+                    this.vendorsByDish.computeIfPresent(dishId, (id, vendorIds) -> {
+                        vendorIds.remove(vendorId);
+                        return vendorIds.isEmpty() ? null : vendorIds;
+                    });
+                }
+            }
+        }
+
+        private void putDishPrice(Long dishId, Double price) {
+            for (Long vendorId : this.vendorsByDish.getOrDefault(dishId, Set.of())) {
+                VendorAggregate aggregate = aggregate(vendorId);
+                synchronized (aggregate) {
+                    aggregate.updateDishPrice(dishId, price);
+                }
+            }
+        }
+    }
+
+    /**
+     * Creates an empty store.
+     *
+     * @param vendorRepository the DB instance where the Vendors are stored
+     * @param orderRepository the DB instance where the Orders are stored
+     * @param ratingRepository the DB instance where the Ratings are stored
+     * @param popularDishCapacity the maximum number of dishes counted per vendor to find the most popular ones
+     */
+    @Autowired
+    public VendorAnalyticsStore(VendorRepository vendorRepository, OrderRepository orderRepository,
+                                RatingRepository ratingRepository,
+                                @Value("${analytics.popular-dishes.capacity:64}") int popularDishCapacity) {
+        if (popularDishCapacity < 1) {
+            throw new IllegalArgumentException("The capacity of the popular dishes sketch must be positive");
+        }
+        this.vendorRepository = vendorRepository;
+        this.orderRepository = orderRepository;
+        this.ratingRepository = ratingRepository;
+        this.popularDishCapacity = popularDishCapacity;
+        this.rebuildLock = new Object();
+        this.aggregates = null;
+        this.changedDuringRebuild = null;
+    }
+
+    /**
+     * Returns the average price of the dishes of a vendor.
+     *
+     * @param vendorId the ID of the vendor
+     * @return the average price, or null if the vendor has no dish with a price
+     */
+    public Double getAveragePrice(Long vendorId) {
+        return readVendor(vendorId, VendorAggregate::getAveragePrice);
+    }
+
+    /**
+     * Returns the average grade of the rated orders of a vendor.
+     *
+     * @param vendorId the ID of the vendor
+     * @return the average grade, or null if no order of the vendor is rated
+     */
+    public Double getAverageRating(Long vendorId) {
+        return readVendor(vendorId, VendorAggregate::getAverageRating);
+    }
+
+    /**
+     * Returns the average number of orders per day of a vendor, over the days on which it had orders.
+     *
+     * @param vendorId the ID of the vendor
+     * @return the average number of orders per day, or null if the vendor has no order with a time
+     */
+    public Double getAverageOrdersPerDay(Long vendorId) {
+        return readVendor(vendorId, VendorAggregate::getAverageOrdersPerDay);
+    }
+
+    /**
+     * Returns the average number of orders per month of a customer, over the months in which it ordered.
+     *
+     * @param customerId the ID of the customer
+     * @return the average number of orders per month, or null if the customer has no order with a time
+     */
+    public Double getCustomerOrdersPerMonth(Long customerId) {
+        OrderTimeline timeline = loaded().customers.get(customerId);
+        if (timeline == null) {
+            return null;
+        }
+        synchronized (timeline) {
+            return timeline.getAveragePerMonth();
+        }
+    }
+
+    /**
+     * Returns the number of orders of a vendor placed in every hour of the day.
+     *
+     * @param vendorId the ID of the vendor
+     * @return 24 counts, the first one for orders placed between midnight and 1 o'clock
+     */
+    public long[] getHourlyHistogram(Long vendorId) {
+        long[] hourly = readVendor(vendorId, aggregate -> aggregate.getTimeline().getHourly());
+        return hourly == null ? new long[24] : hourly;
+    }
+
+    /**
+     * Returns the number of orders of a vendor on every day of a range.
+     *
+     * @param vendorId the ID of the vendor
+     * @param from the first day of the range
+     * @param length the number of days in the range
+     * @return the number of orders on every day, in ascending order of day
+     */
+    public int[] getDailyHistogram(Long vendorId, LocalDate from, int length) {
+        int[] daily = readVendor(vendorId, aggregate -> aggregate.getTimeline().getDaily(from, length));
+        return daily == null ? new int[length] : daily;
+    }
+
+    /**
+     * Returns the most ordered dishes of a vendor, estimated from the dishes of its orders.
+     * At most as many dishes as the capacity of the sketch are returned.
+     *
+     * @param vendorId the ID of the vendor
+     * @param k the maximum number of dishes to return
+     * @return the estimated counts of the most ordered dishes, the highest first
+     */
+    public List<DishCount> getPopularDishes(Long vendorId, int k) {
+        List<DishCount> popular = readVendor(vendorId, aggregate -> aggregate.getPopularDishes(k));
+        return popular == null ? new ArrayList<>() : popular;
+    }
+
+    /**
+     * Estimates the number of distinct customers of a vendor in the week and the month of a day, and over all time.
+     *
+     * @param vendorId the ID of the vendor
+     * @param today the day whose week and month are counted
+     * @return the estimated numbers of distinct customers
+     */
+    public UniqueCustomers getUniqueCustomers(Long vendorId, LocalDate today) {
+        UniqueCustomers customers = readVendor(vendorId, aggregate -> aggregate.getUniqueCustomers(today));
+        return customers == null ? new UniqueCustomers(0, 0, 0) : customers;
+    }
+
+    /**
+     * Returns the percentiles of the prices of the completed orders and of the dishes of a vendor.
+     *
+     * @param vendorId the ID of the vendor
+     * @return the percentiles, which are null if the vendor has no completed order or dish with a price
+     */
+    public PriceDistribution getPriceDistribution(Long vendorId) {
+        PriceDistribution distribution = readVendor(vendorId, aggregate -> new PriceDistribution(
+            aggregate.getOrderValues().getPercentiles(), aggregate.getDishPrices().getPercentiles()));
+        if (distribution == null) {
+            QuantileSketch empty = new QuantileSketch();
+            return new PriceDistribution(empty.getPercentiles(), empty.getPercentiles());
+        }
+        return distribution;
+    }
+
+    /**
+     * Returns the percentiles of the prices of the completed orders and of the dishes of all vendors, by merging
+     * the sketches of every vendor.
+     *
+     * @return the percentiles, which are null if there is no completed order or dish with a price
+     */
+    public PriceDistribution getPlatformPriceDistribution() {
+        QuantileSketch orderValues = new QuantileSketch();
+        QuantileSketch dishPrices = new QuantileSketch();
+        for (VendorAggregate aggregate : loaded().vendors.values()) {
+            synchronized (aggregate) {
+                orderValues.merge(aggregate.getOrderValues());
+                dishPrices.merge(aggregate.getDishPrices());
+            }
+        }
+        return new PriceDistribution(orderValues.getPercentiles(), dishPrices.getPercentiles());
+    }
+
+    /**
+     * Returns the IDs of the vendors that have an aggregate.
+     *
+     * @return the IDs of the vendors
+     */
+    public Set<Long> getVendorIds() {
+        return new HashSet<>(loaded().vendors.keySet());
+    }
+
+    /**
+     * Drops all sums and fills the store again from the DB. Used to recover from changes made to the DB
+     * without going through the services. The DB is read and the new sums are computed without blocking
+     * readers or changes, and the new sums are swapped in at once. Changes made while the DB was read are
+     * applied to the new sums before the swap, as the rows read may be older than them.
+     *
+     * @return the number of vendors in the store
+     */
+    public int rebuild() {
+        synchronized (this.rebuildLock) {
+            synchronized (this) {
+                this.changedDuringRebuild = new ArrayList<>();
+            }
+            try {
+                Aggregates rebuilt = new Aggregates(this.popularDishCapacity);
+                for (Rating rating : this.ratingRepository.findAll()) {
+                    if (rating.getId() != null && rating.getGrade() != null) {
+                        rebuilt.grades.put(rating.getId(), rating.getGrade());
+                    }
+                }
+                for (Vendor vendor : this.vendorRepository.findAll()) {
+                    if (vendor.getId() != null) {
+                        rebuilt.putVendor(vendor.getId(), dishPricesOf(vendor));
+                    }
+                }
+                for (Order order : this.orderRepository.findAll()) {
+                    if (order.getOrderId() != null) {
+                        Long grade = order.getRatingId() == null ? null : rebuilt.grades.get(order.getRatingId());
+                        rebuilt.putOrder(order.getOrderId(), entryOf(order, grade));
+                    }
+                }
+                synchronized (this) {
+                    for (Consumer<Aggregates> change : this.changedDuringRebuild) {
+                        change.accept(rebuilt);
+                    }
+                    this.aggregates = rebuilt;
+                }
+                return rebuilt.vendors.size();
+            } finally {
+                synchronized (this) {
+                    this.changedDuringRebuild = null;
+                }
+            }
+        }
+    }
+
+    /**
+     * Replaces the contribution of an order after it has been saved.
+     *
+     * @param order the saved order
+     */
+    public void orderSaved(Order order) {
+        if (order.getOrderId() == null || !isTracking()) {
+            return;
+        }
+        Long orderId = order.getOrderId();
+        OrderEntry entry = entryOf(order, gradeOf(order.getRatingId()));
+        apply(current -> current.putOrder(orderId, entry));
+    }
+
+    /**
+     * Removes the contribution of an order after it has been deleted.
+     *
+     * @param orderId the ID of the deleted order
+     */
+    public void orderDeleted(Long orderId) {
+        apply(current -> current.putOrder(orderId, null));
+    }
+
+    /**
+     * Counts or stops counting the price of an order as an order value after only its status has been updated in
+     * the DB, without the order being loaded.
+     *
+     * @param orderId the ID of the updated order
+     * @param status the new status of the order
+     */
+    public void orderStatusChanged(Long orderId, Order.StatusEnum status) {
+        if (orderId == null) {
+            return;
+        }
+        boolean completed = isCompleted(status);
+        apply(current -> current.putStatus(orderId, completed));
+    }
+
+    /**
+     * Updates the grade of the orders having a rating after the rating has been saved.
+     *
+     * @param rating the saved rating
+     */
+    public void ratingSaved(Rating rating) {
+        if (rating.getId() == null) {
+            return;
+        }
+        Long ratingId = rating.getId();
+        Long grade = rating.getGrade();
+        apply(current -> current.putRating(ratingId, grade));
+    }
+
+    /**
+     * Replaces the dishes of a vendor after it has been saved. Dishes no longer on its menu stop being priced for it.
+     *
+     * @param vendor the saved vendor
+     */
+    public void vendorSaved(Vendor vendor) {
+        if (vendor.getId() == null) {
+            return;
+        }
+        Long vendorId = vendor.getId();
+        List<DishPrice> dishes = dishPricesOf(vendor);
+        apply(current -> current.putVendor(vendorId, dishes));
+    }
+
+    /**
+     * Updates the price of a dish on the menus containing it after the dish has been saved.
+     *
+     * @param dish the saved dish
+     */
+    public void dishSaved(Dish dish) {
+        if (dish.getId() == null) {
+            return;
+        }
+        Long dishId = dish.getId();
+        Double price = dish.getPrice();
+        apply(current -> current.putDishPrice(dishId, price));
+    }
+
+    /**
+     * Returns the aggregates, filling them from the DB if they have not been filled yet.
+     *
+     * @return the current aggregates
+     */
+    private Aggregates loaded() {
+        Aggregates current = this.aggregates;
+        if (current != null) {
+            return current;
+        }
+        synchronized (this.rebuildLock) {
+            if (this.aggregates == null) {
+                rebuild();
+            }
+            return this.aggregates;
+        }
+    }
+
+    /**
+     * Reads the aggregate of a vendor while holding its lock.
+     *
+     * @param vendorId the ID of the vendor
+     * @param reader reads the aggregate
+     * @param <T> the type of the value read
+     * @return the value read, or null if the vendor has no aggregate
+     */
+    private <T> T readVendor(Long vendorId, Function<VendorAggregate, T> reader) {
+        VendorAggregate aggregate = loaded().vendors.get(vendorId);
+        if (aggregate == null) {
+            return null;
+        }
+        synchronized (aggregate) {
+            return reader.apply(aggregate);
+        }
+    }
+
+    /**
+     * Checks whether changes are counted, which is the case once the store is filled or while it is being filled.
+     *
+     * @return true if changes are counted
+     */
+    private synchronized boolean isTracking() {
+        return this.aggregates != null || this.changedDuringRebuild != null;
+    }
+
+    /**
+     * Applies a change to the current aggregates, and remembers it for the aggregates being rebuilt, if any.
+     * Changes made before the store is filled are dropped, as the rows read from the DB already contain them.
+     *
+     * @param change the change, which must give the same result when applied twice
+     */
+    private void apply(Consumer<Aggregates> change) {
+        Aggregates current;
+        synchronized (this) {
+            if (this.changedDuringRebuild != null) {
+                this.changedDuringRebuild.add(change);
+            }
+            current = this.aggregates;
+        }
+        if (current != null) {
+            change.accept(current);
+        }
+    }
+
+    /**
+     * Checks whether the completion chain has accepted an order, so that its price counts as an order value.
+     *
+     * @param status the status of the order
+     * @return true if the order has a status other than pending or rejected
+     */
+    private static boolean isCompleted(Order.StatusEnum status) {
+        return status != null && status != Order.StatusEnum.PENDING && status != Order.StatusEnum.REJECTED;
+    }
+
+    private static boolean isRated(OrderEntry entry) {
+        return entry.getRatingId() != null && entry.getRatingId() >= 0;
+    }
+
+    /**
+     * Computes the contribution of an order.
+     *
+     * @param order the order
+     * @param grade the grade of the rating of the order, or null if it is not rated
+     * @return the contribution, or null if the order has no vendor
+     */
+    private static OrderEntry entryOf(Order order, Long grade) {
+        if (order.getVendorId() == null) {
+            return null;
+        }
+        LocalDateTime time = order.getTime() == null ? null : order.getTime().toLocalDateTime();
+        List<Long> dishIds = order.getDishes() == null ? List.of() : order.getDishes().stream()
+            .map(Dish::getId).filter(Objects::nonNull).collect(Collectors.toList());
+        return new OrderEntry(order.getVendorId(), order.getCustomerId(), time, order.getRatingId(),
+            grade, dishIds, order.getPrice(), isCompleted(order.getStatus()) ? order.getPrice() : null);
+    }
+
+    private static List<DishPrice> dishPricesOf(Vendor vendor) {
+        List<DishPrice> dishes = new ArrayList<>();
+        if (vendor.getDishes() != null) {
+            for (Dish dish : vendor.getDishes()) {
+                dishes.add(new DishPrice(dish.getId(), dish.getPrice()));
+            }
+        }
+        return dishes;
+    }
+
+    /**
+     * Returns the grade of a rating, reading it from the DB if the store does not know it. Called before the
+     * change is applied, so that no lock is held while reading the DB.
+     * Orders that are not rated have the rating ID -1.
+     *
+     * @param ratingId the ID of the rating
+     * @return the grade, or null if there is no such rating
+     */
+    private Long gradeOf(Long ratingId) {
+        if (ratingId == null || ratingId < 0) {
+            return null;
+        }
+        Aggregates current = this.aggregates;
+        Long grade = current == null ? null : current.grades.get(ratingId);
+        if (grade == null) {
+            grade = this.ratingRepository.findById(ratingId).map(Rating::getGrade).orElse(null);
+        }
+        return grade;
+    }
+}
@@ -0,0 +1,131 @@
+package nl.tudelft.sem.yumyumnow.services.completion;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import nl.tudelft.sem.yumyumnow.model.Order;
+import nl.tudelft.sem.yumyumnow.services.IntegrationService;
+import nl.tudelft.sem.yumyumnow.services.UpdatesOrderService;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Runs the order completion chain in the background, on a fixed number of worker threads with a bounded queue.
+ * When the queue is full, new completions are refused instead of queued, so that callers can retry later.
+ * The resulting status is saved to the DB, where it can be polled.
+ */
+@Service
+public class OrderCompletionExecutor implements DisposableBean {
+
+    private final CompletionFactory completionFactory;
+    private final IntegrationService integrationService;
+    private final UpdatesOrderService updatesOrderService;
+    private final ThreadPoolExecutor executor;
+    private final Set<Long> inProgress;
+    private final Counter rejected;
+
+    /**
+     * Creates an executor for order completions.
+     *
+     * @param completionFactory the factory creating the completion chain
+     * @param integrationService the service used by the completion handlers to reach other microservices
+     * @param updatesOrderService the service saving the status of the completed order
+     * @param threads the number of orders that are completed at the same time
+     * @param queueCapacity the number of orders that can wait to be completed
+     * @param meterRegistry the registry to which the executor metrics are published
+     */
+    @Autowired
+    public OrderCompletionExecutor(CompletionFactory completionFactory,
+                                   IntegrationService integrationService,
+                                   UpdatesOrderService updatesOrderService,
+                                   @Value("${orders.completion.threads:8}") int threads,
+                                   @Value("${orders.completion.queue-capacity:200}") int queueCapacity,
+                                   MeterRegistry meterRegistry) {
+        this.completionFactory = completionFactory;
+        this.integrationService = integrationService;
+        this.updatesOrderService = updatesOrderService;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                Thread thread = new Thread(runnable, "order-completion-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        this.inProgress = ConcurrentHashMap.newKeySet();
+        this.rejected = meterRegistry.counter("order.completion.rejected");
+        new ExecutorServiceMetrics(this.executor, "order.completion", Tags.empty()).bindTo(meterRegistry);
+    }
+
+    /**
+     * Queues the completion of an order. If the order is already being completed, it is not queued again.
+     *
+     * @param order the order to complete
+     * @return true if the completion was queued or is already in progress, false if the queue is full
+     */
+    public boolean submit(Order order) {
+        Long orderId = order.getOrderId();
+        if (!this.inProgress.add(orderId)) {
+            return true;
+        }
+        try {
+            this.executor.execute(() -> complete(order));
+            return true;
+        } catch (RejectedExecutionException e) {
+            this.inProgress.remove(orderId);
+            this.rejected.increment();
+            return false;
+        }
+    }
+
+    /**
+     * Checks whether the completion of an order is queued or running.
+     *
+     * @param orderId the ID of the order
+     * @return true if the order is being completed
+     */
+    public boolean isInProgress(Long orderId) {
+        return this.inProgress.contains(orderId);
+    }
+
+    /**
+     * Runs the completion chain for an order and saves the resulting status.
+     * If a handler fails, the order is rejected so that polling clients see the completion has ended.
+     *
+     * @param order the order to complete
+     */
+    private void complete(Order order) {
+        try {
+            Order.StatusEnum status;
+            try {
+                status = this.completionFactory.createCompletionResponsibilityChain(this.integrationService)
+                    .handleOrderCompletion(order);
+            } catch (RuntimeException e) {
+                status = Order.StatusEnum.REJECTED;
+            }
+            this.updatesOrderService.setOrderStatus(order.getOrderId(), status);
+        } finally {
+            this.inProgress.remove(order.getOrderId());
+        }
+    }
+
+    /**
+     * Stops accepting completions and waits for the queued ones to finish when the application stops.
+     *
+     * @throws InterruptedException if interrupted while waiting
+     */
+    @Override
+    public void destroy() throws InterruptedException {
+        this.executor.shutdown();
+        this.executor.awaitTermination(30, TimeUnit.SECONDS);
+    }
+}
@@ -3,6 +3,7 @@ package nl.tudelft.sem.yumyumnow.services.completion;
 import nl.tudelft.sem.yumyumnow.model.Order;
 import nl.tudelft.sem.yumyumnow.services.IntegrationService;
 import nl.tudelft.sem.yumyumnow.services.requests.GetRequest;
+import nl.tudelft.sem.yumyumnow.services.requests.PeerUnavailableException;
 import nl.tudelft.sem.yumyumnow.services.requests.PostRequest;
 import org.springframework.http.ResponseEntity;
 
@@ -23,7 +24,9 @@ public class OrderDeliveryHandler extends BaseOrderCompletionHandler {
     }
 
     /**
-     * Sends the order to the delivery microservice.
+     * Sends the order to the delivery microservice. If the microservice is unavailable, because its circuit
+     * breaker is open or too many requests are in flight, the order is rejected when it could not be sent, and
+     * keeps its status when only its delivery status could not be retrieved.
      *
      * @param order the current order to process.
      * @return the status of the order after processing.
@@ -40,7 +43,12 @@ public class OrderDeliveryHandler extends BaseOrderCompletionHandler {
                 deliveryOrder);
         deliveryRequest.addParameter("authorizationId", order.getCustomerId().toString());
 
-        ResponseEntity<String> response = deliveryRequest.send(String.class);
+        ResponseEntity<String> response;
+        try {
+            response = deliveryRequest.send(String.class);
+        } catch (PeerUnavailableException e) {
+            return Order.StatusEnum.REJECTED;
+        }
         if (!response.getStatusCode().is2xxSuccessful()) {
             return Order.StatusEnum.REJECTED;
         }
@@ -50,7 +58,12 @@ public class OrderDeliveryHandler extends BaseOrderCompletionHandler {
         GetRequest getStatusRequest = new GetRequest(this.integrationService.getRestTemplate(), url2);
         getStatusRequest.addParameter("authorizationId", order.getCustomerId().toString());
 
-        ResponseEntity<String> statusResponse = getStatusRequest.send(String.class);
+        ResponseEntity<String> statusResponse;
+        try {
+            statusResponse = getStatusRequest.send(String.class);
+        } catch (PeerUnavailableException e) {
+            return order.getStatus();
+        }
         if (!statusResponse.getStatusCode().is2xxSuccessful()) {
             return order.getStatus();
         }
@@ -0,0 +1,127 @@
+package nl.tudelft.sem.yumyumnow.services.requests;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.web.client.ResourceAccessException;
+
+/**
+ * Sends requests to the other microservices without blocking the calling thread, on the HTTP client of the JDK
+ * with its own small pool of threads. The futures of the responses complete on that pool, so a caller can send
+ * independent requests at the same time and wait for all of them, which takes as long as the slowest one instead
+ * of the sum of all. The requests to a microservice with a {@link PeerGuard} go through its bulkhead and circuit
+ * breaker like the blocking requests.
+ */
+public class AsyncHttpClient {
+
+    private static final Set<String> RESTRICTED_HEADERS = Set.of("connection", "content-length", "expect", "host",
+        "upgrade");
+
+    private final ExecutorService executor;
+    private final HttpClient client;
+    private final Duration requestTimeout;
+    private final Function<URI, PeerGuard> peerGuards;
+
+    /**
+     * Creates a client with its own pool of daemon threads.
+     *
+     * @param threads the number of threads handling the responses
+     * @param connectTimeout how long to wait for a connection to be established
+     * @param requestTimeout how long to wait for a response once the request is sent
+     * @param peerGuards finds the guard of the microservice at a URI, returning null if requests to it are not guarded
+     */
+    public AsyncHttpClient(int threads, Duration connectTimeout, Duration requestTimeout,
+                           Function<URI, PeerGuard> peerGuards) {
+        AtomicInteger count = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "integration-async-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.client = HttpClient.newBuilder()
+            .executor(this.executor)
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(connectTimeout)
+            .build();
+        this.requestTimeout = requestTimeout;
+        this.peerGuards = peerGuards;
+    }
+
+    /**
+     * Sends a request without waiting for the response.
+     *
+     * @param method the HTTP method of the request
+     * @param uri the URI of the request
+     * @param headers the headers of the request
+     * @param body the body of the request, empty if it has none
+     * @return the response, or a {@link ResourceAccessException} if the request failed or was not sent
+     */
+    public CompletableFuture<ClientHttpResponse> send(HttpMethod method, URI uri, HttpHeaders headers, byte[] body) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(uri)
+            .timeout(this.requestTimeout)
+            .method(method.name(), body.length == 0
+                ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofByteArray(body));
+        headers.forEach((name, values) -> {
+            if (!RESTRICTED_HEADERS.contains(name.toLowerCase())) {
+                values.forEach(value -> builder.header(name, value));
+            }
+        });
+        HttpRequest request = builder.build();
+        PeerGuard guard = this.peerGuards.apply(uri);
+        return guard == null ? sendNow(request) : guard.executeAsync(() -> sendNow(request));
+    }
+
+    /**
+     * Shuts down the threads of the client. Requests in flight are abandoned.
+     */
+    public void close() {
+        this.executor.shutdownNow();
+    }
+
+    private CompletableFuture<ClientHttpResponse> sendNow(HttpRequest request) {
+        CompletableFuture<ClientHttpResponse> result = new CompletableFuture<>();
+        this.client.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray()).whenComplete((response, error) -> {
+            if (error == null) {
+                result.complete(new BufferedResponse(response.statusCode(), toHeaders(response), response.body()));
+                return;
+            }
+            Throwable cause = error instanceof CompletionException && error.getCause() != null
+                ? error.getCause() : error;
+            result.completeExceptionally(cause instanceof IOException
+                ? new ResourceAccessException("I/O error on " + request.method() + " request for \""
+                    + request.uri() + "\": " + cause.getMessage(), (IOException) cause)
+                : cause);
+        });
+        return result;
+    }
+
+    /**
+     * Copies the headers of a response into headers whose names are not case-sensitive, as the JDK client
+     * returns them in lower case.
+     *
+     * @param response the response
+     * @return the headers of the response
+     */
+    private static HttpHeaders toHeaders(HttpResponse<byte[]> response) {
+        HttpHeaders headers = new HttpHeaders();
+        response.headers().map().forEach((name, values) -> {
+            if (!name.startsWith(":")) {
+                headers.addAll(name, values);
+            }
+        });
+        return headers;
+    }
+}
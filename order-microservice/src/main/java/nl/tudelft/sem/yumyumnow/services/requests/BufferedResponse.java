@@ -0,0 +1,63 @@
+package nl.tudelft.sem.yumyumnow.services.requests;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpResponse;
+
+/**
+ * A response received by the {@link AsyncHttpClient}, whose body has been read completely. It is a
+ * {@link ClientHttpResponse} so that the error handler and the message converters of a RestTemplate can read it
+ * like the responses of the blocking requests.
+ */
+class BufferedResponse implements ClientHttpResponse {
+
+    private final int statusCode;
+    private final HttpHeaders headers;
+    private final byte[] body;
+
+    /**
+     * Creates a response.
+     *
+     * @param statusCode the HTTP status code of the response
+     * @param headers the headers of the response
+     * @param body the body of the response, empty if it has none
+     */
+    BufferedResponse(int statusCode, HttpHeaders headers, byte[] body) {
+        this.statusCode = statusCode;
+        this.headers = headers;
+        this.body = body;
+    }
+
+    @Override
+    public HttpStatus getStatusCode() {
+        return HttpStatus.valueOf(this.statusCode);
+    }
+
+    @Override
+    public int getRawStatusCode() {
+        return this.statusCode;
+    }
+
+    @Override
+    public String getStatusText() {
+        HttpStatus status = HttpStatus.resolve(this.statusCode);
+        return status == null ? "" : status.getReasonPhrase();
+    }
+
+    @Override
+    public HttpHeaders getHeaders() {
+        return this.headers;
+    }
+
+    @Override
+    public InputStream getBody() {
+        return new ByteArrayInputStream(this.body);
+    }
+
+    @Override
+    public void close() {
+        // The body is held in memory, there is no connection to release.
+    }
+}
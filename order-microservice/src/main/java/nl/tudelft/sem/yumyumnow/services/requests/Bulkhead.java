@@ -0,0 +1,73 @@
+package nl.tudelft.sem.yumyumnow.services.requests;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import lombok.Getter;
+
+/**
+ * Caps the number of concurrent calls to one of the other microservices, so that a slow microservice cannot hold
+ * all request threads of this one. A call that finds no free permit waits at most the maximum wait for one, and
+ * is rejected if none frees up. The permits in use and the rejected calls are published as integration.bulkhead.*
+ * metrics tagged with the name of the microservice.
+ */
+public class Bulkhead {
+
+    @Getter
+    private final int maxConcurrentCalls;
+    private final long maxWaitNanos;
+    private final Semaphore permits;
+    private final Counter rejected;
+
+    /**
+     * Creates a bulkhead with all permits free.
+     *
+     * @param peer the name of the microservice, used as the peer tag of the metrics
+     * @param maxConcurrentCalls the maximum number of calls in flight at the same time
+     * @param maxWait how long a call waits for a free permit before it is rejected
+     * @param meterRegistry the registry to which the metrics are published
+     */
+    public Bulkhead(String peer, int maxConcurrentCalls, Duration maxWait, MeterRegistry meterRegistry) {
+        this.maxConcurrentCalls = maxConcurrentCalls;
+        this.maxWaitNanos = maxWait.toNanos();
+        this.permits = new Semaphore(maxConcurrentCalls, true);
+        this.rejected = meterRegistry.counter("integration.bulkhead.rejected", "peer", peer);
+        meterRegistry.gauge("integration.bulkhead.in-use", Tags.of("peer", peer), this, Bulkhead::getInUse);
+    }
+
+    /**
+     * Takes a permit for a call, waiting at most the maximum wait for one to free up.
+     *
+     * @return true if the call may be made, and the permit must then be released, false if it is rejected
+     */
+    public boolean tryAcquire() {
+        try {
+            if (this.permits.tryAcquire(this.maxWaitNanos, TimeUnit.NANOSECONDS)) {
+                return true;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        this.rejected.increment();
+        return false;
+    }
+
+    /**
+     * Gives back the permit of a completed call.
+     */
+    public void release() {
+        this.permits.release();
+    }
+
+    /**
+     * Returns the number of calls in flight.
+     *
+     * @return the number of permits taken
+     */
+    public int getInUse() {
+        return this.maxConcurrentCalls - this.permits.availablePermits();
+    }
+}
@@ -0,0 +1,196 @@
+package nl.tudelft.sem.yumyumnow.services.requests;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import java.util.Arrays;
+import java.util.function.LongSupplier;
+
+/**
+ * Stops calling one of the other microservices while it fails or is slow, so that callers get a fallback at once
+ * instead of waiting for timeouts. The outcomes of the most recent calls are kept in a window; when enough of them
+ * failed or were slow, the breaker opens and rejects all calls for the open duration. It then lets a few trial calls
+ * through: if all of them succeed in time it closes again, and if one fails or is slow it opens again.
+ * Every change of state starts a new generation, and a call only counts for the generation it was let through in,
+ * so a slow call let through while closed cannot be taken for a trial call once the breaker is half open.
+ * The state (0 closed, 1 open, 2 half open) and the rejected calls are published as integration.circuit-breaker.*
+ * metrics tagged with the name of the microservice.
+ */
+public class CircuitBreaker {
+
+    /**
+     * The states of a circuit breaker.
+     */
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    /**
+     * Returned by {@link #tryAcquire()} when a call is rejected.
+     */
+    public static final long REJECTED = -1;
+
+    private static final byte FAILED = 1;
+    private static final byte SLOW = 2;
+
+    private final CircuitBreakerSettings settings;
+    private final long slowCallNanos;
+    private final long openNanos;
+    private final LongSupplier clock;
+    private final byte[] window;
+    private final Counter rejected;
+    private int next;
+    private int recorded;
+    private int failures;
+    private int slowCalls;
+    private State state;
+    private long generation;
+    private long openedAt;
+    private int trialPermits;
+    private int trialSuccesses;
+
+    /**
+     * Creates a closed circuit breaker.
+     *
+     * @param peer the name of the microservice, used as the peer tag of the metrics
+     * @param settings the thresholds of the breaker
+     * @param meterRegistry the registry to which the metrics are published
+     */
+    public CircuitBreaker(String peer, CircuitBreakerSettings settings, MeterRegistry meterRegistry) {
+        this(peer, settings, System::nanoTime, meterRegistry);
+    }
+
+    /**
+     * Creates a closed circuit breaker with a custom clock.
+     *
+     * @param peer the name of the microservice, used as the peer tag of the metrics
+     * @param settings the thresholds of the breaker
+     * @param clock the source of the current time in nanoseconds
+     * @param meterRegistry the registry to which the metrics are published
+     */
+    public CircuitBreaker(String peer, CircuitBreakerSettings settings, LongSupplier clock,
+                          MeterRegistry meterRegistry) {
+        this.settings = settings;
+        this.slowCallNanos = settings.getSlowCallDuration().toNanos();
+        this.openNanos = settings.getOpenDuration().toNanos();
+        this.clock = clock;
+        this.window = new byte[settings.getWindowSize()];
+        this.state = State.CLOSED;
+        this.generation = 0;
+        this.rejected = meterRegistry.counter("integration.circuit-breaker.rejected", "peer", peer);
+        meterRegistry.gauge("integration.circuit-breaker.state", Tags.of("peer", peer), this,
+            breaker -> breaker.getState().ordinal());
+    }
+
+    /**
+     * Returns the current time of the clock of the breaker, to measure the duration of a call.
+     *
+     * @return the current time in nanoseconds
+     */
+    public long now() {
+        return this.clock.getAsLong();
+    }
+
+    /**
+     * Returns the state of the breaker. An open breaker whose open duration has passed is still reported open
+     * until the next call asks for a permit.
+     *
+     * @return the state of the breaker
+     */
+    public synchronized State getState() {
+        return this.state;
+    }
+
+    /**
+     * Asks whether a call may be made. A half open breaker only lets the trial calls through.
+     *
+     * @return the generation the call is let through in, for {@link #onComplete(long, boolean, long)}, or REJECTED
+     */
+    public synchronized long tryAcquire() {
+        if (this.state == State.OPEN && this.clock.getAsLong() - this.openedAt >= this.openNanos) {
+            changeState(State.HALF_OPEN);
+            this.trialPermits = this.settings.getHalfOpenCalls();
+            this.trialSuccesses = 0;
+        }
+        if (this.state == State.CLOSED) {
+            return this.generation;
+        }
+        if (this.state == State.HALF_OPEN && this.trialPermits > 0) {
+            this.trialPermits--;
+            return this.generation;
+        }
+        this.rejected.increment();
+        return REJECTED;
+    }
+
+    /**
+     * Records the outcome of a call that was let through. The outcome is ignored if the state of the breaker has
+     * changed since the call was let through.
+     *
+     * @param generation the generation returned by {@link #tryAcquire()} for the call
+     * @param failed whether the call failed
+     * @param durationNanos how long the call took, in nanoseconds
+     */
+    public synchronized void onComplete(long generation, boolean failed, long durationNanos) {
+        if (generation != this.generation) {
+            return;
+        }
+        boolean slow = durationNanos >= this.slowCallNanos;
+        if (this.state == State.HALF_OPEN) {
+            if (failed || slow) {
+                open();
+            } else if (++this.trialSuccesses >= this.settings.getHalfOpenCalls()) {
+                changeState(State.CLOSED);
+                clearWindow();
+            }
+            return;
+        }
+        if (this.state == State.OPEN) {
+            return;
+        }
+        record((byte) ((failed ? FAILED : 0) | (slow ? SLOW : 0)));
+        if (this.recorded >= this.settings.getMinimumCalls()
+            && (this.failures * 100.0 >= this.settings.getFailureRateThreshold() * this.recorded
+                || this.slowCalls * 100.0 >= this.settings.getSlowCallRateThreshold() * this.recorded)) {
+            open();
+        }
+    }
+
+    /**
+     * Adds an outcome to the window, replacing the oldest one once the window is full.
+     *
+     * @param outcome the FAILED and SLOW bits of the call
+     */
+    private void record(byte outcome) {
+        if (this.recorded == this.window.length) {
+            byte oldest = this.window[this.next];
+            this.failures -= oldest & FAILED;
+            this.slowCalls -= (oldest & SLOW) >> 1;
+        } else {
+            this.recorded++;
+        }
+        this.window[this.next] = outcome;
+        this.failures += outcome & FAILED;
+        this.slowCalls += (outcome & SLOW) >> 1;
+        this.next = (this.next + 1) % this.window.length;
+    }
+
+    private void open() {
+        changeState(State.OPEN);
+        this.openedAt = this.clock.getAsLong();
+        clearWindow();
+    }
+
+    private void changeState(State state) {
+        this.state = state;
+        this.generation++;
+    }
+
+    private void clearWindow() {
+        Arrays.fill(this.window, (byte) 0);
+        this.next = 0;
+        this.recorded = 0;
+        this.failures = 0;
+        this.slowCalls = 0;
+    }
+}
@@ -0,0 +1,48 @@
+package nl.tudelft.sem.yumyumnow.services.requests;
+
+import java.time.Duration;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * The thresholds at which the circuit breaker of one of the other microservices opens, and how it closes again.
+ */
+@Getter
+@AllArgsConstructor
+public class CircuitBreakerSettings {
+
+    /**
+     * The number of most recent calls over which the failure and slow call rates are computed.
+     */
+    private final int windowSize;
+
+    /**
+     * The number of calls the window must hold before the breaker may open.
+     */
+    private final int minimumCalls;
+
+    /**
+     * The percentage of failed calls in the window at which the breaker opens.
+     */
+    private final double failureRateThreshold;
+
+    /**
+     * The percentage of slow calls in the window at which the breaker opens.
+     */
+    private final double slowCallRateThreshold;
+
+    /**
+     * How long a call may take before it counts as slow.
+     */
+    private final Duration slowCallDuration;
+
+    /**
+     * How long the breaker rejects all calls once opened, before it lets trial calls through.
+     */
+    private final Duration openDuration;
+
+    /**
+     * The number of trial calls that must succeed in time for the breaker to close again.
+     */
+    private final int halfOpenCalls;
+}
@@ -1,10 +1,19 @@
 package nl.tudelft.sem.yumyumnow.services.requests;
 
+import java.io.IOException;
+import java.time.Duration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.HttpMessageConverterExtractor;
+import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 
 public class GetRequest extends Request {
 
+    private final SingleFlight singleFlight;
+    private Duration singleFlightTimeout;
+
     /**
      * Creates a new GET Request object.
      *
@@ -12,11 +21,37 @@ public class GetRequest extends Request {
      * @param url          the url at which the request is made
      */
     public GetRequest(RestTemplate restTemplate, String url) {
+        this(restTemplate, url, null);
+    }
+
+    /**
+     * Creates a new GET Request object that shares its response with the identical GET requests in flight.
+     *
+     * @param restTemplate the REST template object
+     * @param url          the url at which the request is made
+     * @param singleFlight the layer sharing identical requests sent with {@link #send(Class)}, or null to always
+     *                     send the request
+     */
+    public GetRequest(RestTemplate restTemplate, String url, SingleFlight singleFlight) {
         super(restTemplate, url);
+        this.singleFlight = singleFlight;
+        this.singleFlightTimeout = singleFlight == null ? null : singleFlight.getTimeout();
     }
 
     /**
-     * Sends a GET request and waits for the response.
+     * Sets how long this request waits for the response of an identical request in flight, instead of the
+     * default timeout of the single-flight layer.
+     *
+     * @param timeout how long to wait for the identical request in flight
+     */
+    public void setSingleFlightTimeout(Duration timeout) {
+        this.singleFlightTimeout = timeout;
+    }
+
+    /**
+     * Sends a GET request and waits for the response. If an identical request is already in flight, a copy of the
+     * response of that request is returned instead, so the body can be changed without affecting the other
+     * callers.
      *
      * @param returnType the type of the object returned
      * @param <T>        the type of the object to return
@@ -24,9 +59,52 @@ public class GetRequest extends Request {
      */
     @Override
     public <T> ResponseEntity<T> send(Class<T> returnType) {
+        if (this.singleFlight == null) {
+            return sendNow(returnType);
+        }
+        return this.singleFlight.execute("GET " + this.url + " " + this.parameters + " " + returnType.getName(),
+            this.singleFlightTimeout, () -> sendNow(returnType), response -> copy(response, returnType));
+    }
+
+    /**
+     * Returns the HTTP method of the request.
+     *
+     * @return GET
+     */
+    @Override
+    protected HttpMethod getMethod() {
+        return HttpMethod.GET;
+    }
+
+    private <T> ResponseEntity<T> sendNow(Class<T> returnType) {
         if (this.parameters.isEmpty()) {
             return this.restTemplate.getForEntity(this.url, returnType);
         }
         return this.restTemplate.getForEntity(this.url, returnType, this.parameters);
     }
+
+    /**
+     * Copies a response shared with identical requests, by writing its body and reading it back with the message
+     * converters of the REST template. Strings cannot be changed, so they are not copied.
+     *
+     * @param response the shared response
+     * @param returnType the type of the object returned
+     * @param <T>        the type of the object to return
+     * @return a response with the same status and headers and a copy of the body
+     */
+    private <T> ResponseEntity<T> copy(ResponseEntity<T> response, Class<T> returnType) {
+        T body = response.getBody();
+        if (body == null || body instanceof String) {
+            return response;
+        }
+        try {
+            HttpHeaders headers = new HttpHeaders();
+            byte[] written = write(body, headers);
+            T copy = new HttpMessageConverterExtractor<>(returnType, this.restTemplate.getMessageConverters())
+                .extractData(new BufferedResponse(response.getStatusCodeValue(), headers, written));
+            return ResponseEntity.status(response.getStatusCodeValue()).headers(response.getHeaders()).body(copy);
+        } catch (IOException e) {
+            throw new RestClientException("Could not copy the response of the GET request for " + this.url, e);
+        }
+    }
 }
@@ -0,0 +1,53 @@
+package nl.tudelft.sem.yumyumnow.services.requests;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpResponse;
+
+/**
+ * A request to one of the other microservices that is sent through the {@link PeerGuard} of the microservice.
+ */
+class GuardedRequest implements ClientHttpRequest {
+
+    private final ClientHttpRequest request;
+    private final PeerGuard guard;
+
+    /**
+     * Wraps a request.
+     *
+     * @param request the request to send
+     * @param guard the guard of the microservice the request is sent to
+     */
+    GuardedRequest(ClientHttpRequest request, PeerGuard guard) {
+        this.request = request;
+        this.guard = guard;
+    }
+
+    @Override
+    public ClientHttpResponse execute() throws IOException {
+        return this.guard.execute(this.request);
+    }
+
+    @Override
+    public OutputStream getBody() throws IOException {
+        return this.request.getBody();
+    }
+
+    @Override
+    public String getMethodValue() {
+        return this.request.getMethodValue();
+    }
+
+    @Override
+    public URI getURI() {
+        return this.request.getURI();
+    }
+
+    @Override
+    public HttpHeaders getHeaders() {
+        return this.request.getHeaders();
+    }
+}
@@ -0,0 +1,100 @@
+package nl.tudelft.sem.yumyumnow.services.requests;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.function.Consumer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpResponse;
+
+/**
+ * A response of one of the other microservices to a request sent through its {@link PeerGuard}. The request is
+ * completed when the response is closed, once its body has been read, and fails if reading the body failed.
+ */
+class GuardedResponse implements ClientHttpResponse {
+
+    private final ClientHttpResponse response;
+    private final Consumer<Boolean> onClose;
+    private boolean failed;
+    private boolean closed;
+
+    /**
+     * Wraps a response.
+     *
+     * @param response the response to read
+     * @param failed whether the request already failed, for instance with a 5xx status
+     * @param onClose completes the request with whether it failed, called once when the response is closed
+     */
+    GuardedResponse(ClientHttpResponse response, boolean failed, Consumer<Boolean> onClose) {
+        this.response = response;
+        this.failed = failed;
+        this.onClose = onClose;
+        this.closed = false;
+    }
+
+    @Override
+    public HttpStatus getStatusCode() throws IOException {
+        return this.response.getStatusCode();
+    }
+
+    @Override
+    public int getRawStatusCode() throws IOException {
+        return this.response.getRawStatusCode();
+    }
+
+    @Override
+    public String getStatusText() throws IOException {
+        return this.response.getStatusText();
+    }
+
+    @Override
+    public HttpHeaders getHeaders() {
+        return this.response.getHeaders();
+    }
+
+    @Override
+    public InputStream getBody() throws IOException {
+        InputStream body;
+        try {
+            body = this.response.getBody();
+        } catch (IOException | RuntimeException e) {
+            this.failed = true;
+            throw e;
+        }
+        return new FilterInputStream(body) {
+            @Override
+            public int read() throws IOException {
+                try {
+                    return super.read();
+                } catch (IOException e) {
+                    GuardedResponse.this.failed = true;
+                    throw e;
+                }
+            }
+
+            @Override
+            public int read(byte[] buffer, int offset, int length) throws IOException {
+                try {
+                    return super.read(buffer, offset, length);
+                } catch (IOException e) {
+                    GuardedResponse.this.failed = true;
+                    throw e;
+                }
+            }
+        };
+    }
+
+    @Override
+    public void close() {
+        if (this.closed) {
+            return;
+        }
+        this.closed = true;
+        try {
+            this.response.close();
+        } finally {
+            this.onClose.accept(this.failed);
+        }
+    }
+}
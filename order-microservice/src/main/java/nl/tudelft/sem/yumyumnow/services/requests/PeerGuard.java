@@ -0,0 +1,127 @@
+package nl.tudelft.sem.yumyumnow.services.requests;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+import lombok.AccessLevel;
+import lombok.Getter;
+import org.apache.http.HttpHost;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpResponse;
+
+/**
+ * Guards the requests to one of the other microservices with its bulkhead and circuit breaker. A guarded request
+ * is rejected with a {@link PeerUnavailableException} when the bulkhead is full or the breaker is open. Requests
+ * that throw, for instance because they time out, and 5xx responses count as failures for the breaker; 4xx
+ * responses are answers of a healthy microservice and count as successes. A request holds its permit of the
+ * bulkhead and is timed until its response is closed, after its body has been read, so that a microservice that
+ * answers its headers quickly but its body slowly is still seen as slow.
+ */
+public class PeerGuard {
+
+    @Getter
+    private final String peer;
+    @Getter(AccessLevel.PACKAGE)
+    private final HttpHost host;
+    @Getter
+    private final Bulkhead bulkhead;
+    @Getter
+    private final CircuitBreaker circuitBreaker;
+
+    /**
+     * Creates the guard of a microservice.
+     *
+     * @param peer the name of the microservice
+     * @param address the address of the microservice, for instance http://localhost:8081
+     * @param bulkhead the bulkhead capping the concurrent requests to the microservice
+     * @param circuitBreaker the circuit breaker of the microservice
+     */
+    public PeerGuard(String peer, String address, Bulkhead bulkhead, CircuitBreaker circuitBreaker) {
+        this.peer = peer;
+        this.host = PooledRequestFactory.toHost(URI.create(address));
+        this.bulkhead = bulkhead;
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    /**
+     * Sends a request to the microservice if the bulkhead and the circuit breaker let it through. The outcome of
+     * the request is recorded and the permit of the bulkhead released when the response is closed, or at once if
+     * the request throws.
+     *
+     * @param request the request to the microservice
+     * @return the response of the microservice, which must be closed
+     * @throws IOException if the request failed
+     */
+    public ClientHttpResponse execute(ClientHttpRequest request) throws IOException {
+        if (!this.bulkhead.tryAcquire()) {
+            throw new PeerUnavailableException(this.peer, "too many concurrent requests");
+        }
+        long generation = this.circuitBreaker.tryAcquire();
+        if (generation == CircuitBreaker.REJECTED) {
+            this.bulkhead.release();
+            throw new PeerUnavailableException(this.peer, "circuit breaker open");
+        }
+        long start = this.circuitBreaker.now();
+        ClientHttpResponse response;
+        try {
+            response = request.execute();
+        } catch (IOException | RuntimeException | Error e) {
+            complete(generation, true, start);
+            throw e;
+        }
+        boolean failed = isServerError(response);
+        return new GuardedResponse(response, failed, bodyFailed -> complete(generation, bodyFailed, start));
+    }
+
+    /**
+     * Sends a request to the microservice without waiting for the response, if the bulkhead and the circuit
+     * breaker let it through. The response is read completely before it arrives, so the permit of the bulkhead is
+     * held and the request timed until then. A full bulkhead is waited for on the calling thread.
+     *
+     * @param call sends the request
+     * @return the response of the microservice, or a {@link PeerUnavailableException} if the request was not sent
+     */
+    CompletableFuture<ClientHttpResponse> executeAsync(Supplier<CompletableFuture<ClientHttpResponse>> call) {
+        if (!this.bulkhead.tryAcquire()) {
+            return CompletableFuture.failedFuture(new PeerUnavailableException(this.peer, "too many concurrent requests"));
+        }
+        long generation = this.circuitBreaker.tryAcquire();
+        if (generation == CircuitBreaker.REJECTED) {
+            this.bulkhead.release();
+            return CompletableFuture.failedFuture(new PeerUnavailableException(this.peer, "circuit breaker open"));
+        }
+        long start = this.circuitBreaker.now();
+        CompletableFuture<ClientHttpResponse> response;
+        try {
+            response = call.get();
+        } catch (RuntimeException e) {
+            response = CompletableFuture.failedFuture(e);
+        }
+        return response.whenComplete((result, error) -> complete(generation, error != null || isServerError(result),
+            start));
+    }
+
+    /**
+     * Records the outcome of a request with the circuit breaker and releases its permit of the bulkhead.
+     *
+     * @param generation the generation of the circuit breaker the request was let through in
+     * @param failed whether the request failed
+     * @param start when the request was sent, by the clock of the circuit breaker
+     */
+    private void complete(long generation, boolean failed, long start) {
+        try {
+            this.circuitBreaker.onComplete(generation, failed, this.circuitBreaker.now() - start);
+        } finally {
+            this.bulkhead.release();
+        }
+    }
+
+    private static boolean isServerError(ClientHttpResponse response) {
+        try {
+            return response.getRawStatusCode() >= 500;
+        } catch (IOException e) {
+            return true;
+        }
+    }
+}
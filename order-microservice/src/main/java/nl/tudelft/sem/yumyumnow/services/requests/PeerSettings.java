@@ -0,0 +1,33 @@
+package nl.tudelft.sem.yumyumnow.services.requests;
+
+import java.time.Duration;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * The connection limit and timeouts used for the requests to one of the other microservices.
+ */
+@Getter
+@AllArgsConstructor
+public class PeerSettings {
+
+    /**
+     * The address of the microservice, for instance http://localhost:8081.
+     */
+    private final String address;
+
+    /**
+     * The maximum number of pooled connections to the microservice.
+     */
+    private final int maxConnections;
+
+    /**
+     * How long to wait for a connection to the microservice to be established.
+     */
+    private final Duration connectTimeout;
+
+    /**
+     * How long to wait for data from the microservice once connected.
+     */
+    private final Duration readTimeout;
+}
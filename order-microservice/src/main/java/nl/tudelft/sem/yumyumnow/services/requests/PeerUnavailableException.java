@@ -0,0 +1,27 @@
+package nl.tudelft.sem.yumyumnow.services.requests;
+
+import lombok.Getter;
+import org.springframework.web.client.ResourceAccessException;
+
+/**
+ * Thrown instead of sending a request to one of the other microservices when its bulkhead is full or its circuit
+ * breaker is open. It is a {@link ResourceAccessException}, so it is handled like a request that timed out.
+ */
+public class PeerUnavailableException extends ResourceAccessException {
+
+    private static final long serialVersionUID = 1L;
+
+    @Getter
+    private final String peer;
+
+    /**
+     * Creates the exception for a request that was not sent.
+     *
+     * @param peer the name of the microservice
+     * @param reason why the request was not sent
+     */
+    public PeerUnavailableException(String peer, String reason) {
+        super("The " + peer + " microservice is unavailable: " + reason);
+        this.peer = peer;
+    }
+}
@@ -0,0 +1,163 @@
+package nl.tudelft.sem.yumyumnow.services.requests;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.httpcomponents.PoolingHttpClientConnectionManagerMetricsBinder;
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import lombok.Getter;
+import org.apache.http.HttpHost;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.protocol.HttpContext;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+
+/**
+ * Creates the HTTP requests sent by a RestTemplate over a pool of keep-alive connections.
+ * Each microservice gets its own connection limit and timeouts; other hosts use the default limit and timeouts.
+ * The requests to a microservice with a {@link PeerGuard} go through its bulkhead and circuit breaker.
+ * The pool is published as httpcomponents.httpclient.pool.* metrics.
+ */
+public class PooledRequestFactory extends HttpComponentsClientHttpRequestFactory {
+
+    private static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(5);
+
+    @Getter
+    private final PoolingHttpClientConnectionManager connectionManager;
+    private final Map<HttpHost, RequestConfig> peerConfigs;
+    private final RequestConfig defaultConfig;
+    private final Map<HttpHost, PeerGuard> peerGuards;
+
+    /**
+     * Creates a request factory with a new connection pool.
+     *
+     * @param maxTotal the maximum number of pooled connections to all hosts together
+     * @param defaultMaxPerHost the maximum number of pooled connections to a host that is not a peer
+     * @param connectionRequestTimeout how long a request waits for a connection from the pool
+     * @param keepAlive how long an idle connection is kept when the server does not say how long it keeps it
+     * @param peers the limits and timeouts of the microservices this service talks to
+     * @param meterRegistry the registry to which the pool metrics are published
+     */
+    public PooledRequestFactory(int maxTotal, int defaultMaxPerHost, Duration connectionRequestTimeout,
+                                Duration keepAlive, List<PeerSettings> peers, MeterRegistry meterRegistry) {
+        this(new PoolingHttpClientConnectionManager(), maxTotal, defaultMaxPerHost, connectionRequestTimeout,
+            keepAlive, peers, meterRegistry);
+    }
+
+    private PooledRequestFactory(PoolingHttpClientConnectionManager connectionManager, int maxTotal,
+                                 int defaultMaxPerHost, Duration connectionRequestTimeout, Duration keepAlive,
+                                 List<PeerSettings> peers, MeterRegistry meterRegistry) {
+        super(HttpClients.custom()
+            .setConnectionManager(connectionManager)
+            .setKeepAliveStrategy((response, context) -> {
+                long serverKeepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE
+                    .getKeepAliveDuration(response, context);
+                return serverKeepAlive > 0 ? serverKeepAlive : keepAlive.toMillis();
+            })
+            .evictExpiredConnections()
+            .evictIdleConnections(keepAlive.toMillis(), TimeUnit.MILLISECONDS)
+            .build());
+        this.connectionManager = connectionManager;
+        this.connectionManager.setMaxTotal(maxTotal);
+        this.connectionManager.setDefaultMaxPerRoute(defaultMaxPerHost);
+
+        this.defaultConfig = requestConfig(connectionRequestTimeout, DEFAULT_TIMEOUT, DEFAULT_TIMEOUT);
+        this.peerConfigs = new HashMap<>();
+        this.peerGuards = new ConcurrentHashMap<>();
+        for (PeerSettings peer : peers) {
+            HttpHost host = toHost(URI.create(peer.getAddress()));
+            HttpRoute route = new HttpRoute(host, null, "https".equalsIgnoreCase(host.getSchemeName()));
+            this.connectionManager.setMaxPerRoute(route, peer.getMaxConnections());
+            this.peerConfigs.put(host,
+                requestConfig(connectionRequestTimeout, peer.getConnectTimeout(), peer.getReadTimeout()));
+        }
+
+        new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, "integration")
+            .bindTo(meterRegistry);
+    }
+
+    /**
+     * Returns the timeouts used for requests to a host.
+     *
+     * @param uri the URI of the request
+     * @return the timeouts of the peer at that host, or the default timeouts
+     */
+    public RequestConfig getRequestConfig(URI uri) {
+        return this.peerConfigs.getOrDefault(toHost(uri), this.defaultConfig);
+    }
+
+    /**
+     * Guards the requests to a microservice with its bulkhead and circuit breaker, replacing its previous guard.
+     *
+     * @param guard the guard of the microservice
+     */
+    public void addPeerGuard(PeerGuard guard) {
+        this.peerGuards.put(guard.getHost(), guard);
+    }
+
+    /**
+     * Returns the guard of the requests to a host.
+     *
+     * @param uri the URI of the request
+     * @return the guard of the peer at that host, or null if requests to it are not guarded
+     */
+    public PeerGuard getPeerGuard(URI uri) {
+        return this.peerGuards.get(toHost(uri));
+    }
+
+    @Override
+    public ClientHttpRequest createRequest(URI uri, HttpMethod httpMethod) throws IOException {
+        ClientHttpRequest request = super.createRequest(uri, httpMethod);
+        PeerGuard guard = getPeerGuard(uri);
+        return guard == null ? request : new GuardedRequest(request, guard);
+    }
+
+    @Override
+    protected HttpContext createHttpContext(HttpMethod httpMethod, URI uri) {
+        HttpClientContext context = HttpClientContext.create();
+        context.setRequestConfig(getRequestConfig(uri));
+        return context;
+    }
+
+    /**
+     * Creates the timeouts of a request.
+     *
+     * @param connectionRequestTimeout how long to wait for a connection from the pool
+     * @param connectTimeout how long to wait for a connection to be established
+     * @param readTimeout how long to wait for data once connected
+     * @return the request configuration
+     */
+    private static RequestConfig requestConfig(Duration connectionRequestTimeout, Duration connectTimeout,
+                                               Duration readTimeout) {
+        return RequestConfig.custom()
+            .setConnectionRequestTimeout((int) connectionRequestTimeout.toMillis())
+            .setConnectTimeout((int) connectTimeout.toMillis())
+            .setSocketTimeout((int) readTimeout.toMillis())
+            .build();
+    }
+
+    /**
+     * Finds the host of a URI, with the default port of its scheme if it has none.
+     *
+     * @param uri the URI
+     * @return the host, port and scheme of the URI
+     */
+    static HttpHost toHost(URI uri) {
+        int port = uri.getPort();
+        if (port == -1) {
+            port = "https".equalsIgnoreCase(uri.getScheme()) ? 443 : 80;
+        }
+        return new HttpHost(uri.getHost(), port, uri.getScheme());
+    }
+}
@@ -3,6 +3,7 @@ package nl.tudelft.sem.yumyumnow.services.requests;
 import lombok.Getter;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.client.RestTemplate;
@@ -40,6 +41,16 @@ public class PostRequest extends Request {
         return this.restTemplate.postForEntity(this.url, httpEntity, returnType, this.parameters);
     }
 
+    @Override
+    protected HttpMethod getMethod() {
+        return HttpMethod.POST;
+    }
+
+    @Override
+    protected HttpEntity<?> getRequestEntity() {
+        return createRequestEntity(this.body);
+    }
+
     /**
      * Creates a Request entity with a body in the JSON format.
      *
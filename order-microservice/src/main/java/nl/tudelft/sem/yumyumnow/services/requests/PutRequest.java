@@ -36,4 +36,14 @@ public class PutRequest extends Request {
         return this.restTemplate.exchange(this.url, HttpMethod.PUT, new HttpEntity<>(this.body),
             returnType, this.parameters);
     }
+
+    @Override
+    protected HttpMethod getMethod() {
+        return HttpMethod.PUT;
+    }
+
+    @Override
+    protected HttpEntity<?> getRequestEntity() {
+        return new HttpEntity<>(this.body);
+    }
 }
@@ -1,8 +1,25 @@
 package nl.tudelft.sem.yumyumnow.services.requests;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.converter.HttpMessageConverter;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
+import org.springframework.web.client.HttpMessageConverterExtractor;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.ResponseErrorHandler;
+import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 
 public abstract class Request {
@@ -42,4 +59,134 @@ public abstract class Request {
      * @return a ResponseEntity containing the HTTP status code and the object
      */
     public abstract <T> ResponseEntity<T> send(Class<T> returnType);
+
+    /**
+     * Sends the request without waiting for the response. The URL, the body and the response are handled by the
+     * REST template like in {@link #send(Class)}, so the future completes with the same response, or with the same
+     * exception, for instance an {@link org.springframework.web.client.HttpClientErrorException} for a 4xx status.
+     *
+     * @param client the non-blocking client sending the request
+     * @param returnType the type of the object returned
+     * @param <T>        the type of the object to return
+     * @return the future ResponseEntity containing the HTTP status code and the object
+     */
+    public <T> CompletableFuture<ResponseEntity<T>> sendAsync(AsyncHttpClient client, Class<T> returnType) {
+        URI uri = this.restTemplate.getUriTemplateHandler().expand(this.url, this.parameters);
+        HttpHeaders headers = new HttpHeaders();
+        CompletableFuture<ResponseEntity<T>> result = new CompletableFuture<>();
+        byte[] body;
+        try {
+            body = writeBody(headers);
+        } catch (IOException | RuntimeException e) {
+            result.completeExceptionally(e instanceof IOException
+                ? new RestClientException("Could not write the body of the request for " + uri, e) : e);
+            return result;
+        }
+        client.send(getMethod(), uri, headers, body).whenComplete((response, error) -> {
+            if (error != null) {
+                result.completeExceptionally(error instanceof CompletionException && error.getCause() != null
+                    ? error.getCause() : error);
+                return;
+            }
+            try {
+                result.complete(readResponse(uri, response, returnType));
+            } catch (IOException e) {
+                result.completeExceptionally(new ResourceAccessException("I/O error on " + getMethod() + " request for \""
+                    + uri + "\": " + e.getMessage(), e));
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Returns the HTTP method of the request.
+     *
+     * @return the HTTP method
+     */
+    protected abstract HttpMethod getMethod();
+
+    /**
+     * Returns the body and headers sent with the request.
+     *
+     * @return the entity sent, or null if the request has no body
+     */
+    protected HttpEntity<?> getRequestEntity() {
+        return null;
+    }
+
+    /**
+     * Writes the body of the request with the first message converter of the REST template that can write it.
+     *
+     * @param headers the headers of the request, to which the headers of the entity and the converter are added
+     * @return the body of the request, empty if it has none
+     * @throws IOException if the body could not be written
+     */
+    private byte[] writeBody(HttpHeaders headers) throws IOException {
+        HttpEntity<?> entity = getRequestEntity();
+        if (entity == null) {
+            return new byte[0];
+        }
+        headers.putAll(entity.getHeaders());
+        Object body = entity.getBody();
+        if (body == null) {
+            return new byte[0];
+        }
+        return write(body, headers);
+    }
+
+    /**
+     * Writes an object with the first message converter of the REST template that can write it.
+     *
+     * @param body the object to write
+     * @param headers the headers of the message, to which the headers of the converter are added
+     * @return the object written
+     * @throws IOException if the object could not be written
+     */
+    @SuppressWarnings("unchecked")
+    protected byte[] write(Object body, HttpHeaders headers) throws IOException {
+        MediaType contentType = headers.getContentType();
+        for (HttpMessageConverter<?> converter : this.restTemplate.getMessageConverters()) {
+            if (converter.canWrite(body.getClass(), contentType)) {
+                ByteArrayOutputStream output = new ByteArrayOutputStream();
+                ((HttpMessageConverter<Object>) converter).write(body, contentType, new HttpOutputMessage() {
+                    @Override
+                    public OutputStream getBody() {
+                        return output;
+                    }
+
+                    @Override
+                    public HttpHeaders getHeaders() {
+                        return headers;
+                    }
+                });
+                return output.toByteArray();
+            }
+        }
+        throw new RestClientException("No HttpMessageConverter for " + body.getClass().getName()
+            + " and content type " + contentType);
+    }
+
+    /**
+     * Reads a response with the error handler and the message converters of the REST template.
+     *
+     * @param uri the URI of the request
+     * @param response the response
+     * @param returnType the type of the object returned
+     * @param <T>        the type of the object to return
+     * @return a ResponseEntity containing the HTTP status code and the object
+     * @throws IOException if the response could not be read
+     */
+    private <T> ResponseEntity<T> readResponse(URI uri, ClientHttpResponse response, Class<T> returnType)
+        throws IOException {
+        ResponseErrorHandler errorHandler = this.restTemplate.getErrorHandler();
+        if (errorHandler.hasError(response)) {
+            errorHandler.handleError(uri, getMethod(), response);
+        }
+        T body = returnType == Void.class ? null
+            : new HttpMessageConverterExtractor<>(returnType, this.restTemplate.getMessageConverters())
+                .extractData(response);
+        return ResponseEntity.status(response.getRawStatusCode()).headers(response.getHeaders()).body(body);
+    }
 }
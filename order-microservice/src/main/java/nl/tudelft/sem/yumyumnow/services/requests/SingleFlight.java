@@ -0,0 +1,135 @@
+package nl.tudelft.sem.yumyumnow.services.requests;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+import lombok.Getter;
+import org.springframework.web.client.ResourceAccessException;
+
+/**
+ * Lets concurrent identical requests share one call: the first caller for a key makes the call on its own thread,
+ * and the callers arriving with the same key while it is in flight wait for its result instead of calling again.
+ * All of them get the same result, or the same exception. Callers that can change the result pass a copy function,
+ * and then each of them, including the first, gets its own copy, so the others do not see its changes. Nothing
+ * is kept once the call has completed, so this is not a cache: a caller arriving after the call completes makes a
+ * new one.
+ * Waiting callers give up after their timeout, the default one unless they pass their own, with a
+ * {@link ResourceAccessException}, as if their own request had timed out. The calls made, the calls saved and the
+ * timeouts are published as integration.single-flight.* metrics.
+ */
+public class SingleFlight {
+
+    private final ConcurrentMap<String, CompletableFuture<Object>> flights;
+    @Getter
+    private final Duration timeout;
+    private final Counter calls;
+    private final Counter coalesced;
+    private final Counter timeouts;
+
+    /**
+     * Creates a single-flight layer without calls in flight.
+     *
+     * @param timeout how long a caller waits for the call in flight for its key, unless it passes its own timeout
+     * @param meterRegistry the registry to which the metrics are published
+     */
+    public SingleFlight(Duration timeout, MeterRegistry meterRegistry) {
+        this.flights = new ConcurrentHashMap<>();
+        this.timeout = timeout;
+        this.calls = meterRegistry.counter("integration.single-flight.calls");
+        this.coalesced = meterRegistry.counter("integration.single-flight.coalesced");
+        this.timeouts = meterRegistry.counter("integration.single-flight.timeouts");
+        meterRegistry.gauge("integration.single-flight.in-flight", this.flights, ConcurrentMap::size);
+    }
+
+    /**
+     * Makes a call, or waits for the identical call already in flight for at most the default timeout. The result
+     * is shared as it is, so it must not be changed by its callers.
+     *
+     * @param key identifies identical calls, for instance the method and URL of a request
+     * @param call the call to make if none is in flight for the key
+     * @param <T> the type of the result
+     * @return the result of the call
+     */
+    public <T> T execute(String key, Supplier<T> call) {
+        return execute(key, this.timeout, call, UnaryOperator.identity());
+    }
+
+    /**
+     * Makes a call, or waits for the identical call already in flight. Every caller gets its own copy of the
+     * result, so the result of the call itself is never handed out and can be copied safely while others use
+     * theirs.
+     *
+     * @param key identifies identical calls, for instance the method and URL of a request
+     * @param timeout how long to wait for the call in flight for the key
+     * @param call the call to make if none is in flight for the key
+     * @param copy copies the result for a caller
+     * @param <T> the type of the result
+     * @return the copy of the result of the call
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String key, Duration timeout, Supplier<T> call, UnaryOperator<T> copy) {
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> existing = this.flights.putIfAbsent(key, flight);
+        if (existing != null) {
+            this.coalesced.increment();
+            return copy.apply((T) await(key, timeout, existing));
+        }
+        this.calls.increment();
+        T result;
+        try {
+            result = call.get();
+            flight.complete(result);
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            this.flights.remove(key, flight);
+        }
+        return copy.apply(result);
+    }
+
+    /**
+     * Returns the number of keys with a call in flight.
+     *
+     * @return the number of calls in flight
+     */
+    public int getInFlight() {
+        return this.flights.size();
+    }
+
+    /**
+     * Waits for the result of a call in flight.
+     *
+     * @param key the key of the call
+     * @param timeout how long to wait for the result
+     * @param flight the result of the call
+     * @return the result of the call
+     */
+    private Object await(String key, Duration timeout, CompletableFuture<Object> flight) {
+        try {
+            return flight.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            this.timeouts.increment();
+            throw new ResourceAccessException("Timed out waiting for the call in flight for " + key);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResourceAccessException("Interrupted while waiting for the call in flight for " + key);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
@@ -2,23 +2,34 @@ package nl.tudelft.sem.yumyumnow.controllers;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.function.Consumer;
 import nl.tudelft.sem.yumyumnow.controller.AdminController;
 import nl.tudelft.sem.yumyumnow.model.Customer;
 import nl.tudelft.sem.yumyumnow.model.Order;
+import nl.tudelft.sem.yumyumnow.services.AnalyticsVendorService;
 import nl.tudelft.sem.yumyumnow.services.AuthenticationService;
 import nl.tudelft.sem.yumyumnow.services.CustomerService;
 import nl.tudelft.sem.yumyumnow.services.OrderService;
 import nl.tudelft.sem.yumyumnow.services.UpdatesOrderService;
+import nl.tudelft.sem.yumyumnow.services.analytics.AggregateMismatch;
+import nl.tudelft.sem.yumyumnow.services.analytics.Percentiles;
+import nl.tudelft.sem.yumyumnow.services.analytics.PriceDistribution;
 import nl.tudelft.sem.yumyumnow.services.completion.CompletionFactory;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 public class AdminControllerTest {
 
@@ -28,6 +39,7 @@ public class AdminControllerTest {
     private CompletionFactory orderCompletionService;
     private AdminController adminController;
     private CustomerService customerService;
+    private AnalyticsVendorService analyticsVendorService;
 
     /**
      * Setup of the mocked objects before each test.
@@ -38,8 +50,9 @@ public class AdminControllerTest {
         this.updatesOrderService = Mockito.mock(UpdatesOrderService.class);
         this.authenticationService = Mockito.mock(AuthenticationService.class);
         this.customerService = Mockito.mock(CustomerService.class);
+        this.analyticsVendorService = Mockito.mock(AnalyticsVendorService.class);
         this.adminController = new AdminController(orderService, updatesOrderService, authenticationService,
-            orderCompletionService, customerService);
+            orderCompletionService, customerService, new ObjectMapper(), analyticsVendorService);
     }
 
     /**
@@ -78,7 +91,7 @@ public class AdminControllerTest {
         assertEquals(statusCode, new ResponseEntity<>(HttpStatus.NOT_FOUND));
         this.orderCompletionService = Mockito.mock(CompletionFactory.class);
         this.adminController = new AdminController(orderService, updatesOrderService, authenticationService,
-            orderCompletionService, customerService);
+            orderCompletionService, customerService, new ObjectMapper(), analyticsVendorService);
     }
 
     /**
@@ -133,6 +146,61 @@ public class AdminControllerTest {
         assertEquals(HttpStatus.OK, adminController.getAllOrders(101L).getStatusCode());
     }
 
+    @Test
+    public void testGetOrderPageUnauthorized() {
+        Mockito.when(this.authenticationService.isAdmin(100L)).thenReturn(false);
+
+        assertEquals(HttpStatus.UNAUTHORIZED, adminController.getOrderPage(100L, null, null).getStatusCode());
+    }
+
+    @Test
+    public void testGetOrderPageInvalidLimit() {
+        Mockito.when(this.authenticationService.isAdmin(101L)).thenReturn(true);
+
+        assertEquals(HttpStatus.BAD_REQUEST, adminController.getOrderPage(101L, null, 0).getStatusCode());
+    }
+
+    @Test
+    public void testGetOrderPageWithNextPage() throws IOException {
+        List<Order> orders = List.of(new Order().orderId(11L), new Order().orderId(12L), new Order().orderId(13L));
+        Mockito.when(this.authenticationService.isAdmin(101L)).thenReturn(true);
+        Mockito.doAnswer(invocation -> {
+            Consumer<Order> consumer = invocation.getArgument(2);
+            orders.forEach(consumer);
+            return null;
+        }).when(this.orderService).forEachOrderAfter(Mockito.eq(10L), Mockito.eq(3), Mockito.any());
+
+        ResponseEntity<StreamingResponseBody> response = adminController.getOrderPage(101L, 10L, 2);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        response.getBody().writeTo(outputStream);
+
+        JsonNode page = new ObjectMapper().readTree(outputStream.toByteArray());
+        assertEquals(2, page.get("orders").size());
+        assertEquals(11L, page.get("orders").get(0).get("order_id").asLong());
+        assertEquals(12L, page.get("orders").get(1).get("order_id").asLong());
+        assertEquals(12L, page.get("next").asLong());
+    }
+
+    @Test
+    public void testGetOrderPageLastPage() throws IOException {
+        List<Order> orders = List.of(new Order().orderId(11L));
+        Mockito.when(this.authenticationService.isAdmin(101L)).thenReturn(true);
+        Mockito.doAnswer(invocation -> {
+            Consumer<Order> consumer = invocation.getArgument(2);
+            orders.forEach(consumer);
+            return null;
+        }).when(this.orderService).forEachOrderAfter(Mockito.isNull(), Mockito.eq(101), Mockito.any());
+
+        ResponseEntity<StreamingResponseBody> response = adminController.getOrderPage(101L, null, null);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        response.getBody().writeTo(outputStream);
+
+        JsonNode page = new ObjectMapper().readTree(outputStream.toByteArray());
+        assertEquals(1, page.get("orders").size());
+        assertTrue(page.get("next").isNull());
+    }
+
     @Test
     public void testGetOrder() {
         Order order = new Order();
@@ -321,4 +389,79 @@ public class AdminControllerTest {
         assertEquals(HttpStatus.OK, orderReceived.getStatusCode());
         assertEquals(orders, orderReceived.getBody());
     }
+
+    @Test
+    public void rebuildAnalytics() {
+        Mockito.when(this.authenticationService.isAdmin(100L)).thenReturn(true);
+        Mockito.when(this.analyticsVendorService.rebuildAggregates()).thenReturn(3);
+
+        ResponseEntity<Integer> response = adminController.rebuildAnalytics(100L);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(3, response.getBody());
+    }
+
+    @Test
+    public void rebuildAnalyticsNotAdmin() {
+        Mockito.when(this.authenticationService.isAdmin(100L)).thenReturn(false);
+
+        ResponseEntity<Integer> response = adminController.rebuildAnalytics(100L);
+
+        assertEquals(HttpStatus.UNAUTHORIZED, response.getStatusCode());
+        Mockito.verify(this.analyticsVendorService, Mockito.never()).rebuildAggregates();
+    }
+
+    @Test
+    public void checkAnalytics() {
+        List<AggregateMismatch> mismatches = List.of(new AggregateMismatch(1L, "average-rating", 4.0, 3.5));
+        Mockito.when(this.authenticationService.isAdmin(100L)).thenReturn(true);
+        Mockito.when(this.analyticsVendorService.checkAggregates()).thenReturn(mismatches);
+
+        ResponseEntity<List<AggregateMismatch>> response = adminController.checkAnalytics(100L);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(mismatches, response.getBody());
+    }
+
+    @Test
+    public void checkAnalyticsNotAdmin() {
+        Mockito.when(this.authenticationService.isAdmin(100L)).thenReturn(false);
+
+        ResponseEntity<List<AggregateMismatch>> response = adminController.checkAnalytics(100L);
+
+        assertEquals(HttpStatus.UNAUTHORIZED, response.getStatusCode());
+    }
+
+    @Test
+    public void getPricePercentiles() {
+        PriceDistribution distribution = new PriceDistribution(new Percentiles(2, 10.0, 30.0, 30.0),
+            new Percentiles(1, 5.0, 5.0, 5.0));
+        Mockito.when(this.authenticationService.isAdmin(100L)).thenReturn(true);
+        Mockito.when(this.analyticsVendorService.getPlatformPriceDistribution()).thenReturn(distribution);
+
+        ResponseEntity<PriceDistribution> response = adminController.getPricePercentiles(100L);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(distribution, response.getBody());
+    }
+
+    @Test
+    public void getPricePercentilesNotAdmin() {
+        Mockito.when(this.authenticationService.isAdmin(100L)).thenReturn(false);
+
+        ResponseEntity<PriceDistribution> response = adminController.getPricePercentiles(100L);
+
+        assertEquals(HttpStatus.UNAUTHORIZED, response.getStatusCode());
+    }
+
+    @Test
+    public void getPricePercentilesFails() {
+        Mockito.when(this.authenticationService.isAdmin(100L)).thenReturn(true);
+        Mockito.when(this.analyticsVendorService.getPlatformPriceDistribution())
+            .thenThrow(new IllegalStateException("store unavailable"));
+
+        ResponseEntity<PriceDistribution> response = adminController.getPricePercentiles(100L);
+
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
+    }
 }
@@ -6,9 +6,13 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Optional;
 import nl.tudelft.sem.yumyumnow.controller.AnalyticsController;
+import nl.tudelft.sem.yumyumnow.database.RatingSummary;
 import nl.tudelft.sem.yumyumnow.model.Dish;
 import nl.tudelft.sem.yumyumnow.model.Order;
 import nl.tudelft.sem.yumyumnow.model.Rating;
@@ -16,6 +20,11 @@ import nl.tudelft.sem.yumyumnow.services.AnalyticsService;
 import nl.tudelft.sem.yumyumnow.services.AnalyticsVendorService;
 import nl.tudelft.sem.yumyumnow.services.AuthenticationService;
 import nl.tudelft.sem.yumyumnow.services.OrderService;
+import nl.tudelft.sem.yumyumnow.services.analytics.DailyHistogram;
+import nl.tudelft.sem.yumyumnow.services.analytics.DishCount;
+import nl.tudelft.sem.yumyumnow.services.analytics.Percentiles;
+import nl.tudelft.sem.yumyumnow.services.analytics.PriceDistribution;
+import nl.tudelft.sem.yumyumnow.services.analytics.UniqueCustomers;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
@@ -407,4 +416,188 @@ public class AnalyticsControllerTest {
     }
 
 
+
+    @Test
+    void testGetRatingSummary() {
+        RatingSummary summary = new RatingSummary(3L, 4.0);
+        summary.setHistogram(Map.of(3L, 1L, 4L, 1L, 5L, 1L));
+        Mockito.when(authenticationService.isVendor(1L)).thenReturn(true);
+        Mockito.when(analyticsVendorService.getVendorRatingSummary(1L, true)).thenReturn(summary);
+
+        ResponseEntity<RatingSummary> response = analyticsController.getRatingSummary(1L, true);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(summary, response.getBody());
+    }
+
+    @Test
+    void testGetRatingSummaryUnauthorized() {
+        Mockito.when(authenticationService.isVendor(1L)).thenReturn(false);
+
+        ResponseEntity<RatingSummary> response = analyticsController.getRatingSummary(1L, false);
+
+        assertEquals(HttpStatus.UNAUTHORIZED, response.getStatusCode());
+        Mockito.verifyNoInteractions(analyticsVendorService);
+    }
+
+    @Test
+    void testGetRatingSummaryInternalError() {
+        Mockito.when(authenticationService.isVendor(1L)).thenReturn(true);
+        Mockito.when(analyticsVendorService.getVendorRatingSummary(1L, false)).thenThrow(new RuntimeException());
+
+        ResponseEntity<RatingSummary> response = analyticsController.getRatingSummary(1L, false);
+
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
+    }
+
+    @Test
+    void testGetPopularDishes() {
+        List<DishCount> popular = List.of(new DishCount(2L, 7, 0));
+        Mockito.when(authenticationService.isVendor(1L)).thenReturn(true);
+        Mockito.when(analyticsVendorService.getPopularDishes(1L, 3)).thenReturn(popular);
+
+        ResponseEntity<List<DishCount>> response = analyticsController.getPopularDishes(1L, 3);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(popular, response.getBody());
+    }
+
+    @Test
+    void testGetPopularDishesDefaultK() {
+        Mockito.when(authenticationService.isVendor(1L)).thenReturn(true);
+        Mockito.when(analyticsVendorService.getPopularDishes(1L, 5)).thenReturn(List.of());
+
+        ResponseEntity<List<DishCount>> response = analyticsController.getPopularDishes(1L, null);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(List.of(), response.getBody());
+    }
+
+    @Test
+    void testGetPopularDishesInvalidK() {
+        Mockito.when(authenticationService.isVendor(1L)).thenReturn(true);
+
+        ResponseEntity<List<DishCount>> response = analyticsController.getPopularDishes(1L, 0);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        Mockito.verifyNoInteractions(analyticsVendorService);
+    }
+
+    @Test
+    void testGetPopularDishesUnauthorized() {
+        Mockito.when(authenticationService.isVendor(1L)).thenReturn(false);
+
+        ResponseEntity<List<DishCount>> response = analyticsController.getPopularDishes(1L, 3);
+
+        assertEquals(HttpStatus.UNAUTHORIZED, response.getStatusCode());
+    }
+
+    @Test
+    void testGetUniqueCustomers() {
+        UniqueCustomers customers = new UniqueCustomers(3, 8, 21);
+        Mockito.when(authenticationService.isVendor(1L)).thenReturn(true);
+        Mockito.when(analyticsVendorService.getUniqueCustomers(Mockito.eq(1L), Mockito.any(LocalDate.class)))
+            .thenReturn(customers);
+
+        ResponseEntity<UniqueCustomers> response = analyticsController.getUniqueCustomers(1L);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(customers, response.getBody());
+    }
+
+    @Test
+    void testGetUniqueCustomersUnauthorized() {
+        Mockito.when(authenticationService.isVendor(1L)).thenReturn(false);
+
+        ResponseEntity<UniqueCustomers> response = analyticsController.getUniqueCustomers(1L);
+
+        assertEquals(HttpStatus.UNAUTHORIZED, response.getStatusCode());
+        Mockito.verifyNoInteractions(analyticsVendorService);
+    }
+
+    @Test
+    void testGetPricePercentiles() {
+        PriceDistribution distribution = new PriceDistribution(new Percentiles(3, 12.0, 20.0, 20.0),
+            new Percentiles(0, null, null, null));
+        Mockito.when(authenticationService.isVendor(1L)).thenReturn(true);
+        Mockito.when(analyticsVendorService.getPriceDistribution(1L)).thenReturn(distribution);
+
+        ResponseEntity<PriceDistribution> response = analyticsController.getPricePercentiles(1L);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(distribution, response.getBody());
+    }
+
+    @Test
+    void testGetPricePercentilesUnauthorized() {
+        Mockito.when(authenticationService.isVendor(1L)).thenReturn(false);
+
+        ResponseEntity<PriceDistribution> response = analyticsController.getPricePercentiles(1L);
+
+        assertEquals(HttpStatus.UNAUTHORIZED, response.getStatusCode());
+        Mockito.verifyNoInteractions(analyticsVendorService);
+    }
+
+    @Test
+    void testGetPricePercentilesError() {
+        Mockito.when(authenticationService.isVendor(1L)).thenReturn(true);
+        Mockito.when(analyticsVendorService.getPriceDistribution(1L)).thenThrow(new IllegalStateException());
+
+        ResponseEntity<PriceDistribution> response = analyticsController.getPricePercentiles(1L);
+
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
+    }
+
+    @Test
+    void testGetOrdersPerHour() {
+        long[] hourly = new long[24];
+        Mockito.when(authenticationService.isVendor(1L)).thenReturn(true);
+        Mockito.when(analyticsVendorService.getHourlyHistogram(1L)).thenReturn(hourly);
+
+        ResponseEntity<long[]> response = analyticsController.getOrdersPerHour(1L);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(hourly, response.getBody());
+    }
+
+    @Test
+    void testGetOrdersPerHourUnauthorized() {
+        Mockito.when(authenticationService.isVendor(1L)).thenReturn(false);
+
+        ResponseEntity<long[]> response = analyticsController.getOrdersPerHour(1L);
+
+        assertEquals(HttpStatus.UNAUTHORIZED, response.getStatusCode());
+    }
+
+    @Test
+    void testGetOrdersPerDayHistogram() {
+        LocalDate to = LocalDate.of(2024, 2, 1);
+        DailyHistogram histogram = new DailyHistogram(LocalDate.of(2024, 1, 31), new int[] {3, 4});
+        Mockito.when(authenticationService.isVendor(1L)).thenReturn(true);
+        Mockito.when(analyticsVendorService.getDailyHistogram(1L, to, 2)).thenReturn(histogram);
+
+        ResponseEntity<DailyHistogram> response = analyticsController.getOrdersPerDayHistogram(1L, 2, to);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(histogram, response.getBody());
+    }
+
+    @Test
+    void testGetOrdersPerDayHistogramDefaults() {
+        Mockito.when(authenticationService.isVendor(1L)).thenReturn(true);
+
+        analyticsController.getOrdersPerDayHistogram(1L, null, null);
+
+        verify(analyticsVendorService).getDailyHistogram(Mockito.eq(1L), Mockito.any(LocalDate.class), Mockito.eq(30));
+    }
+
+    @Test
+    void testGetOrdersPerDayHistogramInvalidDays() {
+        Mockito.when(authenticationService.isVendor(1L)).thenReturn(true);
+
+        assertEquals(HttpStatus.BAD_REQUEST, analyticsController.getOrdersPerDayHistogram(1L, 0, null).getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST,
+            analyticsController.getOrdersPerDayHistogram(1L, 367, null).getStatusCode());
+        Mockito.verifyNoInteractions(analyticsVendorService);
+    }
 }
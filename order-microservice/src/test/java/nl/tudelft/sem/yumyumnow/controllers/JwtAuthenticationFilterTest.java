@@ -0,0 +1,68 @@
+package nl.tudelft.sem.yumyumnow.controllers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.time.Duration;
+import nl.tudelft.sem.yumyumnow.controller.JwtAuthenticationFilter;
+import nl.tudelft.sem.yumyumnow.services.JwtService;
+import nl.tudelft.sem.yumyumnow.services.VerifiedUser;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+public class JwtAuthenticationFilterTest {
+
+    private JwtService jwtService;
+    private JwtAuthenticationFilter filter;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+    private MockFilterChain chain;
+
+    /**
+     * Setup of the filter and a mocked request.
+     */
+    @BeforeEach
+    public void setup() {
+        this.jwtService = new JwtService("testSecret");
+        this.filter = new JwtAuthenticationFilter(this.jwtService);
+        this.request = new MockHttpServletRequest("GET", "/order/1/status/42");
+        this.response = new MockHttpServletResponse();
+        this.chain = new MockFilterChain();
+    }
+
+    @Test
+    public void testValidToken() throws Exception {
+        String token = this.jwtService.createToken(42L, "customer", Duration.ofMinutes(5));
+        this.request.addHeader("Authorization", "Bearer " + token);
+
+        this.filter.doFilter(this.request, this.response, this.chain);
+
+        VerifiedUser user = (VerifiedUser) this.request.getAttribute(VerifiedUser.REQUEST_ATTRIBUTE);
+        assertEquals(42L, user.getUserId());
+        assertEquals("customer", user.getRole());
+        assertNotNull(this.chain.getRequest());
+    }
+
+    @Test
+    public void testNoToken() throws Exception {
+        this.filter.doFilter(this.request, this.response, this.chain);
+
+        assertNull(this.request.getAttribute(VerifiedUser.REQUEST_ATTRIBUTE));
+        assertNotNull(this.chain.getRequest());
+    }
+
+    @Test
+    public void testInvalidToken() throws Exception {
+        this.request.addHeader("Authorization", "Bearer invalid");
+
+        this.filter.doFilter(this.request, this.response, this.chain);
+
+        assertEquals(HttpStatus.UNAUTHORIZED.value(), this.response.getStatus());
+        assertNull(this.chain.getRequest());
+    }
+}
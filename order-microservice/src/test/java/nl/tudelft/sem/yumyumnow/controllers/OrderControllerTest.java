@@ -10,6 +10,7 @@ import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Optional;
 import nl.tudelft.sem.yumyumnow.controller.OrderController;
+import nl.tudelft.sem.yumyumnow.database.OrderStatusView;
 import nl.tudelft.sem.yumyumnow.model.Dish;
 import nl.tudelft.sem.yumyumnow.model.Location;
 import nl.tudelft.sem.yumyumnow.model.Order;
@@ -18,9 +19,12 @@ import nl.tudelft.sem.yumyumnow.services.OrderService;
 import nl.tudelft.sem.yumyumnow.services.UpdatesOrderService;
 import nl.tudelft.sem.yumyumnow.services.completion.BaseOrderCompletionHandler;
 import nl.tudelft.sem.yumyumnow.services.completion.CompletionFactory;
+import nl.tudelft.sem.yumyumnow.services.completion.OrderCompletionExecutor;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
@@ -30,6 +34,7 @@ public class OrderControllerTest {
     private UpdatesOrderService updatesOrderService;
     private AuthenticationService authenticationService;
     private CompletionFactory orderCompletionService;
+    private OrderCompletionExecutor orderCompletionExecutor;
     private OrderController orderController;
 
     private final BaseOrderCompletionHandler stubCompletionHandler = new BaseOrderCompletionHandler() {
@@ -48,8 +53,9 @@ public class OrderControllerTest {
         this.updatesOrderService = Mockito.mock(UpdatesOrderService.class);
         this.authenticationService = Mockito.mock(AuthenticationService.class);
         this.orderCompletionService = Mockito.mock(CompletionFactory.class);
+        this.orderCompletionExecutor = Mockito.mock(OrderCompletionExecutor.class);
         this.orderController = new OrderController(orderService, updatesOrderService,
-            authenticationService, orderCompletionService);
+            authenticationService, orderCompletionService, orderCompletionExecutor);
     }
 
     /**
@@ -58,10 +64,10 @@ public class OrderControllerTest {
     @Test
     public void testInvalidIds() {
         Order order = new Order();
-        Mockito.when(this.authenticationService.isCustomer(100L)).thenReturn(false);
-        Mockito.when(this.authenticationService.isCustomer(101L)).thenReturn(true);
-        Mockito.when(this.authenticationService.isVendor(250L)).thenReturn(false);
-        Mockito.when(this.authenticationService.isVendor(260L)).thenReturn(true);
+        Mockito.when(this.authenticationService.isCustomerAndVendor(100L, 250L)).thenReturn(false);
+        Mockito.when(this.authenticationService.isCustomerAndVendor(101L, 250L)).thenReturn(false);
+        Mockito.when(this.authenticationService.isCustomerAndVendor(100L, 260L)).thenReturn(false);
+        Mockito.when(this.authenticationService.isCustomerAndVendor(101L, 260L)).thenReturn(true);
         Mockito.when(this.orderService.createNewOrder(Mockito.anyLong(), Mockito.anyLong())).thenReturn(order);
 
         assertEquals(HttpStatus.NOT_FOUND, orderController.createOrder(100L, 250L).getStatusCode());
@@ -78,8 +84,8 @@ public class OrderControllerTest {
         Order order = new Order();
         order.setCustomerId(2L);
         order.setVendorId(3L);
-        Mockito.when(this.authenticationService.isCustomer(Mockito.anyLong())).thenReturn(true);
-        Mockito.when(this.authenticationService.isVendor(Mockito.anyLong())).thenReturn(true);
+        Mockito.when(this.authenticationService.isCustomerAndVendor(Mockito.anyLong(), Mockito.anyLong()))
+            .thenReturn(true);
         Mockito.when(this.orderService.createNewOrder(Mockito.anyLong(), Mockito.anyLong())).thenReturn(order);
 
         Order orderSent = orderController.createOrder(2L, 3L).getBody();
@@ -95,7 +101,7 @@ public class OrderControllerTest {
     public void getListOfOrdersForCustomersInvalidId() {
         Mockito.when(this.authenticationService.isCustomer(100L)).thenReturn(false);
 
-        assertEquals(HttpStatus.NOT_FOUND, orderController.getListOfOrdersForCustomers(100L).getStatusCode());
+        assertEquals(HttpStatus.NOT_FOUND, orderController.getListOfOrdersForCustomers(100L, null, null).getStatusCode());
     }
 
     /**
@@ -116,7 +122,7 @@ public class OrderControllerTest {
         Mockito.when(this.authenticationService.isCustomer(Mockito.anyLong())).thenReturn(true);
         Mockito.when(this.orderService.getAllOrdersForCustomer(Mockito.anyLong())).thenReturn(orders);
 
-        List<Order> ordersReceived = orderController.getListOfOrdersForCustomers(2L).getBody();
+        List<Order> ordersReceived = orderController.getListOfOrdersForCustomers(2L, null, null).getBody();
         assertNotNull(ordersReceived);
         assertEquals(2L, ordersReceived.get(0).getCustomerId());
         assertEquals(3L, ordersReceived.get(0).getVendorId());
@@ -134,7 +140,7 @@ public class OrderControllerTest {
         Mockito.when(this.authenticationService.isCustomer(Mockito.anyLong())).thenReturn(true);
         Mockito.when(this.orderService.getAllOrdersForCustomer(Mockito.anyLong())).thenReturn(new ArrayList<Order>());
 
-        List<Order> orders = orderController.getListOfOrdersForCustomers(2L).getBody();
+        List<Order> orders = orderController.getListOfOrdersForCustomers(2L, null, null).getBody();
         assertNotNull(orders);
         assertEquals(orders, new ArrayList<Order>());
     }
@@ -145,7 +151,8 @@ public class OrderControllerTest {
         Mockito.when(this.orderService.getAllOrdersForCustomer(Mockito.anyLong())).thenThrow(new
             NoSuchElementException("No order exists with id 25"));
 
-        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, orderController.getListOfOrdersForCustomers(2L).getStatusCode());
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR,
+            orderController.getListOfOrdersForCustomers(2L, null, null).getStatusCode());
     }
 
     /**
@@ -155,7 +162,7 @@ public class OrderControllerTest {
     public void getListOfOrdersForVendorInvalidId() {
         Mockito.when(this.authenticationService.isVendor(100L)).thenReturn(false);
 
-        assertEquals(HttpStatus.NOT_FOUND, orderController.getListOfOrdersForVendor(100L).getStatusCode());
+        assertEquals(HttpStatus.NOT_FOUND, orderController.getListOfOrdersForVendor(100L, null, null).getStatusCode());
     }
 
     /**
@@ -176,7 +183,7 @@ public class OrderControllerTest {
         Mockito.when(this.authenticationService.isVendor(Mockito.anyLong())).thenReturn(true);
         Mockito.when(this.orderService.getAllOrdersForVendor(Mockito.anyLong())).thenReturn(orders);
 
-        List<Order> ordersReceived = orderController.getListOfOrdersForVendor(3L).getBody();
+        List<Order> ordersReceived = orderController.getListOfOrdersForVendor(3L, null, null).getBody();
         assertNotNull(ordersReceived);
         assertEquals(1L, ordersReceived.get(0).getCustomerId());
         assertEquals(3L, ordersReceived.get(0).getVendorId());
@@ -194,7 +201,7 @@ public class OrderControllerTest {
         Mockito.when(this.authenticationService.isVendor(Mockito.anyLong())).thenReturn(true);
         Mockito.when(this.orderService.getAllOrdersForVendor(Mockito.anyLong())).thenReturn(new ArrayList<Order>());
 
-        List<Order> orders = orderController.getListOfOrdersForVendor(2L).getBody();
+        List<Order> orders = orderController.getListOfOrdersForVendor(2L, null, null).getBody();
         assertNotNull(orders);
         assertEquals(orders, new ArrayList<Order>());
     }
@@ -205,7 +212,42 @@ public class OrderControllerTest {
         Mockito.when(this.orderService.getAllOrdersForVendor(Mockito.anyLong())).thenThrow(new
             NoSuchElementException("No order exists with id 25"));
 
-        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, orderController.getListOfOrdersForVendor(2L).getStatusCode());
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR,
+            orderController.getListOfOrdersForVendor(2L, null, null).getStatusCode());
+    }
+
+
+    @Test
+    public void testGetAllOrdersVendorPaged() {
+        Order order = new Order().customerId(1L).vendorId(3L);
+        Mockito.when(this.authenticationService.isVendor(3L)).thenReturn(true);
+        Mockito.when(this.orderService.getAllOrdersForVendor(3L, PageRequest.of(1, 5, Sort.by("orderId"))))
+            .thenReturn(List.of(order));
+
+        ResponseEntity<List<Order>> response = orderController.getListOfOrdersForVendor(3L, 1, 5);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(List.of(order), response.getBody());
+        Mockito.verify(this.orderService, Mockito.never()).getAllOrdersForVendor(3L);
+    }
+
+    @Test
+    public void testGetAllOrdersCustomerDefaultPageSize() {
+        Mockito.when(this.authenticationService.isCustomer(2L)).thenReturn(true);
+        Mockito.when(this.orderService.getAllOrdersForCustomer(2L, PageRequest.of(0, 20, Sort.by("orderId"))))
+            .thenReturn(new ArrayList<>());
+
+        ResponseEntity<List<Order>> response = orderController.getListOfOrdersForCustomers(2L, 0, null);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(new ArrayList<Order>(), response.getBody());
+    }
+
+    @Test
+    public void testGetAllOrdersInvalidPage() {
+        Mockito.when(this.authenticationService.isCustomer(2L)).thenReturn(true);
+        Mockito.when(this.authenticationService.isVendor(3L)).thenReturn(true);
+
+        assertEquals(HttpStatus.BAD_REQUEST, orderController.getListOfOrdersForCustomers(2L, -1, 10).getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, orderController.getListOfOrdersForVendor(3L, 0, 0).getStatusCode());
     }
 
 
@@ -216,9 +258,9 @@ public class OrderControllerTest {
         Mockito.when(this.authenticationService.isCustomer(8L)).thenReturn(true);
         Mockito.when(this.orderService.existsAtId(445L)).thenReturn(true);
 
-        assertEquals(HttpStatus.UNAUTHORIZED, this.orderController.completeOrder(445L, 332L).getStatusCode());
-        assertEquals(HttpStatus.UNAUTHORIZED, this.orderController.completeOrder(6767L, 332L).getStatusCode());
-        assertEquals(HttpStatus.NOT_FOUND, this.orderController.completeOrder(6767L, 8L).getStatusCode());
+        assertEquals(HttpStatus.UNAUTHORIZED, this.orderController.completeOrder(445L, 332L, null).getStatusCode());
+        assertEquals(HttpStatus.UNAUTHORIZED, this.orderController.completeOrder(6767L, 332L, null).getStatusCode());
+        assertEquals(HttpStatus.NOT_FOUND, this.orderController.completeOrder(6767L, 8L, null).getStatusCode());
     }
 
     @Test
@@ -228,7 +270,7 @@ public class OrderControllerTest {
         Mockito.when(this.orderCompletionService.createCompletionResponsibilityChain(Mockito.any()))
                 .thenReturn(stubCompletionHandler);
         Mockito.when(this.updatesOrderService.setOrderStatus(445L, Order.StatusEnum.PREPARING)).thenReturn(false);
-        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, this.orderController.completeOrder(445L, 332L).getStatusCode());
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, this.orderController.completeOrder(445L, 332L, null).getStatusCode());
     }
 
     @Test
@@ -238,11 +280,40 @@ public class OrderControllerTest {
         Mockito.when(this.orderCompletionService.createCompletionResponsibilityChain(Mockito.any()))
                 .thenReturn(stubCompletionHandler);
         Mockito.when(this.updatesOrderService.setOrderStatus(445L, Order.StatusEnum.PREPARING)).thenReturn(true);
-        ResponseEntity<String> result = this.orderController.completeOrder(445L, 332L);
+        ResponseEntity<String> result = this.orderController.completeOrder(445L, 332L, null);
         assertEquals(HttpStatus.OK, result.getStatusCode());
         assertEquals("preparing", result.getBody());
     }
 
+    @Test
+    public void testCompleteOrderAsync() {
+        Order order = new Order().orderId(445L).customerId(332L).status(Order.StatusEnum.ACCEPTED);
+        Mockito.when(this.authenticationService.isCustomer(332L)).thenReturn(true);
+        Mockito.when(this.orderService.existsAtId(445L)).thenReturn(true);
+        Mockito.when(this.orderService.getOrderById(445L)).thenReturn(order);
+        Mockito.when(this.orderCompletionExecutor.submit(order)).thenReturn(true);
+
+        ResponseEntity<String> result = this.orderController.completeOrder(445L, 332L, true);
+
+        assertEquals(HttpStatus.ACCEPTED, result.getStatusCode());
+        assertEquals("pending", result.getBody());
+        Mockito.verifyNoInteractions(this.orderCompletionService, this.updatesOrderService);
+    }
+
+    @Test
+    public void testCompleteOrderAsyncQueueFull() {
+        Order order = new Order().orderId(445L).customerId(332L);
+        Mockito.when(this.authenticationService.isCustomer(332L)).thenReturn(true);
+        Mockito.when(this.orderService.existsAtId(445L)).thenReturn(true);
+        Mockito.when(this.orderService.getOrderById(445L)).thenReturn(order);
+        Mockito.when(this.orderCompletionExecutor.submit(order)).thenReturn(false);
+
+        ResponseEntity<String> result = this.orderController.completeOrder(445L, 332L, true);
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, result.getStatusCode());
+        assertEquals("1", result.getHeaders().getFirst("Retry-After"));
+    }
+
     /**
      * Tests the addDishToOrder method with invalid customer ID.
      */
@@ -707,23 +778,18 @@ public class OrderControllerTest {
 
         assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
     }
-
     @Test
     public void testGetOrderStatus() {
-        Order order = new Order();
-        order.setOrderId(10L);
-        order.setCustomerId(11L);
-        order.setStatus(Order.StatusEnum.PENDING);
-
-        Mockito.when(authenticationService.isCustomer(order.getCustomerId())).thenReturn(true);
-        Mockito.when(orderService.isUserAssociatedWithOrder(order.getOrderId(), order.getCustomerId())).thenReturn(true);
-        Mockito.when(orderService.getOrderById(order.getOrderId())).thenReturn(order);
+        Mockito.when(authenticationService.isCustomer(11L)).thenReturn(true);
+        Mockito.when(orderService.getOrderStatusView(10L))
+            .thenReturn(Optional.of(new OrderStatusView(Order.StatusEnum.PENDING, 11L, 12L)));
 
-        ResponseEntity<String> response = orderController.getOrderStatus(order.getOrderId(), order.getCustomerId());
+        ResponseEntity<String> response = orderController.getOrderStatus(10L, 11L);
 
         assertNotNull(response);
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals("pending", response.getBody());
+        Mockito.verify(orderService, Mockito.never()).getOrderById(Mockito.any());
     }
 
     @Test
@@ -739,7 +805,8 @@ public class OrderControllerTest {
     @Test
     public void testGetOrderStatusUnauthorized2() {
         Mockito.when(authenticationService.isCustomer(10L)).thenReturn(true);
-        Mockito.when(orderService.isUserAssociatedWithOrder(11L, 10L)).thenReturn(false);
+        Mockito.when(orderService.getOrderStatusView(11L))
+            .thenReturn(Optional.of(new OrderStatusView(Order.StatusEnum.PENDING, 20L, 21L)));
 
         ResponseEntity<String> response = orderController.getOrderStatus(11L, 10L);
 
@@ -749,15 +816,11 @@ public class OrderControllerTest {
 
     @Test
     public void testGetOrderStatusNull() {
-        Order order = new Order();
-        order.setOrderId(10L);
-        order.setCustomerId(11L);
-
-        Mockito.when(authenticationService.isCustomer(order.getCustomerId())).thenReturn(true);
-        Mockito.when(orderService.isUserAssociatedWithOrder(order.getOrderId(), order.getCustomerId())).thenReturn(true);
-        Mockito.when(orderService.getOrderById(order.getOrderId())).thenReturn(order);
+        Mockito.when(authenticationService.isCustomer(11L)).thenReturn(true);
+        Mockito.when(orderService.getOrderStatusView(10L))
+            .thenReturn(Optional.of(new OrderStatusView(null, 11L, 12L)));
 
-        ResponseEntity<String> response = orderController.getOrderStatus(order.getOrderId(), order.getCustomerId());
+        ResponseEntity<String> response = orderController.getOrderStatus(10L, 11L);
 
         assertNotNull(response);
         assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
@@ -766,8 +829,7 @@ public class OrderControllerTest {
     @Test
     public void testGetOrderStatusNotFound() {
         Mockito.when(authenticationService.isCustomer(11L)).thenReturn(true);
-        Mockito.when(orderService.isUserAssociatedWithOrder(10L, 11L)).thenReturn(true);
-        Mockito.when(orderService.getOrderById(10L)).thenThrow(new NoSuchElementException());
+        Mockito.when(orderService.getOrderStatusView(10L)).thenReturn(Optional.empty());
 
         ResponseEntity<String> response = orderController.getOrderStatus(10L, 11L);
 
@@ -778,8 +840,7 @@ public class OrderControllerTest {
     @Test
     public void testGetOrderStatusError() {
         Mockito.when(authenticationService.isCustomer(11L)).thenReturn(true);
-        Mockito.when(orderService.isUserAssociatedWithOrder(10L, 11L)).thenReturn(true);
-        Mockito.when(orderService.getOrderById(10L)).thenThrow(new RuntimeException());
+        Mockito.when(orderService.getOrderStatusView(10L)).thenThrow(new RuntimeException());
 
         ResponseEntity<String> response = orderController.getOrderStatus(10L, 11L);
 
@@ -0,0 +1,40 @@
+package nl.tudelft.sem.yumyumnow.database;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.sql.Connection;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+public class H2ConfigTest {
+
+    @Test
+    public void testPoolConfiguredFromProperties() throws Exception {
+        MockEnvironment environment = new MockEnvironment()
+            .withProperty("jdbc.driverClassName", "org.h2.Driver")
+            .withProperty("jdbc.url", "jdbc:h2:mem:h2configtest;QUERY_CACHE_SIZE=64")
+            .withProperty("jdbc.pool.name", "test-pool")
+            .withProperty("jdbc.pool.maximumPoolSize", "4")
+            .withProperty("jdbc.pool.minimumIdle", "1")
+            .withProperty("jdbc.pool.connectionTimeout", "1000");
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+        try (HikariDataSource dataSource = (HikariDataSource) new H2Config(environment).dataSource(registry)) {
+            assertEquals("test-pool", dataSource.getPoolName());
+            assertEquals(4, dataSource.getMaximumPoolSize());
+            assertEquals(1, dataSource.getMinimumIdle());
+            assertEquals(1000L, dataSource.getConnectionTimeout());
+
+            try (Connection connection = dataSource.getConnection()) {
+                assertEquals(1.0, registry.get("hikaricp.connections.active").tag("pool", "test-pool")
+                    .gauge().value());
+            }
+            assertNotNull(registry.get("hikaricp.connections.idle").gauge());
+            assertNotNull(registry.get("hikaricp.connections.acquire").timer());
+            assertNotNull(registry.get("hikaricp.connections.timeout").counter());
+        }
+    }
+}
@@ -1,26 +1,46 @@
 package nl.tudelft.sem.yumyumnow.database;
 
+import java.time.OffsetDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
 import nl.tudelft.sem.yumyumnow.model.Order;
 import org.springframework.data.domain.Example;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Sort;
 
 public class TestOrderRepository implements OrderRepository {
 
     private final List<Order> orders;
     private final List<String> methodCalls;
+    private final RatingRepository ratingRepository;
 
     /**
      * Mocks an Order Repository for testing purposes.
      */
     public TestOrderRepository() {
+        this(null);
+    }
+
+    /**
+     * Mocks an Order Repository for testing purposes, joining the orders with the ratings of the given
+     * repository in the rating queries.
+     *
+     * @param ratingRepository the repository containing the ratings of the orders
+     */
+    public TestOrderRepository(RatingRepository ratingRepository) {
         this.orders = new ArrayList<>();
         this.methodCalls = new ArrayList<>();
+        this.ratingRepository = ratingRepository;
     }
 
     /**
@@ -179,4 +199,151 @@ public class TestOrderRepository implements OrderRepository {
     public <S extends Order> boolean exists(Example<S> example) {
         return false;
     }
+
+    @Override
+    public List<Order> findAllByCustomerId(Long customerId) {
+        call("findAllByCustomerId");
+        return this.orders.stream().filter(x -> Objects.equals(x.getCustomerId(), customerId))
+            .collect(Collectors.toList());
+    }
+
+    @Override
+    public PriceSummary summarizePricesByCustomerId(Long customerId) {
+        call("summarizePricesByCustomerId");
+        long count = 0;
+        long priced = 0;
+        double total = 0;
+        for (Order order : this.orders) {
+            if (Objects.equals(order.getCustomerId(), customerId)) {
+                count++;
+                if (order.getPrice() != null) {
+                    priced++;
+                    total += order.getPrice();
+                }
+            }
+        }
+        return new PriceSummary(count, priced, priced == 0 ? null : total / priced);
+    }
+
+    @Override
+    public List<OffsetDateTime> findTimesByVendorId(Long vendorId) {
+        call("findTimesByVendorId");
+        return this.orders.stream().filter(x -> Objects.equals(x.getVendorId(), vendorId))
+            .map(Order::getTime).filter(Objects::nonNull).collect(Collectors.toList());
+    }
+
+    @Override
+    public Slice<Order> findAllByCustomerId(Long customerId, Pageable pageable) {
+        call("findAllByCustomerId");
+        return slice(this.orders.stream().filter(x -> Objects.equals(x.getCustomerId(), customerId))
+            .collect(Collectors.toList()), pageable);
+    }
+
+    @Override
+    public List<Order> findAllByVendorId(Long vendorId) {
+        call("findAllByVendorId");
+        return this.orders.stream().filter(x -> Objects.equals(x.getVendorId(), vendorId))
+            .collect(Collectors.toList());
+    }
+
+    @Override
+    public Slice<Order> findAllByVendorId(Long vendorId, Pageable pageable) {
+        call("findAllByVendorId");
+        return slice(this.orders.stream().filter(x -> Objects.equals(x.getVendorId(), vendorId))
+            .collect(Collectors.toList()), pageable);
+    }
+
+    @Override
+    public Optional<Order> findByOrderIdAndVendorId(Long orderId, Long vendorId) {
+        call("findByOrderIdAndVendorId");
+        return this.orders.stream()
+            .filter(x -> Objects.equals(x.getOrderId(), orderId) && Objects.equals(x.getVendorId(), vendorId))
+            .findFirst();
+    }
+
+    @Override
+    public List<Long> findRatingIdsByVendorId(Long vendorId) {
+        call("findRatingIdsByVendorId");
+        return this.orders.stream().filter(x -> Objects.equals(x.getVendorId(), vendorId))
+            .map(Order::getRatingId).collect(Collectors.toList());
+    }
+
+    @Override
+    public RatingSummary summarizeRatingsByVendorId(Long vendorId) {
+        call("summarizeRatingsByVendorId");
+        List<Long> grades = gradesOfVendor(vendorId);
+        return new RatingSummary((long) grades.size(),
+            grades.isEmpty() ? null : grades.stream().mapToLong(Long::longValue).average().getAsDouble());
+    }
+
+    @Override
+    public List<GradeCount> countGradesByVendorId(Long vendorId) {
+        call("countGradesByVendorId");
+        Map<Long, Long> counts = new TreeMap<>();
+        gradesOfVendor(vendorId).forEach(grade -> counts.merge(grade, 1L, Long::sum));
+        return counts.entrySet().stream().map(x -> new GradeCount(x.getKey(), x.getValue()))
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Joins the rated orders of a vendor with their ratings.
+     *
+     * @param vendorId the id of the vendor
+     * @return the grades of the rated orders of the vendor
+     */
+    private List<Long> gradesOfVendor(Long vendorId) {
+        if (this.ratingRepository == null) {
+            return List.of();
+        }
+        return this.orders.stream()
+            .filter(x -> Objects.equals(x.getVendorId(), vendorId) && x.getRatingId() != null && x.getRatingId() >= 0)
+            .map(x -> this.ratingRepository.findById(x.getRatingId()))
+            .filter(x -> x.isPresent() && x.get().getGrade() != null)
+            .map(x -> x.get().getGrade())
+            .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<Long> findOrderIdsAfter(Long orderId, Pageable pageable) {
+        call("findOrderIdsAfter");
+        return this.orders.stream().map(Order::getOrderId).filter(x -> x > orderId).sorted()
+            .limit(pageable.getPageSize()).collect(Collectors.toList());
+    }
+
+    @Override
+    public List<Order> findWithDishesByOrderIdIn(Collection<Long> orderIds) {
+        call("findWithDishesByOrderIdIn");
+        return this.orders.stream().filter(x -> orderIds.contains(x.getOrderId()))
+            .sorted(Comparator.comparing(Order::getOrderId)).collect(Collectors.toList());
+    }
+
+    @Override
+    public Optional<OrderStatusView> findStatusViewByOrderId(Long orderId) {
+        call("findStatusViewByOrderId");
+        return this.orders.stream().filter(x -> Objects.equals(x.getOrderId(), orderId))
+            .map(x -> new OrderStatusView(x.getStatus(), x.getCustomerId(), x.getVendorId()))
+            .findFirst();
+    }
+
+    @Override
+    public int updateStatusByOrderId(Long orderId, Order.StatusEnum status) {
+        call("updateStatusByOrderId");
+        List<Order> found = this.orders.stream().filter(x -> Objects.equals(x.getOrderId(), orderId))
+            .collect(Collectors.toList());
+        found.forEach(x -> x.setStatus(status));
+        return found.size();
+    }
+
+    /**
+     * Cuts the requested page out of a list of orders, in insertion order.
+     *
+     * @param found the orders matching a query
+     * @param pageable the requested page
+     * @return the slice of orders in the requested page
+     */
+    private Slice<Order> slice(List<Order> found, Pageable pageable) {
+        int from = (int) Math.min(pageable.getOffset(), found.size());
+        int to = Math.min(from + pageable.getPageSize(), found.size());
+        return new SliceImpl<>(new ArrayList<>(found.subList(from, to)), pageable, to < found.size());
+    }
 }
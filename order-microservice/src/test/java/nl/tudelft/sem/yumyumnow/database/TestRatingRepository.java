@@ -39,7 +39,8 @@ public class TestRatingRepository implements RatingRepository {
 
     @Override
     public List<Rating> findAll() {
-        return null;
+        call("findAll");
+        return ratings;
     }
 
     @Override
@@ -5,7 +5,6 @@ import java.util.List;
 import java.util.Optional;
 import javax.persistence.EntityManager;
 import javax.persistence.EntityNotFoundException;
-import nl.tudelft.sem.yumyumnow.model.Location;
 import nl.tudelft.sem.yumyumnow.model.Order;
 import nl.tudelft.sem.yumyumnow.model.Vendor;
 import org.springframework.dao.IncorrectResultSizeDataAccessException;
@@ -218,7 +217,12 @@ public class TestVendorRepository implements VendorRepository {
 
     @Override
     public List<Vendor> findAllById(Iterable<Long> longs) {
-        return null;
+        call("findAllById");
+        List<Vendor> found = new ArrayList<>();
+        for (Long id : longs) {
+            this.vendors.stream().filter(x -> x.getId().equals(id)).findFirst().ifPresent(found::add);
+        }
+        return found;
     }
 
     @Override
@@ -292,17 +296,4 @@ public class TestVendorRepository implements VendorRepository {
         }
         return found;
     }
-
-    @Override
-    public List<Vendor> findByLocationWithinRadius(@Param("location") Location location, @Param("filter") String filter,
-        @Param("radius") Integer radius) {
-        call("findByLocationWithinRadius");
-        List<Vendor> found = new ArrayList<>();
-        for (Vendor v : vendors) {
-            if (v.getName().contains(filter) && withinRadius(location, radius, v.getLocation())) {
-                found.add(v);
-            }
-        }
-        return found;
-    }
 }
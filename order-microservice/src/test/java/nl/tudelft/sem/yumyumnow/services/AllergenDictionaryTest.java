@@ -0,0 +1,112 @@
+package nl.tudelft.sem.yumyumnow.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import nl.tudelft.sem.yumyumnow.model.Dish;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class AllergenDictionaryTest {
+
+    private AllergenDictionary dictionary;
+
+    @BeforeEach
+    public void setup() {
+        this.dictionary = new AllergenDictionary();
+    }
+
+    private static Dish dish(Long id, String... allergens) {
+        Dish dish = new Dish().id(id);
+        dish.setAllergens(new ArrayList<>(Arrays.asList(allergens)));
+        return dish;
+    }
+
+    @Test
+    public void testIdOf() {
+        int milk = this.dictionary.idOf("Milk");
+        int gluten = this.dictionary.idOf("Gluten");
+
+        assertEquals(milk, this.dictionary.idOf("Milk"));
+        assertTrue(milk != gluten);
+        assertEquals(2, this.dictionary.size());
+    }
+
+    @Test
+    public void testWithoutAllergens() {
+        Dish pancakes = dish(1L, "Milk", "Gluten");
+        Dish salad = dish(2L, "Nuts");
+        Dish water = dish(3L);
+        List<Dish> dishes = List.of(pancakes, salad, water);
+
+        assertEquals(List.of(salad, water), this.dictionary.withoutAllergens(dishes, List.of("Gluten")));
+        assertEquals(List.of(water), this.dictionary.withoutAllergens(dishes, List.of("Nuts", "Milk")));
+        assertEquals(dishes, this.dictionary.withoutAllergens(dishes, (List<String>) null));
+    }
+
+    @Test
+    public void testWithoutAllergensMask() {
+        Dish pancakes = dish(1L, "Milk", "Gluten");
+        Dish salad = dish(2L, "Nuts");
+        this.dictionary.updateDish(pancakes);
+        this.dictionary.updateDish(salad);
+
+        assertEquals(List.of(salad),
+            this.dictionary.withoutAllergens(List.of(pancakes, salad), this.dictionary.customerMask(List.of("Milk"))));
+    }
+
+    @Test
+    public void testCustomerMaskDoesNotAssignIds() {
+        this.dictionary.updateDish(dish(1L, "Soy"));
+
+        BitSet customerMask = this.dictionary.customerMask(List.of("Soy", "Pineapple", "anything else"));
+
+        assertEquals(1, customerMask.cardinality());
+        assertEquals(1, this.dictionary.size());
+    }
+
+    @Test
+    public void testCustomerAllergenFirstSeenOnFilteredDish() {
+        Dish tofu = dish(1L, "Soy");
+
+        assertTrue(this.dictionary.withoutAllergens(List.of(tofu), List.of("Soy")).isEmpty());
+    }
+
+    @Test
+    public void testUpdateDish() {
+        Dish dish = dish(1L, "Milk");
+        this.dictionary.updateDish(dish);
+        BitSet customerMask = this.dictionary.customerMask(List.of("Milk"));
+        assertTrue(this.dictionary.withoutAllergens(List.of(dish), customerMask).isEmpty());
+
+        dish.setAllergens(List.of("Eggs"));
+        this.dictionary.updateDish(dish);
+
+        assertEquals(List.of(dish), this.dictionary.withoutAllergens(List.of(dish), customerMask));
+    }
+
+    @Test
+    public void testRemoveDish() {
+        Dish dish = dish(1L, "Milk");
+        this.dictionary.updateDish(dish);
+        BitSet customerMask = this.dictionary.customerMask(List.of("Milk"));
+        dish.setAllergens(List.of());
+
+        this.dictionary.removeDish(1L);
+        this.dictionary.removeDish(null);
+
+        assertEquals(List.of(dish), this.dictionary.withoutAllergens(List.of(dish), customerMask));
+    }
+
+    @Test
+    public void testDishWithoutId() {
+        Dish dish = dish(null, "Milk");
+        dish.getAllergens().add(null);
+
+        assertTrue(this.dictionary.withoutAllergens(List.of(dish), List.of("Milk")).isEmpty());
+    }
+}
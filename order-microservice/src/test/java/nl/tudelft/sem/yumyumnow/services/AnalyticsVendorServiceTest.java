@@ -4,14 +4,25 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.mockito.Mockito.mock;
 
+import java.time.LocalDate;
 import java.time.OffsetDateTime;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import nl.tudelft.sem.yumyumnow.database.RatingSummary;
 import nl.tudelft.sem.yumyumnow.database.TestRatingRepository;
 import nl.tudelft.sem.yumyumnow.model.Dish;
 import nl.tudelft.sem.yumyumnow.model.Order;
-import nl.tudelft.sem.yumyumnow.model.Rating;
+import nl.tudelft.sem.yumyumnow.model.Vendor;
+import nl.tudelft.sem.yumyumnow.services.analytics.AggregateMismatch;
+import nl.tudelft.sem.yumyumnow.services.analytics.DailyHistogram;
+import nl.tudelft.sem.yumyumnow.services.analytics.DishCount;
+import nl.tudelft.sem.yumyumnow.services.analytics.Percentiles;
+import nl.tudelft.sem.yumyumnow.services.analytics.PriceDistribution;
+import nl.tudelft.sem.yumyumnow.services.analytics.UniqueCustomers;
+import nl.tudelft.sem.yumyumnow.services.analytics.VendorAnalyticsStore;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
@@ -23,6 +34,7 @@ public class AnalyticsVendorServiceTest {
     private AnalyticsVendorService analyticsVendorService;
     private VendorService vendorService;
     private OrderService orderService;
+    private VendorAnalyticsStore analyticsStore;
 
     @BeforeEach
     void setUp() {
@@ -30,7 +42,9 @@ public class AnalyticsVendorServiceTest {
         this.vendorService = Mockito.mock(VendorService.class);
         this.orderService = Mockito.mock(OrderService.class);
         this.testRatingRepository = new TestRatingRepository();
-        this.analyticsVendorService = new AnalyticsVendorService(vendorService, testRatingRepository, orderService);
+        this.analyticsStore = Mockito.mock(VendorAnalyticsStore.class);
+        this.analyticsVendorService = new AnalyticsVendorService(vendorService, testRatingRepository, orderService,
+            analyticsStore);
     }
 
     @Test
@@ -44,7 +58,7 @@ public class AnalyticsVendorServiceTest {
 
         Mockito.when(vendorService.getVendorDishes(vendorId)).thenReturn(dishes);
 
-        assertEquals(average, analyticsVendorService.getAverageVendorPrice(vendorId));
+        assertEquals(average, analyticsVendorService.computeAverageVendorPrice(vendorId));
     }
 
     @Test
@@ -55,7 +69,7 @@ public class AnalyticsVendorServiceTest {
 
         Mockito.when(vendorService.getVendorDishes(vendorId)).thenReturn(dishes);
 
-        assertEquals(23.4, analyticsVendorService.getAverageVendorPrice(vendorId));
+        assertEquals(23.4, analyticsVendorService.computeAverageVendorPrice(vendorId));
     }
 
     @Test
@@ -64,51 +78,38 @@ public class AnalyticsVendorServiceTest {
 
         Mockito.when(vendorService.getVendorDishes(vendorId)).thenReturn(Collections.emptyList());
 
-        assertEquals(null, analyticsVendorService.getAverageVendorPrice(vendorId));
+        assertEquals(null, analyticsVendorService.computeAverageVendorPrice(vendorId));
     }
 
     @Test
     void testGetAverageVendorRating() {
         Long vendorId = 1L;
-        Long id = testRatingRepository.count();
-        Rating rating1 = new Rating().id(id).grade(2L);
-        Rating rating2 = new Rating().id(id + 1).grade(3L);
-        Rating rating3 = new Rating().id(id + 2).grade(5L);
+        Double average = (double) (2L + 3L + 5L) / 3;
 
-        List<Rating> ratings = Arrays.asList(rating1, rating2, rating3);
-        List<Long> ratingsIds = Arrays.asList(rating1.getId(), rating2.getId(), rating3.getId());
+        Mockito.when(orderService.getRatingSummaryForVendor(vendorId, false))
+            .thenReturn(new RatingSummary(3L, average));
 
-        testRatingRepository.saveAll(ratings);
-
-        Mockito.when(orderService.getAllRatingsForVendor(vendorId)).thenReturn(ratingsIds);
-
-        Double average = (double) (rating1.getGrade() + rating2.getGrade() + rating3.getGrade()) / 3;
-        assertEquals(average, analyticsVendorService.getAverageVendorRating(vendorId));
+        assertEquals(average, analyticsVendorService.computeAverageVendorRating(vendorId));
+        Mockito.verify(orderService, Mockito.never()).getAllRatingsForVendor(vendorId);
+        assertEquals(0, testRatingRepository.getMethodCalls().size());
     }
 
     @Test
     void testGetAverageVendorRatingOneRating() {
         Long vendorId = 1L;
-        Long id = testRatingRepository.count();
-        Rating rating = new Rating().id(id).grade(2L);
-
-        List<Rating> ratings = Collections.singletonList(rating);
-        List<Long> ratingsIds = Collections.singletonList(rating.getId());
-
-        testRatingRepository.saveAll(ratings);
 
-        Mockito.when(orderService.getAllRatingsForVendor(vendorId)).thenReturn(ratingsIds);
+        Mockito.when(orderService.getRatingSummaryForVendor(vendorId, false)).thenReturn(new RatingSummary(1L, 2.0));
 
-        assertEquals((double) rating.getGrade(), analyticsVendorService.getAverageVendorRating(vendorId));
+        assertEquals(2.0, analyticsVendorService.computeAverageVendorRating(vendorId));
     }
 
     @Test
     void testGetAverageVendorRatingNoRatings() {
         Long vendorId = 1L;
 
-        Mockito.when(orderService.getAllRatingsForVendor(vendorId)).thenReturn(Collections.emptyList());
+        Mockito.when(orderService.getRatingSummaryForVendor(vendorId, false)).thenReturn(new RatingSummary(0L, null));
 
-        assertEquals(null, analyticsVendorService.getAverageVendorRating(vendorId));
+        assertEquals(null, analyticsVendorService.computeAverageVendorRating(vendorId));
     }
 
     @Test
@@ -163,17 +164,58 @@ public class AnalyticsVendorServiceTest {
 
     }
 
+    @Test
+    void testGetPopularDishes() {
+        Dish burger = new Dish().id(2L).name("burger");
+        List<DishCount> counts = List.of(new DishCount(2L, 7, 0), new DishCount(9L, 3, 1));
+        Mockito.when(analyticsStore.getPopularDishes(1L, 2)).thenReturn(counts);
+        Mockito.when(vendorService.getVendorDishes(1L)).thenReturn(List.of(new Dish().id(1L), burger));
+
+        List<DishCount> popular = analyticsVendorService.getPopularDishes(1L, 2);
+
+        assertEquals(counts, popular);
+        assertEquals(burger, popular.get(0).getDish());
+        assertEquals(null, popular.get(1).getDish());
+        Mockito.verifyNoInteractions(orderService);
+    }
+
+    @Test
+    void testGetPopularDishesNoOrders() {
+        Mockito.when(analyticsStore.getPopularDishes(1L, 2)).thenReturn(List.of());
+
+        assertEquals(List.of(), analyticsVendorService.getPopularDishes(1L, 2));
+        Mockito.verifyNoInteractions(vendorService);
+    }
+
+    @Test
+    void testGetHourlyHistogram() {
+        long[] hourly = new long[24];
+        hourly[12] = 4;
+        Mockito.when(analyticsStore.getHourlyHistogram(1L)).thenReturn(hourly);
+
+        assertEquals(hourly, analyticsVendorService.getHourlyHistogram(1L));
+    }
+
+    @Test
+    void testGetDailyHistogram() {
+        int[] counts = {1, 0, 2};
+        Mockito.when(analyticsStore.getDailyHistogram(1L, LocalDate.of(2024, 1, 30), 3)).thenReturn(counts);
+
+        DailyHistogram histogram = analyticsVendorService.getDailyHistogram(1L, LocalDate.of(2024, 2, 1), 3);
+
+        assertEquals(LocalDate.of(2024, 1, 30), histogram.getFrom());
+        assertEquals(counts, histogram.getCounts());
+        Mockito.verifyNoInteractions(orderService);
+    }
+
     @Test
     void testAverageOrdersPerDayOneOrder() {
         OffsetDateTime now = OffsetDateTime.now();
-
-        Order order = new Order().orderId(11L).time(now);
-        List<Order> orders = List.of(order);
         Long vendorId = 1L;
 
-        Mockito.when(orderService.getAllOrdersForVendor(vendorId)).thenReturn(orders);
+        Mockito.when(orderService.getOrderTimesForVendor(vendorId)).thenReturn(List.of(now));
 
-        Double average = analyticsVendorService.averageOrdersPerDay(vendorId);
+        Double average = analyticsVendorService.computeAverageOrdersPerDay(vendorId);
 
         assertEquals(1, average);
     }
@@ -183,32 +225,117 @@ public class AnalyticsVendorServiceTest {
         OffsetDateTime now = OffsetDateTime.now();
         OffsetDateTime yesterday = now.minusDays(1);
         OffsetDateTime twoDaysAgo = now.minusDays(2);
-
-        Order order1 = new Order().orderId(11L).time(now);
-        Order order2 = new Order().orderId(11L).time(yesterday);
-        Order order3 = new Order().orderId(11L).time(yesterday);
-        Order order4 = new Order().orderId(11L).time(twoDaysAgo);
-        List<Order> orders = List.of(order1, order2, order3, order4);
         Long vendorId = 1L;
 
-        Double expected = (1.0 + 2.0 + 1.0) / 3.0;
+        Mockito.when(orderService.getOrderTimesForVendor(vendorId))
+            .thenReturn(List.of(now, yesterday, yesterday, twoDaysAgo));
 
-        Mockito.when(orderService.getAllOrdersForVendor(vendorId)).thenReturn(orders);
+        Double expected = (1.0 + 2.0 + 1.0) / 3.0;
 
-        Double average = analyticsVendorService.averageOrdersPerDay(vendorId);
+        Double average = analyticsVendorService.computeAverageOrdersPerDay(vendorId);
 
         assertEquals(expected, average);
+        Mockito.verify(orderService, Mockito.never()).getAllOrdersForVendor(vendorId);
     }
 
     @Test
     void testAverageOrdersPerDayNull() {
         Long vendorId = 1L;
 
-        Mockito.when(orderService.getAllOrdersForVendor(vendorId)).thenReturn(null);
+        Mockito.when(orderService.getOrderTimesForVendor(vendorId)).thenReturn(List.of());
 
-        Double average = analyticsVendorService.averageOrdersPerDay(vendorId);
+        Double average = analyticsVendorService.computeAverageOrdersPerDay(vendorId);
 
         assertEquals(null, average);
+        assertEquals(null, analyticsVendorService.computeAverageOrdersPerDay(null));
+    }
+
+    @Test
+    void testGetAveragesFromStore() {
+        Mockito.when(analyticsStore.getAveragePrice(1L)).thenReturn(12.5);
+        Mockito.when(analyticsStore.getAverageRating(1L)).thenReturn(4.0);
+        Mockito.when(analyticsStore.getAverageOrdersPerDay(1L)).thenReturn(2.5);
+
+        assertEquals(12.5, analyticsVendorService.getAverageVendorPrice(1L));
+        assertEquals(4.0, analyticsVendorService.getAverageVendorRating(1L));
+        assertEquals(2.5, analyticsVendorService.averageOrdersPerDay(1L));
+        Mockito.verifyNoInteractions(vendorService, orderService);
+    }
+
+    @Test
+    void testGetUniqueCustomersFromStore() {
+        LocalDate today = LocalDate.of(2024, 3, 5);
+        UniqueCustomers customers = new UniqueCustomers(2, 5, 40);
+        Mockito.when(analyticsStore.getUniqueCustomers(1L, today)).thenReturn(customers);
+
+        assertEquals(customers, analyticsVendorService.getUniqueCustomers(1L, today));
+        Mockito.verifyNoInteractions(vendorService, orderService);
+    }
+
+    @Test
+    void testGetPriceDistributionsFromStore() {
+        PriceDistribution vendor = new PriceDistribution(new Percentiles(1, 9.0, 9.0, 9.0),
+            new Percentiles(0, null, null, null));
+        PriceDistribution platform = new PriceDistribution(new Percentiles(2, 9.0, 11.0, 11.0),
+            new Percentiles(1, 4.0, 4.0, 4.0));
+        Mockito.when(analyticsStore.getPriceDistribution(1L)).thenReturn(vendor);
+        Mockito.when(analyticsStore.getPlatformPriceDistribution()).thenReturn(platform);
+
+        assertEquals(vendor, analyticsVendorService.getPriceDistribution(1L));
+        assertEquals(platform, analyticsVendorService.getPlatformPriceDistribution());
+        Mockito.verifyNoInteractions(vendorService, orderService);
+    }
+
+    @Test
+    void testGetVendorRatingSummary() {
+        RatingSummary summary = new RatingSummary(2L, 4.5);
+        summary.setHistogram(Map.of(4L, 1L, 5L, 1L));
+        Mockito.when(orderService.getRatingSummaryForVendor(1L, true)).thenReturn(summary);
+
+        assertEquals(summary, analyticsVendorService.getVendorRatingSummary(1L, true));
+    }
+
+    @Test
+    void testComputeAverageVendorPriceSkipsDishesWithoutPrice() {
+        Mockito.when(vendorService.getVendorDishes(1L)).thenReturn(Arrays.asList(new Dish().id(2L).price(3.0),
+            new Dish().id(3L)));
+
+        assertEquals(3.0, analyticsVendorService.computeAverageVendorPrice(1L));
     }
 
+    @Test
+    void testRebuildAggregates() {
+        Mockito.when(analyticsStore.rebuild()).thenReturn(3);
+
+        assertEquals(3, analyticsVendorService.rebuildAggregates());
+        Mockito.verifyNoInteractions(orderService);
+    }
+
+    @Test
+    void testCheckAggregates() {
+        Mockito.when(vendorService.getAllVendors()).thenReturn(List.of(new Vendor().id(1L), new Vendor().id(2L)));
+        Mockito.when(analyticsStore.getVendorIds()).thenReturn(Set.of(1L));
+        Mockito.when(analyticsStore.getAveragePrice(1L)).thenReturn(2.0);
+        Mockito.when(analyticsStore.getAverageRating(1L)).thenReturn(null);
+        Mockito.when(analyticsStore.getAverageOrdersPerDay(1L)).thenReturn(null);
+        Mockito.when(analyticsStore.getAveragePrice(2L)).thenReturn(null);
+        Mockito.when(analyticsStore.getAverageRating(2L)).thenReturn(null);
+        Mockito.when(analyticsStore.getAverageOrdersPerDay(2L)).thenReturn(null);
+        Mockito.when(orderService.getRatingSummaryForVendor(Mockito.anyLong(), Mockito.eq(false)))
+            .thenReturn(new RatingSummary(0L, null));
+        Mockito.when(vendorService.getVendorDishes(1L)).thenReturn(List.of(new Dish().id(5L).price(2.0)));
+        Mockito.when(vendorService.getVendorDishes(2L)).thenReturn(List.of(new Dish().id(6L).price(8.0)));
+        Mockito.when(orderService.getOrderTimesForVendor(1L)).thenReturn(List.of(OffsetDateTime.now()));
+
+        List<AggregateMismatch> mismatches = analyticsVendorService.checkAggregates();
+
+        assertEquals(2, mismatches.size());
+        assertEquals(1L, mismatches.get(0).getVendorId());
+        assertEquals("orders-per-day", mismatches.get(0).getMetric());
+        assertEquals(null, mismatches.get(0).getStored());
+        assertEquals(1.0, mismatches.get(0).getComputed());
+        assertEquals(2L, mismatches.get(1).getVendorId());
+        assertEquals("average-price", mismatches.get(1).getMetric());
+        assertEquals(8.0, mismatches.get(1).getComputed());
+    }
 }
@@ -1,18 +1,30 @@
 package nl.tudelft.sem.yumyumnow.services;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import nl.tudelft.sem.yumyumnow.model.Vendor;
+import nl.tudelft.sem.yumyumnow.services.requests.PeerUnavailableException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 
 public class AuthenticationServiceTest {
 
     private AuthenticationService authenticationService;
     private RestTemplate restTemplate;
+    private SimpleMeterRegistry meterRegistry;
 
 
     /**
@@ -23,7 +35,10 @@ public class AuthenticationServiceTest {
         this.restTemplate = Mockito.mock(RestTemplate.class);
         IntegrationService integrationService = new IntegrationService("http://localhost:8080",
                 "http://localhost:8081", restTemplate);
-        this.authenticationService = new AuthenticationService(integrationService);
+        this.meterRegistry = new SimpleMeterRegistry();
+        RoleCache roleCache = new RoleCache(100, Duration.ofMinutes(1), Duration.ofSeconds(10),
+                System::currentTimeMillis, this.meterRegistry);
+        this.authenticationService = new AuthenticationService(integrationService, roleCache);
     }
 
     @Test
@@ -75,4 +90,107 @@ public class AuthenticationServiceTest {
         assertFalse(this.authenticationService.isVendor(20L));
         assertFalse(this.authenticationService.isAdmin(20L));
     }
+
+    @Test
+    public void testRoleIsCached() {
+        Mockito.when(restTemplate.getForEntity("http://localhost:8081/user/7", String.class))
+                .thenReturn(ResponseEntity.ok("customer"));
+
+        assertTrue(this.authenticationService.isCustomer(7L));
+        assertFalse(this.authenticationService.isVendor(7L));
+        assertFalse(this.authenticationService.isAdmin(7L));
+
+        Mockito.verify(restTemplate, Mockito.times(1)).getForEntity("http://localhost:8081/user/7", String.class);
+        assertEquals(2.0, this.meterRegistry.get("auth.role.cache").tag("result", "hit").counter().count());
+        assertEquals(1.0, this.meterRegistry.get("auth.role.cache").tag("result", "miss").counter().count());
+    }
+
+    @Test
+    public void testUnknownUserIsCached() {
+        Mockito.when(restTemplate.getForEntity("http://localhost:8081/user/8", String.class))
+                .thenThrow(HttpClientErrorException.create(HttpStatus.NOT_FOUND, "Not Found", null, null, null));
+
+        assertFalse(this.authenticationService.isCustomer(8L));
+        assertFalse(this.authenticationService.isCustomer(8L));
+
+        Mockito.verify(restTemplate, Mockito.times(1)).getForEntity("http://localhost:8081/user/8", String.class);
+    }
+
+    @Test
+    public void testErrorIsNotCached() {
+        Mockito.when(restTemplate.getForEntity("http://localhost:8081/user/9", String.class))
+                .thenReturn(ResponseEntity.status(500).build())
+                .thenReturn(ResponseEntity.ok("vendor"));
+
+        assertFalse(this.authenticationService.isVendor(9L));
+        assertTrue(this.authenticationService.isVendor(9L));
+    }
+
+    @Test
+    public void testUsersUnavailableIsNotCached() {
+        Mockito.when(restTemplate.getForEntity("http://localhost:8081/user/11", String.class))
+                .thenThrow(new PeerUnavailableException("users", "circuit breaker open"))
+                .thenReturn(ResponseEntity.ok("admin"));
+
+        assertFalse(this.authenticationService.isAdmin(11L));
+        assertTrue(this.authenticationService.isAdmin(11L));
+    }
+
+    @Test
+    public void testRetrieveVendorUsersUnavailable() {
+        Mockito.when(restTemplate.getForEntity("http://localhost:8081/vendor/14", Vendor.class))
+                .thenThrow(new PeerUnavailableException("users", "too many concurrent requests"));
+
+        assertNull(this.authenticationService.retrieveVendor(14L));
+    }
+
+    @Test
+    public void testIsCustomerAndVendorWithoutAsyncClient() {
+        Mockito.when(restTemplate.getForEntity("http://localhost:8081/user/15", String.class))
+                .thenReturn(ResponseEntity.ok("customer"));
+        Mockito.when(restTemplate.getForEntity("http://localhost:8081/user/16", String.class))
+                .thenReturn(ResponseEntity.ok("vendor"));
+
+        assertTrue(this.authenticationService.isCustomerAndVendor(15L, 16L));
+        assertFalse(this.authenticationService.isCustomerAndVendor(16L, 15L));
+    }
+
+    @Test
+    public void testInvalidateRole() {
+        Mockito.when(restTemplate.getForEntity("http://localhost:8081/user/10", String.class))
+                .thenReturn(ResponseEntity.ok("customer"))
+                .thenReturn(ResponseEntity.ok("vendor"));
+
+        assertTrue(this.authenticationService.isCustomer(10L));
+        this.authenticationService.invalidateRole(10L);
+        assertTrue(this.authenticationService.isVendor(10L));
+    }
+
+    @Test
+    public void testRoleFromVerifiedToken() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setAttribute(VerifiedUser.REQUEST_ATTRIBUTE, new VerifiedUser(12L, "admin"));
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        try {
+            assertTrue(this.authenticationService.isAdmin(12L));
+            assertFalse(this.authenticationService.isCustomer(12L));
+            Mockito.verifyNoInteractions(restTemplate);
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+    }
+
+    @Test
+    public void testVerifiedTokenOfOtherUser() {
+        Mockito.when(restTemplate.getForEntity("http://localhost:8081/user/13", String.class))
+                .thenReturn(ResponseEntity.ok("vendor"));
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setAttribute(VerifiedUser.REQUEST_ATTRIBUTE, new VerifiedUser(12L, "customer"));
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        try {
+            assertTrue(this.authenticationService.isVendor(13L));
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+    }
 }
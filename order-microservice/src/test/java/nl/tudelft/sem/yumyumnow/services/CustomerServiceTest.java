@@ -2,17 +2,26 @@ package nl.tudelft.sem.yumyumnow.services;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Stream;
 import nl.tudelft.sem.yumyumnow.model.Customer;
 import nl.tudelft.sem.yumyumnow.model.Location;
+import nl.tudelft.sem.yumyumnow.services.requests.SingleFlight;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -61,6 +70,45 @@ class CustomerServiceTest {
 
     }
 
+    @Test
+    void getCustomerConcurrentCallsShareOneRequest() throws Exception {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        SingleFlight singleFlight = new SingleFlight(Duration.ofSeconds(5), meterRegistry);
+        customerService = new CustomerService(new IntegrationService("http://localhost:8080",
+            "http://localhost:8081", restTemplate, singleFlight));
+        Customer customer = new Customer();
+        customer.setId(123L);
+        CountDownLatch release = new CountDownLatch(1);
+        when(restTemplate.getMessageConverters()).thenReturn(new RestTemplate().getMessageConverters());
+        when(restTemplate.getForEntity("http://localhost:8081/customer/123", Customer.class)).thenAnswer(x -> {
+            release.await(5, TimeUnit.SECONDS);
+            return new ResponseEntity<>(customer, HttpStatus.OK);
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Customer>> results = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                results.add(executor.submit(() -> customerService.getCustomer(123L)));
+            }
+            while (meterRegistry.counter("integration.single-flight.coalesced").count() < 3) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+
+            List<Customer> customers = new ArrayList<>();
+            for (Future<Customer> result : results) {
+                Customer received = result.get(5, TimeUnit.SECONDS);
+                assertEquals(customer, received);
+                customers.forEach(other -> assertNotSame(other, received));
+                customers.add(received);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        verify(restTemplate, times(1)).getForEntity("http://localhost:8081/customer/123", Customer.class);
+    }
+
     @Test
     void getDefaultHomeAddressTest() {
         Location location = new Location();
@@ -2,11 +2,14 @@ package nl.tudelft.sem.yumyumnow.services;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
 
+import java.util.BitSet;
 import java.util.List;
 import java.util.Optional;
 import nl.tudelft.sem.yumyumnow.database.TestDishRepository;
 import nl.tudelft.sem.yumyumnow.model.Dish;
+import nl.tudelft.sem.yumyumnow.services.analytics.VendorAnalyticsStore;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -14,6 +17,7 @@ public class DishServiceTest {
 
     private TestDishRepository dishRepository;
     private DishService dishService;
+    private AllergenDictionary allergenDictionary;
 
     /**
      * Setup of the mocked objects before each test.
@@ -21,7 +25,9 @@ public class DishServiceTest {
     @BeforeEach
     public void setup() {
         this.dishRepository = new TestDishRepository();
-        this.dishService = new DishService(dishRepository);
+        this.allergenDictionary = new AllergenDictionary();
+        this.dishService = new DishService(dishRepository, new IdGenerator(0), this.allergenDictionary,
+            mock(VendorAnalyticsStore.class));
     }
 
     @Test
@@ -74,6 +80,22 @@ public class DishServiceTest {
 
     }
 
+    @Test
+    public void testModifyDishUpdatesAllergenMask() {
+        Dish dish = new Dish();
+        dish.setAllergens(List.of("gluten"));
+        Dish saved = this.dishService.createNewDish(dish);
+        BitSet customerMask = this.allergenDictionary.customerMask(List.of("gluten"));
+        assertTrue(this.allergenDictionary.withoutAllergens(List.of(saved), customerMask).isEmpty());
+
+        Dish modified = new Dish();
+        modified.setId(saved.getId());
+        modified.setAllergens(List.of("nuts"));
+        this.dishService.modifyDish(modified);
+
+        assertEquals(List.of(modified), this.allergenDictionary.withoutAllergens(List.of(modified), customerMask));
+    }
+
     @Test
     public void testModifyNonExistentDish() {
         Dish dish = new Dish();
@@ -0,0 +1,105 @@
+package nl.tudelft.sem.yumyumnow.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+public class IdGeneratorTest {
+
+    private static final long NOW = IdGenerator.EPOCH + 1_000L;
+
+    @Test
+    public void testInvalidNodeId() {
+        assertThrows(IllegalArgumentException.class, () -> new IdGenerator(-1));
+        assertThrows(IllegalArgumentException.class, () -> new IdGenerator(1024));
+    }
+
+    @Test
+    public void testIdLayout() {
+        IdGenerator generator = new IdGenerator(5, () -> NOW);
+
+        long id = generator.nextId();
+
+        assertEquals(1_000L, id >>> 22);
+        assertEquals(5L, (id >>> 12) & 1023);
+        assertEquals(0L, id & 4095);
+        assertEquals(id + 1, generator.nextId());
+    }
+
+    @Test
+    public void testSequenceOverflowBorrowsNextMillisecond() {
+        IdGenerator generator = new IdGenerator(0, () -> NOW);
+
+        long previous = generator.nextId();
+        for (int i = 0; i < 5000; i++) {
+            long id = generator.nextId();
+            assertTrue(id > previous);
+            previous = id;
+        }
+
+        assertEquals(1_001L, previous >>> 22);
+    }
+
+    @Test
+    public void testClockMovingBackwards() {
+        AtomicLong clock = new AtomicLong(NOW);
+        IdGenerator generator = new IdGenerator(0, clock::get);
+
+        long first = generator.nextId();
+        clock.set(NOW - 500);
+        long second = generator.nextId();
+        clock.set(NOW + 10);
+        long third = generator.nextId();
+
+        assertTrue(second > first);
+        assertTrue(third > second);
+        assertEquals(1_010L, third >>> 22);
+    }
+
+    @Test
+    public void testNoDuplicatesAcrossThreadsAndNodes() throws Exception {
+        int threadsPerNode = 8;
+        int idsPerThread = 10_000;
+        List<IdGenerator> generators = List.of(
+            new IdGenerator(1), new IdGenerator(2), new IdGenerator(3), new IdGenerator(4));
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(generators.size() * threadsPerNode);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+
+        try {
+            for (IdGenerator generator : generators) {
+                for (int i = 0; i < threadsPerNode; i++) {
+                    futures.add(executor.submit(() -> {
+                        start.await();
+                        for (int j = 0; j < idsPerThread; j++) {
+                            long id = generator.nextId();
+                            assertTrue(id > 0);
+                            assertTrue(ids.add(id));
+                        }
+                        return null;
+                    }));
+                }
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(generators.size() * threadsPerNode * idsPerThread, ids.size());
+    }
+}
@@ -1,8 +1,16 @@
 package nl.tudelft.sem.yumyumnow.services;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.net.URI;
+import nl.tudelft.sem.yumyumnow.services.requests.PeerGuard;
+import nl.tudelft.sem.yumyumnow.services.requests.PooledRequestFactory;
 import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
 import org.springframework.web.client.RestTemplate;
 
 public class IntegrationServiceTest {
@@ -15,6 +23,9 @@ public class IntegrationServiceTest {
         assertEquals(deliveryMicroservice, service.getDeliveryMicroserviceAddress());
         String userMicroservice = "http://localhost:8081";
         assertEquals(userMicroservice, service.getUserMicroserviceAddress());
+        assertFalse(service.getRestTemplate().getRequestFactory() instanceof PooledRequestFactory);
+        assertNull(service.getAsyncClient());
+        assertNull(service.getSingleFlight());
     }
 
     @Test
@@ -27,4 +38,48 @@ public class IntegrationServiceTest {
         String userMicroservice = "https://www.minecraft.net:448";
         assertEquals(userMicroservice, service.getUserMicroserviceAddress());
     }
+
+    @Test
+    public void testPooledService() throws Exception {
+        MockEnvironment environment = new MockEnvironment()
+            .withProperty("integration.users.read-timeout-ms", "1234");
+        IntegrationService service = new IntegrationService(environment, new SimpleMeterRegistry());
+
+        PooledRequestFactory factory = (PooledRequestFactory) service.getRestTemplate().getRequestFactory();
+        assertEquals(1234, factory.getRequestConfig(URI.create("http://localhost:8081/user/1")).getSocketTimeout());
+        assertEquals(100, factory.getConnectionManager().getMaxTotal());
+        service.destroy();
+    }
+
+    @Test
+    public void testAddressesFromProperties() throws Exception {
+        MockEnvironment environment = new MockEnvironment()
+            .withProperty("integration.users.address", "http://localhost:18081")
+            .withProperty("integration.users.read-timeout-ms", "1500");
+        IntegrationService service = new IntegrationService(environment, new SimpleMeterRegistry());
+
+        assertEquals("http://localhost:18081", service.getUserMicroserviceAddress());
+        assertEquals("http://localhost:8080", service.getDeliveryMicroserviceAddress());
+        PooledRequestFactory factory = (PooledRequestFactory) service.getRestTemplate().getRequestFactory();
+        assertEquals(1500, factory.getRequestConfig(URI.create("http://localhost:18081/user/1")).getSocketTimeout());
+        assertEquals("users", factory.getPeerGuard(URI.create("http://localhost:18081/user/1")).getPeer());
+        assertNull(factory.getPeerGuard(URI.create("http://localhost:8081/user/1")));
+        service.destroy();
+    }
+
+    @Test
+    public void testPeersAreGuarded() throws Exception {
+        MockEnvironment environment = new MockEnvironment()
+            .withProperty("integration.delivery.bulkhead.max-concurrent-calls", "7");
+        IntegrationService service = new IntegrationService(environment, new SimpleMeterRegistry());
+
+        PooledRequestFactory factory = (PooledRequestFactory) service.getRestTemplate().getRequestFactory();
+        PeerGuard delivery = factory.getPeerGuard(URI.create("http://localhost:8080/delivery"));
+        assertEquals("delivery", delivery.getPeer());
+        assertEquals(7, delivery.getBulkhead().getMaxConcurrentCalls());
+        assertEquals("users", factory.getPeerGuard(URI.create("http://localhost:8081/user/1")).getPeer());
+        assertNull(factory.getPeerGuard(URI.create("http://localhost:9090/other")));
+        assertNotNull(service.getAsyncClient());
+        service.destroy();
+    }
 }
@@ -0,0 +1,53 @@
+package nl.tudelft.sem.yumyumnow.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+
+public class JwtServiceTest {
+
+    private final JwtService jwtService = new JwtService("testSecret");
+
+    @Test
+    public void testVerifyValidToken() {
+        String token = this.jwtService.createToken(42L, "vendor", Duration.ofMinutes(5));
+
+        VerifiedUser user = this.jwtService.verify(token).orElseThrow();
+
+        assertEquals(42L, user.getUserId());
+        assertEquals("vendor", user.getRole());
+    }
+
+    @Test
+    public void testVerifyWrongSecret() {
+        String token = new JwtService("otherSecret").createToken(42L, "admin", Duration.ofMinutes(5));
+
+        assertTrue(this.jwtService.verify(token).isEmpty());
+    }
+
+    @Test
+    public void testVerifyExpiredToken() {
+        String token = this.jwtService.createToken(42L, "customer", Duration.ofMinutes(-1));
+
+        assertTrue(this.jwtService.verify(token).isEmpty());
+    }
+
+    @Test
+    public void testVerifyMalformedToken() {
+        assertTrue(this.jwtService.verify("not-a-token").isEmpty());
+        assertTrue(this.jwtService.verify("").isEmpty());
+    }
+
+    @Test
+    public void testVerifyTokenWithoutRole() {
+        String token = Jwts.builder().setSubject("42")
+            .signWith(SignatureAlgorithm.HS256, "testSecret".getBytes(StandardCharsets.UTF_8)).compact();
+
+        assertTrue(this.jwtService.verify(token).isEmpty());
+    }
+}
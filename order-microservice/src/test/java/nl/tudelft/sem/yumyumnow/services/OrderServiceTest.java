@@ -9,9 +9,13 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
+import java.time.OffsetDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.NoSuchElementException;
+import javax.persistence.EntityManager;
+import nl.tudelft.sem.yumyumnow.database.OrderStatusView;
+import nl.tudelft.sem.yumyumnow.database.RatingSummary;
 import nl.tudelft.sem.yumyumnow.database.TestOrderRepository;
 import nl.tudelft.sem.yumyumnow.database.TestRatingRepository;
 import nl.tudelft.sem.yumyumnow.database.TestVendorRepository;
@@ -21,12 +25,15 @@ import nl.tudelft.sem.yumyumnow.model.Location;
 import nl.tudelft.sem.yumyumnow.model.Order;
 import nl.tudelft.sem.yumyumnow.model.Rating;
 import nl.tudelft.sem.yumyumnow.model.Vendor;
+import nl.tudelft.sem.yumyumnow.services.analytics.VendorAnalyticsStore;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 import org.mockito.Mockito;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.lang.Nullable;
@@ -47,12 +54,15 @@ public class OrderServiceTest {
 
     @BeforeEach
     public void setup() {
-        this.orderRepository = new TestOrderRepository();
-        this.vendorRepository = new TestVendorRepository();
         this.ratingRepository = new TestRatingRepository();
+        this.orderRepository = new TestOrderRepository(this.ratingRepository);
+        this.vendorRepository = new TestVendorRepository();
         this.userService = mock(CustomerService.class);
-        this.orderService = new OrderService(this.orderRepository, this.userService);
-        this.vendorService = new VendorService(this.vendorRepository, this.userService, this.orderService);
+        this.orderService = new OrderService(this.orderRepository, this.userService, new IdGenerator(0),
+            mock(VendorAnalyticsStore.class));
+        this.vendorService = new VendorService(this.vendorRepository, this.userService, this.orderService,
+            new IdGenerator(0), new VendorLocationIndex(0.1), new VendorNameIndex(), new AllergenDictionary(),
+            mock(VendorAnalyticsStore.class));
     }
 
     @Test
@@ -154,7 +164,7 @@ public class OrderServiceTest {
 
         List<Order> storedOrder = this.orderService.getAllOrdersForCustomer(2L);
         assertEquals(3, this.orderRepository.getMethodCalls().size());
-        assertEquals("findAll", this.orderRepository.getMethodCalls().get(2));
+        assertEquals("findAllByCustomerId", this.orderRepository.getMethodCalls().get(2));
         assertTrue(storedOrder.isEmpty());
         assertEquals(storedOrder.size(), 0);
     }
@@ -166,7 +176,7 @@ public class OrderServiceTest {
     public void testGetAllOrdersForCustomerNoOrders() {
         List<Order> storedOrder = this.orderService.getAllOrdersForCustomer(1L);
         assertEquals(1, this.orderRepository.getMethodCalls().size());
-        assertEquals("findAll", this.orderRepository.getMethodCalls().get(0));
+        assertEquals("findAllByCustomerId", this.orderRepository.getMethodCalls().get(0));
         assertTrue(storedOrder.isEmpty());
         assertEquals(storedOrder.size(), 0);
     }
@@ -198,7 +208,7 @@ public class OrderServiceTest {
 
         List<Order> storedOrder = this.orderService.getAllOrdersForVendor(2L);
         assertEquals(3, this.orderRepository.getMethodCalls().size());
-        assertEquals("findAll", this.orderRepository.getMethodCalls().get(2));
+        assertEquals("findAllByVendorId", this.orderRepository.getMethodCalls().get(2));
         assertTrue(storedOrder.isEmpty());
         assertEquals(storedOrder.size(), 0);
     }
@@ -210,11 +220,108 @@ public class OrderServiceTest {
     public void testGetAllOrdersForVendorNoOrders() {
         List<Order> storedOrder = this.orderService.getAllOrdersForVendor(1L);
         assertEquals(1, this.orderRepository.getMethodCalls().size());
-        assertEquals("findAll", this.orderRepository.getMethodCalls().get(0));
+        assertEquals("findAllByVendorId", this.orderRepository.getMethodCalls().get(0));
         assertTrue(storedOrder.isEmpty());
         assertEquals(storedOrder.size(), 0);
     }
 
+    /**
+     * Tests if the paged variant of getAllOrdersForVendor only returns the orders of the requested page.
+     */
+    @Test
+    public void testGetAllOrdersForVendorPaged() {
+        Order order1 = this.orderService.createNewOrder(1L, 14L);
+        Order order2 = this.orderService.createNewOrder(3L, 14L);
+        Order order3 = this.orderService.createNewOrder(3L, 15L);
+
+        List<Order> firstPage = this.orderService.getAllOrdersForVendor(14L, PageRequest.of(0, 1));
+        List<Order> secondPage = this.orderService.getAllOrdersForVendor(14L, PageRequest.of(1, 1));
+        List<Order> unpaged = this.orderService.getAllOrdersForVendor(14L, Pageable.unpaged());
+
+        assertEquals(List.of(order1), firstPage);
+        assertEquals(List.of(order2), secondPage);
+        assertEquals(List.of(order1, order2), unpaged);
+        assertEquals("findAllByVendorId", this.orderRepository.getMethodCalls().get(3));
+    }
+
+    /**
+     * Tests if the paged variant of getAllOrdersForCustomer only returns the orders of the requested page.
+     */
+    @Test
+    public void testGetAllOrdersForCustomerPaged() {
+        Order order1 = this.orderService.createNewOrder(1L, 14L);
+        Order order2 = this.orderService.createNewOrder(1L, 15L);
+
+        List<Order> firstPage = this.orderService.getAllOrdersForCustomer(1L, PageRequest.of(0, 2));
+        List<Order> emptyPage = this.orderService.getAllOrdersForCustomer(1L, PageRequest.of(1, 2));
+
+        assertEquals(List.of(order1, order2), firstPage);
+        assertTrue(emptyPage.isEmpty());
+        assertEquals("findAllByCustomerId", this.orderRepository.getMethodCalls().get(2));
+    }
+
+    @Test
+    public void testGetOrderForVendor() {
+        Order order = this.orderService.createNewOrder(1L, 14L);
+
+        assertEquals(order, this.orderService.getOrderForVendor(order.getOrderId(), 14L).orElse(null));
+        assertTrue(this.orderService.getOrderForVendor(order.getOrderId(), 15L).isEmpty());
+        assertEquals("findByOrderIdAndVendorId", this.orderRepository.getMethodCalls().get(1));
+    }
+
+    @Test
+    public void testGetOrderStatusView() {
+        this.orderRepository.save(new Order().orderId(5L).customerId(1L).vendorId(14L)
+            .status(Order.StatusEnum.ACCEPTED));
+
+        OrderStatusView view = this.orderService.getOrderStatusView(5L).orElseThrow();
+
+        assertEquals(Order.StatusEnum.ACCEPTED, view.getStatus());
+        assertTrue(view.isAssociatedWith(1L));
+        assertTrue(view.isAssociatedWith(14L));
+        assertFalse(view.isAssociatedWith(2L));
+        assertTrue(this.orderService.getOrderStatusView(6L).isEmpty());
+        assertEquals("findStatusViewByOrderId", this.orderRepository.getMethodCalls().get(1));
+    }
+
+    @Test
+    public void testForEachOrderAfter() {
+        this.orderRepository.save(new Order().orderId(30L));
+        this.orderRepository.save(new Order().orderId(10L));
+        this.orderRepository.save(new Order().orderId(20L));
+        this.orderRepository.save(new Order().orderId(40L));
+
+        List<Long> firstPage = new ArrayList<>();
+        this.orderService.forEachOrderAfter(null, 2, order -> firstPage.add(order.getOrderId()));
+        List<Long> secondPage = new ArrayList<>();
+        this.orderService.forEachOrderAfter(20L, 5, order -> secondPage.add(order.getOrderId()));
+
+        assertEquals(List.of(10L, 20L), firstPage);
+        assertEquals(List.of(30L, 40L), secondPage);
+        assertEquals("findOrderIdsAfter", this.orderRepository.getMethodCalls().get(4));
+        assertEquals("findWithDishesByOrderIdIn", this.orderRepository.getMethodCalls().get(5));
+    }
+
+    @Test
+    public void testForEachOrderAfterClearsEveryBatch() {
+        EntityManager entityManager = mock(EntityManager.class);
+        this.orderService = new OrderService(this.orderRepository, this.userService, new IdGenerator(0),
+            mock(VendorAnalyticsStore.class), entityManager);
+        for (long id = 1; id <= 250; id++) {
+            this.orderRepository.save(new Order().orderId(id));
+        }
+
+        List<Long> page = new ArrayList<>();
+        this.orderService.forEachOrderAfter(20L, 201, order -> page.add(order.getOrderId()));
+
+        assertEquals(201, page.size());
+        assertEquals(21L, page.get(0));
+        assertEquals(221L, page.get(200));
+        assertEquals(3, this.orderRepository.getMethodCalls().stream()
+            .filter("findWithDishesByOrderIdIn"::equals).count());
+        Mockito.verify(entityManager, Mockito.times(3)).clear();
+    }
+
     @Test
     public void testOrderExists() {
         Order order = new Order().orderId(12L);
@@ -334,7 +441,7 @@ public class OrderServiceTest {
 
         List<Long> getAllRatings = orderService.getAllRatingsForVendor(vendor.getId());
         assertEquals(1, this.orderRepository.getMethodCalls().size());
-        assertEquals("findAll", this.orderRepository.getMethodCalls().get(0));
+        assertEquals("findRatingIdsByVendorId", this.orderRepository.getMethodCalls().get(0));
         assertNull(getAllRatings);
     }
 
@@ -362,6 +469,50 @@ public class OrderServiceTest {
         assertEquals(1, getAllRatings.size());
     }
 
+    @Test
+    public void testGetRatingSummaryForVendor() {
+        long[] grades = {5L, 3L, 3L};
+        for (int i = 0; i < grades.length; i++) {
+            Rating rating = ratingRepository.save(new Rating().grade(grades[i]));
+            orderRepository.save(new Order().orderId(10L + i).vendorId(1L).ratingId(rating.getId()));
+        }
+        orderRepository.save(new Order().orderId(20L).vendorId(1L).ratingId(-1L));
+        orderRepository.save(new Order().orderId(21L).vendorId(2L).ratingId(0L));
+
+        RatingSummary summary = orderService.getRatingSummaryForVendor(1L, true);
+
+        assertEquals(3L, summary.getCount());
+        assertEquals(11.0 / 3, summary.getAverage(), 1e-9);
+        assertEquals(List.of(3L, 5L), new ArrayList<>(summary.getHistogram().keySet()));
+        assertEquals(2L, summary.getHistogram().get(3L));
+        assertEquals(1L, summary.getHistogram().get(5L));
+    }
+
+    @Test
+    public void testGetOrderTimesForVendor() {
+        OffsetDateTime now = OffsetDateTime.now();
+        orderRepository.save(new Order().orderId(10L).vendorId(1L).time(now));
+        orderRepository.save(new Order().orderId(11L).vendorId(1L));
+        orderRepository.save(new Order().orderId(12L).vendorId(2L).time(now.minusDays(1)));
+
+        List<OffsetDateTime> times = orderService.getOrderTimesForVendor(1L);
+
+        assertEquals(List.of(now), times);
+        assertEquals("findTimesByVendorId", this.orderRepository.getMethodCalls().get(3));
+    }
+
+    @Test
+    public void testGetRatingSummaryForVendorNoRatings() {
+        orderRepository.save(new Order().orderId(20L).vendorId(1L).ratingId(-1L));
+
+        RatingSummary summary = orderService.getRatingSummaryForVendor(1L, false);
+
+        assertEquals(0L, summary.getCount());
+        assertNull(summary.getAverage());
+        assertNull(summary.getHistogram());
+        assertEquals(List.of("save", "summarizeRatingsByVendorId"), orderRepository.getMethodCalls());
+    }
+
     @Test
     public void getListOfOrdersForVendorForClientTest() {
         Order order1 = new Order();
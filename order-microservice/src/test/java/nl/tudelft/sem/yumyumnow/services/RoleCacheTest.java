@@ -0,0 +1,142 @@
+package nl.tudelft.sem.yumyumnow.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class RoleCacheTest {
+
+    private AtomicLong clock;
+    private RoleCache roleCache;
+    private List<Long> loaded;
+
+    /**
+     * Setup of a cache with a controllable clock.
+     */
+    @BeforeEach
+    public void setup() {
+        this.clock = new AtomicLong(0);
+        this.roleCache = new RoleCache(2, Duration.ofSeconds(60), Duration.ofSeconds(10), clock::get,
+            new SimpleMeterRegistry());
+        this.loaded = new ArrayList<>();
+    }
+
+    private String load(Long userId) {
+        this.loaded.add(userId);
+        return userId < 100 ? "customer" : null;
+    }
+
+    @Test
+    public void testExpiresAfterTtl() {
+        assertEquals("customer", this.roleCache.getRole(1L, this::load));
+        this.clock.set(59_999);
+        assertEquals("customer", this.roleCache.getRole(1L, this::load));
+        this.clock.set(60_000);
+        assertEquals("customer", this.roleCache.getRole(1L, this::load));
+
+        assertEquals(List.of(1L, 1L), this.loaded);
+    }
+
+    @Test
+    public void testUnknownUserExpiresAfterNegativeTtl() {
+        assertNull(this.roleCache.getRole(100L, this::load));
+        this.clock.set(9_999);
+        assertNull(this.roleCache.getRole(100L, this::load));
+        this.clock.set(10_000);
+        assertNull(this.roleCache.getRole(100L, this::load));
+
+        assertEquals(List.of(100L, 100L), this.loaded);
+    }
+
+    @Test
+    public void testEvictsLeastRecentlyUsed() {
+        this.roleCache.getRole(1L, this::load);
+        this.roleCache.getRole(2L, this::load);
+        this.roleCache.getRole(1L, this::load);
+        this.roleCache.getRole(3L, this::load);
+
+        assertEquals(2, this.roleCache.size());
+        this.roleCache.getRole(1L, this::load);
+        this.roleCache.getRole(2L, this::load);
+        assertEquals(List.of(1L, 2L, 3L, 2L), this.loaded);
+    }
+
+    @Test
+    public void testFailedLoadIsNotCached() {
+        assertThrows(IllegalStateException.class, () -> this.roleCache.getRole(1L, id -> {
+            throw new IllegalStateException();
+        }));
+
+        assertEquals(0, this.roleCache.size());
+    }
+
+    @Test
+    public void testAsyncLoadIsCached() {
+        CompletableFuture<String> pending = new CompletableFuture<>();
+        CompletableFuture<String> role = this.roleCache.getRoleAsync(1L, userId -> {
+            this.loaded.add(userId);
+            return pending;
+        });
+        assertFalse(role.isDone());
+        pending.complete("vendor");
+
+        assertEquals("vendor", role.join());
+        assertEquals("vendor", this.roleCache.getRoleAsync(1L, userId -> new CompletableFuture<>()).join());
+        assertEquals("vendor", this.roleCache.getRole(1L, this::load));
+        assertEquals(List.of(1L), this.loaded);
+    }
+
+    @Test
+    public void testFailedAsyncLoadIsNotCached() {
+        CompletableFuture<String> role = this.roleCache.getRoleAsync(1L,
+            userId -> CompletableFuture.failedFuture(new IllegalStateException("users service down")));
+
+        assertThrows(CompletionException.class, role::join);
+        assertEquals(0, this.roleCache.size());
+    }
+
+    @Test
+    public void testInvalidateAll() {
+        this.roleCache.getRole(1L, this::load);
+        this.roleCache.getRole(2L, this::load);
+        this.roleCache.invalidateAll();
+
+        assertEquals(0, this.roleCache.size());
+        this.roleCache.getRole(1L, this::load);
+        assertEquals(List.of(1L, 2L, 1L), this.loaded);
+    }
+
+    @Test
+    public void testLoadRacingInvalidateIsNotCached() {
+        assertEquals("customer", this.roleCache.getRole(1L, userId -> {
+            this.roleCache.invalidate(userId);
+            return load(userId);
+        }));
+
+        assertEquals(0, this.roleCache.size());
+        this.roleCache.getRole(1L, this::load);
+        assertEquals(List.of(1L, 1L), this.loaded);
+    }
+
+    @Test
+    public void testAsyncLoadRacingInvalidateIsNotCached() {
+        CompletableFuture<String> pending = new CompletableFuture<>();
+        CompletableFuture<String> role = this.roleCache.getRoleAsync(1L, userId -> pending);
+        this.roleCache.invalidate(1L);
+        pending.complete("vendor");
+
+        assertEquals("vendor", role.join());
+        assertEquals(0, this.roleCache.size());
+    }
+}
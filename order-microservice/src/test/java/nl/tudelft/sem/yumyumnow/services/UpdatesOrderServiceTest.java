@@ -1,11 +1,14 @@
 package nl.tudelft.sem.yumyumnow.services;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 
 import java.time.OffsetDateTime;
 import java.util.ArrayList;
@@ -19,6 +22,8 @@ import nl.tudelft.sem.yumyumnow.database.TestVendorRepository;
 import nl.tudelft.sem.yumyumnow.model.Dish;
 import nl.tudelft.sem.yumyumnow.model.Location;
 import nl.tudelft.sem.yumyumnow.model.Order;
+import nl.tudelft.sem.yumyumnow.services.analytics.PriceDistribution;
+import nl.tudelft.sem.yumyumnow.services.analytics.VendorAnalyticsStore;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -35,6 +40,7 @@ public class UpdatesOrderServiceTest {
     private UpdatesOrderService updatesOrderService;
     private VendorService vendorService;
     private CustomerService userService;
+    private VendorAnalyticsStore analyticsStore;
 
     /**
      * setup before each test.
@@ -46,9 +52,14 @@ public class UpdatesOrderServiceTest {
         this.vendorRepository = new TestVendorRepository();
         this.ratingRepository = new TestRatingRepository();
         this.userService = mock(CustomerService.class);
-        this.orderService = new OrderService(this.orderRepository, this.userService);
-        this.updatesOrderService = new UpdatesOrderService(orderRepository, userService, orderService);
-        this.vendorService = new VendorService(this.vendorRepository, this.userService, this.orderService);
+        this.orderService = new OrderService(this.orderRepository, this.userService, new IdGenerator(0),
+            mock(VendorAnalyticsStore.class));
+        this.analyticsStore = mock(VendorAnalyticsStore.class);
+        this.updatesOrderService = new UpdatesOrderService(orderRepository, userService, orderService,
+            this.analyticsStore);
+        this.vendorService = new VendorService(this.vendorRepository, this.userService, this.orderService,
+            new IdGenerator(0), new VendorLocationIndex(0.1), new VendorNameIndex(), new AllergenDictionary(),
+            mock(VendorAnalyticsStore.class));
     }
 
     /**
@@ -94,6 +105,44 @@ public class UpdatesOrderServiceTest {
         assertEquals(Order.StatusEnum.ON_TRANSIT, this.orderService.getOrderById(998L).getStatus());
     }
 
+    @Test
+    public void testSetOrderStatusUsesSingleUpdate() {
+        this.orderRepository.save(new Order().orderId(998L).status(Order.StatusEnum.PREPARING));
+
+        assertTrue(this.updatesOrderService.setOrderStatus(998L, Order.StatusEnum.DELIVERED));
+        assertEquals(List.of("save", "updateStatusByOrderId"), this.orderRepository.getMethodCalls());
+    }
+
+    @Test
+    public void testSetOrderStatusMissingOrder() {
+        assertFalse(this.updatesOrderService.setOrderStatus(999L, Order.StatusEnum.DELIVERED));
+        verifyNoInteractions(this.analyticsStore);
+    }
+
+    @Test
+    public void testSetOrderStatusUpdatesOrderValues() {
+        VendorAnalyticsStore store = new VendorAnalyticsStore(this.vendorRepository, this.orderRepository,
+            this.ratingRepository, 64);
+        UpdatesOrderService service = new UpdatesOrderService(this.orderRepository, this.userService,
+            this.orderService, store);
+        this.orderRepository.save(new Order().orderId(998L).vendorId(3L).price(25.0).status(Order.StatusEnum.PENDING));
+        this.orderRepository.save(new Order().orderId(997L).vendorId(4L).price(40.0)
+            .status(Order.StatusEnum.ACCEPTED));
+        assertEquals(0, store.getPriceDistribution(3L).getOrderValues().getCount());
+
+        assertTrue(service.setOrderStatus(998L, Order.StatusEnum.ACCEPTED));
+        assertTrue(service.setOrderStatus(998L, Order.StatusEnum.PREPARING));
+
+        PriceDistribution vendor = store.getPriceDistribution(3L);
+        assertEquals(1, vendor.getOrderValues().getCount());
+        assertEquals(25.0, vendor.getOrderValues().getP50(), 0.25);
+        assertEquals(2, store.getPlatformPriceDistribution().getOrderValues().getCount());
+
+        assertTrue(service.setOrderStatus(998L, Order.StatusEnum.REJECTED));
+        assertEquals(0, store.getPriceDistribution(3L).getOrderValues().getCount());
+        assertEquals(1, store.getPlatformPriceDistribution().getOrderValues().getCount());
+    }
+
     /**
      * Tests the order modifications with the following attributes.
      *
@@ -196,6 +245,7 @@ public class UpdatesOrderServiceTest {
         assertEquals(2, order.getDishes().size());
         assertTrue(this.updatesOrderService.removeDishFromOrder(15L, d2));
         assertEquals(1, this.orderService.getOrderById(15L).getDishes().size());
+        verify(this.analyticsStore).orderSaved(order);
     }
 
     @Test
@@ -0,0 +1,138 @@
+package nl.tudelft.sem.yumyumnow.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import nl.tudelft.sem.yumyumnow.model.Location;
+import nl.tudelft.sem.yumyumnow.model.Vendor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class VendorLocationIndexTest {
+
+    private VendorLocationIndex index;
+
+    @BeforeEach
+    public void setup() {
+        this.index = new VendorLocationIndex(0.1);
+    }
+
+    private static Location location(double latitude, double longitude) {
+        Location location = new Location();
+        location.setLatitude(latitude);
+        location.setLongitude(longitude);
+        return location;
+    }
+
+    private static Vendor vendor(long id, double latitude, double longitude) {
+        return new Vendor().id(id).location(location(latitude, longitude));
+    }
+
+    @Test
+    public void testInvalidCellSize() {
+        assertThrows(IllegalArgumentException.class, () -> new VendorLocationIndex(0));
+    }
+
+    @Test
+    public void testDistance() {
+        double distance = VendorLocationIndex.distance(52.0116, 4.3571, 51.9244, 4.4777);
+
+        assertTrue(distance > 12_000 && distance < 13_500);
+        assertEquals(0.0, VendorLocationIndex.distance(10, 20, 10, 20));
+    }
+
+    @Test
+    public void testFindWithinRadius() {
+        this.index.rebuild(List.of(vendor(1, 52.0116, 4.3571), vendor(2, 51.9244, 4.4777), vendor(3, 52.0, 4.36)));
+
+        assertEquals(Set.of(1L, 3L), new HashSet<>(this.index.findWithinRadius(location(52.0116, 4.3571), 2000)));
+        assertEquals(Set.of(1L, 2L, 3L),
+            new HashSet<>(this.index.findWithinRadius(location(52.0116, 4.3571), 15_000)));
+        assertTrue(this.index.isLoaded());
+    }
+
+    @Test
+    public void testAcrossAntimeridian() {
+        this.index.update(vendor(1, 0.0, 179.99));
+        this.index.update(vendor(2, 0.0, -179.99));
+
+        assertEquals(Set.of(1L, 2L), new HashSet<>(this.index.findWithinRadius(location(0.0, 180.0), 5000)));
+    }
+
+    @Test
+    public void testAcrossAntimeridianWithPartialLastCell() {
+        this.index = new VendorLocationIndex(0.7);
+        this.index.update(vendor(1, 0.0, 179.6));
+        this.index.update(vendor(2, 0.0, -179.99));
+        this.index.update(vendor(3, 0.0, 180.0));
+
+        assertEquals(Set.of(1L, 2L, 3L), new HashSet<>(this.index.findWithinRadius(location(0.0, -179.99), 50_000)));
+        assertEquals(Set.of(1L, 2L, 3L), new HashSet<>(this.index.findWithinRadius(location(0.0, 179.6), 50_000)));
+    }
+
+    @Test
+    public void testNearPole() {
+        this.index.update(vendor(1, 89.99, 0.0));
+        this.index.update(vendor(2, 89.99, 180.0));
+
+        assertEquals(Set.of(1L, 2L), new HashSet<>(this.index.findWithinRadius(location(89.99, 90.0), 5000)));
+    }
+
+    @Test
+    public void testUpdateAndRemove() {
+        this.index.update(vendor(1, 52.0, 4.0));
+        this.index.update(vendor(1, 10.0, 10.0));
+
+        assertTrue(this.index.findWithinRadius(location(52.0, 4.0), 1000).isEmpty());
+        assertEquals(List.of(1L), this.index.findWithinRadius(location(10.0, 10.0), 1000));
+
+        this.index.update(new Vendor().id(1L));
+        assertTrue(this.index.findWithinRadius(location(10.0, 10.0), 1000).isEmpty());
+        assertFalse(this.index.isLoaded());
+    }
+
+    @Test
+    public void testUpdatesDuringRebuildAreKept() {
+        this.index.update(vendor(3, 10.0, 10.0));
+
+        this.index.rebuild(() -> {
+            this.index.update(vendor(1, 10.0, 10.0));
+            this.index.remove(3L);
+            return List.of(vendor(1, 52.0, 4.0), vendor(2, 10.0, 10.0), vendor(3, 10.0, 10.0));
+        });
+
+        assertEquals(Set.of(1L, 2L), new HashSet<>(this.index.findWithinRadius(location(10.0, 10.0), 1000)));
+        assertTrue(this.index.findWithinRadius(location(52.0, 4.0), 1000).isEmpty());
+        assertTrue(this.index.isLoaded());
+    }
+
+    @Test
+    public void testMatchesExhaustiveSearch() {
+        Random random = new Random(42);
+        List<Vendor> vendors = new ArrayList<>();
+        for (long id = 0; id < 2000; id++) {
+            vendors.add(vendor(id, 51.5 + random.nextDouble(), 3.5 + random.nextDouble() * 2));
+        }
+        this.index.rebuild(vendors);
+
+        for (int i = 0; i < 50; i++) {
+            Location center = location(51.5 + random.nextDouble(), 3.5 + random.nextDouble() * 2);
+            int radius = random.nextInt(20_000);
+            Set<Long> expected = new HashSet<>();
+            for (Vendor vendor : vendors) {
+                if (VendorLocationIndex.distance(center.getLatitude(), center.getLongitude(),
+                    vendor.getLocation().getLatitude(), vendor.getLocation().getLongitude()) <= radius) {
+                    expected.add(vendor.getId());
+                }
+            }
+            assertEquals(expected, new HashSet<>(this.index.findWithinRadius(center, radius)));
+        }
+    }
+}
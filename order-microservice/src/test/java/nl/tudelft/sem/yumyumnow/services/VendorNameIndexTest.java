@@ -0,0 +1,150 @@
+package nl.tudelft.sem.yumyumnow.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import nl.tudelft.sem.yumyumnow.model.Vendor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class VendorNameIndexTest {
+
+    private VendorNameIndex index;
+
+    @BeforeEach
+    public void setup() {
+        this.index = new VendorNameIndex();
+    }
+
+    private static Vendor vendor(long id, String name) {
+        Vendor vendor = new Vendor().id(id);
+        vendor.setName(name);
+        return vendor;
+    }
+
+    @Test
+    public void testSearch() {
+        this.index.rebuild(List.of(vendor(1, "Bistro Delft"), vendor(2, "Restaurant"), vendor(3, "Delft Bistro")));
+
+        assertEquals(List.of(1L, 3L), this.index.search("Bistro"));
+        assertEquals(List.of(2L), this.index.search("aur"));
+        assertTrue(this.index.search("bistro").isEmpty());
+        assertTrue(this.index.search("Sushi").isEmpty());
+        assertTrue(this.index.search(null).isEmpty());
+        assertTrue(this.index.isLoaded());
+    }
+
+    @Test
+    public void testSearchShortFilter() {
+        this.index.rebuild(List.of(vendor(1, "Bistro"), vendor(2, "Restaurant"), vendor(3, "Sushi")));
+
+        assertEquals(List.of(2L, 1L), this.index.search("st"));
+        assertEquals(List.of(3L, 1L, 2L), this.index.search(""));
+    }
+
+    @Test
+    public void testSearchTrigramsOutOfOrder() {
+        this.index.rebuild(List.of(vendor(1, "abcxbcd")));
+
+        assertTrue(this.index.search("abcd").isEmpty());
+        assertEquals(List.of(1L), this.index.search("xbcd"));
+    }
+
+    @Test
+    public void testRank() {
+        assertEquals(0, VendorNameIndex.rank("Pizza", "Pizza"));
+        assertEquals(1, VendorNameIndex.rank("Pizzeria", "Pizz"));
+        assertEquals(2, VendorNameIndex.rank("The Pizza Place", "Pizza"));
+        assertEquals(2, VendorNameIndex.rank("xPizza Pizza", "Pizza"));
+        assertEquals(3, VendorNameIndex.rank("Mozzarellapizza", "pizza"));
+    }
+
+    @Test
+    public void testSearchRanked() {
+        this.index.rebuild(List.of(vendor(1, "Mozzarellapizza"), vendor(2, "The pizza place"), vendor(3, "pizza"),
+            vendor(4, "pizzeria da pizza"), vendor(5, "pizza bar")));
+
+        assertEquals(List.of(3L, 5L, 4L, 2L, 1L), this.index.search("pizz"));
+    }
+
+    @Test
+    public void testUpdateAndRemove() {
+        this.index.update(vendor(1, "Bistro"));
+        assertEquals(List.of(1L), this.index.search("Bist"));
+
+        this.index.update(vendor(1, "Trattoria"));
+        assertTrue(this.index.search("Bist").isEmpty());
+        assertEquals(List.of(1L), this.index.search("Trat"));
+
+        this.index.update(vendor(1, null));
+        assertTrue(this.index.search("Trat").isEmpty());
+
+        this.index.update(vendor(2, "Sushi"));
+        this.index.remove(2L);
+        assertTrue(this.index.search("Sus").isEmpty());
+        assertFalse(this.index.isLoaded());
+    }
+
+    @Test
+    public void testRebuildReplacesContent() {
+        this.index.update(vendor(1, "Bistro"));
+        this.index.rebuild(List.of(vendor(2, "Sushi")));
+
+        assertTrue(this.index.search("Bis").isEmpty());
+        assertEquals(List.of(2L), this.index.search("Sus"));
+    }
+
+    @Test
+    public void testUpdatesDuringRebuildAreKept() {
+        this.index.update(vendor(3, "Pizza"));
+
+        this.index.rebuild(() -> {
+            this.index.update(vendor(1, "Sushi Bar"));
+            this.index.remove(3L);
+            return List.of(vendor(1, "Bistro"), vendor(2, "Sushi Place"), vendor(3, "Pizza"));
+        });
+
+        assertEquals(List.of(1L, 2L), this.index.search("Sushi"));
+        assertTrue(this.index.search("Bistro").isEmpty());
+        assertTrue(this.index.search("Pizza").isEmpty());
+        assertTrue(this.index.isLoaded());
+    }
+
+    @Test
+    public void testSearchMatchesContains() {
+        Random random = new Random(42);
+        String alphabet = "abc ";
+        List<Vendor> vendors = new ArrayList<>();
+        for (long id = 0; id < 300; id++) {
+            vendors.add(vendor(id, randomText(random, alphabet, 1 + random.nextInt(12))));
+        }
+        this.index.rebuild(vendors);
+
+        for (int i = 0; i < 200; i++) {
+            String filter = randomText(random, alphabet, 1 + random.nextInt(5));
+            Set<Long> expected = new HashSet<>();
+            for (Vendor vendor : vendors) {
+                if (vendor.getName().contains(filter)) {
+                    expected.add(vendor.getId());
+                }
+            }
+            List<Long> found = this.index.search(filter);
+            assertEquals(expected, new HashSet<>(found));
+            assertEquals(expected.size(), found.size());
+        }
+    }
+
+    private static String randomText(Random random, String alphabet, int length) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            text.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        return text.toString();
+    }
+}
@@ -11,14 +11,17 @@ import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.Optional;
 import nl.tudelft.sem.yumyumnow.database.TestVendorRepository;
 import nl.tudelft.sem.yumyumnow.model.Customer;
 import nl.tudelft.sem.yumyumnow.model.Dish;
 import nl.tudelft.sem.yumyumnow.model.Location;
 import nl.tudelft.sem.yumyumnow.model.Order;
 import nl.tudelft.sem.yumyumnow.model.Vendor;
+import nl.tudelft.sem.yumyumnow.services.analytics.VendorAnalyticsStore;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -27,6 +30,7 @@ public class VendorServiceTest {
     private VendorService vendorService;
     private OrderService orderService;
     private CustomerService customerService;
+    private AllergenDictionary allergenDictionary;
 
     /**
      * Setup for the tests.
@@ -37,7 +41,10 @@ public class VendorServiceTest {
         this.vendorRepository = new TestVendorRepository();
         this.orderService = mock(OrderService.class);
         this.customerService = mock(CustomerService.class);
-        this.vendorService = new VendorService(this.vendorRepository, customerService, orderService);
+        this.allergenDictionary = new AllergenDictionary();
+        this.vendorService = new VendorService(this.vendorRepository, customerService, orderService,
+            new IdGenerator(0), new VendorLocationIndex(0.1), new VendorNameIndex(), this.allergenDictionary,
+            mock(VendorAnalyticsStore.class));
     }
 
     @Test
@@ -87,11 +94,11 @@ public class VendorServiceTest {
 
     @Test
     public void testGetDishesToPrepareNullOrders() {
-        when(this.orderService.getAllOrdersForVendor(1L)).thenReturn(null);
         Vendor vendor = new Vendor();
         Long id = this.vendorRepository.count();
         vendor.setId(id);
         this.vendorRepository.save(vendor);
+        when(this.orderService.getOrderForVendor(1L, id)).thenReturn(Optional.empty());
         assertNull(this.vendorService.getDishesToPrepare(1L, id));
     }
 
@@ -114,14 +121,13 @@ public class VendorServiceTest {
         Order order2 = new Order();
         order2.setOrderId(13L);
         order2.setDishes(dishes2);
-        List<Order> orders = new ArrayList<>();
-        orders.add(order1);
-        orders.add(order2);
         Vendor vendor = new Vendor();
         Long id = this.vendorRepository.count();
         vendor.setId(id);
         this.vendorRepository.save(vendor);
-        when(this.orderService.getAllOrdersForVendor(id)).thenReturn(orders);
+        when(this.orderService.getOrderForVendor(12L, id)).thenReturn(Optional.of(order1));
+        when(this.orderService.getOrderForVendor(13L, id)).thenReturn(Optional.of(order2));
+        when(this.orderService.getOrderForVendor(1234L, id)).thenReturn(Optional.empty());
         assertNull(this.vendorService.getDishesToPrepare(1234L, id));
     }
 
@@ -144,14 +150,12 @@ public class VendorServiceTest {
         Order order2 = new Order();
         order2.setOrderId(13L);
         order2.setDishes(dishes2);
-        List<Order> orders = new ArrayList<>();
-        orders.add(order1);
-        orders.add(order2);
         Vendor vendor = new Vendor();
         Long id = this.vendorRepository.count();
         vendor.setId(id);
         this.vendorRepository.save(vendor);
-        when(this.orderService.getAllOrdersForVendor(id)).thenReturn(orders);
+        when(this.orderService.getOrderForVendor(12L, id)).thenReturn(Optional.of(order1));
+        when(this.orderService.getOrderForVendor(13L, id)).thenReturn(Optional.of(order2));
         assertEquals(dishes2, this.vendorService.getDishesToPrepare(13L, id));
     }
 
@@ -237,6 +241,27 @@ public class VendorServiceTest {
         assertEquals(dish2, dishesRetrive.get(0));
     }
 
+    @Test
+    public void testGetVendorDishesForCustomerAfterDishChange() {
+        Vendor vendor = this.vendorService.createNewVendor("Vendor1");
+        Dish dish = new Dish().id(1L).name("Pancakes");
+        dish.setAllergens(List.of("Milk"));
+        vendor.setDishes(new ArrayList<>(List.of(dish)));
+        this.vendorService.saveVendor(vendor);
+        Customer customer = new Customer();
+        customer.setId(13L);
+        customer.setAllergens(List.of("Milk"));
+        when(this.customerService.getCustomer(13L)).thenReturn(customer);
+        assertTrue(this.vendorService.getVendorDishesforCustomer(vendor.getId(), 13L).isEmpty());
+
+        Dish changed = new Dish().id(1L).name("Vegan pancakes");
+        changed.setAllergens(List.of("Gluten"));
+        vendor.setDishes(new ArrayList<>(List.of(changed)));
+        this.vendorService.saveVendor(vendor);
+
+        assertEquals(List.of(changed), this.vendorService.getVendorDishesforCustomer(vendor.getId(), 13L));
+    }
+
     @Test
     public void testGetVendorDishesForCustomerNoVendor() {
         Customer customer = new Customer();
@@ -290,6 +315,22 @@ public class VendorServiceTest {
         assertEquals(true, result);
     }
 
+    @Test
+    public void testRemoveDishDropsAllergenMask() {
+        Vendor vendor = new Vendor();
+        vendor.setId(10L);
+        Dish d1 = new Dish().id(1L).name("Dumplings");
+        d1.setAllergens(List.of("Gluten"));
+        vendor.setDishes(new ArrayList<>(List.of(d1)));
+        this.allergenDictionary.updateDish(d1);
+        BitSet customerMask = this.allergenDictionary.customerMask(List.of("Gluten"));
+
+        vendorService.removeDishFromVendor(d1, vendor);
+        d1.setAllergens(List.of());
+
+        assertEquals(List.of(d1), this.allergenDictionary.withoutAllergens(List.of(d1), customerMask));
+    }
+
     @Test
     public void testRemoveDishNotPresent() {
         Vendor vendor = new Vendor();
@@ -335,7 +376,9 @@ public class VendorServiceTest {
         Vendor vendor2 = this.vendorService.createNewVendor("Restaurant");
 
         List<Vendor> vendors = this.vendorService.findByVendorNameContaining("Bistro");
-        assertEquals(3, this.vendorRepository.getMethodCalls().size());
+        assertEquals(4, this.vendorRepository.getMethodCalls().size());
+        assertEquals("findAll", this.vendorRepository.getMethodCalls().get(2));
+        assertEquals("findAllById", this.vendorRepository.getMethodCalls().get(3));
 
         assertTrue(vendors.contains(vendor1));
         assertEquals(1, vendors.size());
@@ -345,10 +388,36 @@ public class VendorServiceTest {
     public void testFindByVendorNameContainingEmpty() {
         List<Vendor> vendors = this.vendorService.findByVendorNameContaining("Bistro");
         assertEquals(1, this.vendorRepository.getMethodCalls().size());
-        assertEquals("findByVendorNameContaining", this.vendorRepository.getMethodCalls().get(0));
+        assertEquals("findAll", this.vendorRepository.getMethodCalls().get(0));
         assertEquals(0, vendors.size());
     }
 
+    @Test
+    public void testFindByVendorNameContainingRanked() {
+        Vendor middle = this.vendorService.createNewVendor("The Pizza Place");
+        Vendor inside = this.vendorService.createNewVendor("Mozzarellapizzas");
+        Vendor exact = this.vendorService.createNewVendor("Pizza");
+        this.vendorService.createNewVendor("Sushi");
+        Vendor prefix = this.vendorService.createNewVendor("Pizzeria");
+
+        assertEquals(List.of(exact, middle), this.vendorService.findByVendorNameContaining("Pizza"));
+        assertEquals(List.of(exact, prefix, middle), this.vendorService.findByVendorNameContaining("Pizz"));
+        assertEquals(List.of(inside), this.vendorService.findByVendorNameContaining("pizza"));
+    }
+
+    @Test
+    public void testFindByVendorNameContainingAfterRename() {
+        Vendor vendor = this.vendorService.createNewVendor("Bistro");
+        assertEquals(1, this.vendorService.findByVendorNameContaining("Bis").size());
+
+        Vendor renamed = new Vendor().id(vendor.getId());
+        renamed.setName("Trattoria");
+        this.vendorService.saveVendor(renamed);
+
+        assertTrue(this.vendorService.findByVendorNameContaining("Bis").isEmpty());
+        assertEquals(List.of(renamed), this.vendorService.findByVendorNameContaining("Trat"));
+    }
+
     @Test
     public void testFindByLocationWithinRadius() {
         Vendor vendor1 = this.vendorService.createNewVendor("Bistro");
@@ -356,20 +425,57 @@ public class VendorServiceTest {
         location1.setLatitude(23.01);
         location1.setLongitude(23.0);
         vendor1.setLocation(location1);
+        this.vendorService.saveVendor(vendor1);
 
         Vendor vendor2 = this.vendorService.createNewVendor("Restaurant");
         Location location2 = new Location();
         location2.setLatitude(43.0);
         location2.setLongitude(23.0);
         vendor2.setLocation(location2);
+        this.vendorService.saveVendor(vendor2);
 
         List<Vendor> vendors = this.vendorService.findByLocationWithinRadius(location1, "Bistro", 4000);
-        assertEquals(3, this.vendorRepository.getMethodCalls().size());
-        assertEquals("findByLocationWithinRadius", this.vendorRepository.getMethodCalls().get(2));
+        assertEquals(6, this.vendorRepository.getMethodCalls().size());
+        assertEquals("findAll", this.vendorRepository.getMethodCalls().get(4));
+        assertEquals("findAllById", this.vendorRepository.getMethodCalls().get(5));
         assertTrue(vendors.contains(vendor1));
         assertEquals(1, vendors.size());
     }
 
+    @Test
+    public void testFindByLocationFiltersByName() {
+        Location location = new Location();
+        location.setLatitude(52.0);
+        location.setLongitude(4.36);
+        Vendor vendor = this.vendorService.createNewVendor("Restaurant");
+        vendor.setLocation(location);
+        this.vendorService.saveVendor(vendor);
+
+        assertEquals(List.of(vendor), this.vendorService.findByLocationWithinRadius(location, "Rest", 100));
+        assertTrue(this.vendorService.findByLocationWithinRadius(location, "Bistro", 100).isEmpty());
+    }
+
+    @Test
+    public void testFindByLocationAfterMove() {
+        Location delft = new Location();
+        delft.setLatitude(52.0116);
+        delft.setLongitude(4.3571);
+        Location rotterdam = new Location();
+        rotterdam.setLatitude(51.9244);
+        rotterdam.setLongitude(4.4777);
+        Vendor vendor = this.vendorService.createNewVendor("Bistro");
+        vendor.setLocation(delft);
+        this.vendorService.saveVendor(vendor);
+        assertEquals(1, this.vendorService.findByLocationWithinRadius(delft, "", 1000).size());
+
+        Vendor moved = new Vendor().id(vendor.getId()).location(rotterdam);
+        moved.setName("Bistro");
+        this.vendorService.saveVendor(moved);
+
+        assertTrue(this.vendorService.findByLocationWithinRadius(delft, "", 1000).isEmpty());
+        assertEquals(1, this.vendorService.findByLocationWithinRadius(rotterdam, "", 1000).size());
+    }
+
     @Test
     public void testFindByLocationEmpty() {
         Location location1 = new Location();
@@ -378,7 +484,7 @@ public class VendorServiceTest {
 
         List<Vendor> vendors = this.vendorService.findByLocationWithinRadius(location1, "Bistro", 4000);
         assertEquals(1, this.vendorRepository.getMethodCalls().size());
-        assertEquals("findByLocationWithinRadius", this.vendorRepository.getMethodCalls().get(0));
+        assertEquals("findAll", this.vendorRepository.getMethodCalls().get(0));
         assertEquals(0, vendors.size());
     }
 
@@ -386,7 +492,7 @@ public class VendorServiceTest {
     public void testFindByLocationNull() {
         List<Vendor> vendors = this.vendorService.findByLocationWithinRadius(null, "Bistro", 4000);
         assertEquals(1, this.vendorRepository.getMethodCalls().size());
-        assertEquals("findByLocationWithinRadius", this.vendorRepository.getMethodCalls().get(0));
+        assertEquals("findAll", this.vendorRepository.getMethodCalls().get(0));
         assertEquals(0, vendors.size());
     }
 
@@ -397,16 +503,18 @@ public class VendorServiceTest {
         location1.setLatitude(23.01);
         location1.setLongitude(23.0);
         vendor1.setLocation(location1);
+        this.vendorService.saveVendor(vendor1);
 
         Vendor vendor2 = this.vendorService.createNewVendor("Restaurant");
         Location location2 = new Location();
         location2.setLatitude(43.0);
         location2.setLongitude(23.0);
         vendor2.setLocation(location2);
+        this.vendorService.saveVendor(vendor2);
 
         List<Vendor> vendors = this.vendorService.findByLocationWithinRadius(location1, "Bistro", null);
-        assertEquals(3, this.vendorRepository.getMethodCalls().size());
-        assertEquals("findByLocationWithinRadius", this.vendorRepository.getMethodCalls().get(2));
+        assertEquals(6, this.vendorRepository.getMethodCalls().size());
+        assertEquals("findAllById", this.vendorRepository.getMethodCalls().get(5));
         assertTrue(vendors.contains(vendor1));
         assertEquals(1, vendors.size());
     }
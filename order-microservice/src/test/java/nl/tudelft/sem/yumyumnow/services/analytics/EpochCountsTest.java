@@ -0,0 +1,65 @@
+package nl.tudelft.sem.yumyumnow.services.analytics;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+public class EpochCountsTest {
+
+    @Test
+    public void testEmpty() {
+        EpochCounts counts = new EpochCounts();
+
+        assertEquals(0, counts.get(19000));
+        assertEquals(-1, counts.decrement(19000));
+        assertArrayEquals(new int[3], counts.range(18999, 3));
+    }
+
+    @Test
+    public void testIncrementAndDecrement() {
+        EpochCounts counts = new EpochCounts();
+
+        assertEquals(1, counts.increment(19000));
+        assertEquals(2, counts.increment(19000));
+        assertEquals(1, counts.decrement(19000));
+        assertEquals(1, counts.get(19000));
+        assertEquals(0, counts.decrement(19000));
+        assertEquals(-1, counts.decrement(19000));
+    }
+
+    @Test
+    public void testGrowsOnBothSides() {
+        EpochCounts counts = new EpochCounts();
+        counts.increment(19000);
+        counts.increment(19100);
+        counts.increment(18500);
+        counts.increment(18500);
+
+        assertEquals(1, counts.get(19000));
+        assertEquals(1, counts.get(19100));
+        assertEquals(2, counts.get(18500));
+        assertArrayEquals(new int[] {0, 2, 0}, counts.range(18499, 3));
+        assertArrayEquals(new int[] {1, 0}, counts.range(19100, 2));
+    }
+
+    @Test
+    public void testMatchesPlainArray() {
+        EpochCounts counts = new EpochCounts();
+        int[] expected = new int[2000];
+        Random random = new Random(11);
+        for (int i = 0; i < 5000; i++) {
+            int day = random.nextInt(2000);
+            if (random.nextInt(3) == 0) {
+                int after = counts.decrement(10000 + day);
+                assertEquals(expected[day] == 0 ? -1 : expected[day] - 1, after);
+                expected[day] = Math.max(0, expected[day] - 1);
+            } else {
+                assertEquals(++expected[day], counts.increment(10000 + day));
+            }
+        }
+
+        assertArrayEquals(expected, counts.range(10000, 2000));
+    }
+}
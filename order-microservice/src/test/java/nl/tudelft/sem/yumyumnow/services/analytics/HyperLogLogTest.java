@@ -0,0 +1,69 @@
+package nl.tudelft.sem.yumyumnow.services.analytics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+public class HyperLogLogTest {
+
+    private static void assertWithin(long expected, long actual, double relativeError) {
+        assertTrue(Math.abs(actual - expected) <= relativeError * expected,
+            "expected about " + expected + " but was " + actual);
+    }
+
+    @Test
+    public void testEmpty() {
+        assertEquals(0, new HyperLogLog().estimate());
+    }
+
+    @Test
+    public void testSmallCountsAlmostExact() {
+        HyperLogLog sketch = new HyperLogLog();
+        for (long id = 1; id <= 50; id++) {
+            sketch.add(id);
+            sketch.add(id);
+        }
+
+        assertWithin(50, sketch.estimate(), 0.04);
+    }
+
+    @Test
+    public void testLargeCounts() {
+        HyperLogLog sketch = new HyperLogLog();
+        for (long id = 0; id < 100_000; id++) {
+            sketch.add(id * 7919);
+        }
+
+        assertWithin(100_000, sketch.estimate(), 0.1);
+    }
+
+    @Test
+    public void testMergeCountsOverlapOnce() {
+        HyperLogLog first = new HyperLogLog();
+        HyperLogLog second = new HyperLogLog();
+        HyperLogLog all = new HyperLogLog();
+        for (long id = 0; id < 3000; id++) {
+            first.add(id);
+            all.add(id);
+        }
+        for (long id = 2000; id < 6000; id++) {
+            second.add(id);
+            all.add(id);
+        }
+
+        first.merge(second);
+
+        assertEquals(all.estimate(), first.estimate());
+        assertWithin(6000, first.estimate(), 0.1);
+    }
+
+    @Test
+    public void testClear() {
+        HyperLogLog sketch = new HyperLogLog();
+        sketch.add(1);
+        sketch.clear();
+
+        assertEquals(0, sketch.estimate());
+    }
+}
@@ -0,0 +1,65 @@
+package nl.tudelft.sem.yumyumnow.services.analytics;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import org.junit.jupiter.api.Test;
+
+public class OrderTimelineTest {
+
+    @Test
+    public void testEmpty() {
+        OrderTimeline timeline = new OrderTimeline();
+
+        assertNull(timeline.getAveragePerDay());
+        assertNull(timeline.getAveragePerMonth());
+        assertArrayEquals(new long[24], timeline.getHourly());
+    }
+
+    @Test
+    public void testAverages() {
+        OrderTimeline timeline = new OrderTimeline();
+        timeline.add(LocalDateTime.of(2022, 1, 1, 12, 0));
+        timeline.add(LocalDateTime.of(2022, 1, 1, 13, 0));
+        timeline.add(LocalDateTime.of(2022, 3, 1, 12, 0));
+        timeline.add(LocalDateTime.of(2021, 5, 1, 12, 0));
+        timeline.add(LocalDateTime.of(2021, 5, 2, 12, 0));
+
+        assertEquals(5, timeline.getOrders());
+        assertEquals(5.0 / 4.0, timeline.getAveragePerDay());
+        assertEquals(5.0 / 3.0, timeline.getAveragePerMonth());
+    }
+
+    @Test
+    public void testRemove() {
+        OrderTimeline timeline = new OrderTimeline();
+        LocalDateTime first = LocalDateTime.of(2022, 1, 1, 12, 0);
+        LocalDateTime second = LocalDateTime.of(2022, 2, 1, 12, 0);
+        timeline.add(first);
+        timeline.add(second);
+
+        timeline.remove(second);
+        timeline.remove(second);
+
+        assertEquals(1, timeline.getOrders());
+        assertEquals(1.0, timeline.getAveragePerDay());
+        assertEquals(1.0, timeline.getAveragePerMonth());
+        assertEquals(1, timeline.getHourly()[12]);
+    }
+
+    @Test
+    public void testHistograms() {
+        OrderTimeline timeline = new OrderTimeline();
+        timeline.add(LocalDateTime.of(2024, 1, 30, 0, 15));
+        timeline.add(LocalDateTime.of(2024, 1, 31, 23, 59));
+        timeline.add(LocalDateTime.of(2024, 1, 31, 23, 1));
+
+        long[] hourly = timeline.getHourly();
+        assertEquals(1, hourly[0]);
+        assertEquals(2, hourly[23]);
+        assertArrayEquals(new int[] {0, 1, 2, 0}, timeline.getDaily(LocalDate.of(2024, 1, 29), 4));
+    }
+}
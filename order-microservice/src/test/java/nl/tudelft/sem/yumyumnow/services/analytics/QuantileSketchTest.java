@@ -0,0 +1,135 @@
+package nl.tudelft.sem.yumyumnow.services.analytics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+public class QuantileSketchTest {
+
+    private static void assertClose(double expected, Double actual) {
+        assertTrue(Math.abs(actual - expected) <= QuantileSketch.RELATIVE_ACCURACY * expected + 1e-9,
+            "expected " + expected + " but was " + actual);
+    }
+
+    @Test
+    public void testEmpty() {
+        QuantileSketch sketch = new QuantileSketch();
+
+        assertEquals(0, sketch.getCount());
+        assertNull(sketch.getQuantile(0.5));
+        Percentiles percentiles = sketch.getPercentiles();
+        assertEquals(0, percentiles.getCount());
+        assertNull(percentiles.getP50());
+        assertNull(percentiles.getP99());
+        assertFalse(sketch.remove(10.0));
+    }
+
+    @Test
+    public void testSinglePrice() {
+        QuantileSketch sketch = new QuantileSketch();
+        sketch.add(12.5);
+
+        assertClose(12.5, sketch.getQuantile(0));
+        assertClose(12.5, sketch.getQuantile(0.5));
+        assertClose(12.5, sketch.getQuantile(1));
+    }
+
+    @Test
+    public void testWithinRelativeAccuracy() {
+        Random random = new Random(3);
+        QuantileSketch sketch = new QuantileSketch();
+        double[] prices = new double[10000];
+        for (int i = 0; i < prices.length; i++) {
+            prices[i] = Math.exp(random.nextGaussian() + 3);
+            sketch.add(prices[i]);
+        }
+        Arrays.sort(prices);
+
+        for (double quantile : new double[] {0, 0.1, 0.5, 0.9, 0.99, 1}) {
+            assertClose(prices[(int) Math.floor(quantile * (prices.length - 1))], sketch.getQuantile(quantile));
+        }
+        assertEquals(prices.length, sketch.getCount());
+    }
+
+    @Test
+    public void testMergeEqualsAddingAll() {
+        Random random = new Random(5);
+        QuantileSketch first = new QuantileSketch();
+        QuantileSketch second = new QuantileSketch();
+        QuantileSketch all = new QuantileSketch();
+        for (int i = 0; i < 1000; i++) {
+            double price = random.nextInt(2) == 0 ? 1 + random.nextInt(10) : 500 + random.nextInt(5000);
+            (i % 3 == 0 ? first : second).add(price);
+            all.add(price);
+        }
+
+        QuantileSketch merged = new QuantileSketch();
+        merged.merge(first);
+        merged.merge(second);
+
+        assertEquals(all.getCount(), merged.getCount());
+        for (double quantile = 0; quantile <= 1; quantile += 0.05) {
+            assertEquals(all.getQuantile(quantile), merged.getQuantile(quantile));
+        }
+        assertEquals(334, first.getCount());
+    }
+
+    @Test
+    public void testRemove() {
+        QuantileSketch sketch = new QuantileSketch();
+        sketch.add(10.0);
+        sketch.add(20.0);
+        sketch.add(30.0);
+
+        assertTrue(sketch.remove(30.0));
+        assertFalse(sketch.remove(1000.0));
+        assertFalse(sketch.remove(Double.NaN));
+
+        assertEquals(2, sketch.getCount());
+        assertClose(20.0, sketch.getQuantile(1));
+    }
+
+    @Test
+    public void testOutOfRangePrices() {
+        QuantileSketch sketch = new QuantileSketch();
+        sketch.add(0.0);
+        sketch.add(-5.0);
+        sketch.add(1e12);
+        sketch.add(Double.NaN);
+
+        assertEquals(3, sketch.getCount());
+        assertEquals(0.0, sketch.getQuantile(0));
+        assertEquals(0.0, sketch.getQuantile(0.5));
+        assertClose(1e7, sketch.getQuantile(1));
+        assertTrue(sketch.remove(-1.0));
+        assertTrue(sketch.remove(1e9));
+        assertEquals(1, sketch.getCount());
+    }
+
+    @Test
+    public void testClear() {
+        QuantileSketch sketch = new QuantileSketch();
+        sketch.add(1.0);
+        sketch.add(1000.0);
+        sketch.clear();
+
+        assertEquals(0, sketch.getCount());
+        assertNull(sketch.getQuantile(0.5));
+        sketch.add(7.0);
+        assertClose(7.0, sketch.getQuantile(0.5));
+    }
+
+    @Test
+    public void testInvalidQuantile() {
+        QuantileSketch sketch = new QuantileSketch();
+
+        assertThrows(IllegalArgumentException.class, () -> sketch.getQuantile(1.5));
+        assertThrows(IllegalArgumentException.class, () -> sketch.getQuantile(-0.1));
+    }
+}
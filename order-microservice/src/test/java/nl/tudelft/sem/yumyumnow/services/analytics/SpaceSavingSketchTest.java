@@ -0,0 +1,109 @@
+package nl.tudelft.sem.yumyumnow.services.analytics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+
+public class SpaceSavingSketchTest {
+
+    private static List<Long> ids(List<DishCount> counts) {
+        return counts.stream().map(DishCount::getDishId).collect(Collectors.toList());
+    }
+
+    @Test
+    public void testExactBelowCapacity() {
+        SpaceSavingSketch sketch = new SpaceSavingSketch(4);
+        sketch.add(1L);
+        sketch.add(2L);
+        sketch.add(2L);
+        sketch.add(3L);
+        sketch.add(2L);
+        sketch.add(3L);
+
+        List<DishCount> top = sketch.top(10);
+
+        assertEquals(List.of(2L, 3L, 1L), ids(top));
+        assertEquals(3, top.get(0).getCount());
+        assertEquals(0, top.get(0).getError());
+        assertEquals(List.of(2L, 3L), ids(sketch.top(2)));
+    }
+
+    @Test
+    public void testReplacesLowestCounter() {
+        SpaceSavingSketch sketch = new SpaceSavingSketch(2);
+        sketch.add(1L);
+        sketch.add(1L);
+        sketch.add(2L);
+
+        sketch.add(3L);
+
+        List<DishCount> top = sketch.top(2);
+        assertEquals(List.of(1L, 3L), ids(top));
+        assertEquals(2, top.get(1).getCount());
+        assertEquals(1, top.get(1).getError());
+    }
+
+    @Test
+    public void testRemove() {
+        SpaceSavingSketch sketch = new SpaceSavingSketch(2);
+        sketch.add(1L);
+        sketch.add(1L);
+        sketch.add(2L);
+
+        sketch.remove(2L);
+        sketch.remove(4L);
+        sketch.remove(1L);
+
+        List<DishCount> top = sketch.top(2);
+        assertEquals(List.of(1L), ids(top));
+        assertEquals(1, top.get(0).getCount());
+    }
+
+    @Test
+    public void testRemoveKeepsErrorBelowCount() {
+        SpaceSavingSketch sketch = new SpaceSavingSketch(1);
+        sketch.add(1L);
+        sketch.add(1L);
+        sketch.add(2L);
+        sketch.remove(2L);
+
+        DishCount count = sketch.top(1).get(0);
+        assertEquals(2, count.getCount());
+        assertEquals(2, count.getError());
+    }
+
+    @Test
+    public void testFindsHeavyHittersInSkewedStream() {
+        SpaceSavingSketch sketch = new SpaceSavingSketch(16);
+        Map<Long, Long> exact = new HashMap<>();
+        Random random = new Random(3);
+        int total = 20000;
+        for (int i = 0; i < total; i++) {
+            long dishId = random.nextInt(4) == 0 ? 1000 + random.nextInt(500) : random.nextInt(5);
+            sketch.add(dishId);
+            exact.merge(dishId, 1L, Long::sum);
+        }
+
+        List<DishCount> top = sketch.top(5);
+
+        assertEquals(List.of(0L, 1L, 2L, 3L, 4L), ids(top).stream().sorted().collect(Collectors.toList()));
+        for (DishCount count : top) {
+            long real = exact.get(count.getDishId());
+            assertTrue(count.getCount() >= real);
+            assertTrue(count.getCount() - count.getError() <= real);
+            assertTrue(count.getError() <= total / 16);
+        }
+    }
+
+    @Test
+    public void testInvalidCapacity() {
+        assertThrows(IllegalArgumentException.class, () -> new SpaceSavingSketch(0));
+    }
+}
@@ -0,0 +1,41 @@
+package nl.tudelft.sem.yumyumnow.services.analytics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDate;
+import org.junit.jupiter.api.Test;
+
+public class UniqueCustomerCounterTest {
+
+    private static final LocalDate MONDAY = LocalDate.of(2024, 1, 8);
+
+    @Test
+    public void testWeekMonthAndAllTime() {
+        UniqueCustomerCounter counter = new UniqueCustomerCounter();
+        counter.add(1, MONDAY.minusMonths(2));
+        counter.add(2, MONDAY.minusDays(1));
+        counter.add(3, MONDAY);
+        counter.add(3, MONDAY.plusDays(6));
+        counter.add(4, MONDAY.plusDays(2));
+        counter.add(5, null);
+
+        UniqueCustomers customers = counter.estimate(MONDAY.plusDays(3));
+        assertEquals(2, customers.getWeek());
+        assertEquals(3, customers.getMonth());
+        assertEquals(5, customers.getAllTime());
+    }
+
+    @Test
+    public void testLaterPeriodStartsOver() {
+        UniqueCustomerCounter counter = new UniqueCustomerCounter();
+        counter.add(1, MONDAY);
+        counter.add(2, MONDAY.plusWeeks(1));
+        counter.add(3, MONDAY);
+
+        assertEquals(1, counter.estimate(MONDAY.plusWeeks(1)).getWeek());
+        assertEquals(0, counter.estimate(MONDAY).getWeek());
+        assertEquals(2, counter.estimate(MONDAY).getMonth());
+        assertEquals(0, counter.estimate(MONDAY.plusMonths(1)).getMonth());
+        assertEquals(3, counter.estimate(MONDAY.plusMonths(1)).getAllTime());
+    }
+}
@@ -0,0 +1,337 @@
+package nl.tudelft.sem.yumyumnow.services.analytics;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import nl.tudelft.sem.yumyumnow.database.TestOrderRepository;
+import nl.tudelft.sem.yumyumnow.database.TestRatingRepository;
+import nl.tudelft.sem.yumyumnow.database.TestVendorRepository;
+import nl.tudelft.sem.yumyumnow.model.Dish;
+import nl.tudelft.sem.yumyumnow.model.Order;
+import nl.tudelft.sem.yumyumnow.model.Rating;
+import nl.tudelft.sem.yumyumnow.model.Vendor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class VendorAnalyticsStoreTest {
+
+    private static final OffsetDateTime MONDAY = OffsetDateTime.of(2024, 1, 8, 12, 0, 0, 0, ZoneOffset.UTC);
+
+    private TestVendorRepository vendorRepository;
+    private TestOrderRepository orderRepository;
+    private TestRatingRepository ratingRepository;
+    private VendorAnalyticsStore store;
+
+    @BeforeEach
+    public void setup() {
+        this.vendorRepository = new TestVendorRepository();
+        this.orderRepository = new TestOrderRepository();
+        this.ratingRepository = new TestRatingRepository();
+        this.store = new VendorAnalyticsStore(this.vendorRepository, this.orderRepository, this.ratingRepository,
+            64);
+    }
+
+    private static Order order(long orderId, long vendorId, OffsetDateTime time, long ratingId) {
+        return new Order().orderId(orderId).vendorId(vendorId).time(time).ratingId(ratingId);
+    }
+
+    private Order saveOrder(Order order) {
+        Order saved = this.orderRepository.save(order);
+        this.store.orderSaved(saved);
+        return saved;
+    }
+
+    private Rating saveRating(long grade) {
+        Rating saved = this.ratingRepository.save(new Rating().grade(grade));
+        this.store.ratingSaved(saved);
+        return saved;
+    }
+
+    @Test
+    public void testLoadedFromDatabaseOnFirstUse() {
+        Vendor vendor = new Vendor().id(1L);
+        vendor.setDishes(List.of(new Dish().id(1L).price(10.0), new Dish().id(2L).price(20.0), new Dish().id(3L)));
+        this.vendorRepository.save(vendor);
+        Rating rating = this.ratingRepository.save(new Rating().grade(4L));
+        this.orderRepository.save(order(1, 1, MONDAY, rating.getId()));
+        this.orderRepository.save(order(2, 1, MONDAY, -1));
+        this.orderRepository.save(order(3, 1, MONDAY.plusDays(1), -1));
+
+        assertEquals(15.0, this.store.getAveragePrice(1L));
+        assertEquals(4.0, this.store.getAverageRating(1L));
+        assertEquals(1.5, this.store.getAverageOrdersPerDay(1L));
+        assertNull(this.store.getAveragePrice(2L));
+    }
+
+    @Test
+    public void testEventsBeforeLoadAreReadFromDatabase() {
+        saveOrder(order(1, 1, MONDAY, -1));
+
+        assertEquals(1.0, this.store.getAverageOrdersPerDay(1L));
+        assertEquals(1, this.orderRepository.getMethodCalls().stream().filter("findAll"::equals).count());
+    }
+
+    @Test
+    public void testOrderSavedTwiceCountsOnce() {
+        this.store.rebuild();
+        Order order = saveOrder(order(1, 1, MONDAY, -1));
+        saveOrder(order);
+        saveOrder(order(2, 1, MONDAY.plusDays(1), -1));
+
+        assertEquals(1.0, this.store.getAverageOrdersPerDay(1L));
+    }
+
+    @Test
+    public void testOrderMovedToOtherVendor() {
+        this.store.rebuild();
+        Rating rating = saveRating(5);
+        saveOrder(order(1, 1, MONDAY, rating.getId()));
+
+        saveOrder(order(1, 2, MONDAY, rating.getId()));
+
+        assertNull(this.store.getAverageRating(1L));
+        assertNull(this.store.getAverageOrdersPerDay(1L));
+        assertEquals(5.0, this.store.getAverageRating(2L));
+        assertEquals(1.0, this.store.getAverageOrdersPerDay(2L));
+    }
+
+    @Test
+    public void testOrderDeleted() {
+        this.store.rebuild();
+        saveOrder(order(1, 1, MONDAY, -1));
+        saveOrder(order(2, 1, MONDAY, -1));
+        saveOrder(order(3, 1, MONDAY.plusDays(1), -1));
+
+        this.store.orderDeleted(3L);
+        this.store.orderDeleted(3L);
+
+        assertEquals(2.0, this.store.getAverageOrdersPerDay(1L));
+    }
+
+    @Test
+    public void testRatingChanged() {
+        this.store.rebuild();
+        Rating rating = saveRating(2);
+        saveOrder(order(1, 1, MONDAY, rating.getId()));
+        saveOrder(order(2, 1, MONDAY, -1));
+        assertEquals(2.0, this.store.getAverageRating(1L));
+
+        rating.setGrade(4L);
+        this.store.ratingSaved(rating);
+        Rating other = saveRating(5);
+        saveOrder(order(2, 1, MONDAY, other.getId()));
+
+        assertEquals(4.5, this.store.getAverageRating(1L));
+    }
+
+    @Test
+    public void testDishPriceChanged() {
+        this.store.rebuild();
+        Dish fries = new Dish().id(1L).price(3.0);
+        Dish burger = new Dish().id(2L).price(9.0);
+        this.store.vendorSaved(new Vendor().id(1L).dishes(new ArrayList<>(List.of(fries, burger))));
+        this.store.vendorSaved(new Vendor().id(2L).dishes(new ArrayList<>(List.of(fries))));
+
+        this.store.dishSaved(new Dish().id(1L).price(5.0));
+
+        assertEquals(7.0, this.store.getAveragePrice(1L));
+        assertEquals(5.0, this.store.getAveragePrice(2L));
+    }
+
+    @Test
+    public void testDishRemovedFromMenu() {
+        this.store.rebuild();
+        Dish fries = new Dish().id(1L).price(3.0);
+        Dish burger = new Dish().id(2L).price(9.0);
+        this.store.vendorSaved(new Vendor().id(1L).dishes(new ArrayList<>(List.of(fries, burger))));
+        this.store.vendorSaved(new Vendor().id(1L).dishes(new ArrayList<>(List.of(burger))));
+
+        this.store.dishSaved(new Dish().id(1L).price(100.0));
+        assertEquals(9.0, this.store.getAveragePrice(1L));
+        this.store.vendorSaved(new Vendor().id(1L).dishes(new ArrayList<>(List.of(burger, fries))));
+        this.store.dishSaved(new Dish().id(1L).price(5.0));
+
+        assertEquals(7.0, this.store.getAveragePrice(1L));
+    }
+
+    @Test
+    public void testChangesDuringRebuildAreKept() {
+        TestOrderRepository loading = new TestOrderRepository() {
+            @Override
+            public List<Order> findAll() {
+                List<Order> orders = new ArrayList<>(super.findAll());
+                saveOrder(order(2, 1, MONDAY, -1));
+                store.vendorSaved(new Vendor().id(1L).dishes(new ArrayList<>(List.of(new Dish().id(1L).price(20.0)))));
+                return orders;
+            }
+        };
+        this.vendorRepository.save(new Vendor().id(1L).dishes(new ArrayList<>(List.of(new Dish().id(1L).price(10.0)))));
+        loading.save(order(1, 1, MONDAY, -1));
+        this.orderRepository = loading;
+        this.store = new VendorAnalyticsStore(this.vendorRepository, loading, this.ratingRepository, 64);
+
+        assertEquals(1, this.store.rebuild());
+
+        assertEquals(2.0, this.store.getAverageOrdersPerDay(1L));
+        assertEquals(20.0, this.store.getAveragePrice(1L));
+    }
+
+    @Test
+    public void testPopularDishes() {
+        this.store.rebuild();
+        Dish fries = new Dish().id(1L);
+        Dish burger = new Dish().id(2L);
+        Dish shake = new Dish().id(3L);
+        saveOrder(order(1, 1, MONDAY, -1).dishes(List.of(fries, burger)));
+        saveOrder(order(2, 1, MONDAY, -1).dishes(List.of(burger, burger, shake)));
+        saveOrder(order(3, 2, MONDAY, -1).dishes(List.of(fries, fries, fries, fries)));
+
+        List<DishCount> popular = this.store.getPopularDishes(1L, 2);
+        assertEquals(2, popular.size());
+        assertEquals(2L, popular.get(0).getDishId());
+        assertEquals(3, popular.get(0).getCount());
+        assertEquals(1L, popular.get(1).getDishId());
+
+        saveOrder(order(2, 1, MONDAY, -1).dishes(List.of(shake, shake)));
+        popular = this.store.getPopularDishes(1L, 5);
+        assertEquals(3L, popular.get(0).getDishId());
+        assertEquals(2, popular.get(0).getCount());
+        assertEquals(3, popular.size());
+
+        this.store.orderDeleted(3L);
+        assertEquals(List.of(), this.store.getPopularDishes(2L, 5));
+        assertEquals(List.of(), this.store.getPopularDishes(9L, 5));
+    }
+
+    @Test
+    public void testCustomerOrdersPerMonth() {
+        this.store.rebuild();
+        saveOrder(order(1, 1, MONDAY, -1).customerId(13L));
+        saveOrder(order(2, 2, MONDAY.plusDays(1), -1).customerId(13L));
+        saveOrder(order(3, 1, MONDAY.plusMonths(2), -1).customerId(13L));
+        saveOrder(order(4, 1, MONDAY.minusYears(1), -1).customerId(13L));
+        saveOrder(order(5, 1, MONDAY.minusYears(1), -1).customerId(13L));
+        saveOrder(order(6, 1, MONDAY, -1).customerId(14L));
+        assertEquals(5.0 / 3.0, this.store.getCustomerOrdersPerMonth(13L));
+
+        saveOrder(order(6, 1, MONDAY.plusMonths(5), -1).customerId(13L));
+        this.store.orderDeleted(3L);
+
+        assertEquals(5.0 / 3.0, this.store.getCustomerOrdersPerMonth(13L));
+        assertNull(this.store.getCustomerOrdersPerMonth(14L));
+        assertNull(this.store.getCustomerOrdersPerMonth(15L));
+    }
+
+    @Test
+    public void testHistograms() {
+        this.store.rebuild();
+        saveOrder(order(1, 1, MONDAY, -1));
+        saveOrder(order(2, 1, MONDAY.plusHours(1), -1));
+        saveOrder(order(3, 1, MONDAY.plusDays(2), -1));
+
+        long[] hourly = this.store.getHourlyHistogram(1L);
+        assertEquals(2, hourly[12]);
+        assertEquals(1, hourly[13]);
+        assertArrayEquals(new int[] {0, 2, 0, 1}, this.store.getDailyHistogram(1L,
+            MONDAY.toLocalDate().minusDays(1), 4));
+        assertArrayEquals(new long[24], this.store.getHourlyHistogram(2L));
+        assertArrayEquals(new int[2], this.store.getDailyHistogram(2L, MONDAY.toLocalDate(), 2));
+    }
+
+    @Test
+    public void testPriceDistributions() {
+        this.store.rebuild();
+        this.store.vendorSaved(new Vendor().id(1L).dishes(new ArrayList<>(List.of(new Dish().id(1L).price(4.0),
+            new Dish().id(2L).price(8.0), new Dish().id(3L)))));
+        this.store.vendorSaved(new Vendor().id(2L).dishes(new ArrayList<>(List.of(new Dish().id(4L).price(40.0)))));
+        saveOrder(order(1, 1, MONDAY, -1).price(10.0).status(Order.StatusEnum.DELIVERED));
+        saveOrder(order(2, 1, MONDAY, -1).price(30.0).status(Order.StatusEnum.ACCEPTED));
+        saveOrder(order(3, 1, MONDAY, -1).price(500.0).status(Order.StatusEnum.PENDING));
+        saveOrder(order(4, 1, MONDAY, -1).price(700.0).status(Order.StatusEnum.REJECTED));
+        saveOrder(order(5, 2, MONDAY, -1).price(20.0).status(Order.StatusEnum.PREPARING));
+
+        PriceDistribution vendor = this.store.getPriceDistribution(1L);
+        assertEquals(2, vendor.getOrderValues().getCount());
+        assertEquals(10.0, vendor.getOrderValues().getP50(), 0.1);
+        assertEquals(2, vendor.getDishPrices().getCount());
+        assertEquals(4.0, vendor.getDishPrices().getP50(), 0.04);
+
+        saveOrder(order(1, 1, MONDAY, -1).price(10.0).status(Order.StatusEnum.REJECTED));
+        this.store.dishSaved(new Dish().id(2L).price(2.0));
+        vendor = this.store.getPriceDistribution(1L);
+        assertEquals(1, vendor.getOrderValues().getCount());
+        assertEquals(30.0, vendor.getOrderValues().getP50(), 0.3);
+        assertEquals(2.0, vendor.getDishPrices().getP50(), 0.02);
+
+        PriceDistribution platform = this.store.getPlatformPriceDistribution();
+        assertEquals(2, platform.getOrderValues().getCount());
+        assertEquals(20.0, platform.getOrderValues().getP50(), 0.2);
+        assertEquals(3, platform.getDishPrices().getCount());
+        assertEquals(4.0, platform.getDishPrices().getP50(), 0.04);
+
+        PriceDistribution unknown = this.store.getPriceDistribution(9L);
+        assertEquals(0, unknown.getOrderValues().getCount());
+        assertNull(unknown.getDishPrices().getP50());
+    }
+
+    @Test
+    public void testUniqueCustomers() {
+        this.store.rebuild();
+        saveOrder(order(1, 1, MONDAY, -1).customerId(10L));
+        saveOrder(order(2, 1, MONDAY.plusDays(1), -1).customerId(10L));
+        saveOrder(order(3, 1, MONDAY.plusDays(2), -1).customerId(11L));
+        saveOrder(order(4, 1, MONDAY.minusWeeks(1), -1).customerId(12L));
+        saveOrder(order(5, 1, MONDAY.minusYears(1), -1).customerId(13L));
+        saveOrder(order(6, 2, MONDAY, -1).customerId(14L));
+        saveOrder(order(3, 1, MONDAY.plusDays(2), -1).customerId(11L).status(Order.StatusEnum.ACCEPTED));
+
+        UniqueCustomers customers = this.store.getUniqueCustomers(1L, MONDAY.toLocalDate().plusDays(4));
+        assertEquals(2, customers.getWeek());
+        assertEquals(3, customers.getMonth());
+        assertEquals(4, customers.getAllTime());
+        assertEquals(0, this.store.getUniqueCustomers(1L, MONDAY.toLocalDate().plusWeeks(1)).getWeek());
+        assertEquals(0, this.store.getUniqueCustomers(9L, MONDAY.toLocalDate()).getAllTime());
+    }
+
+    @Test
+    public void testInvalidPopularDishCapacity() {
+        assertThrows(IllegalArgumentException.class, () -> new VendorAnalyticsStore(this.vendorRepository,
+            this.orderRepository, this.ratingRepository, 0));
+    }
+
+    @Test
+    public void testIncrementalMatchesRebuild() {
+        this.store.rebuild();
+        Random random = new Random(7);
+        List<Long> ratingIds = new ArrayList<>(List.of(-1L));
+        for (int i = 0; i < 500; i++) {
+            int action = random.nextInt(10);
+            if (action == 0) {
+                ratingIds.add(saveRating(1 + random.nextInt(5)).getId());
+            } else if (action == 1) {
+                long orderId = 1 + random.nextInt(100);
+                if (this.orderRepository.existsById(orderId)) {
+                    this.orderRepository.deleteById(orderId);
+                    this.store.orderDeleted(orderId);
+                }
+            } else {
+                saveOrder(order(1 + random.nextInt(100), 1 + random.nextInt(5),
+                    MONDAY.plusDays(random.nextInt(10)), ratingIds.get(random.nextInt(ratingIds.size()))));
+            }
+        }
+
+        VendorAnalyticsStore rebuilt = new VendorAnalyticsStore(this.vendorRepository, this.orderRepository,
+            this.ratingRepository, 64);
+        for (long vendorId = 1; vendorId <= 5; vendorId++) {
+            assertEquals(rebuilt.getAverageRating(vendorId), this.store.getAverageRating(vendorId));
+            assertEquals(rebuilt.getAverageOrdersPerDay(vendorId), this.store.getAverageOrdersPerDay(vendorId));
+        }
+    }
+}
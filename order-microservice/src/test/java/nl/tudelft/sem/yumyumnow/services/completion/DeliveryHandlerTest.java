@@ -4,6 +4,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 
 import nl.tudelft.sem.yumyumnow.model.Order;
 import nl.tudelft.sem.yumyumnow.services.IntegrationService;
+import nl.tudelft.sem.yumyumnow.services.requests.PeerUnavailableException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
@@ -88,5 +89,25 @@ public class DeliveryHandlerTest {
         assertEquals(Order.StatusEnum.DELIVERED, this.deliveryHandler.handleOrderCompletion(order));
     }
 
+    @Test
+    @SuppressWarnings("all")
+    public void testDeliveryUnavailableRejects() {
+        Order order = new Order().status(Order.StatusEnum.PENDING).customerId(10L).price(125.0D).orderId(1L).vendorId(12L);
+        Mockito.when(this.restTemplate.postForEntity(Mockito.any(), Mockito.any(),
+                        Mockito.any(), Mockito.any(MultiValueMap.class)))
+                .thenThrow(new PeerUnavailableException("delivery", "circuit breaker open"));
+        assertEquals(Order.StatusEnum.REJECTED, this.deliveryHandler.handleOrderCompletion(order));
+    }
 
+    @Test
+    @SuppressWarnings("all")
+    public void testDeliveryStatusUnavailableKeepsStatus() {
+        Order order = new Order().status(Order.StatusEnum.PENDING).customerId(10L).price(125.0D).orderId(1L).vendorId(12L);
+        Mockito.when(this.restTemplate.postForEntity(Mockito.any(), Mockito.any(),
+                        Mockito.any(), Mockito.any(MultiValueMap.class)))
+                .thenReturn(ResponseEntity.ok().build());
+        Mockito.when(this.restTemplate.getForEntity(Mockito.any(), Mockito.any(), Mockito.any(MultiValueMap.class)))
+                .thenThrow(new PeerUnavailableException("delivery", "too many concurrent requests"));
+        assertEquals(Order.StatusEnum.PENDING, this.deliveryHandler.handleOrderCompletion(order));
+    }
 }
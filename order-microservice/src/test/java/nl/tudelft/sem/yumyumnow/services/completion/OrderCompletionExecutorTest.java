@@ -0,0 +1,103 @@
+package nl.tudelft.sem.yumyumnow.services.completion;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import nl.tudelft.sem.yumyumnow.model.Order;
+import nl.tudelft.sem.yumyumnow.services.IntegrationService;
+import nl.tudelft.sem.yumyumnow.services.UpdatesOrderService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+public class OrderCompletionExecutorTest {
+
+    private CompletionFactory completionFactory;
+    private UpdatesOrderService updatesOrderService;
+    private SimpleMeterRegistry meterRegistry;
+    private OrderCompletionExecutor executor;
+    private CountDownLatch release;
+
+    /**
+     * Setup of an executor with one worker thread and a queue of one order,
+     * whose completion chain blocks until released.
+     */
+    @BeforeEach
+    public void setup() {
+        this.completionFactory = Mockito.mock(CompletionFactory.class);
+        this.updatesOrderService = Mockito.mock(UpdatesOrderService.class);
+        this.meterRegistry = new SimpleMeterRegistry();
+        this.release = new CountDownLatch(1);
+        Mockito.when(this.completionFactory.createCompletionResponsibilityChain(Mockito.any()))
+            .thenReturn(new BaseOrderCompletionHandler() {
+                @Override
+                public Order.StatusEnum handleOrderCompletion(Order order) {
+                    try {
+                        release.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    if (order.getOrderId() < 0) {
+                        throw new IllegalStateException("Payment failed");
+                    }
+                    return Order.StatusEnum.PREPARING;
+                }
+            });
+        this.executor = new OrderCompletionExecutor(this.completionFactory, Mockito.mock(IntegrationService.class),
+            this.updatesOrderService, 1, 1, this.meterRegistry);
+    }
+
+    @AfterEach
+    public void tearDown() throws InterruptedException {
+        this.release.countDown();
+        this.executor.destroy();
+    }
+
+    @Test
+    public void testCompletionSavesStatus() throws InterruptedException {
+        assertTrue(this.executor.submit(new Order().orderId(1L)));
+        assertTrue(this.executor.isInProgress(1L));
+
+        this.release.countDown();
+        this.executor.destroy();
+
+        Mockito.verify(this.updatesOrderService).setOrderStatus(1L, Order.StatusEnum.PREPARING);
+        assertFalse(this.executor.isInProgress(1L));
+    }
+
+    @Test
+    public void testFailedCompletionRejectsOrder() throws InterruptedException {
+        assertTrue(this.executor.submit(new Order().orderId(-1L)));
+
+        this.release.countDown();
+        this.executor.destroy();
+
+        Mockito.verify(this.updatesOrderService).setOrderStatus(-1L, Order.StatusEnum.REJECTED);
+    }
+
+    @Test
+    public void testBackpressureWhenQueueIsFull() {
+        assertTrue(this.executor.submit(new Order().orderId(1L)));
+        assertTrue(this.executor.submit(new Order().orderId(2L)));
+
+        assertFalse(this.executor.submit(new Order().orderId(3L)));
+        assertFalse(this.executor.isInProgress(3L));
+        assertEquals(1.0, this.meterRegistry.get("order.completion.rejected").counter().count());
+    }
+
+    @Test
+    public void testDuplicateSubmissionIsNotQueued() throws InterruptedException {
+        assertTrue(this.executor.submit(new Order().orderId(1L)));
+        assertTrue(this.executor.submit(new Order().orderId(1L)));
+
+        this.release.countDown();
+        this.executor.destroy();
+
+        Mockito.verify(this.updatesOrderService, Mockito.times(1)).setOrderStatus(1L, Order.StatusEnum.PREPARING);
+    }
+}
@@ -0,0 +1,174 @@
+package nl.tudelft.sem.yumyumnow.services.requests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+public class AsyncRequestTest {
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private String address;
+    private CountDownLatch arrived;
+    private AsyncHttpClient client;
+    private RestTemplate restTemplate;
+
+    private static void respond(HttpExchange exchange, int status, String contentType, byte[] body)
+        throws IOException {
+        exchange.getResponseHeaders().add("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, body.length == 0 ? -1 : body.length);
+        exchange.getResponseBody().write(body);
+        exchange.close();
+    }
+
+    /**
+     * Starts a local server and a client with a single thread for it.
+     *
+     * @throws Exception if the server could not be started
+     */
+    @BeforeEach
+    public void setup() throws Exception {
+        this.arrived = new CountDownLatch(2);
+        this.serverExecutor = Executors.newFixedThreadPool(4);
+        this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        this.server.setExecutor(this.serverExecutor);
+        this.server.createContext("/user/1", exchange ->
+            respond(exchange, 200, "text/plain", "customer".getBytes(StandardCharsets.UTF_8)));
+        this.server.createContext("/missing", exchange -> respond(exchange, 404, "text/plain", new byte[0]));
+        this.server.createContext("/echo", exchange -> respond(exchange, 200,
+            exchange.getRequestHeaders().getFirst("Content-Type"),
+            (exchange.getRequestMethod() + " " + new String(exchange.getRequestBody().readAllBytes(),
+                StandardCharsets.UTF_8)).getBytes(StandardCharsets.UTF_8)));
+        this.server.createContext("/together", exchange -> {
+            this.arrived.countDown();
+            boolean both;
+            try {
+                both = this.arrived.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                both = false;
+            }
+            respond(exchange, both ? 200 : 503, "text/plain", new byte[0]);
+        });
+        this.server.start();
+        this.address = "http://localhost:" + this.server.getAddress().getPort();
+
+        this.client = new AsyncHttpClient(1, Duration.ofSeconds(1), Duration.ofSeconds(10), uri -> null);
+        this.restTemplate = new RestTemplate();
+    }
+
+    /**
+     * Stops the local server and the client.
+     */
+    @AfterEach
+    public void tearDown() {
+        this.client.close();
+        this.server.stop(0);
+        this.serverExecutor.shutdownNow();
+    }
+
+    @Test
+    public void testGet() throws Exception {
+        ResponseEntity<String> response = new GetRequest(this.restTemplate, this.address + "/user/1")
+            .sendAsync(this.client, String.class).get(5, TimeUnit.SECONDS);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("customer", response.getBody());
+    }
+
+    @Test
+    public void testPostSendsJson() throws Exception {
+        ResponseEntity<String> response = new PostRequest(this.restTemplate, this.address + "/echo",
+            Map.of("orderId", 5)).sendAsync(this.client, String.class).get(5, TimeUnit.SECONDS);
+
+        assertEquals("POST {\"orderId\":5}", response.getBody());
+        assertTrue(MediaType.APPLICATION_JSON.isCompatibleWith(response.getHeaders().getContentType()));
+    }
+
+    @Test
+    public void testPut() throws Exception {
+        ResponseEntity<String> response = new PutRequest(this.restTemplate, this.address + "/echo", "Pizza")
+            .sendAsync(this.client, String.class).get(5, TimeUnit.SECONDS);
+
+        assertEquals("PUT Pizza", response.getBody());
+    }
+
+    @Test
+    public void testErrorStatusCompletesExceptionally() {
+        CompletableFuture<ResponseEntity<String>> response = new GetRequest(this.restTemplate,
+            this.address + "/missing").sendAsync(this.client, String.class);
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> response.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(HttpClientErrorException.NotFound.class, e.getCause());
+    }
+
+    @Test
+    public void testRefusedConnection() throws Exception {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        CompletableFuture<ResponseEntity<String>> response = new GetRequest(this.restTemplate,
+            "http://localhost:" + port + "/user/1").sendAsync(this.client, String.class);
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> response.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(ResourceAccessException.class, e.getCause());
+    }
+
+    @Test
+    public void testRequestsAreInFlightTogether() throws Exception {
+        CompletableFuture<ResponseEntity<String>> first = new GetRequest(this.restTemplate,
+            this.address + "/together").sendAsync(this.client, String.class);
+        CompletableFuture<ResponseEntity<String>> second = new GetRequest(this.restTemplate,
+            this.address + "/together").sendAsync(this.client, String.class);
+
+        assertEquals(HttpStatus.OK, first.get(10, TimeUnit.SECONDS).getStatusCode());
+        assertEquals(HttpStatus.OK, second.get(10, TimeUnit.SECONDS).getStatusCode());
+    }
+
+    @Test
+    public void testOpenBreakerRejects() {
+        CircuitBreakerSettings settings = new CircuitBreakerSettings(1, 1, 100, 100, Duration.ofSeconds(5),
+            Duration.ofMinutes(1), 1);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        PeerGuard guard = new PeerGuard("users", this.address,
+            new Bulkhead("users", 4, Duration.ZERO, meterRegistry),
+            new CircuitBreaker("users", settings, meterRegistry));
+        this.client.close();
+        this.client = new AsyncHttpClient(1, Duration.ofSeconds(1), Duration.ofSeconds(10), uri -> guard);
+        guard.getCircuitBreaker().onComplete(guard.getCircuitBreaker().tryAcquire(), true, 0);
+
+        CompletableFuture<ResponseEntity<String>> response = new GetRequest(this.restTemplate,
+            this.address + "/user/1").sendAsync(this.client, String.class);
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> response.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(PeerUnavailableException.class, e.getCause());
+        assertEquals(0, guard.getBulkhead().getInUse());
+    }
+}
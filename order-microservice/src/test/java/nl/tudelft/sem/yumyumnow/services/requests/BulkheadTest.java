@@ -0,0 +1,71 @@
+package nl.tudelft.sem.yumyumnow.services.requests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class BulkheadTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    public void setup() {
+        this.meterRegistry = new SimpleMeterRegistry();
+    }
+
+    private double rejected() {
+        return this.meterRegistry.counter("integration.bulkhead.rejected", "peer", "delivery").count();
+    }
+
+    @Test
+    public void testRejectsWhenFull() {
+        Bulkhead bulkhead = new Bulkhead("delivery", 2, Duration.ZERO, this.meterRegistry);
+
+        assertTrue(bulkhead.tryAcquire());
+        assertTrue(bulkhead.tryAcquire());
+        assertFalse(bulkhead.tryAcquire());
+
+        assertEquals(2, bulkhead.getInUse());
+        assertEquals(1.0, rejected());
+        assertEquals(2.0, this.meterRegistry.get("integration.bulkhead.in-use").tag("peer", "delivery")
+            .gauge().value());
+    }
+
+    @Test
+    public void testReleasedPermitIsReused() {
+        Bulkhead bulkhead = new Bulkhead("delivery", 1, Duration.ZERO, this.meterRegistry);
+
+        assertTrue(bulkhead.tryAcquire());
+        bulkhead.release();
+        assertTrue(bulkhead.tryAcquire());
+
+        assertEquals(1, bulkhead.getInUse());
+        assertEquals(0.0, rejected());
+    }
+
+    @Test
+    public void testWaitsForPermit() throws Exception {
+        Bulkhead bulkhead = new Bulkhead("delivery", 1, Duration.ofSeconds(5), this.meterRegistry);
+        assertTrue(bulkhead.tryAcquire());
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Boolean> waiting = executor.submit(bulkhead::tryAcquire);
+            Thread.sleep(50);
+            bulkhead.release();
+
+            assertTrue(waiting.get(5, TimeUnit.SECONDS));
+            assertEquals(0.0, rejected());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package nl.tudelft.sem.yumyumnow.services.requests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class CircuitBreakerTest {
+
+    private static final long FAST = Duration.ofMillis(10).toNanos();
+    private static final long SLOW = Duration.ofMillis(500).toNanos();
+
+    private AtomicLong time;
+    private SimpleMeterRegistry meterRegistry;
+    private CircuitBreaker breaker;
+
+    /**
+     * Creates a breaker over the last 10 calls that opens at 50% failures or 80% slow calls.
+     */
+    @BeforeEach
+    public void setup() {
+        this.time = new AtomicLong();
+        this.meterRegistry = new SimpleMeterRegistry();
+        CircuitBreakerSettings settings = new CircuitBreakerSettings(10, 4, 50, 80, Duration.ofMillis(200),
+            Duration.ofSeconds(10), 2);
+        this.breaker = new CircuitBreaker("users", settings, this.time::get, this.meterRegistry);
+    }
+
+    private long acquire() {
+        long generation = this.breaker.tryAcquire();
+        assertNotEquals(CircuitBreaker.REJECTED, generation);
+        return generation;
+    }
+
+    private void call(boolean failed, long duration) {
+        this.breaker.onComplete(acquire(), failed, duration);
+    }
+
+    private double stateGauge() {
+        return this.meterRegistry.get("integration.circuit-breaker.state").tag("peer", "users").gauge().value();
+    }
+
+    private double rejected() {
+        return this.meterRegistry.counter("integration.circuit-breaker.rejected", "peer", "users").count();
+    }
+
+    @Test
+    public void testStaysClosedBelowMinimumCalls() {
+        call(true, FAST);
+        call(true, FAST);
+        call(true, FAST);
+
+        assertEquals(CircuitBreaker.State.CLOSED, this.breaker.getState());
+        assertEquals(0.0, stateGauge());
+    }
+
+    @Test
+    public void testOpensAtFailureRate() {
+        call(false, FAST);
+        call(true, FAST);
+        call(false, FAST);
+        assertEquals(CircuitBreaker.State.CLOSED, this.breaker.getState());
+        call(true, FAST);
+
+        assertEquals(CircuitBreaker.State.OPEN, this.breaker.getState());
+        assertEquals(CircuitBreaker.REJECTED, this.breaker.tryAcquire());
+        assertEquals(1.0, rejected());
+        assertEquals(1.0, stateGauge());
+    }
+
+    @Test
+    public void testOpensAtSlowCallRate() {
+        call(false, SLOW);
+        call(false, SLOW);
+        call(false, SLOW);
+        call(false, FAST);
+        assertEquals(CircuitBreaker.State.CLOSED, this.breaker.getState());
+        call(false, SLOW);
+
+        assertEquals(CircuitBreaker.State.OPEN, this.breaker.getState());
+    }
+
+    @Test
+    public void testOldOutcomesLeaveTheWindow() {
+        for (int i = 0; i < 10; i++) {
+            call(i >= 7, FAST);
+        }
+        for (int i = 0; i < 10; i++) {
+            call(false, FAST);
+        }
+        for (int i = 0; i < 4; i++) {
+            call(true, FAST);
+        }
+
+        assertEquals(CircuitBreaker.State.CLOSED, this.breaker.getState());
+        call(true, FAST);
+        assertEquals(CircuitBreaker.State.OPEN, this.breaker.getState());
+    }
+
+    @Test
+    public void testClosesAfterSuccessfulTrialCalls() {
+        openBreaker();
+        this.time.addAndGet(Duration.ofSeconds(10).toNanos());
+
+        long first = acquire();
+        assertEquals(CircuitBreaker.State.HALF_OPEN, this.breaker.getState());
+        assertEquals(2.0, stateGauge());
+        long second = acquire();
+        assertEquals(CircuitBreaker.REJECTED, this.breaker.tryAcquire());
+        this.breaker.onComplete(first, false, FAST);
+        this.breaker.onComplete(second, false, FAST);
+
+        assertEquals(CircuitBreaker.State.CLOSED, this.breaker.getState());
+        call(true, FAST);
+        assertEquals(CircuitBreaker.State.CLOSED, this.breaker.getState());
+    }
+
+    @Test
+    public void testReopensAfterSlowTrialCall() {
+        openBreaker();
+        this.time.addAndGet(Duration.ofSeconds(10).toNanos());
+
+        call(false, SLOW);
+
+        assertEquals(CircuitBreaker.State.OPEN, this.breaker.getState());
+        this.time.addAndGet(Duration.ofSeconds(9).toNanos());
+        assertEquals(CircuitBreaker.REJECTED, this.breaker.tryAcquire());
+    }
+
+    @Test
+    public void testIgnoresCallsLetThroughInEarlierState() {
+        long closedCall = acquire();
+        openBreaker();
+        this.time.addAndGet(Duration.ofSeconds(10).toNanos());
+        long trial = acquire();
+        assertEquals(CircuitBreaker.State.HALF_OPEN, this.breaker.getState());
+
+        this.breaker.onComplete(closedCall, true, SLOW);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, this.breaker.getState());
+        this.breaker.onComplete(trial, false, FAST);
+        this.breaker.onComplete(acquire(), false, FAST);
+
+        assertEquals(CircuitBreaker.State.CLOSED, this.breaker.getState());
+        this.breaker.onComplete(trial, true, FAST);
+        this.breaker.onComplete(trial, true, FAST);
+        this.breaker.onComplete(trial, true, FAST);
+        this.breaker.onComplete(trial, true, FAST);
+        assertEquals(CircuitBreaker.State.CLOSED, this.breaker.getState());
+    }
+
+    @Test
+    public void testRejectsUntilOpenDurationPassed() {
+        openBreaker();
+        this.time.addAndGet(Duration.ofSeconds(9).toNanos());
+
+        assertEquals(CircuitBreaker.REJECTED, this.breaker.tryAcquire());
+        assertEquals(CircuitBreaker.REJECTED, this.breaker.tryAcquire());
+        assertEquals(2.0, rejected());
+    }
+
+    private void openBreaker() {
+        for (int i = 0; i < 4; i++) {
+            call(true, FAST);
+        }
+        assertEquals(CircuitBreaker.State.OPEN, this.breaker.getState());
+    }
+}
@@ -0,0 +1,188 @@
+package nl.tudelft.sem.yumyumnow.services.requests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.RestTemplate;
+
+public class PeerGuardTest {
+
+    private HttpServer server;
+    private String address;
+    private AtomicInteger received;
+    private CountDownLatch release;
+    private PooledRequestFactory factory;
+    private PeerGuard guard;
+    private RestTemplate restTemplate;
+
+    /**
+     * Starts a local server answering 200, 404 or 500, and a factory guarding it with a bulkhead of one request
+     * and a breaker that opens when half of the last 4 requests failed.
+     *
+     * @throws Exception if the server could not be started
+     */
+    @BeforeEach
+    public void setup() throws Exception {
+        this.received = new AtomicInteger();
+        this.release = new CountDownLatch(1);
+        this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        this.server.setExecutor(Executors.newFixedThreadPool(4));
+        this.server.createContext("/ok", exchange -> {
+            this.received.incrementAndGet();
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        this.server.createContext("/missing", exchange -> {
+            this.received.incrementAndGet();
+            exchange.sendResponseHeaders(404, -1);
+            exchange.close();
+        });
+        this.server.createContext("/fail", exchange -> {
+            this.received.incrementAndGet();
+            exchange.sendResponseHeaders(500, -1);
+            exchange.close();
+        });
+        this.server.createContext("/blocked", exchange -> {
+            this.received.incrementAndGet();
+            try {
+                this.release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        this.server.start();
+        this.address = "http://localhost:" + this.server.getAddress().getPort();
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        PeerSettings peer = new PeerSettings(this.address, 3, Duration.ofMillis(500), Duration.ofSeconds(5));
+        this.factory = new PooledRequestFactory(10, 2, Duration.ofMillis(500), Duration.ofSeconds(30),
+            List.of(peer), meterRegistry);
+        CircuitBreakerSettings settings = new CircuitBreakerSettings(4, 4, 50, 100, Duration.ofSeconds(5),
+            Duration.ofMinutes(1), 1);
+        this.guard = new PeerGuard("users", this.address,
+            new Bulkhead("users", 1, Duration.ZERO, meterRegistry),
+            new CircuitBreaker("users", settings, meterRegistry));
+        this.factory.addPeerGuard(this.guard);
+        this.restTemplate = new RestTemplate(this.factory);
+    }
+
+    /**
+     * Stops the local server and closes the pool.
+     *
+     * @throws Exception if the pool could not be closed
+     */
+    @AfterEach
+    public void tearDown() throws Exception {
+        this.release.countDown();
+        this.factory.destroy();
+        this.server.stop(0);
+    }
+
+    private ResponseEntity<String> get(String path) {
+        return new GetRequest(this.restTemplate, this.address + path).send(String.class);
+    }
+
+    @Test
+    public void testGuardOfPeerOnly() {
+        assertEquals(this.guard, this.factory.getPeerGuard(URI.create(this.address + "/user/1")));
+        assertNull(this.factory.getPeerGuard(URI.create("http://example.com/user/1")));
+    }
+
+    @Test
+    public void testServerErrorsOpenBreaker() {
+        assertEquals(200, get("/ok").getStatusCodeValue());
+        assertThrows(HttpClientErrorException.NotFound.class, () -> get("/missing"));
+        assertThrows(HttpServerErrorException.class, () -> get("/fail"));
+        assertEquals(CircuitBreaker.State.CLOSED, this.guard.getCircuitBreaker().getState());
+        assertThrows(HttpServerErrorException.class, () -> get("/fail"));
+
+        assertEquals(CircuitBreaker.State.OPEN, this.guard.getCircuitBreaker().getState());
+        PeerUnavailableException e = assertThrows(PeerUnavailableException.class, () -> get("/ok"));
+        assertEquals("users", e.getPeer());
+        assertEquals(4, this.received.get());
+        assertEquals(0, this.guard.getBulkhead().getInUse());
+    }
+
+    @Test
+    public void testPermitHeldUntilResponseClosed() throws Exception {
+        ClientHttpRequest request = Mockito.mock(ClientHttpRequest.class);
+        ClientHttpResponse response = Mockito.mock(ClientHttpResponse.class);
+        Mockito.when(request.execute()).thenReturn(response);
+        Mockito.when(response.getRawStatusCode()).thenReturn(200);
+
+        ClientHttpResponse guarded = this.guard.execute(request);
+        assertEquals(1, this.guard.getBulkhead().getInUse());
+        guarded.close();
+        guarded.close();
+
+        assertEquals(0, this.guard.getBulkhead().getInUse());
+        Mockito.verify(response, Mockito.times(1)).close();
+    }
+
+    @Test
+    public void testFailedBodyReadCountsAsFailure() throws Exception {
+        InputStream body = Mockito.mock(InputStream.class);
+        Mockito.when(body.read(Mockito.any(), Mockito.anyInt(), Mockito.anyInt()))
+            .thenThrow(new IOException("connection reset"));
+        ClientHttpRequest request = Mockito.mock(ClientHttpRequest.class);
+        ClientHttpResponse response = Mockito.mock(ClientHttpResponse.class);
+        Mockito.when(request.execute()).thenReturn(response);
+        Mockito.when(response.getRawStatusCode()).thenReturn(200);
+        Mockito.when(response.getBody()).thenReturn(body);
+
+        for (int i = 0; i < 4; i++) {
+            ClientHttpResponse guarded = this.guard.execute(request);
+            assertThrows(IOException.class, () -> guarded.getBody().read(new byte[16], 0, 16));
+            guarded.close();
+        }
+
+        assertEquals(CircuitBreaker.State.OPEN, this.guard.getCircuitBreaker().getState());
+        assertEquals(0, this.guard.getBulkhead().getInUse());
+    }
+
+    @Test
+    public void testFullBulkheadRejects() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<ResponseEntity<String>> blocked = executor.submit(() -> get("/blocked"));
+            while (this.received.get() == 0) {
+                Thread.sleep(5);
+            }
+
+            assertThrows(PeerUnavailableException.class, () -> get("/ok"));
+            this.release.countDown();
+            assertEquals(200, blocked.get(5, TimeUnit.SECONDS).getStatusCodeValue());
+            assertEquals(200, get("/ok").getStatusCodeValue());
+            assertEquals(CircuitBreaker.State.CLOSED, this.guard.getCircuitBreaker().getState());
+            assertEquals(2, this.received.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package nl.tudelft.sem.yumyumnow.services.requests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import org.apache.http.HttpHost;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.conn.routing.HttpRoute;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+public class PooledRequestFactoryTest {
+
+    private HttpServer server;
+    private String address;
+    private SimpleMeterRegistry meterRegistry;
+    private PooledRequestFactory factory;
+
+    /**
+     * Starts a local server with a fast and a slow endpoint, and a factory with a short read timeout for it.
+     *
+     * @throws Exception if the server could not be started
+     */
+    @BeforeEach
+    public void setup() throws Exception {
+        this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        this.server.createContext("/fast", exchange -> {
+            byte[] body = "customer".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        this.server.createContext("/slow", exchange -> {
+            try {
+                Thread.sleep(1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        this.server.start();
+        this.address = "http://localhost:" + this.server.getAddress().getPort();
+
+        this.meterRegistry = new SimpleMeterRegistry();
+        PeerSettings peer = new PeerSettings(this.address, 3, Duration.ofMillis(500), Duration.ofMillis(200));
+        this.factory = new PooledRequestFactory(10, 2, Duration.ofMillis(500), Duration.ofSeconds(30),
+            List.of(peer), this.meterRegistry);
+    }
+
+    /**
+     * Stops the local server and closes the pool.
+     *
+     * @throws Exception if the pool could not be closed
+     */
+    @AfterEach
+    public void tearDown() throws Exception {
+        this.factory.destroy();
+        this.server.stop(0);
+    }
+
+    @Test
+    public void testPoolLimits() {
+        HttpHost host = new HttpHost("localhost", this.server.getAddress().getPort(), "http");
+
+        assertEquals(10, this.factory.getConnectionManager().getMaxTotal());
+        assertEquals(2, this.factory.getConnectionManager().getDefaultMaxPerRoute());
+        assertEquals(3, this.factory.getConnectionManager().getMaxPerRoute(new HttpRoute(host)));
+    }
+
+    @Test
+    public void testTimeoutsPerPeer() {
+        RequestConfig peerConfig = this.factory.getRequestConfig(URI.create(this.address + "/user/1"));
+        RequestConfig otherConfig = this.factory.getRequestConfig(URI.create("http://example.com/user/1"));
+
+        assertEquals(500, peerConfig.getConnectTimeout());
+        assertEquals(200, peerConfig.getSocketTimeout());
+        assertEquals(500, peerConfig.getConnectionRequestTimeout());
+        assertEquals(5000, otherConfig.getSocketTimeout());
+    }
+
+    @Test
+    public void testRequestsReuseConnections() {
+        RestTemplate restTemplate = new RestTemplate(this.factory);
+
+        assertEquals("customer", new GetRequest(restTemplate, this.address + "/fast").send(String.class).getBody());
+        assertEquals("customer", new GetRequest(restTemplate, this.address + "/fast").send(String.class).getBody());
+
+        assertEquals(1, this.factory.getConnectionManager().getTotalStats().getAvailable());
+        assertEquals(0, this.factory.getConnectionManager().getTotalStats().getLeased());
+        assertNotNull(this.meterRegistry.get("httpcomponents.httpclient.pool.total.connections")
+            .tag("state", "available").gauge());
+    }
+
+    @Test
+    public void testReadTimeout() {
+        RestTemplate restTemplate = new RestTemplate(this.factory);
+
+        assertThrows(ResourceAccessException.class,
+            () -> new GetRequest(restTemplate, this.address + "/slow").send(String.class));
+    }
+}
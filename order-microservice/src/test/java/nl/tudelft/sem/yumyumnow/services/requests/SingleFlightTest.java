@@ -0,0 +1,209 @@
+package nl.tudelft.sem.yumyumnow.services.requests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.ResourceAccessException;
+
+public class SingleFlightTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private SingleFlight singleFlight;
+    private ExecutorService executor;
+
+    @BeforeEach
+    public void setup() {
+        this.meterRegistry = new SimpleMeterRegistry();
+        this.singleFlight = new SingleFlight(Duration.ofSeconds(5), this.meterRegistry);
+        this.executor = Executors.newFixedThreadPool(8);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        this.executor.shutdownNow();
+    }
+
+    private double count(String name) {
+        return this.meterRegistry.counter(name).count();
+    }
+
+    /**
+     * Starts a call that blocks until released, and waits until it is in flight.
+     *
+     * @param key the key of the call
+     * @param release the latch releasing the call
+     * @param result the result of the call, or the exception it throws
+     * @param calls counts the calls made
+     * @return the result of the call
+     * @throws InterruptedException if interrupted while waiting for the call to start
+     */
+    private Future<Object> startBlockedCall(String key, CountDownLatch release, Object result, AtomicInteger calls)
+        throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        Future<Object> leader = this.executor.submit(() -> this.singleFlight.execute(key, () -> {
+            calls.incrementAndGet();
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (result instanceof RuntimeException) {
+                throw (RuntimeException) result;
+            }
+            return result;
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        return leader;
+    }
+
+    @Test
+    public void testConcurrentCallsShareOneResult() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        Object result = new Object();
+        Future<Object> leader = startBlockedCall("GET /customer/1", release, result, calls);
+
+        List<Future<Object>> followers = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            followers.add(this.executor.submit(() -> this.singleFlight.execute("GET /customer/1", () -> {
+                calls.incrementAndGet();
+                return new Object();
+            })));
+        }
+        while (count("integration.single-flight.coalesced") < 5) {
+            Thread.sleep(5);
+        }
+        release.countDown();
+
+        assertSame(result, leader.get(5, TimeUnit.SECONDS));
+        for (Future<Object> follower : followers) {
+            assertSame(result, follower.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, calls.get());
+        assertEquals(1.0, count("integration.single-flight.calls"));
+        assertEquals(0, this.singleFlight.getInFlight());
+    }
+
+    @Test
+    public void testDifferentKeysAreNotShared() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        Future<Object> leader = startBlockedCall("GET /customer/1", release, "first", calls);
+
+        assertEquals("second", this.singleFlight.execute("GET /customer/2", () -> "second"));
+        release.countDown();
+
+        assertEquals("first", leader.get(5, TimeUnit.SECONDS));
+        assertEquals(2.0, count("integration.single-flight.calls"));
+        assertEquals(0.0, count("integration.single-flight.coalesced"));
+    }
+
+    @Test
+    public void testCompletedCallIsNotCached() {
+        AtomicInteger calls = new AtomicInteger();
+
+        this.singleFlight.execute("GET /vendor/1", calls::incrementAndGet);
+        this.singleFlight.execute("GET /vendor/1", calls::incrementAndGet);
+
+        assertEquals(2, calls.get());
+        assertEquals(0, this.singleFlight.getInFlight());
+    }
+
+    @Test
+    public void testExceptionSharedWithWaitingCallers() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        IllegalStateException failure = new IllegalStateException("users service down");
+        Future<Object> leader = startBlockedCall("GET /vendor/1", release, failure, calls);
+
+        Future<Object> follower = this.executor.submit(() -> this.singleFlight.execute("GET /vendor/1", () -> "ok"));
+        while (count("integration.single-flight.coalesced") < 1) {
+            Thread.sleep(5);
+        }
+        release.countDown();
+
+        ExecutionException leaderError = assertThrows(ExecutionException.class,
+            () -> leader.get(5, TimeUnit.SECONDS));
+        ExecutionException followerError = assertThrows(ExecutionException.class,
+            () -> follower.get(5, TimeUnit.SECONDS));
+        assertSame(failure, leaderError.getCause());
+        assertSame(failure, followerError.getCause());
+        assertEquals(1, calls.get());
+        assertEquals(0, this.singleFlight.getInFlight());
+    }
+
+    @Test
+    public void testWaitingCallerTimesOut() throws Exception {
+        this.singleFlight = new SingleFlight(Duration.ofMillis(50), this.meterRegistry);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<Object> leader = startBlockedCall("GET /customer/1", release, "late", new AtomicInteger());
+
+        assertThrows(ResourceAccessException.class, () -> this.singleFlight.execute("GET /customer/1", () -> "own"));
+        release.countDown();
+
+        assertEquals("late", leader.get(5, TimeUnit.SECONDS));
+        assertEquals(1.0, count("integration.single-flight.timeouts"));
+    }
+
+    @Test
+    public void testWaitingCallerUsesOwnTimeout() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        Future<Object> leader = startBlockedCall("GET /customer/1", release, "late", new AtomicInteger());
+
+        assertThrows(ResourceAccessException.class, () -> this.singleFlight.execute("GET /customer/1",
+            Duration.ofMillis(50), () -> "own", value -> value));
+        release.countDown();
+
+        assertEquals("late", leader.get(5, TimeUnit.SECONDS));
+        assertEquals(1.0, count("integration.single-flight.timeouts"));
+    }
+
+    @Test
+    public void testEveryCallerGetsOwnCopy() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> result = List.of("shared");
+        Future<List<String>> leader = this.executor.submit(() -> this.singleFlight.execute("GET /vendor/1",
+            Duration.ofSeconds(5), () -> {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return result;
+            }, ArrayList::new));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        Future<List<String>> follower = this.executor.submit(() -> this.singleFlight.execute("GET /vendor/1",
+            Duration.ofSeconds(5), () -> List.of("own"), ArrayList::new));
+        while (count("integration.single-flight.coalesced") < 1) {
+            Thread.sleep(5);
+        }
+        release.countDown();
+
+        List<String> leaderResult = leader.get(5, TimeUnit.SECONDS);
+        List<String> followerResult = follower.get(5, TimeUnit.SECONDS);
+        assertEquals(result, leaderResult);
+        assertEquals(result, followerResult);
+        assertNotSame(result, leaderResult);
+        assertNotSame(leaderResult, followerResult);
+    }
+}